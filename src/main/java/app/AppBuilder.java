@@ -1,20 +1,28 @@
 package app;
 
 import java.awt.CardLayout;
+import java.awt.Cursor;
 import java.awt.Dimension;
+import java.nio.file.Path;
 
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.WindowConstants;
 
+import data_access.CachingUserDataAccessObject;
 import data_access.DBGroupDataAccessObject;
 import data_access.DBMembershipDataAccessObject;
 import data_access.DBUserDataAccessObject;
 import data_access.DBTaskDataAccessObject;
+import data_access.GroupSnapshotCache;
+import data_access.MongoClientRegistry;
+import data_access.MongoIndexBootstrapper;
 import entity.group.GroupFactory;
 import entity.membership.MembershipFactory;
 import entity.task.TaskFactory;
 import entity.user.UserFactory;
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.ViewManagerModel;
 import interface_adapter.create_group.CreateGroupController;
 import interface_adapter.create_group.CreateGroupPresenter;
@@ -26,8 +34,9 @@ import interface_adapter.dashboard.DashboardViewModel;
 import interface_adapter.joingroup.JoinGroupController;
 import interface_adapter.joingroup.JoinGroupPresenter;
 import interface_adapter.joingroup.JoinGroupViewModel;
+import send_grid_api.EmailOutbox;
+import send_grid_api.FileOutboxStore;
 import send_grid_api.SendEmail;
-import send_grid_api.SendEmailInterface;
 import use_case.join_group.JoinGroupInputBoundary;
 import use_case.join_group.JoinGroupInteractor;
 import use_case.join_group.JoinGroupOutputBoundary;
@@ -56,6 +65,9 @@ import interface_adapter.schedule.view_schedule.ScheduleTabViewModel;
 import interface_adapter.signup.SignupController;
 import interface_adapter.signup.SignupPresenter;
 import interface_adapter.signup.SignupViewModel;
+import interface_adapter.taskstats.TaskStatsController;
+import interface_adapter.taskstats.TaskStatsPresenter;
+import interface_adapter.taskstats.TaskStatsViewModel;
 import interface_adapter.viewgrouptasks.ViewGroupTasksController;
 import interface_adapter.viewgrouptasks.ViewGroupTasksPresenter;
 import interface_adapter.viewgrouptasks.ViewGroupTasksViewModel;
@@ -69,11 +81,15 @@ import use_case.create_group.CreateGroupInputBoundary;
 import use_case.create_group.CreateGroupInteractor;
 import use_case.create_group.CreateGroupOutputBoundary;
 import use_case.creategrouptask.CreateGroupTaskInputBoundary;
+import use_case.creategrouptask.CreateGroupTaskInputData;
 import use_case.creategrouptask.CreateGroupTaskInteractor;
 import use_case.creategrouptask.CreateGroupTaskOutputBoundary;
+import use_case.creategrouptask.CreateGroupTaskOutputData;
 import use_case.editgrouptasks.EditGroupTasksInputBoundary;
+import use_case.editgrouptasks.EditGroupTasksInputData;
 import use_case.editgrouptasks.EditGroupTasksInteractor;
 import use_case.editgrouptasks.EditGroupTasksOutputBoundary;
+import use_case.editgrouptasks.EditGroupTasksOutputData;
 import use_case.login.LoginInputBoundary;
 import use_case.login.LoginInteractor;
 import use_case.login.LoginOutputBoundary;
@@ -83,6 +99,10 @@ import use_case.logout.LogoutOutputBoundary;
 import use_case.signup.SignupInputBoundary;
 import use_case.signup.SignupInteractor;
 import use_case.signup.SignupOutputBoundary;
+import use_case.taskreminder.TaskReminderScheduler;
+import use_case.taskstats.TaskStatsInputBoundary;
+import use_case.taskstats.TaskStatsInteractor;
+import use_case.taskstats.TaskStatsOutputBoundary;
 import use_case.viewgrouptasks.ViewGroupTasksInputBoundary;
 import use_case.viewgrouptasks.ViewGroupTasksInteractor;
 import use_case.viewgrouptasks.ViewGroupTasksOutputBoundary;
@@ -120,24 +140,46 @@ public class AppBuilder {
 
     private final String dbName = "group_flow";
 
+    // every DAO shares the clients (and connection pools) held by this registry
+    final MongoClientRegistry mongoClientRegistry = new MongoClientRegistry();
+
+    // recently visited groups, invalidated by every group and membership write
+    final GroupSnapshotCache groupSnapshotCache = new GroupSnapshotCache();
+
     final DBGroupDataAccessObject groupDataAccessObject =
-            new DBGroupDataAccessObject(groupFactory, membershipFactory, mongoDBConnectionString, dbName);
+            new DBGroupDataAccessObject(groupFactory, membershipFactory, mongoClientRegistry,
+                    mongoDBConnectionString, dbName, groupSnapshotCache);
 
-    final DBUserDataAccessObject userDataAccessObject =
-            new DBUserDataAccessObject(userFactory,
-            mongoDBConnectionString, dbName);
+    // repeated lookups of the same users are served from memory, writes go straight through
+    final CachingUserDataAccessObject userDataAccessObject =
+            new CachingUserDataAccessObject(
+                    new DBUserDataAccessObject(userFactory, mongoClientRegistry,
+                            mongoDBConnectionString, dbName),
+                    userFactory);
 
     final DBMembershipDataAccessObject membershipDataAccessObject =
-            new DBMembershipDataAccessObject(membershipFactory,
-                    mongoDBConnectionString, dbName);
+            new DBMembershipDataAccessObject(membershipFactory, mongoClientRegistry,
+                    mongoDBConnectionString, dbName, groupSnapshotCache);
 
     final DBTaskDataAccessObject taskDataAccessObject =
             new DBTaskDataAccessObject(
                     taskFactory,
+                    mongoClientRegistry,
                     mongoDBConnectionString,
                     dbName
             );
-    final SendEmailInterface emailer = new SendEmail();
+    // emails are enqueued in a local outbox, kept in the user's home directory rather than
+    // the working tree, and sent in the background
+    final FileOutboxStore outboxStore =
+            new FileOutboxStore(Path.of(System.getProperty("user.home"), ".groupflow", "outbox.log"));
+    final EmailOutbox emailer = new EmailOutbox(new SendEmail(), outboxStore);
+
+    // emails assignees before and after their task deadlines
+    final TaskReminderScheduler taskReminderScheduler =
+            new TaskReminderScheduler(taskDataAccessObject, userDataAccessObject, emailer);
+
+    // runs the use cases that talk to MongoDB or SendGrid off the event dispatch thread
+    final UseCaseExecutor useCaseExecutor = new UseCaseExecutor();
 
     // DAO version using a shared external database
     // final DBUserDataAccessObject userDataAccessObject = new
@@ -148,6 +190,8 @@ public class AppBuilder {
     private LoginViewModel loginViewModel;
     private LoggedInViewModel loggedInViewModel;
     private DashboardViewModel dashboardViewModel;
+    private TaskStatsViewModel taskStatsViewModel;
+    private DashboardTaskStats dashboardTaskStats;
     private CreateGroupViewModel createGroupViewModel;
     private LoggedInView loggedInView;
     private LoginView loginView;
@@ -232,7 +276,9 @@ public class AppBuilder {
      */
     public AppBuilder addDashboardView() {
         dashboardViewModel = new DashboardViewModel();
-        dashboardView = new DashboardView(dashboardViewModel, viewTasksView);
+        taskStatsViewModel = new TaskStatsViewModel();
+        dashboardTaskStats = new DashboardTaskStats(taskStatsViewModel);
+        dashboardView = new DashboardView(dashboardViewModel, viewTasksView, dashboardTaskStats);
         cardPanel.add(dashboardView, dashboardView.getViewName());
         viewSizes.put(dashboardView.getViewName(), new Dimension(1000, 600));
         return this;
@@ -245,9 +291,11 @@ public class AppBuilder {
      */
     public AppBuilder addViewTasksUseCase() {
         viewTasksViewModel = new ViewTasksViewModel();
-        ViewTasksOutputBoundary presenter = new ViewTasksPresenter(viewTasksViewModel);
-        ViewTasksInputBoundary interactor = new ViewTasksInteractor(taskDataAccessObject, presenter,
-                userDataAccessObject);
+        ViewTasksOutputBoundary presenter = useCaseExecutor.onEventThread(ViewTasksOutputBoundary.class,
+                new ViewTasksPresenter(viewTasksViewModel));
+        ViewTasksInputBoundary interactor = useCaseExecutor.async(ViewTasksInputBoundary.class,
+                new ViewTasksInteractor(taskDataAccessObject, presenter, userDataAccessObject),
+                "view_tasks");
         ViewTasksController viewTasksController = new ViewTasksController(interactor);
         viewTasksView = new ViewTasksView(viewTasksViewModel, viewTasksController);
         return this;
@@ -260,33 +308,43 @@ public class AppBuilder {
      */
     public AppBuilder addGroupTasksUseCases() {
         viewGroupTasksViewModel = new ViewGroupTasksViewModel();
-        ViewGroupTasksOutputBoundary viewPresenter =
-                new ViewGroupTasksPresenter(viewGroupTasksViewModel, viewTasksViewModel);
+        ViewGroupTasksOutputBoundary viewPresenter = useCaseExecutor.onEventThread(
+                ViewGroupTasksOutputBoundary.class,
+                new ViewGroupTasksPresenter(viewGroupTasksViewModel, viewTasksViewModel));
 
-        ViewGroupTasksInputBoundary viewInteractor =
-                new ViewGroupTasksInteractor(taskDataAccessObject, viewPresenter, groupDataAccessObject);
+        // every group tab shares one view model, so loading another group supersedes the previous load
+        ViewGroupTasksInputBoundary viewInteractor = useCaseExecutor.async(ViewGroupTasksInputBoundary.class,
+                new ViewGroupTasksInteractor(taskDataAccessObject, viewPresenter, groupDataAccessObject),
+                "view_group_tasks");
 
         ViewGroupTasksController viewController =
                 new ViewGroupTasksController(viewInteractor);
 
         editGroupTaskViewModel = new EditGroupTaskViewModel();
-        EditGroupTasksOutputBoundary editPresenter =
-                new EditGroupTaskPresenter(editGroupTaskViewModel);
+        EditGroupTasksOutputBoundary editPresenter = useCaseExecutor.onEventThread(
+                EditGroupTasksOutputBoundary.class, new EditGroupTaskPresenter(editGroupTaskViewModel));
 
-        EditGroupTasksInputBoundary editInteractor =
+        // edits of one task run in the order they were made, and a failed edit is shown like a rejected one
+        EditGroupTasksInputBoundary editInteractor = useCaseExecutor.inOrder(EditGroupTasksInputBoundary.class,
                 new EditGroupTasksInteractor(taskDataAccessObject, editPresenter, userDataAccessObject,
-                        membershipDataAccessObject);
+                        membershipDataAccessObject, taskReminderScheduler),
+                args -> ((EditGroupTasksInputData) args[0]).getTaskId(),
+                message -> editPresenter.present(new EditGroupTasksOutputData(false, message)));
 
         EditGroupTaskController editController =
                 new EditGroupTaskController(editInteractor);
 
         createGroupTasksViewModel = new CreateGroupTasksViewModel();
-        CreateGroupTaskOutputBoundary createPresenter =
-                new CreateGroupTasksPresenter(createGroupTasksViewModel);
+        CreateGroupTaskOutputBoundary createPresenter = useCaseExecutor.onEventThread(
+                CreateGroupTaskOutputBoundary.class, new CreateGroupTasksPresenter(createGroupTasksViewModel));
 
-        CreateGroupTaskInputBoundary createInteractor =
+        // a new task has no id yet, so tasks created in one group run in the order they were made
+        CreateGroupTaskInputBoundary createInteractor = useCaseExecutor.inOrder(CreateGroupTaskInputBoundary.class,
                 new CreateGroupTaskInteractor(taskDataAccessObject, createPresenter, taskFactory,
-                        userDataAccessObject, groupDataAccessObject, membershipDataAccessObject);
+                        userDataAccessObject, groupDataAccessObject, membershipDataAccessObject,
+                        taskReminderScheduler),
+                args -> ((CreateGroupTaskInputData) args[0]).getGroupId(),
+                message -> createPresenter.present(new CreateGroupTaskOutputData(false, message)));
 
         CreateGroupTasksController createController =
                 new CreateGroupTasksController(createInteractor);
@@ -302,6 +360,22 @@ public class AppBuilder {
         return this;
     }
 
+    /**
+     * Method to add the task counts to the dashboard and group home panels.
+     *
+     * @return App builder
+     */
+    public AppBuilder addTaskStatsUseCase() {
+        TaskStatsOutputBoundary presenter = useCaseExecutor.onEventThread(TaskStatsOutputBoundary.class,
+                new TaskStatsPresenter(taskStatsViewModel));
+        TaskStatsInputBoundary interactor = useCaseExecutor.async(TaskStatsInputBoundary.class,
+                new TaskStatsInteractor(taskDataAccessObject, presenter, userDataAccessObject),
+                "task_stats");
+
+        dashboardTaskStats.setTaskStatsController(new TaskStatsController(interactor));
+        return this;
+    }
+
     /**
      * Method to add the Create Group View.
      *
@@ -341,7 +415,7 @@ public class AppBuilder {
      */
     public AppBuilder addViewMembersUseCase() {
         ViewMembersControllerFactory factory =
-                new ViewMembersControllerFactory(membershipDataAccessObject);
+                new ViewMembersControllerFactory(membershipDataAccessObject, useCaseExecutor);
 
         dashboardView.setViewMembersControllerFactory(factory);
 
@@ -355,7 +429,7 @@ public class AppBuilder {
      */
     public AppBuilder addViewPendingUseCase() {
         ViewPendingControllerFactory factory =
-                new ViewPendingControllerFactory(membershipDataAccessObject);
+                new ViewPendingControllerFactory(membershipDataAccessObject, useCaseExecutor);
 
         dashboardView.setViewPendingControllerFactory(factory);
 
@@ -369,7 +443,8 @@ public class AppBuilder {
      */
     public AppBuilder addRemoveMemberUseCase() {
         RemoveMemberControllerFactory factory =
-                new RemoveMemberControllerFactory(membershipDataAccessObject);
+                new RemoveMemberControllerFactory(membershipDataAccessObject, groupDataAccessObject,
+                        useCaseExecutor);
 
         dashboardView.setRemoveMemberControllerFactory(factory);
 
@@ -383,7 +458,8 @@ public class AppBuilder {
      */
     public AppBuilder addRespondRequestUseCase() {
         RespondRequestControllerFactory factory =
-                new RespondRequestControllerFactory(membershipDataAccessObject);
+                new RespondRequestControllerFactory(membershipDataAccessObject, groupDataAccessObject,
+                        useCaseExecutor);
 
         dashboardView.setRespondRequestControllerFactory(factory);
 
@@ -397,7 +473,7 @@ public class AppBuilder {
      */
     public AppBuilder addUpdateRoleUseCase() {
         UpdateRoleControllerFactory factory =
-                new UpdateRoleControllerFactory(membershipDataAccessObject);
+                new UpdateRoleControllerFactory(membershipDataAccessObject, useCaseExecutor);
 
         dashboardView.setUpdateRoleControllerFactory(factory);
 
@@ -428,8 +504,9 @@ public class AppBuilder {
     public AppBuilder addLoginUseCase() {
         final LoginOutputBoundary loginOutputBoundary = new LoginPresenter(viewManagerModel,
                 dashboardViewModel, loginViewModel, signupViewModel, viewTasksViewModel);
+        // task reminders are sent for the groups of the user who logged in
         final LoginInputBoundary loginInteractor = new LoginInteractor(
-                userDataAccessObject, groupDataAccessObject, loginOutputBoundary);
+                userDataAccessObject, groupDataAccessObject, loginOutputBoundary, taskReminderScheduler);
 
         final LoginController loginController = new LoginController(loginInteractor);
         loginView.setLoginController(loginController);
@@ -442,10 +519,12 @@ public class AppBuilder {
      * @return App Builder
      */
     public AppBuilder addJoinGroupUseCase() {
-        final JoinGroupOutputBoundary joinGroupOutputBoundary =
-                new JoinGroupPresenter(joinGroupViewModel, dashboardViewModel, viewManagerModel);
+        final JoinGroupOutputBoundary joinGroupOutputBoundary = useCaseExecutor.onEventThread(
+                JoinGroupOutputBoundary.class,
+                new JoinGroupPresenter(joinGroupViewModel, dashboardViewModel, viewManagerModel));
 
-        final JoinGroupInputBoundary joinGroupInteractor =
+        final JoinGroupInputBoundary joinGroupInteractor = useCaseExecutor.async(
+                JoinGroupInputBoundary.class,
                 new JoinGroupInteractor(
                         joinGroupOutputBoundary,
                         groupDataAccessObject,
@@ -453,7 +532,9 @@ public class AppBuilder {
                         membershipDataAccessObject,
                         membershipFactory,
                         emailer
-                );
+                ),
+                null,
+                joinGroupOutputBoundary::prepareFailView);
 
         final JoinGroupController joinGroupController =
                 new JoinGroupController(joinGroupInteractor);
@@ -543,6 +624,44 @@ public class AppBuilder {
         application.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         application.setContentPane(cardPanel);
 
+        // connect to MongoDB, backfill old tasks and create any missing indexes while the UI
+        // is being laid out, and release the pool on exit
+        final Thread warmUp = new Thread(() -> {
+            if (mongoClientRegistry.warmUp(mongoDBConnectionString)) {
+                final MongoIndexBootstrapper bootstrapper = new MongoIndexBootstrapper(
+                        mongoClientRegistry.getDatabase(mongoDBConnectionString, dbName));
+                bootstrapper.backfillCompleted();
+                bootstrapper.ensureIndexes();
+            }
+        }, "mongo-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
+        // emails still pending stay in the outbox log and are sent on the next start
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                emailer.shutdown();
+                outboxStore.close();
+            } finally {
+                mongoClientRegistry.close();
+            }
+        }, "shutdown"));
+
+        // a use case without a failure handler of its own reports its error in a dialog
+        useCaseExecutor.setFailureHandler(message -> {
+            JOptionPane.showMessageDialog(application, message, "Something went wrong", JOptionPane.ERROR_MESSAGE);
+        });
+
+        // show a busy cursor while any use case is still waiting on the network
+        useCaseExecutor.addPropertyChangeListener(evt -> {
+            if (UseCaseExecutor.LOADING_PROPERTY.equals(evt.getPropertyName())) {
+                if (Boolean.TRUE.equals(evt.getNewValue())) {
+                    application.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+                } else {
+                    application.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+                }
+            }
+        });
+
         // when view changes, set preferred size for that view and pack
         viewManagerModel.addPropertyChangeListener(evt -> {
             if ("state".equals(evt.getPropertyName())) {
@@ -0,0 +1,140 @@
+package data_access;
+
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.Binary;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reading and writing helpers shared by the entity codecs.
+ * Every read method accepts a BSON null in place of the value.
+ */
+final class BsonFields {
+
+    private BsonFields() {
+    }
+
+    static String readString(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return reader.readString();
+    }
+
+    static boolean readBoolean(BsonReader reader, boolean defaultValue) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return defaultValue;
+        }
+        return reader.readBoolean();
+    }
+
+    static long readLong(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DOUBLE:
+                return (long) reader.readDouble();
+            default:
+                reader.skipValue();
+                return 0L;
+        }
+    }
+
+    static List<String> readStringList(BsonReader reader) {
+        final List<String> result = new ArrayList<>();
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return result;
+        }
+
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            final String value = readString(reader);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        reader.readEndArray();
+        return result;
+    }
+
+    static LocalDateTime readDateTime(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+    }
+
+    /**
+     * Reads a schedule field as the value {@link ScheduleCodec} expects: a
+     * {@link Binary} for the current format, nested lists for the legacy one.
+     *
+     * @param reader the reader, positioned at the value of the field
+     * @return the schedule value, or null if the field is null
+     */
+    static Object readSchedule(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case NULL:
+                reader.readNull();
+                return null;
+            case BINARY:
+                return new Binary(reader.readBinaryData().getData());
+            default:
+                return readLegacyValue(reader);
+        }
+    }
+
+    static void writeStringList(BsonWriter writer, String name, List<String> values) {
+        writer.writeStartArray(name);
+        for (String value : values) {
+            writer.writeString(value);
+        }
+        writer.writeEndArray();
+    }
+
+    static void writeDateTime(BsonWriter writer, String name, LocalDateTime dateTime) {
+        writer.writeDateTime(name, dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    static void writeBinary(BsonWriter writer, String name, Binary binary) {
+        writer.writeBinaryData(name, new BsonBinary(binary.getData()));
+    }
+
+    private static Object readLegacyValue(BsonReader reader) {
+        switch (reader.getCurrentBsonType()) {
+            case ARRAY:
+                final List<Object> values = new ArrayList<>();
+                reader.readStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    values.add(readLegacyValue(reader));
+                }
+                reader.readEndArray();
+                return values;
+            case BOOLEAN:
+                return reader.readBoolean();
+            case INT32:
+                return reader.readInt32();
+            case INT64:
+                return reader.readInt64();
+            case DOUBLE:
+                return reader.readDouble();
+            case NULL:
+                reader.readNull();
+                return null;
+            default:
+                throw new IllegalArgumentException("Unrecognised schedule value: " + reader.getCurrentBsonType());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package data_access;
+
+import entity.user.User;
+import entity.user.UserFactory;
+import use_case.change_password.ChangePasswordUserDataAccessInterface;
+import use_case.create_group.CreateGroupUserDataAccessInterface;
+import use_case.create_schedule.CreateScheduleUserDataAccessInterface;
+import use_case.creategrouptask.CreateGroupTaskUserDataAccessInterface;
+import use_case.editgrouptasks.EditGroupTasksUserDataAccessInterface;
+import use_case.join_group.JoinGroupUserDataAccessInterface;
+import use_case.login.LoginUserDataAccessInterface;
+import use_case.logout.LogoutUserDataAccessInterface;
+import use_case.signup.SignupUserDataAccessInterface;
+import use_case.taskreminder.TaskReminderUserDataAccessInterface;
+import use_case.taskstats.TaskStatsUserDataAccessInterface;
+import use_case.viewtasks.ViewTasksUserDataAccessInterface;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-through cache in front of {@link DBUserDataAccessObject}.
+ *
+ * <p>
+ * Users read with {@link #get} and {@link #getUsers} are kept in an
+ * {@link LruTtlCache}, so a workflow that looks up the same users several times
+ * only pays for the first round trip. Every write goes straight to the database
+ * and then invalidates the users it touched.
+ * </p>
+ *
+ * <p>
+ * The cache holds copies of the user data and every read builds a new
+ * {@link User}, so an interactor that changes a user without saving it cannot
+ * change what later reads return, exactly as if each read went to the database.
+ * </p>
+ */
+public class CachingUserDataAccessObject implements SignupUserDataAccessInterface,
+        LoginUserDataAccessInterface,
+        ChangePasswordUserDataAccessInterface,
+        LogoutUserDataAccessInterface,
+        CreateGroupUserDataAccessInterface,
+        JoinGroupUserDataAccessInterface,
+        ViewTasksUserDataAccessInterface,
+        TaskStatsUserDataAccessInterface,
+        TaskReminderUserDataAccessInterface,
+        CreateGroupTaskUserDataAccessInterface,
+        EditGroupTasksUserDataAccessInterface,
+        CreateScheduleUserDataAccessInterface {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+    public static final long DEFAULT_TTL_SECONDS = 30;
+
+    private final DBUserDataAccessObject delegate;
+    private final UserFactory userFactory;
+    private final LruTtlCache<String, CachedUser> cache;
+
+    /**
+     * Constructs a cache with the default size and time to live.
+     *
+     * @param delegate    the data access object that reads and writes MongoDB
+     * @param userFactory a factory for creating {@link User} entities
+     */
+    public CachingUserDataAccessObject(DBUserDataAccessObject delegate, UserFactory userFactory) {
+        this(delegate, userFactory,
+                new LruTtlCache<>(DEFAULT_MAX_SIZE, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Constructs a cache backed by the given {@link LruTtlCache}.
+     *
+     * @param delegate    the data access object that reads and writes MongoDB
+     * @param userFactory a factory for creating {@link User} entities
+     * @param cache       the cache to keep users in
+     */
+    public CachingUserDataAccessObject(DBUserDataAccessObject delegate, UserFactory userFactory,
+                                       LruTtlCache<String, CachedUser> cache) {
+        this.delegate = delegate;
+        this.userFactory = userFactory;
+        this.cache = cache;
+    }
+
+    /**
+     * Retrieves a user by username, from the cache if possible.
+     *
+     * @param username The username of the user to retrieve.
+     * @return A {@link User} object if found.
+     * @throws RuntimeException If no user with the given username exists.
+     */
+    @Override
+    public User get(String username) {
+        final CachedUser cached = cache.get(username);
+        if (cached != null) {
+            return cached.toUser(userFactory);
+        }
+
+        final long stamp = cache.stamp();
+        final User user = delegate.get(username);
+        cache.put(username, new CachedUser(user), stamp);
+        return user;
+    }
+
+    /**
+     * Retrieves the users with the given usernames.
+     * Cached users are served from memory and the rest are read with one query.
+     *
+     * @param usernames The usernames of the users to retrieve.
+     * @return The users that were found; unknown usernames are skipped.
+     */
+    @Override
+    public List<User> getUsers(Collection<String> usernames) {
+        final List<User> result = new ArrayList<>();
+        final Set<String> missing = new LinkedHashSet<>();
+        for (String username : usernames) {
+            final CachedUser cached = cache.get(username);
+            if (cached != null) {
+                result.add(cached.toUser(userFactory));
+            } else {
+                missing.add(username);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        final long stamp = cache.stamp();
+        for (User user : delegate.getUsers(missing)) {
+            cache.put(user.getName(), new CachedUser(user), stamp);
+            result.add(user);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean existsByName(String username) {
+        return cache.get(username) != null || delegate.existsByName(username);
+    }
+
+    @Override
+    public void save(User user) {
+        try {
+            delegate.save(user);
+        } finally {
+            cache.invalidate(user.getName());
+        }
+    }
+
+    @Override
+    public void changePassword(User user) {
+        try {
+            delegate.changePassword(user);
+        } finally {
+            cache.invalidate(user.getName());
+        }
+    }
+
+    @Override
+    public boolean[][] saveSchedule(User user) {
+        try {
+            return delegate.saveSchedule(user);
+        } finally {
+            cache.invalidate(user.getName());
+        }
+    }
+
+    @Override
+    public void updateTaskAssignments(String taskID, Collection<String> added, Collection<String> removed) {
+        try {
+            delegate.updateTaskAssignments(taskID, added, removed);
+        } finally {
+            for (String username : added) {
+                cache.invalidate(username);
+            }
+            for (String username : removed) {
+                cache.invalidate(username);
+            }
+        }
+    }
+
+    @Override
+    public void setCurrentUsername(String name) {
+        delegate.setCurrentUsername(name);
+    }
+
+    @Override
+    public String getCurrentUsername() {
+        return delegate.getCurrentUsername();
+    }
+
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    /**
+     * An immutable copy of the stored fields of a user.
+     */
+    public static final class CachedUser {
+        private final String name;
+        private final String email;
+        private final String password;
+        private final boolean[][] schedule;
+        private final List<String> tasks;
+
+        CachedUser(User user) {
+            this.name = user.getName();
+            this.email = user.getEmail();
+            this.password = user.getPassword();
+            this.schedule = copy(user.getSchedule());
+            this.tasks = List.copyOf(user.getTasks());
+        }
+
+        User toUser(UserFactory userFactory) {
+            final User user = userFactory.create(name, email, password);
+            user.setSchedule(copy(schedule));
+            user.getTasks().addAll(tasks);
+            return user;
+        }
+
+        private static boolean[][] copy(boolean[][] schedule) {
+            final boolean[][] result = new boolean[schedule.length][];
+            for (int i = 0; i < schedule.length; i++) {
+                result[i] = schedule[i].clone();
+            }
+            return result;
+        }
+    }
+}
@@ -1,29 +1,55 @@
 package data_access;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
 import com.mongodb.MongoWriteException;
 import com.mongodb.client.*;
+import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.result.UpdateResult;
 
 import entity.group.Group;
 import entity.group.GroupFactory;
+import entity.group.GroupSummary;
 import entity.group.GroupType;
 import entity.membership.Membership;
 import entity.membership.MembershipFactory;
-import entity.user.UserRole;
+import entity.task.TaskFactory;
+import entity.user.UserFactory;
 import use_case.create_group.CreateGroupDataAccessInterface;
 import use_case.join_group.JoinGroupDataAccessInterface;
 import use_case.create_schedule.CreateScheduleGroupDataAccessInterface;
 import use_case.creategrouptask.CreateGroupTaskGroupDataAccessInterface;
 import use_case.login.LoginGroupsDataAccessInterface;
+import use_case.manage_members.remove_member.RemoveMemberGroupDataAccessInterface;
+import use_case.manage_members.respond_request.RespondRequestGroupDataAccessInterface;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.Binary;
 import use_case.viewgrouptasks.ViewGroupTasksGroupDataAccessInterface;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
+import static com.mongodb.client.model.Accumulators.sum;
+import static com.mongodb.client.model.Aggregates.group;
+import static com.mongodb.client.model.Aggregates.match;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Indexes.ascending;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.push;
 import static com.mongodb.client.model.Updates.set;
 
 /**
@@ -40,54 +66,121 @@ public class DBGroupDataAccessObject implements
         JoinGroupDataAccessInterface,
         CreateGroupTaskGroupDataAccessInterface,
         ViewGroupTasksGroupDataAccessInterface,
-        CreateScheduleGroupDataAccessInterface {
+        CreateScheduleGroupDataAccessInterface,
+        RespondRequestGroupDataAccessInterface,
+        RemoveMemberGroupDataAccessInterface {
+
+    private static final String GROUPS_COLLECTION = "groups";
+    private static final String MEMBERSHIPS_COLLECTION = "memberships";
 
     private static final String GROUP_NAME = "name";
     private static final String GROUP_CODE = "joinCode";
     private static final String GROUP_TYPE = "type";
     private static final String SCHEDULE = "groupSchedule";
+    private static final String SCHEDULE_VERSION = "scheduleVersion";
+    private static final String SCHEDULE_STALE = "scheduleStale";
+    private static final String GROUP_TASKS = "tasks";
+    static final String GROUP_VERSION = "version";
 
     private static final String MEMBERSHIP_GROUP_NAME_FIELD = "group";
     private static final String MEMBERSHIP_USERNAME_FIELD = "user";
-    private static final String MEMBERSHIP_ROLE_FIELD = "role";
     private static final String MEMBERSHIP_APPROVED_FIELD = "approved";
 
+    private static final String GROUP_NOT_FOUND = "Group not found ";
     private static final String JOIN_CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int JOIN_CODE_LENGTH = 6;
+    private static final int MAX_JOIN_CODE_ATTEMPTS = 10;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_SCHEDULE_UPDATE_ATTEMPTS = 10;
 
-    private final GroupFactory groupFactory;
-    private final MembershipFactory membershipFactory;
-    private final MongoClient mongoClient;
-    private final MongoDatabase database;
     private final MongoCollection<Document> groupsCollection;
+    private final GroupSnapshotCache snapshots;
+
+    // reads decode straight into entities or raw BSON, see EntityCodecProvider
+    private final MongoCollection<Group> groups;
+    private final MongoCollection<Membership> memberships;
+    private final MongoCollection<RawBsonDocument> rawGroups;
+    private final MongoCollection<RawBsonDocument> rawMemberships;
+    private final Codec<Group> groupCodec;
+    private final Codec<Membership> membershipCodec;
 
+    // set on the event dispatch thread and read by the use case workers, so guarded by this
     private String currentGroupID;
 
+    // guarded by this
+    private boolean joinCodeIndexChecked;
+
     /**
      * Note: this DAO also reads from the "memberships" collection in order to
-     * implement getGroupsForUser. In a more separated design, memberships
-     * could be handled by a dedicated Membership DAO instead.
+     * implement getGroupsForUser and getGroupSummariesForUser. In a more separated design,
+     * memberships could be handled by a dedicated Membership DAO instead.
      */
     private final MongoCollection<Document> membershipsCollection;
 
-    private final SecureRandom random = new SecureRandom();
+    private final Supplier<String> joinCodeSupplier;
 
     /**
-     * Constructs a DBGroupDataAccessObject and initializes a MongoDB client,
-     * database reference, and "groups" collection.
+     * Constructs a DBGroupDataAccessObject and initializes the database reference
+     * and "groups" collection using the shared client from the registry.
      *
      * @param groupFactory      A factory for creating Group entities.
      * @param membershipFactory A factory for creating Membership entities.
+     * @param clientRegistry    The registry providing the shared MongoDB client.
      * @param connectionString  The MongoDB connection string.
      * @param dbName            The name of the database to use.*/
     public DBGroupDataAccessObject(GroupFactory groupFactory, MembershipFactory membershipFactory,
-                                   String connectionString, String dbName) {
-        this.groupFactory = groupFactory;
-        this.membershipFactory = membershipFactory;
-        this.mongoClient = MongoClients.create(connectionString);
-        this.database = mongoClient.getDatabase(dbName);
-        this.groupsCollection = database.getCollection("groups");
-        this.membershipsCollection = database.getCollection("memberships");
+                                   MongoClientRegistry clientRegistry, String connectionString, String dbName) {
+        this(groupFactory, membershipFactory, clientRegistry, connectionString, dbName, new GroupSnapshotCache());
+    }
+
+    /**
+     * Constructs a DBGroupDataAccessObject that shares its group snapshots with
+     * other DAOs, so their writes invalidate the snapshots this DAO serves.
+     *
+     * @param groupFactory      A factory for creating Group entities.
+     * @param membershipFactory A factory for creating Membership entities.
+     * @param clientRegistry    The registry providing the shared MongoDB client.
+     * @param connectionString  The MongoDB connection string.
+     * @param dbName            The name of the database to use.
+     * @param snapshots         The cache of recently read groups.
+     */
+    public DBGroupDataAccessObject(GroupFactory groupFactory, MembershipFactory membershipFactory,
+                                   MongoClientRegistry clientRegistry, String connectionString, String dbName,
+                                   GroupSnapshotCache snapshots) {
+        this(groupFactory, membershipFactory, clientRegistry, connectionString, dbName, snapshots,
+                DBGroupDataAccessObject::generateRandomJoinCode);
+    }
+
+    /**
+     * Constructs a DBGroupDataAccessObject that draws the join codes of new groups
+     * from the given supplier instead of generating random ones.
+     *
+     * @param groupFactory      A factory for creating Group entities.
+     * @param membershipFactory A factory for creating Membership entities.
+     * @param clientRegistry    The registry providing the shared MongoDB client.
+     * @param connectionString  The MongoDB connection string.
+     * @param dbName            The name of the database to use.
+     * @param snapshots         The cache of recently read groups.
+     * @param joinCodeSupplier  The source of candidate join codes.
+     */
+    public DBGroupDataAccessObject(GroupFactory groupFactory, MembershipFactory membershipFactory,
+                                   MongoClientRegistry clientRegistry, String connectionString, String dbName,
+                                   GroupSnapshotCache snapshots, Supplier<String> joinCodeSupplier) {
+        final MongoDatabase database = clientRegistry.getDatabase(connectionString, dbName);
+        this.groupsCollection = database.getCollection(GROUPS_COLLECTION);
+        this.membershipsCollection = database.getCollection(MEMBERSHIPS_COLLECTION);
+        this.snapshots = snapshots;
+        this.joinCodeSupplier = joinCodeSupplier;
+
+        final CodecRegistry codecRegistry = new EntityCodecProvider(new TaskFactory(), membershipFactory,
+                new UserFactory(), groupFactory).registry();
+        this.groups = database.getCollection(GROUPS_COLLECTION, Group.class).withCodecRegistry(codecRegistry);
+        this.memberships = database.getCollection(MEMBERSHIPS_COLLECTION, Membership.class)
+                .withCodecRegistry(codecRegistry);
+        this.rawGroups = database.getCollection(GROUPS_COLLECTION, RawBsonDocument.class);
+        this.rawMemberships = database.getCollection(MEMBERSHIPS_COLLECTION, RawBsonDocument.class);
+        this.groupCodec = codecRegistry.get(Group.class);
+        this.membershipCodec = codecRegistry.get(Membership.class);
     }
 
     /**
@@ -97,42 +190,68 @@ public class DBGroupDataAccessObject implements
      * Note: this method only stores the group itself.
      * Any membership creation, including assigning the creator as moderator,
      * is handled by the Create Group use case through the Membership DAO.
+     * A code that is already taken is rejected by the unique index on joinCode, and
+     * the insert is retried with a new code, so a save normally takes one write.
+     * Before the first save the index is created if it is missing, since
+     * MongoIndexBootstrapper builds it in the background and may not have finished.
      * @param group the Group entity to save
+     * @throws RuntimeException if the group could not be inserted, or the join codes
+     *                          stored so far are not unique
      **/
     @Override
     public void save(Group group) {
-        // Generate a unique 6 character join code
-        String joinCode = generateUniqueJoinCode();
-
-        // We use the join code as the group identifier in the database.
-        group.setGroupId(joinCode);
-        List<List<Integer>> dbSchedule = convertScheduleToDB(group.getMasterSchedule());
-
-        Document doc = new Document()
-                .append(GROUP_NAME, group.getName())
-                .append(GROUP_CODE, joinCode)
-                .append(GROUP_TYPE, group.getGroupType().name())
-                .append(SCHEDULE, dbSchedule);
-
-        try {
-            groupsCollection.insertOne(doc);
-        } catch (MongoWriteException mwe) {
-            throw new RuntimeException("Failed to save group: " + mwe.getMessage(), mwe);
+        ensureJoinCodeIndex();
+        Binary dbSchedule = ScheduleCodec.encodeCounts(group.getMasterSchedule());
+
+        for (int attempt = 1; attempt <= MAX_JOIN_CODE_ATTEMPTS; attempt++) {
+            String joinCode = joinCodeSupplier.get();
+            Document doc = new Document()
+                    .append(GROUP_NAME, group.getName())
+                    .append(GROUP_CODE, joinCode)
+                    .append(GROUP_TYPE, group.getGroupType().name())
+                    .append(SCHEDULE, dbSchedule);
+
+            try {
+                groupsCollection.insertOne(doc);
+                // We use the join code as the group identifier in the database.
+                group.setGroupId(joinCode);
+                return;
+            } catch (MongoWriteException mwe) {
+                if (mwe.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    throw new RuntimeException("Failed to save group: " + mwe.getMessage(), mwe);
+                }
+            }
         }
+        throw new RuntimeException("Failed to save group: no free join code after "
+                + MAX_JOIN_CODE_ATTEMPTS + " attempts");
     }
 
-    private String generateUniqueJoinCode() {
-        String code;
-        do {
-            code = generateRandomJoinCode();
-        } while (groupCodeExists(code));
-        return code;
+    /**
+     * Creates the unique index on joinCode the first time a group is saved. Creating
+     * an index that already exists is a no-op, so this costs one command per run.
+     *
+     * @throws RuntimeException if the index cannot be created
+     */
+    private synchronized void ensureJoinCodeIndex() {
+        if (joinCodeIndexChecked) {
+            return;
+        }
+        try {
+            groupsCollection.createIndex(ascending(GROUP_CODE), new IndexOptions().unique(true));
+        } catch (MongoException ex) {
+            throw new RuntimeException("Failed to save group: join codes are not unique: " + ex.getMessage(), ex);
+        }
+        joinCodeIndexChecked = true;
     }
 
-    private String generateRandomJoinCode() {
+    /**
+     * Generates a random join code. The code is not guaranteed to be free.
+     * @return a random 6 character join code
+     */
+    private static String generateRandomJoinCode() {
         StringBuilder sb = new StringBuilder(JOIN_CODE_LENGTH);
         for (int i = 0; i < JOIN_CODE_LENGTH; i++) {
-            int idx = random.nextInt(JOIN_CODE_CHARS.length());
+            int idx = RANDOM.nextInt(JOIN_CODE_CHARS.length());
             sb.append(JOIN_CODE_CHARS.charAt(idx));
         }
         return sb.toString();
@@ -151,166 +270,318 @@ public class DBGroupDataAccessObject implements
      * Retrieves all groups that a given user belongs to.
      * This method looks up the memberships collection to find all entries
      * where the membership's "user" field matches the provided username.
-     * For each membership, the corresponding group document is loaded
-     * and converted into a Group entity through the GroupFactory.
+     * The corresponding group documents and all of their memberships are then
+     * loaded with one batched query each, so the whole lookup costs three
+     * queries regardless of how many groups the user is in.
      * @param username the username whose group memberships are requested
      * @return a list of Group entities the user is a member of
      **/
-    @Override
     public List<Group> getGroupsForUser(String username) {
         List<Group> result = new ArrayList<>();
 
-        // For now, this DAO also looks into the memberships collection so we can
-        // answer "which groups does this user belong to".
-        // If needed, this could be moved into a Membership DAO and composed in an interactor.
-        for (Document membershipDoc : membershipsCollection.find(
-                and(eq("user", username), eq("approved", true)))) {
+        List<String> joinCodes = findApprovedJoinCodes(username);
+        if (joinCodes.isEmpty()) {
+            return result;
+        }
 
-            String joinCode = membershipDoc.getString(MEMBERSHIP_GROUP_NAME_FIELD);
-            if (joinCode == null) {
-                continue;
+        Map<String, Group> groupsByCode = new HashMap<>();
+        for (Group group : groups.find(in(GROUP_CODE, joinCodes))) {
+            groupsByCode.put(group.getGroupID(), group);
+        }
+
+        for (Membership membership : memberships.find(in(MEMBERSHIP_GROUP_NAME_FIELD, joinCodes))) {
+            Group group = groupsByCode.get(membership.getGroup());
+            if (group != null) {
+                group.addMembership(membership);
+            }
+        }
+
+        // keep the order in which the memberships were returned
+        for (String joinCode : joinCodes) {
+            Group group = groupsByCode.get(joinCode);
+            if (group != null) {
+                result.add(group);
             }
+        }
+
+        return result;
+    }
+
+    /**
+     * Retrieves a summary of every group that a given user is an approved member of.
+     * Unlike getGroupsForUser, this never loads the group schedules or the other
+     * users' membership documents: the group documents are read with a projection
+     * and the member counts are computed by the database.
+     * @param username the username whose group memberships are requested
+     * @return a list of summaries of the groups the user is a member of
+     **/
+    @Override
+    public List<GroupSummary> getGroupSummariesForUser(String username) {
+        List<GroupSummary> result = new ArrayList<>();
+
+        List<String> joinCodes = findApprovedJoinCodes(username);
+        if (joinCodes.isEmpty()) {
+            return result;
+        }
+
+        Map<String, Document> groupDocs = new HashMap<>();
+        for (Document groupDoc : groupsCollection.find(in(GROUP_CODE, joinCodes))
+                .projection(include(GROUP_NAME, GROUP_CODE, GROUP_TYPE))) {
+            groupDocs.put(groupDoc.getString(GROUP_CODE), groupDoc);
+        }
 
-            // Look up the group with this join code
-            Document groupDoc = groupsCollection
-                    .find(eq(GROUP_CODE, joinCode))
-                    .first();
+        Map<String, Integer> memberCounts = new HashMap<>();
+        for (Document countDoc : membershipsCollection.aggregate(Arrays.asList(
+                match(and(in(MEMBERSHIP_GROUP_NAME_FIELD, joinCodes), eq(MEMBERSHIP_APPROVED_FIELD, true))),
+                group("$" + MEMBERSHIP_GROUP_NAME_FIELD, sum("count", 1))))) {
+            memberCounts.put(countDoc.getString("_id"), countDoc.getInteger("count", 0));
+        }
 
+        // keep the order in which the memberships were returned
+        for (String joinCode : joinCodes) {
+            Document groupDoc = groupDocs.get(joinCode);
             if (groupDoc == null) {
                 continue;
             }
 
-            result.add(extractGroupFromDocument(groupDoc));
+            result.add(new GroupSummary(
+                    joinCode,
+                    groupDoc.getString(GROUP_NAME),
+                    GroupType.valueOf(groupDoc.getString(GROUP_TYPE)),
+                    memberCounts.getOrDefault(joinCode, 0)));
         }
 
         return result;
     }
 
+    /**
+     * Returns the join codes of every group the given user is an approved member of,
+     * in the order the memberships are stored.
+     * @param username the username whose approved memberships are looked up
+     * @return the join codes of the user's groups
+     */
+    private List<String> findApprovedJoinCodes(String username) {
+        // For now, this DAO also looks into the memberships collection so we can
+        // answer "which groups does this user belong to".
+        // If needed, this could be moved into a Membership DAO and composed in an interactor.
+        List<String> joinCodes = new ArrayList<>();
+        for (Document membershipDoc : membershipsCollection.find(
+                and(eq(MEMBERSHIP_USERNAME_FIELD, username), eq(MEMBERSHIP_APPROVED_FIELD, true)))
+                .projection(include(MEMBERSHIP_GROUP_NAME_FIELD))) {
+
+            String joinCode = membershipDoc.getString(MEMBERSHIP_GROUP_NAME_FIELD);
+            if (joinCode != null) {
+                joinCodes.add(joinCode);
+            }
+        }
+        return joinCodes;
+    }
+
     /**
      * Retrieves the Group object associated with the given `groupID`.
+     * A recently read group is built from its cached snapshot without querying the
+     * database, and the snapshot is revalidated against the group's version in the
+     * background, so a change made by another client shows up on a later read.
      * @param groupID the unique ID of the group to retrieve.
      * @return the Group object in the database with the given `groupID`.
      * @throws RuntimeException if there exists no group with the given ID.
      */
     @Override
     public Group getGroup(String groupID) throws RuntimeException {
-        final Document groupDoc = groupsCollection.find(eq(GROUP_CODE, groupID)).first();
+        final GroupSnapshotCache.Snapshot cached = snapshots.get(groupID);
+        if (cached != null) {
+            snapshots.revalidate(groupID, () -> revalidate(cached));
+            return buildGroup(cached.getGroupDoc(), cached.getMembershipDocs());
+        }
+
+        final long stamp = snapshots.stamp();
+        final GroupSnapshotCache.Snapshot snapshot = loadSnapshot(groupID);
+        snapshots.put(snapshot, stamp);
+        return buildGroup(snapshot.getGroupDoc(), snapshot.getMembershipDocs());
+    }
+
+    /**
+     * Reloads the snapshot of a group if its version no longer matches the stored one.
+     * @param cached the snapshot that was served
+     */
+    private void revalidate(GroupSnapshotCache.Snapshot cached) {
+        final String groupID = cached.getGroupID();
+        final long stamp = snapshots.stamp();
+        final RawBsonDocument versionDoc = rawGroups.find(eq(GROUP_CODE, groupID))
+                .projection(include(GROUP_VERSION))
+                .first();
+
+        if (versionDoc == null) {
+            snapshots.invalidate(groupID);
+        } else if (versionOf(versionDoc) != cached.getVersion()) {
+            snapshots.put(loadSnapshot(groupID), stamp);
+        }
+    }
+
+    /**
+     * Reads a group document and all of its membership documents as raw BSON.
+     * @param groupID the unique ID of the group to read.
+     * @return the snapshot of the group
+     * @throws RuntimeException if there exists no group with the given ID.
+     */
+    private GroupSnapshotCache.Snapshot loadSnapshot(String groupID) {
+        final RawBsonDocument groupDoc = rawGroups.find(eq(GROUP_CODE, groupID)).first();
 
         if (groupDoc == null) {
             throw new RuntimeException(String.format("No group with ID [%s] exists.", groupID));
         }
 
-        return extractGroupFromDocument(groupDoc);
+        final List<RawBsonDocument> membershipDocs = rawMemberships
+                .find(eq(MEMBERSHIP_GROUP_NAME_FIELD, groupID))
+                .into(new ArrayList<>());
+        return new GroupSnapshotCache.Snapshot(groupID, versionOf(groupDoc), groupDoc, membershipDocs);
+    }
 
+    private static long versionOf(BsonDocument groupDoc) {
+        final BsonValue version = groupDoc.get(GROUP_VERSION);
+        if (version == null || !version.isNumber()) {
+            return 0L;
+        }
+        return version.asNumber().longValue();
     }
 
-    @Override public void setCurrentGroupID(String groupID) {
+    @Override public synchronized void setCurrentGroupID(String groupID) {
         currentGroupID = groupID;
     }
 
     @Override
-    public String getCurrentGroupID() {
+    public synchronized String getCurrentGroupID() {
         return currentGroupID;
     }
 
+    /**
+     * Replaces the stored master schedule of a group and marks it as built, so
+     * later edits can be applied with applyScheduleDelta.
+     * @param group the group with the updated schedule
+     * @throws RuntimeException if the group does not exist
+     */
     @Override
     public void saveMasterSchedule(Group group) {
         final int[][] groupSchedule = group.getMasterSchedule();
         final UpdateResult result = groupsCollection.updateOne(
                 eq(GROUP_CODE, group.getGroupID()),
-                set(SCHEDULE, convertScheduleToDB(groupSchedule)));
+                combine(set(SCHEDULE, ScheduleCodec.encodeCounts(groupSchedule)), set(SCHEDULE_STALE, false),
+                        inc(SCHEDULE_VERSION, 1), inc(GROUP_VERSION, 1)));
+        snapshots.invalidate(group.getGroupID());
 
         if (result.getMatchedCount() == 0) {
-            throw new RuntimeException("Group not found " + group.getGroupID());
+            throw new RuntimeException(GROUP_NOT_FOUND + group.getGroupID());
         }
     }
 
     /**
-     * Extracts a Group object from a MongoDB document.
-     *
-     * @param groupDoc The MongoDB document containing group data.
-     * @return A Group object created from the document data.
+     * Appends a task to the task list of a group with a single $push, so creating
+     * a task neither loads the group nor writes the rest of its document.
+     * @param groupID id of the group
+     * @param taskID id of the task to add
+     * @throws RuntimeException if the group does not exist
      */
-    private Group extractGroupFromDocument(Document groupDoc) {
-        String name = groupDoc.getString(GROUP_NAME);
-        String joinCode = groupDoc.getString(GROUP_CODE);
-        String typeStr = groupDoc.getString(GROUP_TYPE);
-        GroupType groupType = GroupType.valueOf(typeStr);
-
-        // supress unchecked type warning for casting
-        @SuppressWarnings("unchecked")
-        List<List<Integer>> schedule = (List<List<Integer>>) groupDoc.get(SCHEDULE);
-
-        int[][] masterSchedule = convertToArrayFromDB(schedule);
-        Group group = groupFactory.create(name, joinCode, groupType);
-        group.setMasterSchedule(masterSchedule);
-
-        FindIterable<Document> membershipDocs = membershipsCollection.find(
-                eq(MEMBERSHIP_GROUP_NAME_FIELD, joinCode)
-        );
-
-        addMembersToGroup(membershipDocs, group);
+    @Override
+    public void addTask(String groupID, String taskID) {
+        final UpdateResult result = groupsCollection.updateOne(
+                eq(GROUP_CODE, groupID),
+                combine(push(GROUP_TASKS, taskID), inc(GROUP_VERSION, 1)));
+        snapshots.invalidate(groupID);
 
-        return group;
+        if (result.getMatchedCount() == 0) {
+            throw new RuntimeException(GROUP_NOT_FOUND + groupID);
+        }
     }
 
     /**
-     * Adds members to a Group object based on membership documents.
-     *
-     * @param membershipDocs The MongoDB documents containing membership data.
-     * @param group          The Group object to add members to.
+     * Returns the stored master schedule, unless it was invalidated since it was last
+     * saved as a whole.
+     * @param groupID id of the group
+     * @return the master schedule, or null if it has to be rebuilt
+     * @throws RuntimeException if the group does not exist
      */
-    private void addMembersToGroup(FindIterable<Document> membershipDocs, Group group) {
-        for (Document md : membershipDocs) {
-            if (md == null) {
-                continue;
-            }
-
-            String username = md.getString(MEMBERSHIP_USERNAME_FIELD);
-            String groupID = md.getString(MEMBERSHIP_GROUP_NAME_FIELD);
-            UserRole role = UserRole.valueOf(md.getString(MEMBERSHIP_ROLE_FIELD));
-            boolean approved = md.getBoolean(MEMBERSHIP_APPROVED_FIELD, false);
-
-            Membership membership = membershipFactory.create(username, groupID, role, approved);
-
-            group.addMembership(membership);
+    @Override
+    public int[][] getMasterSchedule(String groupID) {
+        final Document groupDoc = findSchedule(groupID);
+        if (groupDoc.getBoolean(SCHEDULE_STALE, false)) {
+            return null;
         }
+        return ScheduleCodec.decodeCounts(groupDoc.get(SCHEDULE));
     }
 
     /**
-     * Convert the 2D array to a nested List to be stored in Mongo.
-     * @param schedule the schedule to be converted
-     * @return the nested list representing group schedule
+     * Marks the master schedule of a group as out of date. The version is bumped as
+     * well, so a compare-and-set that read the old schedule fails, and as it only
+     * ever grows, a later rebuild cannot make that old read look current again.
+     * @param groupID the ID of the group whose members changed
      */
-    private List<List<Integer>> convertScheduleToDB(int[][] schedule) {
-        List<List<Integer>> result = new ArrayList<List<Integer>>(schedule.length);
-        for (int[] i: schedule) {
-            List<Integer> list = new ArrayList<Integer>(i.length);
-            for (int j: i) {
-                list.add(j);
-            }
-            result.add(list);
-        }
-
-        return result;
-
+    @Override
+    public void invalidateMasterSchedule(String groupID) {
+        groupsCollection.updateOne(eq(GROUP_CODE, groupID),
+                combine(set(SCHEDULE_STALE, true), inc(SCHEDULE_VERSION, 1), inc(GROUP_VERSION, 1)));
+        snapshots.invalidate(groupID);
     }
 
     /**
-     * Convert db schedule back to 2D array.
-     * @param db_schedule the schedule taken from mongo.
-     * @return the 2D array representing group schedule.
+     * Adds per-slot changes to the stored master schedule.
+     * The schedule is stored as a single binary value, so the change is applied as a
+     * compare-and-set on scheduleVersion: the schedule is read, patched and written
+     * back only if no other save happened in between, and retried otherwise.
+     * @param groupID id of the group
+     * @param delta the change to add to each time slot
+     * @return the updated master schedule, or null if it has to be rebuilt
+     * @throws IllegalStateException if a time slot would drop below zero
+     * @throws RuntimeException if the group does not exist or keeps being updated concurrently
      */
-    private int[][] convertToArrayFromDB(List<List<Integer>> db_schedule) {
-        int[][] result = new int[db_schedule.size()][db_schedule.get(0).size()];
+    @Override
+    public int[][] applyScheduleDelta(String groupID, int[][] delta) {
+        for (int attempt = 1; attempt <= MAX_SCHEDULE_UPDATE_ATTEMPTS; attempt++) {
+            final Document groupDoc = findSchedule(groupID);
+            final int version = groupDoc.getInteger(SCHEDULE_VERSION, 0);
+            final int[][] masterSchedule = ScheduleCodec.decodeCounts(groupDoc.get(SCHEDULE));
+            if (version == 0 || masterSchedule == null || groupDoc.getBoolean(SCHEDULE_STALE, false)) {
+                return null;
+            }
+            if (!ScheduleDeltas.apply(masterSchedule, delta, groupID)) {
+                return masterSchedule;
+            }
 
-        for (int i = 0; i < result.length; i++) {
-            for (int j = 0; j < result[i].length; j++) {
-                result[i][j] = db_schedule.get(i).get(j);
+            final UpdateResult result = groupsCollection.updateOne(
+                    and(eq(GROUP_CODE, groupID), eq(SCHEDULE_VERSION, version)),
+                    combine(set(SCHEDULE, ScheduleCodec.encodeCounts(masterSchedule)),
+                            inc(SCHEDULE_VERSION, 1), inc(GROUP_VERSION, 1)));
+            if (result.getModifiedCount() == 1) {
+                snapshots.invalidate(groupID);
+                return masterSchedule;
             }
         }
+        throw new RuntimeException("Failed to update the schedule of group " + groupID
+                + ": too many concurrent updates");
+    }
 
-        return result;
+    private Document findSchedule(String groupID) {
+        final Document groupDoc = groupsCollection.find(eq(GROUP_CODE, groupID))
+                .projection(include(SCHEDULE, SCHEDULE_VERSION, SCHEDULE_STALE))
+                .first();
+        if (groupDoc == null) {
+            throw new RuntimeException(GROUP_NOT_FOUND + groupID);
+        }
+        return groupDoc;
     }
 
+    /**
+     * Builds a new Group object from the raw group document and membership
+     * documents of a snapshot, decoding them straight into entities.
+     *
+     * @param groupDoc       The raw group document.
+     * @param membershipDocs The raw membership documents belonging to the group.
+     * @return A Group object created from the document data.
+     */
+    private Group buildGroup(RawBsonDocument groupDoc, List<RawBsonDocument> membershipDocs) {
+        Group group = groupDoc.decode(groupCodec);
+        for (RawBsonDocument md : membershipDocs) {
+            group.addMembership(md.decode(membershipCodec));
+        }
+        return group;
+    }
 }
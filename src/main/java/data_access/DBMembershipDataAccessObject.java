@@ -1,12 +1,13 @@
 package data_access;
 
 import com.mongodb.MongoWriteException;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import entity.group.GroupFactory;
 import entity.membership.Membership;
 import entity.membership.MembershipFactory;
+import entity.task.TaskFactory;
+import entity.user.UserFactory;
 import entity.user.UserRole;
 import org.bson.Document;
 import use_case.create_group.CreateGroupMembershipDataAccessInterface;
@@ -25,6 +26,8 @@ import java.util.List;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.inc;
 
 /**
  * A MongoDB backed data access object for membership records.
@@ -49,27 +52,52 @@ public class DBMembershipDataAccessObject implements
     private static final String GROUP_FIELD = "group";
     private static final String ROLE_FIELD = "role";
     private static final String APPROVED_FIELD = "approved";
+    private static final String GROUP_CODE = "joinCode";
 
-    private final MembershipFactory membershipFactory;
-    private final MongoClient mongoClient;
-    private final MongoDatabase database;
     private final MongoCollection<Document> membershipsCollection;
+    // reads decode straight into Membership entities, see EntityCodecProvider
+    private final MongoCollection<Membership> memberships;
+    private final MongoCollection<Document> groupsCollection;
+    private final GroupSnapshotCache snapshots;
 
     /**
-     * Constructs a DBMembershipDataAccessObject and initializes the Mongo client,
-     * database reference, and memberships collection.
+     * Constructs a DBMembershipDataAccessObject and initializes the database
+     * reference and memberships collection using the shared client from the registry.
      *
      * @param membershipFactory Factory used to create Membership objects.
+     * @param clientRegistry    Registry providing the shared MongoDB client.
      * @param connectionString  MongoDB connection string.
      * @param dbName            Database name.
      */
     public DBMembershipDataAccessObject(MembershipFactory membershipFactory,
+                                        MongoClientRegistry clientRegistry,
                                         String connectionString,
                                         String dbName) {
-        this.membershipFactory = membershipFactory;
-        this.mongoClient = MongoClients.create(connectionString);
-        this.database = mongoClient.getDatabase(dbName);
+        this(membershipFactory, clientRegistry, connectionString, dbName, new GroupSnapshotCache());
+    }
+
+    /**
+     * Constructs a DBMembershipDataAccessObject whose writes invalidate the given
+     * group snapshots.
+     *
+     * @param membershipFactory Factory used to create Membership objects.
+     * @param clientRegistry    Registry providing the shared MongoDB client.
+     * @param connectionString  MongoDB connection string.
+     * @param dbName            Database name.
+     * @param snapshots         The group snapshots shared with the group DAO.
+     */
+    public DBMembershipDataAccessObject(MembershipFactory membershipFactory,
+                                        MongoClientRegistry clientRegistry,
+                                        String connectionString,
+                                        String dbName,
+                                        GroupSnapshotCache snapshots) {
+        final MongoDatabase database = clientRegistry.getDatabase(connectionString, dbName);
         this.membershipsCollection = database.getCollection("memberships");
+        this.memberships = database.getCollection("memberships", Membership.class)
+                .withCodecRegistry(new EntityCodecProvider(new TaskFactory(), membershipFactory,
+                        new UserFactory(), new GroupFactory()).registry());
+        this.groupsCollection = database.getCollection("groups");
+        this.snapshots = snapshots;
     }
 
     /**
@@ -93,6 +121,7 @@ public class DBMembershipDataAccessObject implements
         } catch (MongoWriteException mwe) {
             throw new RuntimeException("Failed to save membership: " + mwe.getMessage(), mwe);
         }
+        groupChanged(membership.getGroup());
     }
 
     /**
@@ -104,20 +133,9 @@ public class DBMembershipDataAccessObject implements
      */
     @Override
     public Membership get(String username, String groupID) {
-        final Document doc = membershipsCollection.find(
+        return memberships.find(
                 and(eq(USER_FIELD, username), eq(GROUP_FIELD, groupID))
         ).first();
-
-        if (doc == null) {
-            return null;
-        }
-
-        String user = doc.getString(USER_FIELD);
-        String group = doc.getString(GROUP_FIELD);
-        UserRole role = UserRole.valueOf(doc.getString(ROLE_FIELD));
-        boolean approved = doc.getBoolean(APPROVED_FIELD, false);
-
-        return membershipFactory.create(user, group, role, approved);
     }
 
     /**
@@ -127,15 +145,23 @@ public class DBMembershipDataAccessObject implements
      * @return a list of Membership objects for that group
      */
     public List<Membership> getMembersForGroup(String groupID) {
-        List<Membership> result = new ArrayList<>();
+        return memberships.find(and(eq(GROUP_FIELD, groupID), eq(APPROVED_FIELD, true)))
+                .into(new ArrayList<>());
+    }
 
-        for (Document doc : membershipsCollection.find(and(eq(GROUP_FIELD, groupID), eq(APPROVED_FIELD, true)))) {
-            String user = doc.getString(USER_FIELD);
-            String group = doc.getString(GROUP_FIELD);
-            UserRole role = UserRole.valueOf(doc.getString(ROLE_FIELD));
-            boolean approved = doc.getBoolean(APPROVED_FIELD, false);
+    /**
+     * Retrieves the ids of all groups the specified user is an approved member of.
+     *
+     * @param username the username of the member
+     * @return a list of group ids
+     */
+    @Override
+    public List<String> getGroupIDsForUser(String username) {
+        List<String> result = new ArrayList<>();
 
-            result.add(membershipFactory.create(user, group, role, approved));
+        for (Document doc : membershipsCollection.find(and(eq(USER_FIELD, username), eq(APPROVED_FIELD, true)))
+                .projection(include(GROUP_FIELD))) {
+            result.add(doc.getString(GROUP_FIELD));
         }
 
         return result;
@@ -148,18 +174,8 @@ public class DBMembershipDataAccessObject implements
      * @return a list of pending Memberships for that group
      */
     public List<Membership> getPendingForGroup(String groupID) {
-        List<Membership> result = new ArrayList<>();
-
-        for (Document doc : membershipsCollection.find(and(eq(GROUP_FIELD, groupID), eq(APPROVED_FIELD, false)))) {
-            String user = doc.getString(USER_FIELD);
-            String group = doc.getString(GROUP_FIELD);
-            UserRole role = UserRole.valueOf(doc.getString(ROLE_FIELD));
-            boolean approved = doc.getBoolean(APPROVED_FIELD, false);
-
-            result.add(membershipFactory.create(user, group, role, approved));
-        }
-
-        return result;
+        return memberships.find(and(eq(GROUP_FIELD, groupID), eq(APPROVED_FIELD, false)))
+                .into(new ArrayList<>());
     }
 
     /**
@@ -179,6 +195,7 @@ public class DBMembershipDataAccessObject implements
                 ),
                 new Document("$set", new Document(ROLE_FIELD, newRole.name()))
         );
+        groupChanged(groupID);
     }
 
     /**
@@ -211,6 +228,7 @@ public class DBMembershipDataAccessObject implements
                     )
             );
         }
+        groupChanged(groupID);
     }
 
     /**
@@ -225,5 +243,17 @@ public class DBMembershipDataAccessObject implements
         membershipsCollection.deleteOne(
                 and(eq(USER_FIELD, username), eq(GROUP_FIELD, groupID))
         );
+        groupChanged(groupID);
+    }
+
+    /**
+     * Bumps the version of a group after one of its memberships changed, so other
+     * clients reload their snapshot of it, and drops this process's snapshot.
+     *
+     * @param groupID the ID of the group whose memberships changed
+     */
+    private void groupChanged(String groupID) {
+        snapshots.invalidate(groupID);
+        groupsCollection.updateOne(eq(GROUP_CODE, groupID), inc(DBGroupDataAccessObject.GROUP_VERSION, 1));
     }
 }
@@ -2,17 +2,52 @@ package data_access;
 
 import com.mongodb.MongoWriteException;
 import com.mongodb.client.*;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.client.result.UpdateResult;
 import org.bson.Document;
 
+import static com.mongodb.client.model.Accumulators.sum;
+import static com.mongodb.client.model.Aggregates.group;
+import static com.mongodb.client.model.Aggregates.match;
+import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
-
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+import static com.mongodb.client.model.Updates.addEachToSet;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
+import static com.mongodb.client.model.Updates.pull;
+import static com.mongodb.client.model.Updates.pullAll;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
+
+import entity.group.GroupFactory;
+import entity.membership.MembershipFactory;
+import entity.task.StaleTaskException;
 import entity.task.Task;
 import entity.task.TaskFactory;
+import entity.user.UserFactory;
+import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
+import send_grid_api.SendEmailInterface.EmailType;
 import use_case.creategrouptask.CreateGroupTaskDataAccessInterface;
 import use_case.editgrouptasks.EditGroupTasksDataAccessInterface;
+import use_case.taskreminder.TaskReminderDataAccessInterface;
+import use_case.taskstats.TaskStats;
+import use_case.taskstats.TaskStatsDataAccessInterface;
+import use_case.viewgrouptasks.TaskChanges;
+import use_case.viewgrouptasks.TaskPage;
 import use_case.viewgrouptasks.ViewGroupTasksDataAccessInterface;
+import use_case.viewtasks.TaskQuery;
 import use_case.viewtasks.ViewTasksDataAccessInterface;
 
 import java.time.LocalDateTime;
@@ -24,60 +59,145 @@ import java.util.*;
  * Implements multiple interfaces to support various task-related use cases.
  */
 public class DBTaskDataAccessObject implements ViewTasksDataAccessInterface, ViewGroupTasksDataAccessInterface,
-        CreateGroupTaskDataAccessInterface, EditGroupTasksDataAccessInterface {
-
-    private final MongoClient mongoClient;
-    private final MongoDatabase database;
+        CreateGroupTaskDataAccessInterface, EditGroupTasksDataAccessInterface, TaskStatsDataAccessInterface,
+        TaskReminderDataAccessInterface {
 
-    private final TaskFactory taskFactory;
     private final MongoCollection<Document> taskCollection;
+    private final MongoCollection<Document> counters;
+    // reads decode straight into Task entities, see EntityCodecProvider
+    private final MongoCollection<Task> tasks;
 
-    private static final String TASK_ID_FIELD = "_id";
+    private static final String ID_FIELD = "_id";
+    private static final String TASK_ID_FIELD = ID_FIELD;
     private static final String DESCRIPTION_FIELD = "description";
     private static final String GROUP_ID_FIELD = "group";
     private static final String DUE_DATE_FIELD = "deadline";
     private static final String COMPLETED_FIELD = "completed";
     private static final String ASSIGNEES_FIELD = "assignees";
+    private static final String VERSION_FIELD = "version";
+    private static final String CHANGE_SEQ_FIELD = "changeSeq";
+    // when each reminder was claimed for the current deadline, unset when the deadline moves
+    private static final String DUE_SOON_SENT_AT_FIELD = "dueSoonSentAt";
+    private static final String OVERDUE_SENT_AT_FIELD = "overdueSentAt";
+
+    private static final String LITERAL = "$literal";
+    private static final String IF_NULL = "$ifNull";
+    private static final String SET = "$set";
+    private static final String REMOVE = "$$REMOVE";
+
+    private static final String COUNTER_ID_FIELD = ID_FIELD;
+    private static final String COUNTER_SEQ_FIELD = "seq";
+    private static final String COUNTER_PENDING_FIELD = "pending";
+    private static final String PENDING_SEQ_FIELD = "seq";
+    private static final String PENDING_TAKEN_FIELD = "taken";
+    private static final String COUNTER_PREFIX = "tasks:";
+
+    /**
+     * How long a taken sequence number holds the sync tokens back. A writer that dies
+     * between taking a number and releasing it would otherwise hold them back for good.
+     */
+    static final long PENDING_TIMEOUT_MILLIS = 60_000L;
+
+    private static final String STATS_OPEN = "open";
+    private static final String STATS_COMPLETED = "completed";
+    private static final String STATS_OVERDUE = "overdue";
+    private static final String STATS_DUE_SOON = "dueSoon";
+    private static final String STATS_ASSIGNED_OPEN = "assignedOpen";
+    private static final String STATS_ASSIGNED_OVERDUE = "assignedOverdue";
+    private static final String STATS_ASSIGNED_DUE_SOON = "assignedDueSoon";
 
     /**
      * Constructs a new DBTaskDataAccessObject.
      *
      * @param taskFactory      A factory for creating Task objects.
+     * @param clientRegistry   The registry providing the shared MongoDB client.
      * @param connectionString The connection string for the MongoDB database.
      * @param dbName           The name of the database to connect to.
      */
     public DBTaskDataAccessObject(TaskFactory taskFactory,
+                                  MongoClientRegistry clientRegistry,
                                   String connectionString,
                                   String dbName) {
 
-        this.taskFactory = taskFactory;
-        this.mongoClient = MongoClients.create(connectionString);
-        this.database = mongoClient.getDatabase(dbName);
+        final MongoDatabase database = clientRegistry.getDatabase(connectionString, dbName);
         this.taskCollection = database.getCollection("tasks");
+        this.counters = database.getCollection("counters");
+        this.tasks = database.getCollection("tasks", Task.class)
+                .withCodecRegistry(new EntityCodecProvider(taskFactory, new MembershipFactory(),
+                        new UserFactory(), new GroupFactory()).registry());
     }
 
     /**
-     * Retrieves a list of tasks associated with a specific user.
+     * Retrieves the tasks that match a query.
+     * The query is translated into a filter on assignees, completed and deadline,
+     * which is served by the compound index declared in {@link MongoIndexBootstrapper},
+     * so only the matching tasks are sent by the database.
      *
-     * @param username The username of the user whose tasks are to be retrieved.
-     * @return A list of tasks for the specified user.
+     * @param query Which of a user's tasks to retrieve, and in what order.
+     * @return The matching tasks.
      */
     @Override
-    public List<Task> getTasksForUser(String username) {
+    public List<Task> findTasks(TaskQuery query) {
         List<Task> result = new ArrayList<>();
 
-        final FindIterable<Document> taskDocs = taskCollection.find(
-                eq(ASSIGNEES_FIELD, username)
-        );
+        FindIterable<Task> found = tasks.find(toFilter(query));
+        if (query.isSortedByDueDate()) {
+            // a missing deadline sorts first, as in TaskQuery.dueDateOrder
+            found = found.sort(ascending(DUE_DATE_FIELD));
+        }
+        if (query.getLimit() > 0) {
+            found = found.limit(query.getLimit());
+        }
+
+        found.into(result);
+
+        return result;
+    }
+
+    /**
+     * Translates a task query into a MongoDB filter.
+     *
+     * @param query The query.
+     * @return The filter.
+     */
+    private Bson toFilter(TaskQuery query) {
+        final List<Bson> filters = new ArrayList<>();
+        filters.add(eq(ASSIGNEES_FIELD, query.getAssignee()));
+
+        // every task has a completed field once MongoIndexBootstrapper#backfillCompleted has run,
+        // so both cases are plain equality matches on the index
+        query.getCompleted().ifPresent(completed -> {
+            filters.add(eq(COMPLETED_FIELD, completed));
+        });
+
+        if (!query.getGroupIDs().isEmpty()) {
+            filters.add(in(GROUP_ID_FIELD, query.getGroupIDs()));
+        }
+
+        if (query.getDueFrom().isPresent() || query.getDueBefore().isPresent()) {
+            final List<Bson> range = new ArrayList<>();
+            query.getDueFrom().ifPresent(from -> range.add(gte(DUE_DATE_FIELD, toDate(from))));
+            query.getDueBefore().ifPresent(before -> range.add(lt(DUE_DATE_FIELD, toDate(before))));
+            Bson inRange = and(range);
+            if (range.size() == 1) {
+                inRange = range.get(0);
+            }
 
-        for (Document td : taskDocs) {
-            if (td == null) {
-                continue;
+            if (query.includesTasksWithoutDueDate()) {
+                // eq null also matches documents without a deadline
+                filters.add(or(inRange, eq(DUE_DATE_FIELD, null)));
+            } else {
+                filters.add(inRange);
             }
-            result.add(extractTaskFromDocument(td));
+        } else if (!query.includesTasksWithoutDueDate()) {
+            filters.add(ne(DUE_DATE_FIELD, null));
         }
 
-        return result;
+        return and(filters);
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
     }
 
     /**
@@ -91,98 +211,493 @@ public class DBTaskDataAccessObject implements ViewTasksDataAccessInterface, Vie
     public Task getTask(String taskID) throws RuntimeException {
         // get the ObjectId to properly compare with MongoDB's generated ID
         ObjectId objectTaskID = new ObjectId(taskID);
-        Document taskDoc = taskCollection.find(eq(TASK_ID_FIELD, objectTaskID)).first();
+        Task task = tasks.find(eq(TASK_ID_FIELD, objectTaskID)).first();
 
-        if (taskDoc == null) {
+        if (task == null) {
             throw new RuntimeException("No task with this taskID exists.");
         }
 
-        return extractTaskFromDocument(taskDoc);
+        return task;
+    }
+
+    /**
+     * Retrieves one page of the tasks associated with a specific group.
+     * Pages are read with keyset pagination on (deadline, _id): the page token holds
+     * the deadline and id of the last task of the previous page, and the next page
+     * starts right after it. Every page is a bounded range scan of the
+     * (group, deadline, _id) index, however deep into the group it is.
+     *
+     * @param groupId   The ID of the group whose tasks are to be retrieved.
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of tasks on the page.
+     * @return The page of tasks.
+     */
+    @Override
+    public TaskPage getTasksForGroup(String groupId, String pageToken, int pageSize) {
+        return readPage(eq(GROUP_ID_FIELD, groupId), pageToken, pageSize);
+    }
 
+    /**
+     * Retrieves one page of the open tasks of some groups due in a range, for the
+     * task reminders. Pages are read with the same keyset pagination on
+     * (deadline, _id) as the pages of a group, and are served by the
+     * (group, deadline, _id) index.
+     *
+     * @param groupIds  The IDs of the groups.
+     * @param from      The earliest due date, inclusive.
+     * @param until     The latest due date, exclusive.
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of tasks on the page.
+     * @return The page of tasks.
+     */
+    @Override
+    public TaskPage getOpenTasksDueBetween(Collection<String> groupIds, LocalDateTime from, LocalDateTime until,
+                                           String pageToken, int pageSize) {
+        return readPage(and(in(GROUP_ID_FIELD, groupIds), gte(DUE_DATE_FIELD, toDate(from)),
+                lt(DUE_DATE_FIELD, toDate(until)), eq(COMPLETED_FIELD, false)), pageToken, pageSize);
     }
 
     /**
-     * Retrieves a list of tasks associated with a specific group.
+     * Claims a reminder of a task with one findOneAndUpdate, which only matches
+     * while the task is open, still has the deadline and the reminder was not
+     * claimed yet. Of several clients asking at once, exactly one claims it.
      *
-     * @param groupId The ID of the group whose tasks are to be retrieved.
-     * @return A list of tasks for the specified group.
+     * @param taskID  The ID of the task.
+     * @param type    The type of reminder.
+     * @param dueDate The deadline the reminder is for.
+     * @return Whether this call claimed the reminder.
+     * @throws IllegalArgumentException if the type is not a reminder.
      */
     @Override
-    public List<Task> getTasksForGroup(String groupId) {
-        List<Task> result = new ArrayList<>();
+    public boolean claimReminder(String taskID, EmailType type, LocalDateTime dueDate) {
+        final String sentAtField = sentAtFieldOf(type);
+        final Document claimed = taskCollection.findOneAndUpdate(
+                and(eq(TASK_ID_FIELD, new ObjectId(taskID)), eq(DUE_DATE_FIELD, toDate(dueDate)),
+                        eq(COMPLETED_FIELD, false), exists(sentAtField, false)),
+                set(sentAtField, new Date()),
+                new FindOneAndUpdateOptions().projection(include(TASK_ID_FIELD)));
+        return claimed != null;
+    }
 
-        final FindIterable<Document> taskDocs = taskCollection.find(
-                eq(GROUP_ID_FIELD, groupId)
-        );
+    private static String sentAtFieldOf(EmailType type) {
+        if (type == EmailType.TASK_DUE_SOON) {
+            return DUE_SOON_SENT_AT_FIELD;
+        }
+        if (type == EmailType.TASK_OVERDUE) {
+            return OVERDUE_SENT_AT_FIELD;
+        }
+        throw new IllegalArgumentException("Not a task reminder: " + type);
+    }
+
+    /**
+     * Retrieves the tasks with the given IDs with one query.
+     *
+     * @param taskIDs The IDs of the tasks to retrieve.
+     * @return The tasks that exist.
+     */
+    @Override
+    public List<Task> getTasks(Collection<String> taskIDs) {
+        final List<ObjectId> objectIDs = new ArrayList<>(taskIDs.size());
+        for (String taskID : taskIDs) {
+            objectIDs.add(new ObjectId(taskID));
+        }
+        return tasks.find(in(TASK_ID_FIELD, objectIDs)).into(new ArrayList<>());
+    }
 
-        for (Document td : taskDocs) {
-            if (td == null) {
-                continue;
+    /**
+     * Reads one page of the tasks matching a filter, in (deadline, _id) order.
+     *
+     * @param filter    The filter.
+     * @param pageToken The token returned with the previous page, or null for the first page.
+     * @param pageSize  The maximum number of tasks on the page.
+     * @return The page of tasks.
+     */
+    private TaskPage readPage(Bson filter, String pageToken, int pageSize) {
+        Bson pageFilter = filter;
+        if (pageToken != null) {
+            pageFilter = and(filter, after(TaskPageToken.decode(pageToken)));
+        }
+
+        // one extra task tells whether there is a next page
+        final FindIterable<Task> found = tasks.find(pageFilter)
+                .sort(ascending(DUE_DATE_FIELD, TASK_ID_FIELD))
+                .limit(pageSize + 1);
+
+        List<Task> result = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        for (Task task : found) {
+            if (result.size() == pageSize) {
+                hasMore = true;
+                break;
             }
+            result.add(task);
+        }
 
-            result.add(extractTaskFromDocument(td));
+        if (!hasMore || result.isEmpty()) {
+            return new TaskPage(result, null);
         }
+        final Task last = result.get(result.size() - 1);
+        return new TaskPage(result, new TaskPageToken(last.getDueDate().orElse(null), last.getID()).encode());
+    }
 
-        return result;
+    /**
+     * Builds the filter for every task after a position in (deadline, _id) order.
+     * A missing deadline sorts before every date, as it does in MongoDB.
+     *
+     * @param position The position of the last task of the previous page.
+     * @return The filter.
+     */
+    private Bson after(TaskPageToken position) {
+        final ObjectId lastID = new ObjectId(position.getTaskID());
+        if (position.getDueDate() == null) {
+            return or(and(eq(DUE_DATE_FIELD, null), gt(TASK_ID_FIELD, lastID)), ne(DUE_DATE_FIELD, null));
+        }
+
+        final Date lastDueDate = toDate(position.getDueDate());
+        return or(gt(DUE_DATE_FIELD, lastDueDate),
+                and(eq(DUE_DATE_FIELD, lastDueDate), gt(TASK_ID_FIELD, lastID)));
     }
 
-    private Task extractTaskFromDocument(Document document) {
-        String taskID = document.getObjectId(TASK_ID_FIELD).toHexString();
-        String description = document.getString(DESCRIPTION_FIELD);
-        String groupID = document.getString(GROUP_ID_FIELD);
+    @Override
+    public String getSyncToken(String groupId) {
+        return new TaskSyncToken(groupId, currentChangeSeq(groupId)).encode();
+    }
 
-        Date dueDate = document.getDate(DUE_DATE_FIELD);
+    /**
+     * Retrieves the tasks of a group whose change sequence is after a sync token.
+     * The read is a range scan of the (group, changeSeq) index, so its cost depends
+     * on the number of changes and not on the size of the group. The next token stops
+     * below the lowest sequence number still in flight, so a write that commits after
+     * a higher number was seen is read by the next sync.
+     *
+     * @param groupId   The ID of the group.
+     * @param syncToken The token returned by the previous sync or full load.
+     * @return The changed tasks and the next token.
+     */
+    @Override
+    public TaskChanges getTaskChangesForGroup(String groupId, String syncToken) {
+        final long since = TaskSyncToken.decode(syncToken, groupId).getChangeSeq();
+        // read before the tasks, so every change at or below it has committed
+        final long latest = currentChangeSeq(groupId);
+
+        final List<Task> changed = new ArrayList<>();
+        final Bson filter = and(eq(GROUP_ID_FIELD, groupId), gt(CHANGE_SEQ_FIELD, since));
+        for (Task task : tasks.find(filter).sort(ascending(CHANGE_SEQ_FIELD))) {
+            changed.add(task);
+        }
+        return new TaskChanges(changed, new TaskSyncToken(groupId, Math.max(latest, since)).encode());
+    }
 
-        boolean isCompleted = document.getBoolean(COMPLETED_FIELD, false);
-        List<String> assignees = document.getList(ASSIGNEES_FIELD, String.class);
+    /**
+     * Returns the highest sequence number below which every change of a group's tasks
+     * has committed: the last number taken, or one below the lowest number still in flight.
+     *
+     * @param groupId The ID of the group.
+     * @return The sequence number, or 0 if the group has no changes.
+     */
+    private long currentChangeSeq(String groupId) {
+        final Document counter = counters.find(eq(COUNTER_ID_FIELD, COUNTER_PREFIX + groupId)).first();
+        if (counter == null) {
+            return 0L;
+        }
 
-        if (dueDate == null) {
-            return taskFactory.createWithoutDeadline(taskID, description, groupID, isCompleted, assignees);
+        long current = counter.get(COUNTER_SEQ_FIELD, Number.class).longValue();
+        final long takenAfter = System.currentTimeMillis() - PENDING_TIMEOUT_MILLIS;
+        for (Document pending : counter.getList(COUNTER_PENDING_FIELD, Document.class, List.of())) {
+            final Date taken = pending.getDate(PENDING_TAKEN_FIELD);
+            if (taken != null && taken.getTime() > takenAfter) {
+                current = Math.min(current, pending.get(PENDING_SEQ_FIELD, Number.class).longValue() - 1);
+            }
         }
+        return current;
+    }
+
+    /**
+     * Takes the next number in the change sequence of a group's tasks and marks it as
+     * in flight until {@link #releaseChangeSeq} is called for it. The same update drops
+     * the numbers taken longer than {@link #PENDING_TIMEOUT_MILLIS} ago, which no longer
+     * hold the sync tokens back, so numbers left behind by writers that died do not
+     * pile up in the counter.
+     *
+     * @param groupId The ID of the group.
+     * @return The sequence number, greater than every number taken before.
+     */
+    private long nextChangeSeq(String groupId) {
+        final Date now = new Date();
+        final Date takenAfter = new Date(now.getTime() - PENDING_TIMEOUT_MILLIS);
+        final Document next = new Document(COUNTER_SEQ_FIELD,
+                new Document("$add", Arrays.asList(
+                        new Document(IF_NULL, Arrays.asList(fieldPath(COUNTER_SEQ_FIELD), 0L)), 1L)));
+        final Document inFlight = new Document("$filter", new Document("input",
+                new Document(IF_NULL, Arrays.asList(fieldPath(COUNTER_PENDING_FIELD), List.of())))
+                .append("cond", new Document("$gt",
+                        Arrays.asList("$$this." + PENDING_TAKEN_FIELD, takenAfter))));
+        final Document pending = new Document(PENDING_SEQ_FIELD, fieldPath(COUNTER_SEQ_FIELD))
+                .append(PENDING_TAKEN_FIELD, now);
+        final Document track = new Document(COUNTER_PENDING_FIELD,
+                new Document("$concatArrays", Arrays.asList(inFlight, List.of(pending))));
+
+        final Document counter = counters.findOneAndUpdate(
+                eq(COUNTER_ID_FIELD, COUNTER_PREFIX + groupId),
+                List.of(new Document(SET, next), new Document(SET, track)),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return Objects.requireNonNull(counter).get(COUNTER_SEQ_FIELD, Number.class).longValue();
+    }
+
+    /**
+     * Marks a sequence number taken by {@link #nextChangeSeq} as no longer in flight,
+     * once the write that uses it has committed or failed.
+     *
+     * @param groupId   The ID of the group.
+     * @param changeSeq The sequence number.
+     */
+    private void releaseChangeSeq(String groupId, long changeSeq) {
+        counters.updateOne(eq(COUNTER_ID_FIELD, COUNTER_PREFIX + groupId),
+                pull(COUNTER_PENDING_FIELD, new Document(PENDING_SEQ_FIELD, changeSeq)));
+    }
+
+    /**
+     * Counts the tasks of several groups with one aggregation over the tasks
+     * collection: the tasks of the groups are matched through the (group, deadline, _id)
+     * index and grouped by group, so only one small document per group is sent back
+     * and no task is loaded.
+     *
+     * @param groupIds The ids of the groups.
+     * @param username The user whose assigned tasks are also counted.
+     * @param now      The time overdue and due soon tasks are counted from.
+     * @param dueSoon  The end of the due soon window, exclusive.
+     * @return The counts by group id; groups without tasks are missing.
+     */
+    @Override
+    public Map<String, TaskStats> getTaskStats(Collection<String> groupIds, String username,
+                                               LocalDateTime now, LocalDateTime dueSoon) {
+        final Map<String, TaskStats> result = new HashMap<>();
+        if (groupIds.isEmpty()) {
+            return result;
+        }
+
+        // a missing completed field is read as not completed, and a missing deadline is never due
+        final Document open = new Document("$ne", Arrays.asList(fieldPath(COMPLETED_FIELD), true));
+        final Document hasDeadline = new Document("$eq",
+                Arrays.asList(new Document("$type", fieldPath(DUE_DATE_FIELD)), "date"));
+        final Document overdue = allOf(open, hasDeadline,
+                new Document("$lt", Arrays.asList(fieldPath(DUE_DATE_FIELD), toDate(now))));
+        final Document isDueSoon = allOf(open, hasDeadline,
+                new Document("$gte", Arrays.asList(fieldPath(DUE_DATE_FIELD), toDate(now))),
+                new Document("$lt", Arrays.asList(fieldPath(DUE_DATE_FIELD), toDate(dueSoon))));
+        final Document assigned = new Document("$in", Arrays.asList(username,
+                new Document(IF_NULL, Arrays.asList(fieldPath(ASSIGNEES_FIELD), List.of()))));
+
+        final List<Bson> pipeline = List.of(
+                match(in(GROUP_ID_FIELD, groupIds)),
+                group(fieldPath(GROUP_ID_FIELD),
+                        sum(STATS_OPEN, count(open)),
+                        sum(STATS_COMPLETED, count(new Document("$not", List.of(open)))),
+                        sum(STATS_OVERDUE, count(overdue)),
+                        sum(STATS_DUE_SOON, count(isDueSoon)),
+                        sum(STATS_ASSIGNED_OPEN, count(allOf(assigned, open))),
+                        sum(STATS_ASSIGNED_OVERDUE, count(allOf(assigned, overdue))),
+                        sum(STATS_ASSIGNED_DUE_SOON, count(allOf(assigned, isDueSoon)))));
+
+        for (Document stats : taskCollection.aggregate(pipeline)) {
+            final String groupId = stats.getString(ID_FIELD);
+            result.put(groupId, new TaskStats.Builder(groupId)
+                    .addOpen(countOf(stats, STATS_OPEN))
+                    .addCompleted(countOf(stats, STATS_COMPLETED))
+                    .addOverdue(countOf(stats, STATS_OVERDUE))
+                    .addDueSoon(countOf(stats, STATS_DUE_SOON))
+                    .addAssignedOpen(countOf(stats, STATS_ASSIGNED_OPEN))
+                    .addAssignedOverdue(countOf(stats, STATS_ASSIGNED_OVERDUE))
+                    .addAssignedDueSoon(countOf(stats, STATS_ASSIGNED_DUE_SOON))
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the expression that reads a field of the current document.
+     *
+     * @param field The field name.
+     * @return The field path.
+     */
+    private static String fieldPath(String field) {
+        return "$" + field;
+    }
+
+    private static Document allOf(Document... conditions) {
+        return new Document("$and", Arrays.asList(conditions));
+    }
 
-        LocalDateTime dueDateTime = dueDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime();
+    private static Document count(Document condition) {
+        return new Document("$cond", Arrays.asList(condition, 1, 0));
+    }
 
-        return taskFactory.createWithDeadline(taskID, description, groupID,
-                isCompleted, assignees, dueDateTime);
+    private static int countOf(Document stats, String field) {
+        return ((Number) stats.get(field)).intValue();
     }
 
     /**
      * Saves a task to the database.
-     * If the task has an existing ID, the existing task with that ID is updated in the database.
      * If the task has no ID, we insert it into the database.
+     * If the task has an existing ID, only the fields that changed since it was
+     * loaded are written: changed scalars with $set, and the assignees added or
+     * removed with $addToSet or $pull, so that a concurrent change to another
+     * field or to other assignees is not overwritten.
+     * If the version of the task is known, the update only applies if the stored
+     * task still has that version.
      *
      * @param task The task object to be saved.
+     * @throws StaleTaskException if the task was changed or deleted since it was loaded.
      */
     @Override
     public void upsertTask(Task task) {
+        try {
+            if (task.getID().isEmpty()) {
+                insertTask(task);
+            } else if (task.hasChanges()) {
+                updateTask(task);
+            }
+        } catch (MongoWriteException mwe) {
+            throw new RuntimeException("Failed to save/update task: " + mwe.getMessage(), mwe);
+        }
+    }
+
+    private void insertTask(Task task) {
         final Document taskDoc = new Document()
                 .append(DESCRIPTION_FIELD, task.getDescription())
                 .append(GROUP_ID_FIELD, task.getGroup())
                 .append(COMPLETED_FIELD, task.isCompleted())
-                .append(ASSIGNEES_FIELD, task.getAssignees());
+                .append(ASSIGNEES_FIELD, task.getAssignees())
+                .append(VERSION_FIELD, 1L);
 
         if (task.hasDueDate()) {
-            LocalDateTime dueDateTime = task.getDueDate().get();
-            Date dueDate = Date.from(dueDateTime.atZone(ZoneId.systemDefault()).toInstant());
-            taskDoc.append(DUE_DATE_FIELD, dueDate);
+            taskDoc.append(DUE_DATE_FIELD, toDate(task.getDueDate().get()));
         }
 
+        final long changeSeq = nextChangeSeq(task.getGroup());
+        taskDoc.append(CHANGE_SEQ_FIELD, changeSeq);
+        final InsertOneResult result;
         try {
-            if (task.getID().isEmpty()) {
-                // New task, insert
-                InsertOneResult result = taskCollection.insertOne(taskDoc);
-                ObjectId objectId = Objects.requireNonNull(result.getInsertedId()).asObjectId().getValue();
-                String taskID = objectId.toHexString();
-                task.setID(taskID);
+            result = taskCollection.insertOne(taskDoc);
+        } finally {
+            releaseChangeSeq(task.getGroup(), changeSeq);
+        }
+        ObjectId objectId = Objects.requireNonNull(result.getInsertedId()).asObjectId().getValue();
+        task.setID(objectId.toHexString());
+        task.markSaved(1L);
+    }
+
+    private void updateTask(Task task) {
+        final long expectedVersion = task.getVersion();
+        Bson filter = eq(TASK_ID_FIELD, new ObjectId(task.getID()));
+        if (expectedVersion > 0) {
+            filter = and(filter, eq(VERSION_FIELD, expectedVersion));
+        }
+
+        final Set<String> added = task.getAddedAssignees();
+        final Set<String> removed = task.getRemovedAssignees();
+        final long changeSeq = nextChangeSeq(task.getGroup());
+        final UpdateResult result;
+        try {
+            if (!added.isEmpty() && !removed.isEmpty()) {
+                // $addToSet and $pull cannot both change the same field in one update
+                result = taskCollection.updateOne(filter,
+                        List.of(new Document(SET, pipelineChanges(task, changeSeq))));
             } else {
-                // Existing task, update
-                Document updateDoc = new Document("$set", taskDoc);
-                ObjectId id = new ObjectId(task.getID());
-                taskCollection.updateOne(eq(TASK_ID_FIELD, id), updateDoc);
+                result = taskCollection.updateOne(filter, updateChanges(task, changeSeq));
             }
-        } catch (MongoWriteException mwe) {
-            throw new RuntimeException("Failed to save/update task: " + mwe.getMessage(), mwe);
+        } finally {
+            releaseChangeSeq(task.getGroup(), changeSeq);
+        }
+
+        if (result.getMatchedCount() == 0) {
+            throw new StaleTaskException(task.getID(), expectedVersion);
+        }
+        task.markSaved(expectedVersion + 1);
+    }
+
+    /**
+     * Builds an update that writes only the changed fields of a task.
+     *
+     * @param task      The task.
+     * @param changeSeq The change sequence number of the update.
+     * @return The update.
+     */
+    private Bson updateChanges(Task task, long changeSeq) {
+        final Set<Task.Field> changed = task.getChangedFields();
+        final List<Bson> updates = new ArrayList<>();
+        if (changed.contains(Task.Field.DESCRIPTION)) {
+            updates.add(set(DESCRIPTION_FIELD, task.getDescription()));
         }
+        if (changed.contains(Task.Field.COMPLETED)) {
+            updates.add(set(COMPLETED_FIELD, task.isCompleted()));
+        }
+        if (changed.contains(Task.Field.DUE_DATE)) {
+            if (task.hasDueDate()) {
+                updates.add(set(DUE_DATE_FIELD, toDate(task.getDueDate().get())));
+            } else {
+                updates.add(unset(DUE_DATE_FIELD));
+            }
+            // the reminders are sent again for the new deadline
+            updates.add(unset(DUE_SOON_SENT_AT_FIELD));
+            updates.add(unset(OVERDUE_SENT_AT_FIELD));
+        }
+        if (!task.getAddedAssignees().isEmpty()) {
+            updates.add(addEachToSet(ASSIGNEES_FIELD, new ArrayList<>(task.getAddedAssignees())));
+        }
+        if (!task.getRemovedAssignees().isEmpty()) {
+            updates.add(pullAll(ASSIGNEES_FIELD, new ArrayList<>(task.getRemovedAssignees())));
+        }
+        updates.add(inc(VERSION_FIELD, 1L));
+        updates.add(set(CHANGE_SEQ_FIELD, changeSeq));
+        return combine(updates);
+    }
+
+    /**
+     * Builds the $set stage of an update pipeline that writes only the changed
+     * fields of a task, for when assignees were both added and removed.
+     * Values are wrapped in $literal so that a description starting with "$"
+     * is not read as a field path.
+     *
+     * @param task      The task.
+     * @param changeSeq The change sequence number of the update.
+     * @return The fields of the $set stage.
+     */
+    private Document pipelineChanges(Task task, long changeSeq) {
+        final Set<Task.Field> changed = task.getChangedFields();
+        final Document fields = new Document();
+        if (changed.contains(Task.Field.DESCRIPTION)) {
+            fields.append(DESCRIPTION_FIELD, new Document(LITERAL, task.getDescription()));
+        }
+        if (changed.contains(Task.Field.COMPLETED)) {
+            fields.append(COMPLETED_FIELD, new Document(LITERAL, task.isCompleted()));
+        }
+        if (changed.contains(Task.Field.DUE_DATE)) {
+            if (task.hasDueDate()) {
+                fields.append(DUE_DATE_FIELD, new Document(LITERAL, toDate(task.getDueDate().get())));
+            } else {
+                // $$REMOVE drops the field, as $unset does in a plain update
+                fields.append(DUE_DATE_FIELD, REMOVE);
+            }
+            fields.append(DUE_SOON_SENT_AT_FIELD, REMOVE);
+            fields.append(OVERDUE_SENT_AT_FIELD, REMOVE);
+        }
+
+        // keep the stored assignees that were neither removed nor re-added, then append the added ones
+        final List<String> added = new ArrayList<>(task.getAddedAssignees());
+        final List<String> touched = new ArrayList<>(task.getRemovedAssignees());
+        touched.addAll(added);
+        final Document kept = new Document("$filter", new Document()
+                .append("input", new Document(IF_NULL, Arrays.asList(fieldPath(ASSIGNEES_FIELD), List.of())))
+                .append("cond", new Document("$not", List.of(
+                        new Document("$in", Arrays.asList("$$this", new Document(LITERAL, touched)))))));
+        fields.append(ASSIGNEES_FIELD,
+                new Document("$concatArrays", Arrays.asList(kept, new Document(LITERAL, added))));
+
+        final Document storedVersion = new Document(IF_NULL, Arrays.asList(fieldPath(VERSION_FIELD), 0L));
+        fields.append(VERSION_FIELD, new Document("$add", Arrays.asList(storedVersion, 1L)));
+        fields.append(CHANGE_SEQ_FIELD, new Document(LITERAL, changeSeq));
+        return fields;
     }
 
 }
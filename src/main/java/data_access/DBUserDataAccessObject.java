@@ -1,11 +1,18 @@
 package data_access;
 
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoWriteException;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.UpdateResult;
+import entity.group.GroupFactory;
+import entity.membership.MembershipFactory;
+import entity.task.TaskFactory;
 import entity.user.User;
 import entity.user.UserFactory;
 import use_case.change_password.ChangePasswordUserDataAccessInterface;
@@ -18,13 +25,24 @@ import use_case.login.LoginUserDataAccessInterface;
 import use_case.logout.LogoutUserDataAccessInterface;
 import use_case.signup.SignupUserDataAccessInterface;
 import org.bson.Document;
+import org.bson.types.Binary;
+import use_case.taskreminder.TaskReminderUserDataAccessInterface;
+import use_case.taskstats.TaskStatsUserDataAccessInterface;
 import use_case.viewtasks.ViewTasksUserDataAccessInterface;
 
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.addToSet;
+import static com.mongodb.client.model.Updates.pull;
 import static com.mongodb.client.model.Updates.set;
 
-import java.util.List;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 
 /**
  * A MongoDB-based implementation of all user-related data access operations.
@@ -38,6 +56,8 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
         CreateGroupUserDataAccessInterface,
         JoinGroupUserDataAccessInterface,
         ViewTasksUserDataAccessInterface,
+        TaskStatsUserDataAccessInterface,
+        TaskReminderUserDataAccessInterface,
         CreateGroupTaskUserDataAccessInterface,
         EditGroupTasksUserDataAccessInterface,
         CreateScheduleUserDataAccessInterface {
@@ -46,27 +66,31 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
     private static final String EMAIL = "email";
     private static final String PASSWORD = "password";
     private static final String SCHEDULE = "userSchedule";
+    private static final String TASKS = "tasks";
 
-    private final UserFactory userFactory;
-    private final MongoClient mongoClient;
-    private final MongoDatabase database;
     private final MongoCollection<Document> usersCollection;
+    // reads decode straight into User entities, see EntityCodecProvider
+    private final MongoCollection<User> users;
 
+    // set on the event dispatch thread and read by the use case workers, so guarded by this
     private String currentUsername;
 
     /**
-     * Constructs a {@code DBUserDataAccessObject} and initializes a MongoDB client,
-     * database reference, and "users" collection.
+     * Constructs a {@code DBUserDataAccessObject} and initializes the database
+     * reference and "users" collection using the shared client from the registry.
      *
      * @param userFactory      A factory for creating {@link User} entities.
+     * @param clientRegistry   The registry providing the shared MongoDB client.
      * @param connectionString The MongoDB connection string for the cluster.
      * @param dbName           The name of the database to use.
      */
-    public DBUserDataAccessObject(UserFactory userFactory, String connectionString, String dbName) {
-        this.userFactory = userFactory;
-        this.mongoClient = MongoClients.create(connectionString);
-        this.database = mongoClient.getDatabase(dbName);
+    public DBUserDataAccessObject(UserFactory userFactory, MongoClientRegistry clientRegistry,
+                                  String connectionString, String dbName) {
+        final MongoDatabase database = clientRegistry.getDatabase(connectionString, dbName);
         this.usersCollection = database.getCollection("users");
+        this.users = database.getCollection("users", User.class)
+                .withCodecRegistry(new EntityCodecProvider(new TaskFactory(), new MembershipFactory(),
+                        userFactory, new GroupFactory()).registry());
     }
 
     /**
@@ -78,23 +102,31 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
      */
     @Override
     public User get(String username) {
-        final Document doc = usersCollection.find(eq(USERNAME, username)).first();
-        if (doc == null) {
+        final User user = users.find(eq(USERNAME, username)).first();
+        if (user == null) {
             throw new RuntimeException("User not found: " + username);
         }
 
-        final String name = doc.getString(USERNAME);
-        final String email = doc.getString(EMAIL);
-        final String password = doc.getString(PASSWORD);
+        return user;
+    }
 
-        @SuppressWarnings("unchecked")
-        List<List<Boolean>> userSchedule = (List<List<Boolean>>) doc.get("userSchedule");
-    
-        boolean[][] schedule = convertToArrayFromDB(userSchedule);
+    /**
+     * Retrieves the users with the given usernames with a single {@code $in} query.
+     * Only the fields needed to build a {@link User} are read.
+     *
+     * @param usernames The usernames of the users to retrieve.
+     * @return The users that were found; unknown usernames are skipped.
+     */
+    @Override
+    public List<User> getUsers(Collection<String> usernames) {
+        final List<User> result = new ArrayList<>();
+        if (usernames.isEmpty()) {
+            return result;
+        }
 
-        User user = userFactory.create(name, email, password);
-        user.setSchedule(schedule);
-        return user;
+        return users.find(in(USERNAME, new HashSet<>(usernames)))
+                .projection(fields(include(USERNAME, EMAIL, PASSWORD, SCHEDULE, TASKS), excludeId()))
+                .into(result);
     }
 
     /**
@@ -103,7 +135,7 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
      * @param name The username of the current user.
      */
     @Override
-    public void setCurrentUsername(String name) {
+    public synchronized void setCurrentUsername(String name) {
         currentUsername = name;
     }
 
@@ -113,7 +145,7 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
      * @return The current username, or null if no user is logged in.
      */
     @Override
-    public String getCurrentUsername() {
+    public synchronized String getCurrentUsername() {
         return currentUsername;
     }
 
@@ -132,21 +164,24 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
     }
 
     /**
-     * Saves a new user into MongoDB
-     * Inserts a new document with "username" and "password" fields.
+     * Saves a new user into MongoDB.
+     * Inserts a new document, so a second sign-up with a username that is already
+     * taken fails on the unique username index (see {@link MongoIndexBootstrapper})
+     * instead of overwriting the existing user.
      *
      * @param user The user to save.
      * @throws RuntimeException If insertion fails (e.g., duplicate username).
      */
     @Override
     public void save(User user) {
-        List<List<Boolean>> dbSchedule = convertScheduleToDB(user.getSchedule());
+        Binary dbSchedule = ScheduleCodec.encodeAvailability(user.getSchedule());
 
         final Document newUser = new Document()
                 .append(USERNAME, user.getName())
                 .append(EMAIL, user.getEmail())
                 .append(PASSWORD, user.getPassword())
-                .append(SCHEDULE, dbSchedule);
+                .append(SCHEDULE, dbSchedule)
+                .append(TASKS, user.getTasks());
 
         try {
             usersCollection.insertOne(newUser);
@@ -155,6 +190,35 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
         }
     }
 
+    /**
+     * Adds a task id to the task lists of some users and removes it from others
+     * with a single bulk write of {@code $addToSet} and {@code $pull} updates.
+     *
+     * @param taskID  The id of the task.
+     * @param added   The usernames the task is now assigned to.
+     * @param removed The usernames the task is no longer assigned to.
+     * @throws RuntimeException If the bulk write fails.
+     */
+    @Override
+    public void updateTaskAssignments(String taskID, Collection<String> added, Collection<String> removed) {
+        final List<WriteModel<Document>> writes = new ArrayList<>(2);
+        if (!added.isEmpty()) {
+            writes.add(new UpdateManyModel<>(in(USERNAME, new HashSet<>(added)), addToSet(TASKS, taskID)));
+        }
+        if (!removed.isEmpty()) {
+            writes.add(new UpdateManyModel<>(in(USERNAME, new HashSet<>(removed)), pull(TASKS, taskID)));
+        }
+        if (writes.isEmpty()) {
+            return;
+        }
+
+        try {
+            usersCollection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException mbwe) {
+            throw new RuntimeException("Failed to update task assignments: " + mbwe.getMessage(), mbwe);
+        }
+    }
+
     /**
      * Updates a user's password in MongoDB.
      *
@@ -174,54 +238,23 @@ public class DBUserDataAccessObject implements SignupUserDataAccessInterface,
 
     /**
      * Updates a user's schedule in MondoDB.
+     * The old schedule is returned by the same findOneAndUpdate that writes the new
+     * one, so two quick saves each see the schedule the other one left behind.
      * @param user The user whose schedule to update.
+     * @return the schedule stored before this update, or null if there was none
      * @throws RuntimeException If the user does not exist.
      */
-    public void saveSchedule(User user) {
+    @Override
+    public boolean[][] saveSchedule(User user) {
         final boolean[][] userSchedule = user.getSchedule();
-        final UpdateResult result = usersCollection.updateOne(
+        final Document previous = usersCollection.findOneAndUpdate(
                 eq(USERNAME, user.getName()),
-                set(SCHEDULE, convertScheduleToDB(userSchedule)));
+                set(SCHEDULE, ScheduleCodec.encodeAvailability(userSchedule)),
+                new FindOneAndUpdateOptions().projection(include(SCHEDULE)).returnDocument(ReturnDocument.BEFORE));
 
-        if (result.getMatchedCount() == 0) {
+        if (previous == null) {
             throw new RuntimeException("User not found " + user.getName());
         }
+        return ScheduleCodec.decodeAvailability(previous.get(SCHEDULE));
     }
-
-    /**
-     * Convert the 2D array to a nested List to be stored in Mongo.
-     * @param schedule the user schedule to be converted
-     * @return the nested list representing user schedule
-     */
-    private List<List<Boolean>> convertScheduleToDB(boolean[][] schedule) {
-        List<List<Boolean>> result = new ArrayList<List<Boolean>>(schedule.length);
-        for (boolean[] i: schedule) {
-            List<Boolean> list = new ArrayList<Boolean>(i.length);
-            for (boolean j: i) {
-                list.add(j);
-            }
-            result.add(list);
-        }
-
-        return result;
-
-    }
-
-    /**
-     * Convert db user schedule back to 2D array.
-     * @param db_schedule the schedule taken from mongo.
-     * @return the 2D array representing user schedule.
-     */
-    private boolean[][] convertToArrayFromDB(List<List<Boolean>> db_schedule) {
-        boolean[][] result = new boolean[db_schedule.size()][db_schedule.get(0).size()];
-
-        for (int i = 0; i < result.length; i++) {
-            for (int j = 0; j < result[i].length; j++) {
-                result[i][j] = db_schedule.get(i).get(j);
-            }
-        }
-
-        return result;
-    }
-
 }
@@ -0,0 +1,80 @@
+package data_access;
+
+import com.mongodb.MongoClientSettings;
+import entity.group.Group;
+import entity.group.GroupFactory;
+import entity.membership.Membership;
+import entity.membership.MembershipFactory;
+import entity.task.Task;
+import entity.task.TaskFactory;
+import entity.user.User;
+import entity.user.UserFactory;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+
+/**
+ * Provides codecs that decode BSON straight into the entity classes, so a read
+ * does not first build a generic {@link org.bson.Document} and then copy its
+ * fields by hand. The DAOs register it on their typed collections with
+ * {@code withCodecRegistry}.
+ */
+public class EntityCodecProvider implements CodecProvider {
+
+    private final TaskCodec taskCodec;
+    private final MembershipCodec membershipCodec;
+    private final UserCodec userCodec;
+    private final GroupCodec groupCodec;
+
+    /**
+     * Constructs a provider with the default entity factories.
+     */
+    public EntityCodecProvider() {
+        this(new TaskFactory(), new MembershipFactory(), new UserFactory(), new GroupFactory());
+    }
+
+    /**
+     * Constructs a provider.
+     *
+     * @param taskFactory       creates the decoded tasks
+     * @param membershipFactory creates the decoded memberships
+     * @param userFactory       creates the decoded users
+     * @param groupFactory      creates the decoded groups
+     */
+    public EntityCodecProvider(TaskFactory taskFactory, MembershipFactory membershipFactory,
+                               UserFactory userFactory, GroupFactory groupFactory) {
+        this.taskCodec = new TaskCodec(taskFactory);
+        this.membershipCodec = new MembershipCodec(membershipFactory);
+        this.userCodec = new UserCodec(userFactory);
+        this.groupCodec = new GroupCodec(groupFactory);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (clazz == Task.class) {
+            return (Codec<T>) taskCodec;
+        }
+        if (clazz == Membership.class) {
+            return (Codec<T>) membershipCodec;
+        }
+        if (clazz == User.class) {
+            return (Codec<T>) userCodec;
+        }
+        if (clazz == Group.class) {
+            return (Codec<T>) groupCodec;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a registry with the entity codecs in front of the driver's default codecs.
+     *
+     * @return the codec registry
+     */
+    public CodecRegistry registry() {
+        return CodecRegistries.fromRegistries(CodecRegistries.fromProviders(this),
+                MongoClientSettings.getDefaultCodecRegistry());
+    }
+}
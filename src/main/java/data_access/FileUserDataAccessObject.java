@@ -2,6 +2,7 @@ package data_access;
 
 import entity.user.User;
 import entity.group.Group;
+import entity.group.GroupSummary;
 import entity.user.UserFactory;
 import use_case.change_password.ChangePasswordUserDataAccessInterface;
 import use_case.create_group.CreateGroupDataAccessInterface;
@@ -111,7 +112,7 @@ public class FileUserDataAccessObject implements SignupUserDataAccessInterface,
     }
 
     @Override
-    public List<Group> getGroupsForUser(String username) {
+    public List<GroupSummary> getGroupSummariesForUser(String username) {
         return List.of();
     }
 
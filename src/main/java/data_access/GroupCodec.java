@@ -0,0 +1,91 @@
+package data_access;
+
+import entity.group.Group;
+import entity.group.GroupFactory;
+import entity.group.GroupType;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.List;
+
+/**
+ * Decodes group documents straight into {@link Group} entities.
+ * Memberships live in their own collection and are added by the caller.
+ */
+class GroupCodec implements Codec<Group> {
+
+    static final String GROUP_NAME = "name";
+    static final String GROUP_CODE = "joinCode";
+    static final String GROUP_TYPE = "type";
+    static final String SCHEDULE = "groupSchedule";
+    static final String TASKS = "tasks";
+
+    private final GroupFactory groupFactory;
+
+    GroupCodec(GroupFactory groupFactory) {
+        this.groupFactory = groupFactory;
+    }
+
+    @Override
+    public Group decode(BsonReader reader, DecoderContext decoderContext) {
+        String name = null;
+        String joinCode = null;
+        String type = null;
+        int[][] masterSchedule = null;
+        List<String> tasks = List.of();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case GROUP_NAME:
+                    name = BsonFields.readString(reader);
+                    break;
+                case GROUP_CODE:
+                    joinCode = BsonFields.readString(reader);
+                    break;
+                case GROUP_TYPE:
+                    type = BsonFields.readString(reader);
+                    break;
+                case SCHEDULE:
+                    // accepts both the binary and the legacy nested list format
+                    masterSchedule = ScheduleCodec.decodeCounts(BsonFields.readSchedule(reader));
+                    break;
+                case TASKS:
+                    tasks = BsonFields.readStringList(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        final Group group = groupFactory.create(name, joinCode, GroupType.valueOf(type));
+        if (masterSchedule != null) {
+            group.setMasterSchedule(masterSchedule);
+        }
+        for (String taskID : tasks) {
+            group.addTask(taskID);
+        }
+        return group;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Group group, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString(GROUP_NAME, group.getName());
+        writer.writeString(GROUP_CODE, group.getGroupID());
+        writer.writeString(GROUP_TYPE, group.getGroupType().name());
+        BsonFields.writeBinary(writer, SCHEDULE, ScheduleCodec.encodeCounts(group.getMasterSchedule()));
+        BsonFields.writeStringList(writer, TASKS, group.getTasks());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Group> getEncoderClass() {
+        return Group.class;
+    }
+}
@@ -0,0 +1,170 @@
+package data_access;
+
+import com.mongodb.MongoException;
+import org.bson.BSONException;
+import org.bson.RawBsonDocument;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the last loaded group document and membership documents of recently
+ * visited groups, keyed by group ID, together with the group's version.
+ *
+ * <p>
+ * Every write to a group, its memberships or its schedule increments the
+ * {@code version} field of the group document. {@link DBGroupDataAccessObject}
+ * serves a cached snapshot immediately and asks this cache to revalidate it in the
+ * background: the revalidation reads only the version, and reloads the group only
+ * if the version has changed. Writes made through the DAOs of this process also
+ * invalidate the snapshot right away, so they are always visible to the next read.
+ * </p>
+ *
+ * <p>
+ * Snapshots hold the raw BSON bytes of the documents, and a new Group entity is
+ * decoded from them on every read, so callers can never change a cached snapshot.
+ * </p>
+ */
+public class GroupSnapshotCache {
+
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final LruTtlCache<String, Snapshot> snapshots;
+    private final Executor revalidator;
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a cache that revalidates snapshots on a single background thread.
+     */
+    public GroupSnapshotCache() {
+        this(DEFAULT_MAX_SIZE, Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "group-snapshot-revalidator");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param maxSize     the maximum number of groups to keep
+     * @param revalidator runs the background revalidations
+     */
+    public GroupSnapshotCache(int maxSize, Executor revalidator) {
+        // snapshots never expire, they are revalidated against the version instead
+        this.snapshots = new LruTtlCache<>(maxSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        this.revalidator = revalidator;
+    }
+
+    /**
+     * Returns the snapshot of a group, or null if it is not cached.
+     *
+     * @param groupID the group ID
+     * @return the snapshot, or null
+     */
+    public Snapshot get(String groupID) {
+        return snapshots.get(groupID);
+    }
+
+    /**
+     * Returns the current invalidation stamp, to be passed to {@link #put}.
+     *
+     * @return the stamp
+     */
+    public long stamp() {
+        return snapshots.stamp();
+    }
+
+    /**
+     * Caches a snapshot, unless the cache was invalidated after the stamp was taken.
+     *
+     * @param snapshot the snapshot
+     * @param stamp    the stamp taken before the snapshot was loaded
+     */
+    public void put(Snapshot snapshot, long stamp) {
+        snapshots.put(snapshot.getGroupID(), snapshot, stamp);
+    }
+
+    /**
+     * Drops the snapshot of a group after it was changed by this process.
+     *
+     * @param groupID the group ID
+     */
+    public void invalidate(String groupID) {
+        snapshots.invalidate(groupID);
+    }
+
+    /**
+     * Runs a revalidation of a group in the background, unless one is already running.
+     *
+     * @param groupID      the group ID
+     * @param revalidation the revalidation to run
+     */
+    public void revalidate(String groupID, Runnable revalidation) {
+        if (!revalidating.add(groupID)) {
+            return;
+        }
+        try {
+            revalidator.execute(() -> {
+                try {
+                    revalidation.run();
+                } catch (MongoException | BSONException ex) {
+                    // the snapshot stays as it is and is revalidated again on the next read
+                    System.err.println("Failed to revalidate group " + groupID + ": " + ex);
+                } finally {
+                    revalidating.remove(groupID);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            revalidating.remove(groupID);
+            throw ex;
+        }
+    }
+
+    /**
+     * The stored state of a group at one version.
+     */
+    public static final class Snapshot {
+        private final String groupID;
+        private final long version;
+        private final RawBsonDocument groupDoc;
+        private final List<RawBsonDocument> membershipDocs;
+
+        /**
+         * Constructs a snapshot.
+         *
+         * @param groupID        the group ID
+         * @param version        the version of the group document
+         * @param groupDoc       the group document
+         * @param membershipDocs the membership documents of the group
+         */
+        public Snapshot(String groupID, long version, RawBsonDocument groupDoc,
+                        List<RawBsonDocument> membershipDocs) {
+            this.groupID = groupID;
+            this.version = version;
+            this.groupDoc = groupDoc;
+            this.membershipDocs = List.copyOf(membershipDocs);
+        }
+
+        public String getGroupID() {
+            return groupID;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public RawBsonDocument getGroupDoc() {
+            return groupDoc;
+        }
+
+        public List<RawBsonDocument> getMembershipDocs() {
+            return membershipDocs;
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package data_access;
 
 import entity.group.Group;
+import entity.group.GroupSummary;
 import use_case.create_group.CreateGroupDataAccessInterface;
 import use_case.create_schedule.CreateScheduleGroupDataAccessInterface;
 import use_case.creategrouptask.CreateGroupTaskGroupDataAccessInterface;
 import use_case.join_group.JoinGroupDataAccessInterface;
 import use_case.login.LoginGroupsDataAccessInterface;
+import use_case.manage_members.remove_member.RemoveMemberGroupDataAccessInterface;
+import use_case.manage_members.respond_request.RespondRequestGroupDataAccessInterface;
 import use_case.viewgrouptasks.ViewGroupTasksGroupDataAccessInterface;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class InMemoryGroupDataAccessObject implements
         CreateGroupDataAccessInterface,
@@ -20,9 +25,13 @@ public class InMemoryGroupDataAccessObject implements
         CreateGroupTaskGroupDataAccessInterface,
         ViewGroupTasksGroupDataAccessInterface,
         JoinGroupDataAccessInterface,
-        CreateScheduleGroupDataAccessInterface {
+        CreateScheduleGroupDataAccessInterface,
+        RespondRequestGroupDataAccessInterface,
+        RemoveMemberGroupDataAccessInterface {
 
     private final Map<String, Group> groups = new HashMap<>();
+    private final Set<String> builtSchedules = new HashSet<>();
+    private final Set<String> staleSchedules = new HashSet<>();
     private String currentGroupID;
     private static final String JOIN_CODE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int JOIN_CODE_LENGTH = 6;
@@ -64,18 +73,35 @@ public class InMemoryGroupDataAccessObject implements
     }
 
     /**
-     * Retrieves all groups that a given user belongs to.
+     * Appends a task to the task list of a stored group.
+     *
+     * @param groupId the group id
+     * @param taskId  the id of the task to add
+     */
+    @Override
+    public void addTask(String groupId, String taskId) {
+        final Group group = groups.get(groupId);
+        if (group == null) {
+            throw new RuntimeException("Group not found " + groupId);
+        }
+        group.addTask(taskId);
+    }
+
+    /**
+     * Retrieves a summary of every group that a given user is an approved member of.
      *
      * @param username the username whose group memberships are requested
-     * @return a list of Group entities the user is a member of
+     * @return a list of summaries of the groups the user is a member of
      **/
     @Override
-    public List<Group> getGroupsForUser(String username) {
-        List<Group> groupsForUser = new ArrayList<>();
+    public List<GroupSummary> getGroupSummariesForUser(String username) {
+        List<GroupSummary> groupsForUser = new ArrayList<>();
 
         for (Group gr : groups.values()) {
-            if (gr.isMember(username)) {
-                groupsForUser.add(gr);
+            List<String> members = gr.getMembers();
+            if (members.contains(username)) {
+                groupsForUser.add(new GroupSummary(gr.getGroupID(), gr.getName(), gr.getGroupType(),
+                        members.size()));
             }
         }
 
@@ -95,6 +121,35 @@ public class InMemoryGroupDataAccessObject implements
     @Override
     public void saveMasterSchedule(Group group) {
         groups.put(group.getGroupID(), group);
+        builtSchedules.add(group.getGroupID());
+        staleSchedules.remove(group.getGroupID());
+    }
+
+    @Override
+    public int[][] getMasterSchedule(String groupID) {
+        final Group group = groups.get(groupID);
+        if (group == null) {
+            throw new RuntimeException("Group not found " + groupID);
+        }
+        if (staleSchedules.contains(groupID)) {
+            return null;
+        }
+        return group.getMasterSchedule();
+    }
+
+    @Override
+    public int[][] applyScheduleDelta(String groupID, int[][] delta) {
+        final int[][] masterSchedule = getMasterSchedule(groupID);
+        if (masterSchedule == null || !builtSchedules.contains(groupID)) {
+            return null;
+        }
+        ScheduleDeltas.apply(masterSchedule, delta, groupID);
+        return masterSchedule;
+    }
+
+    @Override
+    public void invalidateMasterSchedule(String groupID) {
+        staleSchedules.add(groupID);
     }
 
     private String generateUniqueJoinCode() {
@@ -129,6 +129,25 @@ public class InMemoryMembershipDataAccessObject implements
         return approvedMemberships;
     }
 
+    /**
+     * Retrieves the ids of all groups the specified user is an approved member of.
+     *
+     * @param username the username of the member
+     * @return a list of group ids
+     */
+    @Override
+    public List<String> getGroupIDsForUser(String username) {
+        List<String> groupIDs = new ArrayList<>();
+
+        for (Membership m : memberships.values()) {
+            if (m.getUsername().equals(username) && m.isApproved()) {
+                groupIDs.add(m.getGroup());
+            }
+        }
+
+        return groupIDs;
+    }
+
     /**
      * Retrieves all pending membership requests for the specified group.
      *
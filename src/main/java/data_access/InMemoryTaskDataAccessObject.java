@@ -1,12 +1,22 @@
 package data_access;
 
 import entity.task.Task;
+import send_grid_api.SendEmailInterface.EmailType;
 import use_case.creategrouptask.CreateGroupTaskDataAccessInterface;
 import use_case.editgrouptasks.EditGroupTasksDataAccessInterface;
+import use_case.taskreminder.TaskReminderDataAccessInterface;
+import use_case.taskstats.TaskStats;
+import use_case.taskstats.TaskStatsDataAccessInterface;
+import use_case.viewgrouptasks.TaskChanges;
+import use_case.viewgrouptasks.TaskPage;
 import use_case.viewgrouptasks.ViewGroupTasksDataAccessInterface;
+import use_case.viewtasks.TaskQuery;
 import use_case.viewtasks.ViewTasksDataAccessInterface;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,20 +24,33 @@ import java.util.Map;
 public class InMemoryTaskDataAccessObject implements ViewTasksDataAccessInterface,
         ViewGroupTasksDataAccessInterface,
         CreateGroupTaskDataAccessInterface,
-        EditGroupTasksDataAccessInterface {
+        EditGroupTasksDataAccessInterface,
+        TaskStatsDataAccessInterface,
+        TaskReminderDataAccessInterface {
+
+    private static final Comparator<Task> PAGE_ORDER =
+            TaskQuery.dueDateOrder().thenComparing(Task::getID);
 
     private final Map<String, Task> tasks = new HashMap<>();
+    private final Map<String, Long> changeSeqs = new HashMap<>();
+    private final Map<String, Long> groupChangeSeqs = new HashMap<>();
+    // the deadline each reminder was claimed for, by task ID and reminder type
+    private final Map<String, LocalDateTime> claimedReminders = new HashMap<>();
 
     @Override
-    public List<Task> getTasksForUser(String username) {
+    public List<Task> findTasks(TaskQuery query) {
         List<Task> result = new ArrayList<>();
         for (Task t : tasks.values()) {
-            for (String u : t.getAssignees()) {
-                if (u.equals(username)) {
-                    result.add(t);
-                }
+            if (query.matches(t)) {
+                result.add(t);
             }
         }
+        if (query.isSortedByDueDate()) {
+            result.sort(TaskQuery.dueDateOrder());
+        }
+        if (query.getLimit() > 0 && result.size() > query.getLimit()) {
+            return new ArrayList<>(result.subList(0, query.getLimit()));
+        }
         return result;
     }
 
@@ -36,7 +59,12 @@ public class InMemoryTaskDataAccessObject implements ViewTasksDataAccessInterfac
         return tasks.get(taskId);
     }
 
-    @Override
+    /**
+     * Returns every task of a group, in no particular order.
+     *
+     * @param groupId the group ID
+     * @return the tasks of the group
+     */
     public List<Task> getTasksForGroup(String groupId) {
         List<Task> result = new ArrayList<>();
         for (Task t : tasks.values()) {
@@ -47,8 +75,132 @@ public class InMemoryTaskDataAccessObject implements ViewTasksDataAccessInterfac
         return result;
     }
 
+    @Override
+    public TaskPage getTasksForGroup(String groupId, String pageToken, int pageSize) {
+        return page(getTasksForGroup(groupId), pageToken, pageSize);
+    }
+
+    @Override
+    public TaskPage getOpenTasksDueBetween(Collection<String> groupIds, LocalDateTime from, LocalDateTime until,
+                                           String pageToken, int pageSize) {
+        List<Task> matching = new ArrayList<>();
+        for (Task t : tasks.values()) {
+            if (groupIds.contains(t.getGroup()) && !t.isCompleted() && t.hasDueDate()
+                    && !t.getDueDate().get().isBefore(from) && t.getDueDate().get().isBefore(until)) {
+                matching.add(t);
+            }
+        }
+        return page(matching, pageToken, pageSize);
+    }
+
+    @Override
+    public boolean claimReminder(String taskID, EmailType type, LocalDateTime dueDate) {
+        Task task = tasks.get(taskID);
+        if (task == null || task.isCompleted() || !dueDate.equals(task.getDueDate().orElse(null))) {
+            return false;
+        }
+        // a reminder claimed for an earlier deadline can be claimed again
+        return !dueDate.equals(claimedReminders.put(taskID + " " + type, dueDate));
+    }
+
+    @Override
+    public List<Task> getTasks(Collection<String> taskIDs) {
+        List<Task> result = new ArrayList<>();
+        for (String taskID : taskIDs) {
+            Task task = tasks.get(taskID);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    private static TaskPage page(List<Task> sorted, String pageToken, int pageSize) {
+        sorted.sort(PAGE_ORDER);
+
+        int start = 0;
+        if (pageToken != null) {
+            TaskPageToken after = TaskPageToken.decode(pageToken);
+            Task last = new Task(after.getTaskID(), "", "", false, new ArrayList<>(), after.getDueDate());
+            while (start < sorted.size() && PAGE_ORDER.compare(sorted.get(start), last) <= 0) {
+                start++;
+            }
+        }
+
+        int end = Math.min(sorted.size(), start + pageSize);
+        List<Task> page = new ArrayList<>(sorted.subList(start, end));
+        if (end == sorted.size()) {
+            return new TaskPage(page, null);
+        }
+        Task last = page.get(page.size() - 1);
+        return new TaskPage(page, new TaskPageToken(last.getDueDate().orElse(null), last.getID()).encode());
+    }
+
+    @Override
+    public String getSyncToken(String groupId) {
+        return new TaskSyncToken(groupId, groupChangeSeqs.getOrDefault(groupId, 0L)).encode();
+    }
+
+    @Override
+    public TaskChanges getTaskChangesForGroup(String groupId, String syncToken) {
+        long since = TaskSyncToken.decode(syncToken, groupId).getChangeSeq();
+        List<Task> changed = new ArrayList<>();
+        for (Task task : getTasksForGroup(groupId)) {
+            if (changeSeqs.get(task.getID()) > since) {
+                changed.add(task);
+            }
+        }
+        changed.sort(Comparator.comparing(task -> changeSeqs.get(task.getID())));
+        return new TaskChanges(changed, getSyncToken(groupId));
+    }
+
+    @Override
+    public Map<String, TaskStats> getTaskStats(Collection<String> groupIds, String username,
+                                               LocalDateTime now, LocalDateTime dueSoon) {
+        Map<String, TaskStats.Builder> builders = new HashMap<>();
+        for (Task task : tasks.values()) {
+            if (!groupIds.contains(task.getGroup())) {
+                continue;
+            }
+            TaskStats.Builder stats = builders.computeIfAbsent(task.getGroup(), TaskStats.Builder::new);
+            boolean assigned = task.getAssignees().contains(username);
+            if (task.isCompleted()) {
+                stats.addCompleted(1);
+                continue;
+            }
+            stats.addOpen(1);
+            if (assigned) {
+                stats.addAssignedOpen(1);
+            }
+            if (!task.hasDueDate()) {
+                continue;
+            }
+            LocalDateTime due = task.getDueDate().get();
+            if (due.isBefore(now)) {
+                stats.addOverdue(1);
+                if (assigned) {
+                    stats.addAssignedOverdue(1);
+                }
+            } else if (due.isBefore(dueSoon)) {
+                stats.addDueSoon(1);
+                if (assigned) {
+                    stats.addAssignedDueSoon(1);
+                }
+            }
+        }
+
+        Map<String, TaskStats> result = new HashMap<>();
+        for (Map.Entry<String, TaskStats.Builder> entry : builders.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().build());
+        }
+        return result;
+    }
+
     @Override
     public void upsertTask(Task task) {
         this.tasks.put(task.getID(), task);
+        task.markSaved(task.getVersion() + 1);
+        long changeSeq = groupChangeSeqs.merge(task.getGroup(), 1L, Long::sum);
+        changeSeqs.put(task.getID(), changeSeq);
     }
 }
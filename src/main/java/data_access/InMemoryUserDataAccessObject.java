@@ -10,10 +10,16 @@ import use_case.login.LoginUserDataAccessInterface;
 import use_case.logout.LogoutUserDataAccessInterface;
 import use_case.signup.SignupUserDataAccessInterface;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import entity.user.User;
+import use_case.taskreminder.TaskReminderUserDataAccessInterface;
+import use_case.taskstats.TaskStatsUserDataAccessInterface;
 import use_case.viewtasks.ViewTasksUserDataAccessInterface;
 
 /**
@@ -28,11 +34,14 @@ public class InMemoryUserDataAccessObject implements SignupUserDataAccessInterfa
         JoinGroupUserDataAccessInterface,
         LogoutUserDataAccessInterface,
         ViewTasksUserDataAccessInterface,
+        TaskStatsUserDataAccessInterface,
+        TaskReminderUserDataAccessInterface,
         CreateGroupTaskUserDataAccessInterface,
         EditGroupTasksUserDataAccessInterface,
         CreateScheduleUserDataAccessInterface {
 
     private final Map<String, User> users = new HashMap<>();
+    private final Map<String, boolean[][]> savedSchedules = new HashMap<>();
 
     private String currentUsername;
 
@@ -44,6 +53,7 @@ public class InMemoryUserDataAccessObject implements SignupUserDataAccessInterfa
     @Override
     public void save(User user) {
         users.put(user.getName(), user);
+        savedSchedules.put(user.getName(), copy(user.getSchedule()));
     }
 
     @Override
@@ -51,6 +61,34 @@ public class InMemoryUserDataAccessObject implements SignupUserDataAccessInterfa
         return users.get(username);
     }
 
+    @Override
+    public List<User> getUsers(Collection<String> usernames) {
+        final List<User> result = new ArrayList<>();
+        for (String username : new LinkedHashSet<>(usernames)) {
+            final User user = users.get(username);
+            if (user != null) {
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void updateTaskAssignments(String taskID, Collection<String> added, Collection<String> removed) {
+        for (String username : added) {
+            final User user = users.get(username);
+            if (user != null && !user.getTasks().contains(taskID)) {
+                user.addTask(taskID);
+            }
+        }
+        for (String username : removed) {
+            final User user = users.get(username);
+            if (user != null) {
+                user.removeTask(taskID);
+            }
+        }
+    }
+
     @Override
     public void setCurrentUsername(String name) {
         currentUsername = name;
@@ -68,9 +106,19 @@ public class InMemoryUserDataAccessObject implements SignupUserDataAccessInterfa
     }
 
     @Override
-    public void saveSchedule(User user) {
-        // Update the user with the new schedule
+    public boolean[][] saveSchedule(User user) {
+        // Update the user with the new schedule. The stored user may be the same object
+        // that was changed, so the previous schedule is kept as a separate copy.
         users.put(user.getName(), user);
+        return savedSchedules.put(user.getName(), copy(user.getSchedule()));
+    }
+
+    private static boolean[][] copy(boolean[][] schedule) {
+        final boolean[][] result = new boolean[schedule.length][];
+        for (int i = 0; i < schedule.length; i++) {
+            result[i] = schedule[i].clone();
+        }
+        return result;
     }
 
 }
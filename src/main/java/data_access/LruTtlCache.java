@@ -0,0 +1,177 @@
+package data_access;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A thread-safe in-memory cache with a maximum size and a time to live.
+ *
+ * <p>
+ * Entries are kept in access order, so when the cache is full the least recently
+ * used entry is evicted. An entry older than the time to live is treated as a miss
+ * and removed the next time it is read.
+ * </p>
+ *
+ * <p>
+ * A value loaded from the database may already be stale by the time it is put in
+ * the cache if another thread wrote the same record in the meantime. Callers take a
+ * {@link #stamp()} before loading and pass it to {@link #put(Object, Object, long)},
+ * which skips the put if anything was invalidated since.
+ * </p>
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LruTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    // access order, so iteration starts at the least recently used entry
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs a cache that reads time from {@link System#nanoTime()}.
+     *
+     * @param maxSize the maximum number of entries
+     * @param ttl     how long an entry stays valid
+     * @param unit    the unit of {@code ttl}
+     */
+    public LruTtlCache(int maxSize, long ttl, TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    /**
+     * Constructs a cache.
+     *
+     * @param maxSize the maximum number of entries
+     * @param ttl     how long an entry stays valid
+     * @param unit    the unit of {@code ttl}
+     * @param clock   the source of the current time in nanoseconds
+     * @throws IllegalArgumentException if the size is not positive or the ttl is negative
+     */
+    public LruTtlCache(int maxSize, long ttl, TimeUnit unit, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        if (ttl < 0) {
+            throw new IllegalArgumentException("Cache ttl cannot be negative: " + ttl);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value for a key, or null if there is none or it has expired.
+     *
+     * @param key the key
+     * @return the value, or null
+     */
+    public synchronized V get(K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - entry.createdAt > ttlNanos) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Returns the current invalidation stamp, to be passed to {@link #put(Object, Object, long)}.
+     *
+     * @return the stamp
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a value, unless an invalidation happened after the stamp was taken.
+     *
+     * @param key   the key
+     * @param value the value
+     * @param stamp the stamp taken before the value was loaded
+     */
+    public synchronized void put(K key, V value, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, clock.getAsLong()));
+
+        final Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes a key from the cache.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        invalidations++;
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        invalidations++;
+    }
+
+    /**
+     * Returns the number of entries, including expired ones that have not been read since.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * A cached value and when it was cached.
+     *
+     * @param <V> the value type
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
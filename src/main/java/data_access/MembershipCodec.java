@@ -0,0 +1,75 @@
+package data_access;
+
+import entity.membership.Membership;
+import entity.membership.MembershipFactory;
+import entity.user.UserRole;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+/**
+ * Decodes membership documents straight into {@link Membership} entities.
+ */
+class MembershipCodec implements Codec<Membership> {
+
+    static final String USER_FIELD = "user";
+    static final String GROUP_FIELD = "group";
+    static final String ROLE_FIELD = "role";
+    static final String APPROVED_FIELD = "approved";
+
+    private final MembershipFactory membershipFactory;
+
+    MembershipCodec(MembershipFactory membershipFactory) {
+        this.membershipFactory = membershipFactory;
+    }
+
+    @Override
+    public Membership decode(BsonReader reader, DecoderContext decoderContext) {
+        String user = null;
+        String group = null;
+        String role = null;
+        boolean approved = false;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case USER_FIELD:
+                    user = BsonFields.readString(reader);
+                    break;
+                case GROUP_FIELD:
+                    group = BsonFields.readString(reader);
+                    break;
+                case ROLE_FIELD:
+                    role = BsonFields.readString(reader);
+                    break;
+                case APPROVED_FIELD:
+                    approved = BsonFields.readBoolean(reader, false);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return membershipFactory.create(user, group, UserRole.valueOf(role), approved);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Membership membership, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString(USER_FIELD, membership.getUsername());
+        writer.writeString(GROUP_FIELD, membership.getGroup());
+        // enum stored as String
+        writer.writeString(ROLE_FIELD, membership.getRole().name());
+        writer.writeBoolean(APPROVED_FIELD, membership.isApproved());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Membership> getEncoderClass() {
+        return Membership.class;
+    }
+}
@@ -0,0 +1,154 @@
+package data_access;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandListener;
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A registry of shared MongoDB clients, one per connection string.
+ *
+ * <p>
+ * Every MongoDB-backed DAO obtains its client from this registry instead of
+ * creating its own, so the application opens a single connection pool (with a
+ * single set of monitor threads and TLS handshakes) per cluster no matter how
+ * many DAOs are wired up. The registry owns the clients it hands out and closes
+ * them all in {@link #close()}.
+ * </p>
+ */
+public class MongoClientRegistry implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 20;
+    public static final int DEFAULT_MIN_POOL_SIZE = 2;
+    public static final long DEFAULT_MAX_IDLE_TIME_MS = 60_000;
+    public static final long DEFAULT_MAX_WAIT_TIME_MS = 10_000;
+
+    private final int maxPoolSize;
+    private final int minPoolSize;
+    private final long maxIdleTimeMs;
+    private final long maxWaitTimeMs;
+
+    private final Map<String, MongoClient> clients = new HashMap<>();
+    private final List<CommandListener> commandListeners = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Constructs a registry using the default pool configuration.
+     */
+    public MongoClientRegistry() {
+        this(DEFAULT_MAX_POOL_SIZE, DEFAULT_MIN_POOL_SIZE, DEFAULT_MAX_IDLE_TIME_MS, DEFAULT_MAX_WAIT_TIME_MS);
+    }
+
+    /**
+     * Constructs a registry whose clients use the given pool configuration.
+     *
+     * @param maxPoolSize   the maximum number of connections per client
+     * @param minPoolSize   the number of connections each pool keeps open once warmed up
+     * @param maxIdleTimeMs how long an unused pooled connection may stay open, in milliseconds
+     * @param maxWaitTimeMs how long a caller may wait for a free connection, in milliseconds
+     * @throws IllegalArgumentException if the pool sizes are inconsistent
+     */
+    public MongoClientRegistry(int maxPoolSize, int minPoolSize, long maxIdleTimeMs, long maxWaitTimeMs) {
+        if (maxPoolSize < 1 || minPoolSize < 0 || minPoolSize > maxPoolSize) {
+            throw new IllegalArgumentException("Invalid connection pool size: min " + minPoolSize
+                    + ", max " + maxPoolSize);
+        }
+        this.maxPoolSize = maxPoolSize;
+        this.minPoolSize = minPoolSize;
+        this.maxIdleTimeMs = maxIdleTimeMs;
+        this.maxWaitTimeMs = maxWaitTimeMs;
+    }
+
+    /**
+     * Registers a listener that is notified of every command sent by clients
+     * created after this call. Useful for diagnostics and for counting round trips.
+     *
+     * @param listener the command listener to register
+     */
+    public synchronized void addCommandListener(CommandListener listener) {
+        commandListeners.add(listener);
+    }
+
+    /**
+     * Returns the shared client for the given connection string, creating it on
+     * first use.
+     *
+     * @param connectionString the MongoDB connection string
+     * @return the shared client for that connection string
+     * @throws IllegalStateException if the registry has already been closed
+     */
+    public synchronized MongoClient getClient(String connectionString) {
+        if (closed) {
+            throw new IllegalStateException("Mongo client registry has been closed.");
+        }
+        return clients.computeIfAbsent(connectionString, this::createClient);
+    }
+
+    /**
+     * Returns a database handle backed by the shared client for the given
+     * connection string.
+     *
+     * @param connectionString the MongoDB connection string
+     * @param dbName           the name of the database
+     * @return the database handle
+     */
+    public MongoDatabase getDatabase(String connectionString, String dbName) {
+        return getClient(connectionString).getDatabase(dbName);
+    }
+
+    /**
+     * Establishes the connection to the cluster ahead of the first real query by
+     * sending a ping. This pays for server discovery and the TLS handshake up
+     * front and lets the pool start filling up to its minimum size.
+     *
+     * @param connectionString the MongoDB connection string to warm up
+     * @return true if the cluster answered the ping, false otherwise
+     */
+    public boolean warmUp(String connectionString) {
+        try {
+            getClient(connectionString).getDatabase("admin").runCommand(new Document("ping", 1));
+            return true;
+        } catch (MongoException ex) {
+            System.err.println("MongoDB warm-up failed: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Closes every client created by this registry. Further calls to
+     * {@link #getClient(String)} fail.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (MongoClient client : clients.values()) {
+            client.close();
+        }
+        clients.clear();
+    }
+
+    private MongoClient createClient(String connectionString) {
+        final MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(connectionString))
+                .applyToConnectionPoolSettings(pool -> {
+                    pool.maxSize(maxPoolSize)
+                            .minSize(minPoolSize)
+                            .maxConnectionIdleTime(maxIdleTimeMs, TimeUnit.MILLISECONDS)
+                            .maxWaitTime(maxWaitTimeMs, TimeUnit.MILLISECONDS);
+                });
+        for (CommandListener listener : commandListeners) {
+            settings.addCommandListener(listener);
+        }
+        return MongoClients.create(settings.build());
+    }
+}
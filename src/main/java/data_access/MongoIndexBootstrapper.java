@@ -0,0 +1,238 @@
+package data_access;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.in;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Indexes.ascending;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Declares the indexes the MongoDB DAOs rely on and creates any that are missing.
+ *
+ * <p>
+ * Every hot DAO query filters on a field other than {@code _id}, so without these
+ * indexes each of them is a collection scan. Creating an index that already exists
+ * is a no-op, so {@link #ensureIndexes()} is safe to run on every start-up. A
+ * failure to create one index (for example a unique index over data that already
+ * contains duplicates) is reported and does not stop the others from being created.
+ * </p>
+ *
+ * <p>
+ * {@link #backfillCompleted()} writes {@code completed: false} into tasks stored
+ * before every task had that field, so the DAOs can find open tasks with an
+ * equality match on the index instead of {@code $ne}, which cannot use it.
+ * </p>
+ *
+ * <p>
+ * {@link #findCollectionScans()} runs {@code explain()} on the query shapes the
+ * DAOs issue and reports every one that the server answers with a collection scan.
+ * It is meant for tests and troubleshooting and is not run at start-up.
+ * </p>
+ */
+public class MongoIndexBootstrapper {
+
+    private static final String GROUPS = "groups";
+    private static final String USERS = "users";
+    private static final String MEMBERSHIPS = "memberships";
+    private static final String TASKS = "tasks";
+
+    private static final String USER = "user";
+    private static final String GROUP = "group";
+    private static final String APPROVED = "approved";
+    private static final String JOIN_CODE = "joinCode";
+    private static final String ASSIGNEES = "assignees";
+    private static final String COMPLETED = "completed";
+    private static final String DEADLINE = "deadline";
+    private static final String ID = "_id";
+    private static final String SEPARATOR = ": ";
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private final MongoDatabase database;
+    private final List<IndexSpec> indexes = new ArrayList<>();
+    private final List<QueryShape> queryShapes = new ArrayList<>();
+
+    /**
+     * Constructs a bootstrapper for the given database and declares the indexes
+     * and query shapes of the group_flow collections.
+     *
+     * @param database the database holding the group_flow collections
+     */
+    public MongoIndexBootstrapper(MongoDatabase database) {
+        this.database = database;
+
+        indexes.add(new IndexSpec(MEMBERSHIPS, ascending(USER, APPROVED), new IndexOptions()));
+        indexes.add(new IndexSpec(MEMBERSHIPS, ascending(GROUP, APPROVED), new IndexOptions()));
+        indexes.add(new IndexSpec(GROUPS, ascending(JOIN_CODE), new IndexOptions().unique(true)));
+        // equality on assignee and completion first, then the deadline range and sort
+        indexes.add(new IndexSpec(TASKS, ascending(ASSIGNEES, COMPLETED, DEADLINE), new IndexOptions()));
+        // keyset pagination of a group's tasks sorts on (deadline, _id), as do the task reminders
+        indexes.add(new IndexSpec(TASKS, ascending(GROUP, DEADLINE, ID), new IndexOptions()));
+        // delta sync of a group's tasks reads a range of the change sequence
+        indexes.add(new IndexSpec(TASKS, ascending(GROUP, "changeSeq"), new IndexOptions()));
+        indexes.add(new IndexSpec(USERS, ascending("username"), new IndexOptions().unique(true)));
+
+        queryShapes.add(new QueryShape(MEMBERSHIPS, "memberships by user and approved",
+                and(eq(USER, ""), eq(APPROVED, true))));
+        queryShapes.add(new QueryShape(MEMBERSHIPS, "memberships by user and group",
+                and(eq(USER, ""), eq(GROUP, ""))));
+        queryShapes.add(new QueryShape(MEMBERSHIPS, "memberships by group and approved",
+                and(eq(GROUP, ""), eq(APPROVED, true))));
+        queryShapes.add(new QueryShape(MEMBERSHIPS, "memberships by group list",
+                in(GROUP, List.of("", ""))));
+        queryShapes.add(new QueryShape(GROUPS, "groups by join code", eq(JOIN_CODE, "")));
+        queryShapes.add(new QueryShape(GROUPS, "groups by join code list", in(JOIN_CODE, List.of("", ""))));
+        queryShapes.add(new QueryShape(TASKS, "tasks by assignee", eq(ASSIGNEES, "")));
+        queryShapes.add(new QueryShape(TASKS, "open tasks by assignee",
+                and(eq(ASSIGNEES, ""), eq(COMPLETED, false))));
+        queryShapes.add(new QueryShape(TASKS, "tasks by group", eq(GROUP, "")));
+        queryShapes.add(new QueryShape(TASKS, "tasks changed in group",
+                and(eq(GROUP, ""), gt("changeSeq", 0L))));
+        queryShapes.add(new QueryShape(TASKS, "open tasks of groups by deadline range",
+                and(in(GROUP, List.of("", "")), gte(DEADLINE, new Date(0)), lt(DEADLINE, new Date()),
+                        eq(COMPLETED, false))));
+        queryShapes.add(new QueryShape(USERS, "users by username", eq("username", "")));
+    }
+
+    /**
+     * Creates every declared index that does not exist yet.
+     *
+     * @return the names of the indexes that were created by this call
+     */
+    public List<String> ensureIndexes() {
+        final List<String> created = new ArrayList<>();
+        for (IndexSpec index : indexes) {
+            final MongoCollection<Document> collection = database.getCollection(index.collection);
+            try {
+                final Set<String> existing = new HashSet<>();
+                for (Document indexDoc : collection.listIndexes()) {
+                    existing.add(indexDoc.getString("name"));
+                }
+                final String name = collection.createIndex(index.keys, index.options);
+                if (!existing.contains(name)) {
+                    created.add(index.collection + "." + name);
+                }
+            } catch (MongoException ex) {
+                System.err.println("Failed to create index on " + index.collection + SEPARATOR + ex.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Sets {@code completed} to false on every task that has no completed field.
+     * Tasks written by the current DAOs always have one, so after the first run
+     * this matches nothing.
+     *
+     * @return the number of tasks that were updated
+     */
+    public long backfillCompleted() {
+        try {
+            return database.getCollection(TASKS)
+                    .updateMany(exists(COMPLETED, false), set(COMPLETED, false))
+                    .getModifiedCount();
+        } catch (MongoException ex) {
+            System.err.println("Failed to backfill " + COMPLETED + SEPARATOR + ex.getMessage());
+            return 0L;
+        }
+    }
+
+    /**
+     * Explains every declared query shape and collects the ones whose winning
+     * plan scans the whole collection.
+     *
+     * @return a description of every query shape answered with a collection scan
+     */
+    public List<String> findCollectionScans() {
+        final List<String> scans = new ArrayList<>();
+        for (QueryShape shape : queryShapes) {
+            try {
+                final Document explain = database.getCollection(shape.collection).find(shape.filter).explain();
+                final Document queryPlanner = explain.get("queryPlanner", Document.class);
+                if (queryPlanner != null && containsStage(queryPlanner.get("winningPlan"), COLLECTION_SCAN)) {
+                    scans.add(shape.collection + SEPARATOR + shape.description);
+                }
+            } catch (MongoException ex) {
+                System.err.println("Failed to explain " + shape.description + SEPARATOR + ex.getMessage());
+            }
+        }
+        return scans;
+    }
+
+    /**
+     * Searches a (possibly nested) query plan for a stage with the given name. Plans
+     * nest their children under inputStage, inputStages or queryPlan depending on the
+     * stage and server version, so every nested document is searched.
+     *
+     * @param plan  the plan, or any value nested in it
+     * @param stage the name of the stage to look for
+     * @return whether the plan contains the stage
+     */
+    private static boolean containsStage(Object plan, String stage) {
+        if (plan instanceof Document) {
+            final Document planDoc = (Document) plan;
+            if (stage.equals(planDoc.get("stage"))) {
+                return true;
+            }
+            for (Object child : planDoc.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (plan instanceof List) {
+            for (Object child : (List<?>) plan) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * An index declared on one collection.
+     */
+    private static final class IndexSpec {
+        private final String collection;
+        private final Bson keys;
+        private final IndexOptions options;
+
+        private IndexSpec(String collection, Bson keys, IndexOptions options) {
+            this.collection = collection;
+            this.keys = keys;
+            this.options = options;
+        }
+    }
+
+    /**
+     * A filter issued by one of the DAOs, used to check the indexes with explain().
+     */
+    private static final class QueryShape {
+        private final String collection;
+        private final String description;
+        private final Bson filter;
+
+        private QueryShape(String collection, String description, Bson filter) {
+            this.collection = collection;
+            this.description = description;
+            this.filter = filter;
+        }
+    }
+}
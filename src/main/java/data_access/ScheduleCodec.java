@@ -0,0 +1,236 @@
+package data_access;
+
+import org.bson.types.Binary;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * Encodes user availability and group master schedules into compact BSON binaries.
+ *
+ * <p>
+ * Every encoded schedule starts with a three byte header: a format byte that
+ * identifies the kind and version of the encoding, then the number of rows and
+ * columns. Availability is stored as a packed bit array (one bit per cell, row by
+ * row) and master counts as one unsigned varint per cell, so the usual 12 x 7
+ * schedule takes 14 bytes instead of 84 boxed BSON elements.
+ * </p>
+ *
+ * <p>
+ * Schedules written before this codec existed are nested lists. The decode
+ * methods still accept them, and the DAOs always write the binary format, so old
+ * documents are migrated the next time they are saved.
+ * </p>
+ */
+public final class ScheduleCodec {
+
+    static final byte AVAILABILITY_V1 = 1;
+    static final byte COUNTS_V1 = 2;
+
+    private static final int HEADER_LENGTH = 3;
+    private static final int MAX_DIMENSION = 0xFF;
+
+    private ScheduleCodec() {
+    }
+
+    /**
+     * Encodes a user's availability as a packed bit array.
+     *
+     * @param schedule the availability grid, all rows of the same length
+     * @return the encoded schedule
+     * @throws IllegalArgumentException if the grid is too large to encode
+     */
+    public static Binary encodeAvailability(boolean[][] schedule) {
+        final int rows = schedule.length;
+        final int cols = columns(schedule);
+        final byte[] bytes = new byte[HEADER_LENGTH + (rows * cols + 7) / 8];
+        writeHeader(bytes, AVAILABILITY_V1, rows, cols);
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (schedule[i][j]) {
+                    final int bit = i * cols + j;
+                    bytes[HEADER_LENGTH + bit / 8] |= 1 << (bit % 8);
+                }
+            }
+        }
+        return new Binary(bytes);
+    }
+
+    /**
+     * Decodes a user's availability from either the binary format or the legacy
+     * nested list format.
+     *
+     * @param stored the value of the schedule field, may be null
+     * @return the availability grid, or null if no schedule is stored
+     * @throws IllegalArgumentException if the value is not a recognised schedule
+     */
+    public static boolean[][] decodeAvailability(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof List) {
+            return decodeLegacyAvailability((List<?>) stored);
+        }
+
+        final byte[] bytes = binaryData(stored, AVAILABILITY_V1);
+        final int rows = bytes[1] & 0xFF;
+        final int cols = bytes[2] & 0xFF;
+        final boolean[][] result = new boolean[rows][cols];
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                final int bit = i * cols + j;
+                result[i][j] = (bytes[HEADER_LENGTH + bit / 8] & (1 << (bit % 8))) != 0;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Encodes a group's master schedule as one unsigned varint per cell.
+     *
+     * @param schedule the master schedule, all rows of the same length
+     * @return the encoded schedule
+     * @throws IllegalArgumentException if the grid is too large or holds a negative count
+     */
+    public static Binary encodeCounts(int[][] schedule) {
+        final int rows = schedule.length;
+        final int cols = columns(schedule);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + rows * cols);
+        out.write(COUNTS_V1);
+        out.write(rows);
+        out.write(cols);
+
+        for (int[] row : schedule) {
+            for (int count : row) {
+                if (count < 0) {
+                    throw new IllegalArgumentException("Negative count in master schedule: " + count);
+                }
+                int value = count;
+                while (value >= 0x80) {
+                    out.write(value & 0x7F | 0x80);
+                    value >>>= 7;
+                }
+                out.write(value);
+            }
+        }
+        return new Binary(out.toByteArray());
+    }
+
+    /**
+     * Decodes a group's master schedule from either the binary format or the
+     * legacy nested list format.
+     *
+     * @param stored the value of the schedule field, may be null
+     * @return the master schedule, or null if no schedule is stored
+     * @throws IllegalArgumentException if the value is not a recognised schedule
+     */
+    public static int[][] decodeCounts(Object stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored instanceof List) {
+            return decodeLegacyCounts((List<?>) stored);
+        }
+
+        final byte[] bytes = binaryData(stored, COUNTS_V1);
+        final int rows = bytes[1] & 0xFF;
+        final int cols = bytes[2] & 0xFF;
+        final int[][] result = new int[rows][cols];
+
+        int pos = HEADER_LENGTH;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    if (pos >= bytes.length) {
+                        throw new IllegalArgumentException("Truncated master schedule.");
+                    }
+                    b = bytes[pos++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                result[i][j] = value;
+            }
+        }
+        return result;
+    }
+
+    private static int columns(boolean[][] schedule) {
+        int cols = 0;
+        if (schedule.length > 0) {
+            cols = schedule[0].length;
+        }
+        return checkDimensions(schedule.length, cols);
+    }
+
+    private static int columns(int[][] schedule) {
+        int cols = 0;
+        if (schedule.length > 0) {
+            cols = schedule[0].length;
+        }
+        return checkDimensions(schedule.length, cols);
+    }
+
+    private static int checkDimensions(int rows, int cols) {
+        if (rows > MAX_DIMENSION || cols > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Schedule too large to encode: " + rows + " x " + cols);
+        }
+        return cols;
+    }
+
+    private static void writeHeader(byte[] bytes, byte format, int rows, int cols) {
+        bytes[0] = format;
+        bytes[1] = (byte) rows;
+        bytes[2] = (byte) cols;
+    }
+
+    private static byte[] binaryData(Object stored, byte expectedFormat) {
+        if (!(stored instanceof Binary)) {
+            throw new IllegalArgumentException("Unrecognised schedule value: " + stored.getClass().getName());
+        }
+        final byte[] bytes = ((Binary) stored).getData();
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Unsupported schedule format: empty");
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != expectedFormat) {
+            throw new IllegalArgumentException("Unsupported schedule format: " + bytes[0]);
+        }
+        return bytes;
+    }
+
+    private static boolean[][] decodeLegacyAvailability(List<?> dbSchedule) {
+        final boolean[][] result = new boolean[dbSchedule.size()][legacyColumns(dbSchedule)];
+
+        for (int i = 0; i < result.length; i++) {
+            final List<?> row = (List<?>) dbSchedule.get(i);
+            for (int j = 0; j < result[i].length; j++) {
+                result[i][j] = (Boolean) row.get(j);
+            }
+        }
+        return result;
+    }
+
+    private static int[][] decodeLegacyCounts(List<?> dbSchedule) {
+        final int[][] result = new int[dbSchedule.size()][legacyColumns(dbSchedule)];
+
+        for (int i = 0; i < result.length; i++) {
+            final List<?> row = (List<?>) dbSchedule.get(i);
+            for (int j = 0; j < result[i].length; j++) {
+                result[i][j] = ((Number) row.get(j)).intValue();
+            }
+        }
+        return result;
+    }
+
+    private static int legacyColumns(List<?> dbSchedule) {
+        int cols = 0;
+        if (!dbSchedule.isEmpty()) {
+            cols = ((List<?>) dbSchedule.get(0)).size();
+        }
+        return cols;
+    }
+}
@@ -0,0 +1,43 @@
+package data_access;
+
+/**
+ * Applies the per-slot changes of a member's availability to a master schedule.
+ */
+final class ScheduleDeltas {
+
+    private ScheduleDeltas() {
+    }
+
+    /**
+     * Adds a delta to a master schedule in place. A slot that would drop below zero
+     * means the master schedule no longer matches the members' availability, so the
+     * delta is rejected instead of being clamped and hiding the drift.
+     *
+     * @param masterSchedule the master schedule to update
+     * @param delta          the change to add to each time slot
+     * @param groupID        the ID of the group, for the error message
+     * @return whether any slot changed
+     * @throws IllegalStateException if a slot would drop below zero
+     */
+    static boolean apply(int[][] masterSchedule, int[][] delta, String groupID) {
+        for (int i = 0; i < delta.length; i++) {
+            for (int j = 0; j < delta[i].length; j++) {
+                if (masterSchedule[i][j] + delta[i][j] < 0) {
+                    throw new IllegalStateException("Master schedule of group " + groupID
+                            + " has drifted: slot (" + i + ", " + j + ") would drop below zero");
+                }
+            }
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < delta.length; i++) {
+            for (int j = 0; j < delta[i].length; j++) {
+                if (delta[i][j] != 0) {
+                    masterSchedule[i][j] += delta[i][j];
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,109 @@
+package data_access;
+
+import entity.task.Task;
+import entity.task.TaskFactory;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes task documents straight into {@link Task} entities.
+ */
+class TaskCodec implements Codec<Task> {
+
+    static final String TASK_ID_FIELD = "_id";
+    static final String DESCRIPTION_FIELD = "description";
+    static final String GROUP_ID_FIELD = "group";
+    static final String DUE_DATE_FIELD = "deadline";
+    static final String COMPLETED_FIELD = "completed";
+    static final String ASSIGNEES_FIELD = "assignees";
+    static final String VERSION_FIELD = "version";
+
+    private final TaskFactory taskFactory;
+
+    TaskCodec(TaskFactory taskFactory) {
+        this.taskFactory = taskFactory;
+    }
+
+    @Override
+    public Task decode(BsonReader reader, DecoderContext decoderContext) {
+        String taskID = "";
+        String description = null;
+        String groupID = null;
+        boolean completed = false;
+        List<String> assignees = new ArrayList<>();
+        LocalDateTime dueDate = null;
+        long version = 0;
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case TASK_ID_FIELD:
+                    taskID = reader.readObjectId().toHexString();
+                    break;
+                case DESCRIPTION_FIELD:
+                    description = BsonFields.readString(reader);
+                    break;
+                case GROUP_ID_FIELD:
+                    groupID = BsonFields.readString(reader);
+                    break;
+                case COMPLETED_FIELD:
+                    completed = BsonFields.readBoolean(reader, false);
+                    break;
+                case ASSIGNEES_FIELD:
+                    assignees = BsonFields.readStringList(reader);
+                    break;
+                case DUE_DATE_FIELD:
+                    dueDate = BsonFields.readDateTime(reader);
+                    break;
+                case VERSION_FIELD:
+                    version = BsonFields.readLong(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        final Task task;
+        if (dueDate == null) {
+            task = taskFactory.createWithoutDeadline(taskID, description, groupID, completed, assignees);
+        } else {
+            task = taskFactory.createWithDeadline(taskID, description, groupID, completed, assignees, dueDate);
+        }
+        task.setVersion(version);
+        return task;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Task task, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (!task.getID().isEmpty()) {
+            writer.writeObjectId(TASK_ID_FIELD, new ObjectId(task.getID()));
+        }
+        writer.writeString(DESCRIPTION_FIELD, task.getDescription());
+        writer.writeString(GROUP_ID_FIELD, task.getGroup());
+        writer.writeBoolean(COMPLETED_FIELD, task.isCompleted());
+        BsonFields.writeStringList(writer, ASSIGNEES_FIELD, task.getAssignees());
+        if (task.hasDueDate()) {
+            BsonFields.writeDateTime(writer, DUE_DATE_FIELD, task.getDueDate().get());
+        }
+        if (task.getVersion() > 0) {
+            writer.writeInt64(VERSION_FIELD, task.getVersion());
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Task> getEncoderClass() {
+        return Task.class;
+    }
+}
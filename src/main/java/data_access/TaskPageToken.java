@@ -0,0 +1,76 @@
+package data_access;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * The position after the last task of a page, in (due date, task ID) order.
+ * Page tokens are opaque to callers; they are the encoded form of this class.
+ */
+final class TaskPageToken {
+
+    private static final String SEPARATOR = "|";
+    private static final String MALFORMED = "Malformed page token: ";
+
+    private final LocalDateTime dueDate;
+    private final String taskID;
+
+    TaskPageToken(LocalDateTime dueDate, String taskID) {
+        this.dueDate = dueDate;
+        this.taskID = taskID;
+    }
+
+    /**
+     * Returns the due date of the last task.
+     *
+     * @return the due date, or null if the task has none
+     */
+    LocalDateTime getDueDate() {
+        return dueDate;
+    }
+
+    String getTaskID() {
+        return taskID;
+    }
+
+    String encode() {
+        String raw = SEPARATOR + taskID;
+        if (dueDate != null) {
+            raw = dueDate + raw;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a page token.
+     *
+     * @param token the token
+     * @return the position it stands for
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    static TaskPageToken decode(String token) {
+        final String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(MALFORMED + token, ex);
+        }
+
+        final int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0 || separator == raw.length() - 1) {
+            throw new IllegalArgumentException(MALFORMED + token);
+        }
+        final String due = raw.substring(0, separator);
+        LocalDateTime dueDate = null;
+        if (!due.isEmpty()) {
+            try {
+                dueDate = LocalDateTime.parse(due);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException(MALFORMED + token, ex);
+            }
+        }
+        return new TaskPageToken(dueDate, raw.substring(separator + 1));
+    }
+}
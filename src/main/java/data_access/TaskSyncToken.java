@@ -0,0 +1,70 @@
+package data_access;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A position in the change sequence of a group's tasks.
+ * Sync tokens are opaque to callers; they are the encoded form of this class.
+ */
+final class TaskSyncToken {
+
+    private static final String SEPARATOR = "|";
+    private static final String MALFORMED = "Malformed sync token: ";
+
+    private final String groupID;
+    private final long changeSeq;
+
+    TaskSyncToken(String groupID, long changeSeq) {
+        this.groupID = groupID;
+        this.changeSeq = changeSeq;
+    }
+
+    String getGroupID() {
+        return groupID;
+    }
+
+    /**
+     * Returns the change sequence of the last change the holder of the token has seen.
+     *
+     * @return the change sequence
+     */
+    long getChangeSeq() {
+        return changeSeq;
+    }
+
+    String encode() {
+        final String raw = changeSeq + SEPARATOR + groupID;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a sync token issued for a group.
+     *
+     * @param token   the token
+     * @param groupID the group the token is used for
+     * @return the position it stands for
+     * @throws IllegalArgumentException if the token is malformed or was issued for another group
+     */
+    static TaskSyncToken decode(String token, String groupID) {
+        final String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(MALFORMED + token, ex);
+        }
+
+        final int separator = raw.indexOf(SEPARATOR);
+        if (separator <= 0) {
+            throw new IllegalArgumentException(MALFORMED + token);
+        }
+        if (!raw.substring(separator + 1).equals(groupID)) {
+            throw new IllegalArgumentException("Sync token was issued for another group: " + token);
+        }
+        try {
+            return new TaskSyncToken(groupID, Long.parseLong(raw.substring(0, separator)));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(MALFORMED + token, ex);
+        }
+    }
+}
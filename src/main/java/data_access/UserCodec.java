@@ -0,0 +1,87 @@
+package data_access;
+
+import entity.user.User;
+import entity.user.UserFactory;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import java.util.List;
+
+/**
+ * Decodes user documents straight into {@link User} entities.
+ */
+class UserCodec implements Codec<User> {
+
+    static final String USERNAME = "username";
+    static final String EMAIL = "email";
+    static final String PASSWORD = "password";
+    static final String SCHEDULE = "userSchedule";
+    static final String TASKS = "tasks";
+
+    private final UserFactory userFactory;
+
+    UserCodec(UserFactory userFactory) {
+        this.userFactory = userFactory;
+    }
+
+    @Override
+    public User decode(BsonReader reader, DecoderContext decoderContext) {
+        String name = null;
+        String email = null;
+        String password = null;
+        boolean[][] schedule = null;
+        List<String> tasks = List.of();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case USERNAME:
+                    name = BsonFields.readString(reader);
+                    break;
+                case EMAIL:
+                    email = BsonFields.readString(reader);
+                    break;
+                case PASSWORD:
+                    password = BsonFields.readString(reader);
+                    break;
+                case SCHEDULE:
+                    // accepts both the binary and the legacy nested list format
+                    schedule = ScheduleCodec.decodeAvailability(BsonFields.readSchedule(reader));
+                    break;
+                case TASKS:
+                    tasks = BsonFields.readStringList(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        final User user = userFactory.create(name, email, password);
+        if (schedule != null) {
+            user.setSchedule(schedule);
+        }
+        user.getTasks().addAll(tasks);
+        return user;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, User user, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writer.writeString(USERNAME, user.getName());
+        writer.writeString(EMAIL, user.getEmail());
+        writer.writeString(PASSWORD, user.getPassword());
+        BsonFields.writeBinary(writer, SCHEDULE, ScheduleCodec.encodeAvailability(user.getSchedule()));
+        BsonFields.writeStringList(writer, TASKS, user.getTasks());
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<User> getEncoderClass() {
+        return User.class;
+    }
+}
@@ -1,8 +1,12 @@
 package entity.group;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 import entity.membership.Membership;
 import entity.user.UserRole;
@@ -11,11 +15,28 @@ import entity.user.UserRole;
  * A simple entity representing a group. Groups have IDs, names, memberships,
  * and types.
  * Memberships act as a link between a Group and a User.
+ *
+ * <p>
+ * Memberships are indexed by username, and the approved members and the moderators
+ * are kept up to date as memberships are added, removed and changed, so membership
+ * and moderator checks, the members and the moderator are all constant time to read,
+ * and loading a group is linear in its size. Members are returned in the order they
+ * were approved, which for memberships added already approved is the order they were
+ * added in, and the moderator is the member who has been a moderator the longest.
+ * The group observes the memberships it holds, so changes made to a membership
+ * directly are reflected as well.
+ * </p>
  */
 public class Group {
     private String groupID;
     private String name;
-    private List<Membership> memberships;
+    private final Map<String, Membership> memberships = new HashMap<>();
+    // in the order the members were approved and the moderators were appointed
+    private final Set<String> approvedMembers = new LinkedHashSet<>();
+    private final Set<String> moderators = new LinkedHashSet<>();
+    // a copy of the approved members, taken when they are first read after a change
+    private List<String> members = List.of();
+    private final Membership.Observer membershipObserver = this::reindex;
     private List<String> tasks;
     private GroupType groupType;
     private int[][] masterSchedule;
@@ -35,7 +56,6 @@ public class Group {
         this.groupID = groupId;
         this.name = name;
         this.groupType = groupType;
-        this.memberships = new ArrayList<>();
         this.tasks = new ArrayList<>();
         this.masterSchedule = new int[12][7];
     }
@@ -55,18 +75,13 @@ public class Group {
     /**
      * Method to get all members in this group.
      * 
-     * @return The userIDs associated with all the users in this group.
+     * @return The userIDs associated with all the users in this group, which cannot be changed.
      */
     public List<String> getMembers() {
-        final List<String> users = new ArrayList<>();
-
-        for (Membership m : memberships) {
-            if (m.isApproved()) {
-                users.add(m.getUsername());
-            }
+        if (members == null) {
+            members = List.copyOf(approvedMembers);
         }
-
-        return users;
+        return members;
     }
 
     /**
@@ -88,12 +103,10 @@ public class Group {
      * @throws NoSuchElementException if the group has no moderator
      */
     public String getModerator() throws NoSuchElementException {
-        for (Membership m : memberships) {
-            if (m.isModerator()) {
-                return m.getUsername();
-            }
+        if (moderators.isEmpty()) {
+            throw new NoSuchElementException("No moderator in this group.");
         }
-        throw new NoSuchElementException("No moderator in this group.");
+        return moderators.iterator().next();
     }
 
     /**
@@ -110,12 +123,7 @@ public class Group {
      * @return Whether this group has a moderator.
      */
     public boolean hasModerator() {
-        for (Membership m : memberships) {
-            if (m.isModerator()) {
-                return true;
-            }
-        }
-        return false;
+        return !moderators.isEmpty();
     }
 
     /**
@@ -124,13 +132,7 @@ public class Group {
      * @return How many moderators there are in this group.
      */
     public int moderatorCount() {
-        int count = 0;
-        for (Membership m : memberships) {
-            if (m.getRole().equals(UserRole.MODERATOR)) {
-                count++;
-            }
-        }
-        return count;
+        return moderators.size();
     }
 
     public void setName(String groupName) {
@@ -151,13 +153,20 @@ public class Group {
 
     /**
      * Adds the given membership to this group.
+     * A membership of the same user that is already in the group is replaced.
      * 
      * @param membership The membership to be added to the group.
      */
     public void addMembership(Membership membership) {
-        if (!memberships.contains(membership)) {
-            memberships.add(membership);
+        if (memberships.get(membership.getUsername()) == membership) {
+            return;
+        }
+        membership.attach(membershipObserver);
+        final Membership previous = memberships.put(membership.getUsername(), membership);
+        if (previous != null) {
+            previous.detach(membershipObserver);
         }
+        reindex(membership);
     }
 
     /**
@@ -166,7 +175,39 @@ public class Group {
      * @param membership The membership to be removed.
      */
     public void removeMembership(Membership membership) {
-        this.memberships.remove(membership);
+        if (memberships.remove(membership.getUsername(), membership)) {
+            membership.detach(membershipObserver);
+            if (approvedMembers.remove(membership.getUsername())) {
+                members = null;
+            }
+            moderators.remove(membership.getUsername());
+        }
+    }
+
+    /**
+     * Brings the approved members and the moderators up to date with a membership.
+     *
+     * @param membership The membership that was added or changed.
+     */
+    private void reindex(Membership membership) {
+        final String username = membership.getUsername();
+        if (memberships.get(username) != membership) {
+            return;
+        }
+        final boolean membersChanged;
+        if (membership.isApproved()) {
+            membersChanged = approvedMembers.add(username);
+        } else {
+            membersChanged = approvedMembers.remove(username);
+        }
+        if (membersChanged) {
+            members = null;
+        }
+        if (membership.isModerator()) {
+            moderators.add(username);
+        } else {
+            moderators.remove(username);
+        }
     }
 
     /**
@@ -176,12 +217,7 @@ public class Group {
      * @return Whether the user with the given user ID is a member of this group.
      */
     public Boolean isMember(String username) {
-        for (Membership m : memberships) {
-            if (username.equals(m.getUsername())) {
-                return true;
-            }
-        }
-        return false;
+        return memberships.containsKey(username);
     }
 
     /**
@@ -199,15 +235,9 @@ public class Group {
      *                                and will be demoted
      */
     public void changeUserRole(String userID, UserRole newRole) throws NoSuchElementException, IllegalStateException {
-        Membership target = null;
-
-        for (Membership m : memberships) {
-            if (userID.equals(m.getUsername())) {
-                target = m;
-            }
-        }
+        final Membership target = memberships.get(userID);
 
-        if (!isMember(userID)) {
+        if (target == null) {
             throw new NoSuchElementException("User is not in this group.");
         } else if (newRole.equals(target.getRole())) {
             return;
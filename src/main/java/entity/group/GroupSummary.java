@@ -0,0 +1,44 @@
+package entity.group;
+
+/**
+ * A lightweight, read-only view of a group. It holds only what is needed to
+ * list a group (for example in the dashboard sidebar), without the group's
+ * memberships, tasks or master schedule.
+ */
+public class GroupSummary {
+    private final String groupID;
+    private final String name;
+    private final GroupType groupType;
+    private final int memberCount;
+
+    /**
+     * Creates a new group summary.
+     *
+     * @param groupID     the group join code (id)
+     * @param name        the group name
+     * @param groupType   the group type
+     * @param memberCount the number of approved members in the group
+     */
+    public GroupSummary(String groupID, String name, GroupType groupType, int memberCount) {
+        this.groupID = groupID;
+        this.name = name;
+        this.groupType = groupType;
+        this.memberCount = memberCount;
+    }
+
+    public String getGroupID() {
+        return groupID;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public GroupType getGroupType() {
+        return groupType;
+    }
+
+    public int getMemberCount() {
+        return memberCount;
+    }
+}
@@ -2,6 +2,9 @@ package entity.membership;
 
 import entity.user.UserRole;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Membership class.
  */
@@ -11,6 +14,7 @@ public class Membership {
     private String group;
     private UserRole role;
     private boolean approved;
+    private final List<Observer> observers = new ArrayList<>(1);
 
     /**
      * Creates a new membership record for a user in a group. Stores the user ID,
@@ -51,7 +55,9 @@ public class Membership {
      * the user is considered a full member of the group.
      */
     public void approve() {
+        boolean wasApproved = this.approved;
         this.approved = true;
+        notifyObservers(this.role, wasApproved);
     }
 
     /**
@@ -68,7 +74,9 @@ public class Membership {
      * @param newRole The new role for the user
      */
     public void reassignRole(UserRole newRole) {
+        UserRole previousRole = this.role;
         this.role = newRole;
+        notifyObservers(previousRole, this.approved);
     }
 
     /**
@@ -80,4 +88,45 @@ public class Membership {
         return this.role.equals(UserRole.MODERATOR);
     }
 
+    /**
+     * Adds an observer told about every change to this membership, unless it is
+     * already attached. A group observes the memberships it holds.
+     *
+     * @param observer The observer
+     */
+    public void attach(Observer observer) {
+        if (!observers.contains(observer)) {
+            observers.add(observer);
+        }
+    }
+
+    /**
+     * Removes an observer of this membership, if it is attached.
+     *
+     * @param observer The observer to remove
+     */
+    public void detach(Observer observer) {
+        observers.remove(observer);
+    }
+
+    private void notifyObservers(UserRole previousRole, boolean wasApproved) {
+        if (previousRole != role || wasApproved != approved) {
+            for (Observer observer : observers) {
+                observer.membershipChanged(this);
+            }
+        }
+    }
+
+    /**
+     * Told when the role or approval of a membership changes.
+     */
+    public interface Observer {
+
+        /**
+         * Called after a membership changed.
+         *
+         * @param membership The membership that changed
+         */
+        void membershipChanged(Membership membership);
+    }
 }
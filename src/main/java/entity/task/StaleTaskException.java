@@ -0,0 +1,20 @@
+package entity.task;
+
+/**
+ * Thrown when a task cannot be saved because it was changed or deleted by
+ * someone else after it was loaded.
+ */
+public class StaleTaskException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param taskID  the ID of the task that could not be saved
+     * @param version the version the task had when it was loaded
+     */
+    public StaleTaskException(String taskID, long version) {
+        super("Task " + taskID + " was changed since version " + version + " was loaded.");
+    }
+}
@@ -1,16 +1,45 @@
 package entity.task;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
+/**
+ * A task of a group.
+ *
+ * <p>
+ * A task remembers which of its fields changed since it was created or last saved,
+ * so that a data access object can write only those fields instead of the whole task.
+ * The version is the number of times the task was saved, and lets a data access
+ * object refuse to save a task that someone else saved after it was loaded.
+ * </p>
+ */
 public class Task {
+
+    /**
+     * The fields of a task that can change after it is created.
+     */
+    public enum Field {
+        DESCRIPTION,
+        COMPLETED,
+        DUE_DATE,
+        ASSIGNEES
+    }
+
     private String id;
     private String description;
     private boolean completed;
     private final String group;
     private final List<String> assignees;
     private LocalDateTime dueDate;
+    private long version;
+    private final Set<Field> changedFields = EnumSet.noneOf(Field.class);
+    private List<String> savedAssignees;
 
     /**
      * Creates a new Task instance with the given due date.
@@ -34,6 +63,7 @@ public class Task {
         this.group = groupID;
         this.completed = completed;
         this.assignees = assignees;
+        this.savedAssignees = copyOf(assignees);
     }
 
     /**
@@ -55,6 +85,7 @@ public class Task {
         this.group = groupID;
         this.completed = completed;
         this.assignees = assignees;
+        this.savedAssignees = copyOf(assignees);
     }
 
     public String getID() {
@@ -65,6 +96,19 @@ public class Task {
         this.id = taskID;
     }
 
+    /**
+     * Returns the version of this task as it was loaded or last saved.
+     *
+     * @return the version, or 0 if the version is not known
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -97,6 +141,9 @@ public class Task {
      * @param description The new description text
      */
     public void setDescription(String description) {
+        if (!Objects.equals(this.description, description)) {
+            changedFields.add(Field.DESCRIPTION);
+        }
         this.description = description;
     }
 
@@ -104,6 +151,9 @@ public class Task {
      * Marks this task as completed.
      */
     public void markCompleted() {
+        if (!completed) {
+            changedFields.add(Field.COMPLETED);
+        }
         this.completed = true;
     }
 
@@ -111,6 +161,9 @@ public class Task {
      * Marks this task as incomplete.
      */
     public void markIncomplete() {
+        if (completed) {
+            changedFields.add(Field.COMPLETED);
+        }
         this.completed = false;
     }
 
@@ -120,6 +173,9 @@ public class Task {
      * @param dueDate The deadline for the task
      */
     public void setDueDate(LocalDateTime dueDate) {
+        if (!Objects.equals(this.dueDate, dueDate)) {
+            changedFields.add(Field.DUE_DATE);
+        }
         this.dueDate = dueDate;
     }
 
@@ -177,4 +233,68 @@ public class Task {
         this.assignees.clear();
         this.assignees.addAll(assignees);
     }
+
+    /**
+     * Returns the fields that changed since this task was created or last saved.
+     *
+     * @return the changed fields
+     */
+    public Set<Field> getChangedFields() {
+        final Set<Field> changed = EnumSet.noneOf(Field.class);
+        changed.addAll(changedFields);
+        if (!getAddedAssignees().isEmpty() || !getRemovedAssignees().isEmpty()) {
+            changed.add(Field.ASSIGNEES);
+        }
+        return changed;
+    }
+
+    /**
+     * Check whether any field changed since this task was created or last saved.
+     *
+     * @return Whether this task has unsaved changes.
+     */
+    public boolean hasChanges() {
+        return !getChangedFields().isEmpty();
+    }
+
+    /**
+     * Returns the users assigned since this task was created or last saved.
+     *
+     * @return the added assignees, in assignment order
+     */
+    public Set<String> getAddedAssignees() {
+        final Set<String> added = new LinkedHashSet<>(copyOf(assignees));
+        added.removeAll(savedAssignees);
+        return added;
+    }
+
+    /**
+     * Returns the users unassigned since this task was created or last saved.
+     *
+     * @return the removed assignees
+     */
+    public Set<String> getRemovedAssignees() {
+        final Set<String> removed = new LinkedHashSet<>(savedAssignees);
+        removed.removeAll(copyOf(assignees));
+        return removed;
+    }
+
+    /**
+     * Records that this task was saved with the given version,
+     * so that its current fields are no longer reported as changed.
+     *
+     * @param savedVersion the version the task was saved with
+     */
+    public void markSaved(long savedVersion) {
+        this.version = savedVersion;
+        this.changedFields.clear();
+        this.savedAssignees = copyOf(assignees);
+    }
+
+    private static List<String> copyOf(List<String> list) {
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(list);
+    }
 }
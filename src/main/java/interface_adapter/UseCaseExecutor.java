@@ -0,0 +1,481 @@
+package interface_adapter;
+
+import javax.swing.SwingUtilities;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs use cases on a bounded pool of worker threads instead of the Swing event
+ * dispatch thread, so the UI stays responsive while interactors wait on the
+ * database or the email API.
+ *
+ * <p>
+ * Interactors are wrapped with {@link #async}, which turns every call to the input
+ * boundary into a task on the pool, and presenters are wrapped with
+ * {@link #onEventThread}, which hands every call to the output boundary back to
+ * the event dispatch thread. Controllers and interactors are unchanged.
+ * </p>
+ *
+ * <p>
+ * Calls made under the same key supersede each other: a request that has not
+ * started yet is cancelled, and the output of one that is already running is
+ * dropped, so a slow response for a previously selected group can never replace
+ * the current one. Use cases that write data must never be cancelled, so they are
+ * either wrapped without a key or with {@link #inOrder}, which runs the calls that
+ * touch the same data one at a time in the order they were made.
+ * </p>
+ *
+ * <p>
+ * A use case that throws is reported to the failure handler it was wrapped with,
+ * so its presenter can show the error, or else to the application's failure
+ * handler set with {@link #setFailureHandler}. A request made while
+ * {@value #DEFAULT_QUEUE_CAPACITY} others are already waiting for a worker is not
+ * run at all, and is reported the same way.
+ * </p>
+ *
+ * <p>
+ * Listeners registered with {@link #addPropertyChangeListener} receive a
+ * {@value #LOADING_PROPERTY} event whenever the executor goes from idle to busy
+ * or back, which views use to show a loading state.
+ * </p>
+ */
+public class UseCaseExecutor {
+
+    public static final String LOADING_PROPERTY = "loading";
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final String BUSY_MESSAGE = "Too many requests are waiting. Please try again.";
+
+    private final ThreadPoolExecutor workers;
+    private final Executor eventThread;
+    private final ThreadLocal<Ticket> currentTicket = new ThreadLocal<>();
+    private final Map<Object, Ticket> latestTickets = new HashMap<>();
+    private final Map<Object, Deque<Ticket>> orderedQueues = new HashMap<>();
+    private final PropertyChangeSupport support = new PropertyChangeSupport(this);
+    private int running;
+    private Consumer<String> failureHandler = message -> { };
+
+    /**
+     * Constructs an executor with the default pool size that delivers presenter
+     * calls on the Swing event dispatch thread.
+     */
+    public UseCaseExecutor() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Constructs an executor.
+     * When the queue is full, new requests are rejected and reported as failed,
+     * rather than run on the calling thread, which is usually the event dispatch thread.
+     *
+     * @param threads       the number of worker threads
+     * @param queueCapacity the number of requests that may wait for a worker
+     * @param eventThread   where presenter calls and loading events are delivered
+     */
+    public UseCaseExecutor(int threads, int queueCapacity, Executor eventThread) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "use-case-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.workers.allowCoreThreadTimeOut(true);
+        this.eventThread = eventThread;
+    }
+
+    /**
+     * Sets the handler told about the failures of use cases that were wrapped without
+     * a failure handler of their own. It is called on the event thread with the error
+     * message, unless the request has been superseded. Until one is set, such failures
+     * are dropped.
+     *
+     * @param handler receives the error message of a use case that failed
+     */
+    public synchronized void setFailureHandler(Consumer<String> handler) {
+        this.failureHandler = handler;
+    }
+
+    /**
+     * Builds a key out of several parts, for use cases that are keyed per view.
+     *
+     * @param parts the parts of the key
+     * @return a key equal to any other key built from equal parts
+     */
+    public static Object key(Object... parts) {
+        return Arrays.asList(parts);
+    }
+
+    /**
+     * Wraps an interactor so that each call to its input boundary runs on the pool.
+     * Calls never supersede each other.
+     *
+     * @param inputBoundary the input boundary interface
+     * @param interactor    the interactor to run
+     * @param <T>           the input boundary type
+     * @return an input boundary that runs the interactor asynchronously
+     */
+    public <T> T async(Class<T> inputBoundary, T interactor) {
+        return async(inputBoundary, interactor, null);
+    }
+
+    /**
+     * Wraps an interactor so that each call to its input boundary runs on the pool,
+     * superseding any earlier call made under the same key.
+     *
+     * @param inputBoundary the input boundary interface
+     * @param interactor    the interactor to run
+     * @param key           the key of the request, or null if calls never supersede each other
+     * @param <T>           the input boundary type
+     * @return an input boundary that runs the interactor asynchronously
+     */
+    public <T> T async(Class<T> inputBoundary, T interactor, Object key) {
+        return async(inputBoundary, interactor, key, null);
+    }
+
+    /**
+     * Wraps an interactor so that each call to its input boundary runs on the pool,
+     * superseding any earlier call made under the same key, and a call that throws
+     * is reported to the given failure handler.
+     *
+     * @param inputBoundary the input boundary interface
+     * @param interactor    the interactor to run
+     * @param key           the key of the request, or null if calls never supersede each other
+     * @param onFailure     receives the error message of a call that threw, or null
+     * @param <T>           the input boundary type
+     * @return an input boundary that runs the interactor asynchronously
+     */
+    public <T> T async(Class<T> inputBoundary, T interactor, Object key, Consumer<String> onFailure) {
+        return proxy(inputBoundary, interactor, (method, args) -> {
+            submit(new Ticket(key, null, onFailure), () -> invoke(interactor, method, args));
+        });
+    }
+
+    /**
+     * Wraps an interactor so that calls to its input boundary run on the pool one at
+     * a time per order key, in the order they were made. Calls are never cancelled,
+     * so this suits use cases that write data: two edits of the same task cannot
+     * overtake each other on different worker threads.
+     *
+     * @param inputBoundary the input boundary interface
+     * @param interactor    the interactor to run
+     * @param orderKey      computes the order key of a call from its arguments
+     * @param onFailure     receives the error message of a call that threw, or null
+     * @param <T>           the input boundary type
+     * @return an input boundary that runs the interactor asynchronously
+     */
+    public <T> T inOrder(Class<T> inputBoundary, T interactor, Function<Object[], Object> orderKey,
+                         Consumer<String> onFailure) {
+        return proxy(inputBoundary, interactor, (method, args) -> {
+            submit(new Ticket(null, orderKey.apply(args), onFailure), () -> invoke(interactor, method, args));
+        });
+    }
+
+    /**
+     * Wraps a presenter so that each call to its output boundary runs on the event
+     * dispatch thread, and is dropped if the request that made it has been superseded.
+     *
+     * @param outputBoundary the output boundary interface
+     * @param presenter      the presenter to call
+     * @param <T>            the output boundary type
+     * @return an output boundary that calls the presenter on the event dispatch thread
+     */
+    public <T> T onEventThread(Class<T> outputBoundary, T presenter) {
+        return proxy(outputBoundary, presenter, (method, args) -> {
+            final Ticket ticket = currentTicket.get();
+            eventThread.execute(() -> {
+                if (ticket == null || isCurrent(ticket)) {
+                    invoke(presenter, method, args);
+                }
+            });
+        });
+    }
+
+    /**
+     * Runs a use case on the pool.
+     *
+     * @param key     the key of the request, or null if it never supersedes another
+     * @param useCase the use case to run
+     */
+    public void submit(Object key, Runnable useCase) {
+        submit(new Ticket(key, null, null), useCase);
+    }
+
+    private void submit(Ticket ticket, Runnable useCase) {
+        ticket.task = new FutureTask<>(() -> {
+            currentTicket.set(ticket);
+            try {
+                useCase.run();
+            } finally {
+                currentTicket.remove();
+            }
+        }, null);
+        ticket.runner = () -> run(ticket);
+
+        Ticket previous = null;
+        boolean queued = false;
+        synchronized (this) {
+            if (ticket.key != null) {
+                previous = latestTickets.put(ticket.key, ticket);
+            }
+            if (ticket.orderKey != null) {
+                final Deque<Ticket> queue = orderedQueues.get(ticket.orderKey);
+                if (queue == null) {
+                    orderedQueues.put(ticket.orderKey, new ArrayDeque<>());
+                } else {
+                    queue.add(ticket);
+                    queued = true;
+                }
+            }
+            running++;
+            if (running == 1) {
+                fireLoading(true);
+            }
+        }
+        if (previous != null) {
+            supersede(previous);
+        }
+        if (!queued && !execute(ticket) && ticket.orderKey != null) {
+            runNext(ticket.orderKey);
+        }
+    }
+
+    /**
+     * Cancels a superseded request. One that is still waiting for a worker is taken
+     * off the queue, so it does not hold a place there; a running one is left to
+     * finish, and only its output is dropped.
+     *
+     * @param previous the superseded request
+     */
+    private void supersede(Ticket previous) {
+        previous.task.cancel(false);
+        if (workers.remove(previous.runner)) {
+            finished(previous);
+        }
+    }
+
+    /**
+     * Hands a request to the pool, or reports it as failed if the queue is full.
+     *
+     * @param ticket the request
+     * @return whether the request was accepted
+     */
+    private boolean execute(Ticket ticket) {
+        try {
+            workers.execute(ticket.runner);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            fail(ticket, BUSY_MESSAGE);
+            finished(ticket);
+            return false;
+        }
+    }
+
+    private void run(Ticket ticket) {
+        try {
+            ticket.task.run();
+            reportFailure(ticket);
+        } finally {
+            finished(ticket);
+            if (ticket.orderKey != null) {
+                runNext(ticket.orderKey);
+            }
+        }
+    }
+
+    private void runNext(Object orderKey) {
+        Ticket next;
+        do {
+            synchronized (this) {
+                final Deque<Ticket> queue = orderedQueues.get(orderKey);
+                next = queue.poll();
+                if (next == null) {
+                    orderedQueues.remove(orderKey);
+                }
+            }
+            // a rejected call is reported, and the one after it is tried
+        } while (next != null && !execute(next));
+    }
+
+    private void reportFailure(Ticket ticket) {
+        if (ticket.task.isCancelled()) {
+            return;
+        }
+        try {
+            ticket.task.get();
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            String message = cause.getMessage();
+            if (message == null) {
+                message = cause.toString();
+            }
+            fail(ticket, message);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reports a failed request to its failure handler, or to the application's.
+     *
+     * @param ticket  the request that failed
+     * @param message the error message
+     */
+    private void fail(Ticket ticket, String message) {
+        if (ticket.onFailure == null) {
+            final Consumer<String> handler;
+            synchronized (this) {
+                handler = failureHandler;
+            }
+            eventThread.execute(() -> {
+                if (isCurrent(ticket)) {
+                    handler.accept(message);
+                }
+            });
+            return;
+        }
+        // presenters wrapped with onEventThread drop the call if the request was superseded
+        final Ticket outer = currentTicket.get();
+        currentTicket.set(ticket);
+        try {
+            ticket.onFailure.accept(message);
+        } finally {
+            if (outer == null) {
+                currentTicket.remove();
+            } else {
+                currentTicket.set(outer);
+            }
+        }
+    }
+
+    /**
+     * Returns whether any use case is queued or running.
+     *
+     * @return true if the executor is busy
+     */
+    public synchronized boolean isLoading() {
+        return running > 0;
+    }
+
+    /**
+     * Adds a listener for {@value #LOADING_PROPERTY} events.
+     *
+     * @param listener the listener to add
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        support.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Removes a listener for {@value #LOADING_PROPERTY} events.
+     *
+     * @param listener the listener to remove
+     */
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        support.removePropertyChangeListener(listener);
+    }
+
+    /**
+     * Stops the worker threads once the queued use cases have run.
+     */
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private synchronized boolean isCurrent(Ticket ticket) {
+        return ticket.key == null || latestTickets.get(ticket.key) == ticket;
+    }
+
+    private void finished(Ticket ticket) {
+        // queued behind the presenter calls of the same request, so they are still delivered
+        eventThread.execute(() -> {
+            synchronized (this) {
+                if (ticket.key != null) {
+                    latestTickets.remove(ticket.key, ticket);
+                }
+                running--;
+                if (running == 0) {
+                    fireLoading(false);
+                }
+            }
+        });
+    }
+
+    private void fireLoading(boolean loading) {
+        eventThread.execute(() -> support.firePropertyChange(LOADING_PROPERTY, !loading, loading));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Call call) {
+        final InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class || method.getReturnType() != void.class) {
+                return invoke(target, method, args);
+            }
+            call.accept(method, args);
+            return null;
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } catch (IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * A call made through a wrapped boundary.
+     */
+    private interface Call {
+        void accept(Method method, Object[] args);
+    }
+
+    /**
+     * One submitted request.
+     */
+    private static final class Ticket {
+        private final Object key;
+        private final Object orderKey;
+        private final Consumer<String> onFailure;
+        private FutureTask<Void> task;
+        private Runnable runner;
+
+        private Ticket(Object key, Object orderKey, Consumer<String> onFailure) {
+            this.key = key;
+            this.orderKey = orderKey;
+            this.onFailure = onFailure;
+        }
+    }
+}
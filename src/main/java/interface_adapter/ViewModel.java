@@ -2,24 +2,71 @@ package interface_adapter;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
 
 /**
  * The ViewModel for our CA implementation.
  * This class delegates work to a PropertyChangeSupport object for
  * managing the property change events.
  *
+ * <p>
+ * Property changes are not delivered while they are fired. The state is taken
+ * with {@link #snapshot} when a property change is fired, and the snapshots are
+ * delivered as the new value of the events on the next turn of the event thread,
+ * so a presenter may change or replace the state right after firing. Listeners
+ * read the state from the event rather than from {@link #getState()}. A burst of
+ * presenter calls makes each listener refresh at most once per property name:
+ * a snapshot fired while another is waiting for the same name is combined with
+ * it by {@link #merge}. A property is not delivered at all if the state is an
+ * immutable value, or a newly set object, that equals the state last delivered for it.
+ * </p>
+ *
  * @param <T> The type of state object contained in the model.
  */
 public class ViewModel<T> {
 
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private final String viewName;
 
     private final PropertyChangeSupport support = new PropertyChangeSupport(this);
 
+    private final Executor eventThread;
+
     private T state;
 
+    // guarded by this
+    private final Map<String, T> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private final Map<String, Object> lastDelivered = new HashMap<>();
+    private final Deque<Long> recentDeliveries = new ArrayDeque<>();
+    private long firedCount;
+    private long deliveredCount;
+    private long coalescedCount;
+    private long suppressedCount;
+
     public ViewModel(String viewName) {
+        this(viewName, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Constructs a ViewModel that delivers its property changes on the given executor.
+     *
+     * @param viewName    the name of the view
+     * @param eventThread runs the delivery of the pending property changes
+     */
+    public ViewModel(String viewName, Executor eventThread) {
         this.viewName = viewName;
+        this.eventThread = eventThread;
     }
 
     public String getViewName() {
@@ -38,7 +85,7 @@ public class ViewModel<T> {
      * Fires a property changed event for the state of this ViewModel.
      */
     public void firePropertyChange() {
-        this.support.firePropertyChange("state", null, this.state);
+        firePropertyChange("state");
     }
 
     /**
@@ -48,11 +95,152 @@ public class ViewModel<T> {
      * <p/>
      * For example, the LoggedInView listens for two kinds of property changes;
      * it can use the property name to distinguish which property has changed.
-     * 
+     * <p/>
+     * The event is delivered on the next turn of the event thread, together with
+     * any other property changes fired before then, and carries the state as it
+     * is now.
+     *
      * @param propertyName the label for the property that was changed
      */
     public void firePropertyChange(String propertyName) {
-        this.support.firePropertyChange(propertyName, null, this.state);
+        final T fired = snapshot(this.state);
+        synchronized (this) {
+            firedCount++;
+            if (pending.containsKey(propertyName)) {
+                pending.put(propertyName, merge(propertyName, pending.get(propertyName), fired));
+                coalescedCount++;
+                return;
+            }
+            pending.put(propertyName, fired);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        eventThread.execute(this::deliverPending);
+    }
+
+    /**
+     * Returns the state delivered with a property change fired now. The state itself
+     * is returned, which is enough when presenters replace the state instead of
+     * changing it after firing; subclasses whose presenters change the state in place
+     * return a copy.
+     *
+     * @param current the current state
+     * @return the state to deliver
+     */
+    protected T snapshot(T current) {
+        return current;
+    }
+
+    /**
+     * Combines a fired state with the one still waiting to be delivered for the same
+     * property name. The later state replaces the earlier one; subclasses whose events
+     * carry changes rather than whole states combine them instead.
+     *
+     * @param propertyName the label for the property that was changed
+     * @param earlier      the state waiting to be delivered
+     * @param later        the state fired now
+     * @return the state to deliver
+     */
+    protected T merge(String propertyName, T earlier, T later) {
+        return later;
+    }
+
+    private void deliverPending() {
+        final Map<String, T> events;
+        synchronized (this) {
+            events = new LinkedHashMap<>(pending);
+            pending.clear();
+            scheduled = false;
+        }
+
+        for (Map.Entry<String, T> event : events.entrySet()) {
+            final String name = event.getKey();
+            final T current = event.getValue();
+            synchronized (this) {
+                if (isUnchanged(name, current)) {
+                    suppressedCount++;
+                    continue;
+                }
+                lastDelivered.put(name, current);
+                deliveredCount++;
+                final long now = System.nanoTime();
+                recentDeliveries.addLast(now);
+                pruneDeliveries(now);
+            }
+            // the old value stays null: a state object changed in place equals itself,
+            // and PropertyChangeSupport would drop the event
+            this.support.firePropertyChange(name, null, current);
+        }
+    }
+
+    private boolean isUnchanged(String name, T current) {
+        if (!lastDelivered.containsKey(name)) {
+            return false;
+        }
+        final Object last = lastDelivered.get(name);
+        if (last == current) {
+            // the same object may have been changed since it was delivered
+            return current == null || isValue(current);
+        }
+        return Objects.equals(last, current) && isValue(current);
+    }
+
+    private static boolean isValue(Object state) {
+        return state instanceof String || state instanceof Boolean || state instanceof Enum;
+    }
+
+    private void pruneDeliveries(long now) {
+        while (!recentDeliveries.isEmpty() && now - recentDeliveries.peekFirst() > RATE_WINDOW_NANOS) {
+            recentDeliveries.removeFirst();
+        }
+    }
+
+    /**
+     * Returns the number of property changes fired on this ViewModel.
+     *
+     * @return the number of fired property changes
+     */
+    public synchronized long getFiredCount() {
+        return firedCount;
+    }
+
+    /**
+     * Returns the number of property changes delivered to the listeners.
+     *
+     * @return the number of delivered property changes
+     */
+    public synchronized long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * Returns the number of property changes merged into one already waiting to be delivered.
+     *
+     * @return the number of coalesced property changes
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Returns the number of property changes not delivered because the state had not changed.
+     *
+     * @return the number of suppressed property changes
+     */
+    public synchronized long getSuppressedCount() {
+        return suppressedCount;
+    }
+
+    /**
+     * Returns the number of property changes delivered to the listeners in the last second.
+     *
+     * @return the number of notifications per second
+     */
+    public synchronized int getNotificationsPerSecond() {
+        pruneDeliveries(System.nanoTime());
+        return recentDeliveries.size();
     }
 
     /**
@@ -27,8 +27,9 @@ public class CreateGroupPresenter implements CreateGroupOutputBoundary {
         createGroupViewModel.getState().setMessage("Group Created Successfully");
         createGroupViewModel.firePropertyChange("openModal");
 
-        // clear everything from the state
+        // clear everything from the state, the modal was handed the state fired above
         createGroupViewModel.setState(new CreateGroupState());
+        createGroupViewModel.firePropertyChange();
 
         // append to a list of Groups to dynamically show the groups
         final LoggedInState loggedInState = dashboardViewModel.getState();
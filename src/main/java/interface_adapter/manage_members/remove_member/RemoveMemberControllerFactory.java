@@ -1,8 +1,11 @@
 package interface_adapter.manage_members.remove_member;
 
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.manage_members.PeopleTabViewModel;
 import use_case.manage_members.remove_member.RemoveMemberDataAccessInterface;
+import use_case.manage_members.remove_member.RemoveMemberGroupDataAccessInterface;
 import use_case.manage_members.remove_member.RemoveMemberInputBoundary;
+import use_case.manage_members.remove_member.RemoveMemberOutputBoundary;
 import use_case.manage_members.remove_member.RemoveMemberInteractor;
 
 /**
@@ -11,9 +14,15 @@ import use_case.manage_members.remove_member.RemoveMemberInteractor;
  */
 public class RemoveMemberControllerFactory {
     RemoveMemberDataAccessInterface membershipDao;
+    private final RemoveMemberGroupDataAccessInterface groupDao;
+    private final UseCaseExecutor useCaseExecutor;
 
-    public RemoveMemberControllerFactory(RemoveMemberDataAccessInterface membershipDao) {
+    public RemoveMemberControllerFactory(RemoveMemberDataAccessInterface membershipDao,
+                                         RemoveMemberGroupDataAccessInterface groupDao,
+                                         UseCaseExecutor useCaseExecutor) {
         this.membershipDao = membershipDao;
+        this.groupDao = groupDao;
+        this.useCaseExecutor = useCaseExecutor;
     }
 
     /**
@@ -25,9 +34,10 @@ public class RemoveMemberControllerFactory {
      * @return a new RemoveMemberController wired to the appropriate interactor and presenter
      */
     public RemoveMemberController create(PeopleTabViewModel viewModel) {
-        RemoveMemberPresenter presenter = new RemoveMemberPresenter(viewModel);
-        RemoveMemberInputBoundary interactor =
-                new RemoveMemberInteractor(membershipDao, presenter);
+        RemoveMemberOutputBoundary presenter = useCaseExecutor.onEventThread(RemoveMemberOutputBoundary.class,
+                new RemoveMemberPresenter(viewModel));
+        RemoveMemberInputBoundary interactor = useCaseExecutor.async(RemoveMemberInputBoundary.class,
+                new RemoveMemberInteractor(membershipDao, groupDao, presenter));
         return new RemoveMemberController(interactor);
     }
 }
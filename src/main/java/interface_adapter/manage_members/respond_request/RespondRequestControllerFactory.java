@@ -1,8 +1,11 @@
 package interface_adapter.manage_members.respond_request;
 
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.manage_members.PeopleTabViewModel;
 import use_case.manage_members.respond_request.RespondRequestDataAccessInterface;
+import use_case.manage_members.respond_request.RespondRequestGroupDataAccessInterface;
 import use_case.manage_members.respond_request.RespondRequestInputBoundary;
+import use_case.manage_members.respond_request.RespondRequestOutputBoundary;
 import use_case.manage_members.respond_request.RespondRequestInteractor;
 
 /**
@@ -11,9 +14,15 @@ import use_case.manage_members.respond_request.RespondRequestInteractor;
  */
 public class RespondRequestControllerFactory {
     RespondRequestDataAccessInterface membershipDao;
+    private final RespondRequestGroupDataAccessInterface groupDao;
+    private final UseCaseExecutor useCaseExecutor;
 
-    public RespondRequestControllerFactory(RespondRequestDataAccessInterface membershipDao) {
+    public RespondRequestControllerFactory(RespondRequestDataAccessInterface membershipDao,
+                                           RespondRequestGroupDataAccessInterface groupDao,
+                                           UseCaseExecutor useCaseExecutor) {
         this.membershipDao = membershipDao;
+        this.groupDao = groupDao;
+        this.useCaseExecutor = useCaseExecutor;
     }
 
     /**
@@ -25,9 +34,10 @@ public class RespondRequestControllerFactory {
      * @return a new RespondRequestController wired to the appropriate interactor and presenter
      */
     public RespondRequestController create(PeopleTabViewModel viewModel) {
-        RespondRequestPresenter presenter = new RespondRequestPresenter(viewModel);
-        RespondRequestInputBoundary interactor =
-                new RespondRequestInteractor(membershipDao, presenter);
+        RespondRequestOutputBoundary presenter = useCaseExecutor.onEventThread(RespondRequestOutputBoundary.class,
+                new RespondRequestPresenter(viewModel));
+        RespondRequestInputBoundary interactor = useCaseExecutor.async(RespondRequestInputBoundary.class,
+                new RespondRequestInteractor(membershipDao, groupDao, presenter));
         return new RespondRequestController(interactor);
     }
 }
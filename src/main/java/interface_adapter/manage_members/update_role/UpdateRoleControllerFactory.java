@@ -1,8 +1,10 @@
 package interface_adapter.manage_members.update_role;
 
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.manage_members.PeopleTabViewModel;
 import use_case.manage_members.update_role.UpdateRoleDataAccessInterface;
 import use_case.manage_members.update_role.UpdateRoleInputBoundary;
+import use_case.manage_members.update_role.UpdateRoleOutputBoundary;
 import use_case.manage_members.update_role.UpdateRoleInteractor;
 
 /**
@@ -11,9 +13,12 @@ import use_case.manage_members.update_role.UpdateRoleInteractor;
  */
 public class UpdateRoleControllerFactory {
     UpdateRoleDataAccessInterface membershipDao;
+    private final UseCaseExecutor useCaseExecutor;
 
-    public UpdateRoleControllerFactory(UpdateRoleDataAccessInterface membershipDao) {
+    public UpdateRoleControllerFactory(UpdateRoleDataAccessInterface membershipDao,
+                                       UseCaseExecutor useCaseExecutor) {
         this.membershipDao = membershipDao;
+        this.useCaseExecutor = useCaseExecutor;
     }
 
     /**
@@ -25,9 +30,10 @@ public class UpdateRoleControllerFactory {
      * @return a new UpdateRoleController wired to the appropriate interactor and presenter
      */
     public UpdateRoleController create(PeopleTabViewModel viewModel) {
-        UpdateRolePresenter presenter = new UpdateRolePresenter(viewModel);
-        UpdateRoleInputBoundary interactor =
-                new UpdateRoleInteractor(membershipDao, presenter);
+        UpdateRoleOutputBoundary presenter = useCaseExecutor.onEventThread(UpdateRoleOutputBoundary.class,
+                new UpdateRolePresenter(viewModel));
+        UpdateRoleInputBoundary interactor = useCaseExecutor.async(UpdateRoleInputBoundary.class,
+                new UpdateRoleInteractor(membershipDao, presenter));
         return new UpdateRoleController(interactor);
     }
 }
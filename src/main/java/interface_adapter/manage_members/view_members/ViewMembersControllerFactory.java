@@ -1,7 +1,9 @@
 package interface_adapter.manage_members.view_members;
 
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.manage_members.PeopleTabViewModel;
 import use_case.manage_members.view_members.ViewMembersInputBoundary;
+import use_case.manage_members.view_members.ViewMembersOutputBoundary;
 import use_case.manage_members.view_members.ViewMembersInteractor;
 import use_case.manage_members.view_members.ViewMembersMembershipDataAccessInterface;
 
@@ -12,9 +14,12 @@ import use_case.manage_members.view_members.ViewMembersMembershipDataAccessInter
 public class ViewMembersControllerFactory {
 
     private final ViewMembersMembershipDataAccessInterface membershipDao;
+    private final UseCaseExecutor useCaseExecutor;
 
-    public ViewMembersControllerFactory(ViewMembersMembershipDataAccessInterface membershipDao) {
+    public ViewMembersControllerFactory(ViewMembersMembershipDataAccessInterface membershipDao,
+                                        UseCaseExecutor useCaseExecutor) {
         this.membershipDao = membershipDao;
+        this.useCaseExecutor = useCaseExecutor;
     }
 
     /**
@@ -26,9 +31,11 @@ public class ViewMembersControllerFactory {
      * @return a new ViewMembersController wired to the appropriate interactor and presenter
      */
     public ViewMembersController create(PeopleTabViewModel viewModel) {
-        ViewMembersPresenter presenter = new ViewMembersPresenter(viewModel);
-        ViewMembersInputBoundary interactor =
-                new ViewMembersInteractor(membershipDao, presenter);
+        ViewMembersOutputBoundary presenter = useCaseExecutor.onEventThread(ViewMembersOutputBoundary.class,
+                new ViewMembersPresenter(viewModel));
+        ViewMembersInputBoundary interactor = useCaseExecutor.async(ViewMembersInputBoundary.class,
+                new ViewMembersInteractor(membershipDao, presenter),
+                UseCaseExecutor.key("view_members", viewModel));
         return new ViewMembersController(interactor);
     }
 }
@@ -1,5 +1,6 @@
 package interface_adapter.manage_members.view_pending;
 
+import interface_adapter.UseCaseExecutor;
 import interface_adapter.manage_members.PeopleTabViewModel;
 import use_case.manage_members.view_pending.*;
 
@@ -9,9 +10,12 @@ import use_case.manage_members.view_pending.*;
  */
 public class ViewPendingControllerFactory {
     private final ViewPendingMembershipDataAccessInterface membershipDao;
+    private final UseCaseExecutor useCaseExecutor;
 
-    public ViewPendingControllerFactory(ViewPendingMembershipDataAccessInterface membershipDao) {
+    public ViewPendingControllerFactory(ViewPendingMembershipDataAccessInterface membershipDao,
+                                        UseCaseExecutor useCaseExecutor) {
         this.membershipDao = membershipDao;
+        this.useCaseExecutor = useCaseExecutor;
     }
 
     /**
@@ -23,9 +27,11 @@ public class ViewPendingControllerFactory {
      * @return a new ViewPendingController wired to its interactor and presenter
      */
     public ViewPendingController create(PeopleTabViewModel viewModel) {
-        ViewPendingOutputBoundary presenter = new ViewPendingPresenter(viewModel);
-        ViewPendingInputBoundary interactor =
-                new ViewPendingInteractor(membershipDao, presenter);
+        ViewPendingOutputBoundary presenter = useCaseExecutor.onEventThread(ViewPendingOutputBoundary.class,
+                new ViewPendingPresenter(viewModel));
+        ViewPendingInputBoundary interactor = useCaseExecutor.async(ViewPendingInputBoundary.class,
+                new ViewPendingInteractor(membershipDao, presenter),
+                UseCaseExecutor.key("view_pending", viewModel));
         return new ViewPendingController(interactor);
     }
 }
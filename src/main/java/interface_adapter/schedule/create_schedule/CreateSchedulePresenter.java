@@ -23,7 +23,9 @@ public class CreateSchedulePresenter implements CreateScheduleOutputBoundary {
         createScheduleViewModel.getState().setOpenModal(false);
         createScheduleViewModel.firePropertyChange("openModal");
 
+        // the modal was handed the state fired above
         createScheduleViewModel.setState(new CreateScheduleState());
+        createScheduleViewModel.firePropertyChange("state");
         viewManagerModel.firePropertyChange("view");
 
     }
@@ -0,0 +1,27 @@
+package interface_adapter.taskstats;
+
+import use_case.taskstats.TaskStatsInputBoundary;
+import use_case.taskstats.TaskStatsInputData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Controller that the Dashboard calls to count the tasks of the user's groups.
+ */
+public class TaskStatsController {
+    private final TaskStatsInputBoundary interactor;
+
+    public TaskStatsController(TaskStatsInputBoundary interactor) {
+        this.interactor = interactor;
+    }
+
+    /**
+     * Executes the TaskStats Use Case.
+     *
+     * @param groupIds the ids of the user's groups
+     */
+    public void execute(Collection<String> groupIds) {
+        interactor.execute(new TaskStatsInputData(new ArrayList<>(groupIds)));
+    }
+}
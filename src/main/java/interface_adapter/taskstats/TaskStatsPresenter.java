@@ -0,0 +1,20 @@
+package interface_adapter.taskstats;
+
+import use_case.taskstats.TaskStatsOutputBoundary;
+import use_case.taskstats.TaskStatsOutputData;
+
+public class TaskStatsPresenter implements TaskStatsOutputBoundary {
+    private final TaskStatsViewModel taskStatsViewModel;
+
+    public TaskStatsPresenter(TaskStatsViewModel taskStatsViewModel) {
+        this.taskStatsViewModel = taskStatsViewModel;
+    }
+
+    @Override
+    public void presentStats(TaskStatsOutputData outputData) {
+        final TaskStatsState state = taskStatsViewModel.getState();
+        state.setStatsByGroup(outputData.getStatsByGroup());
+        state.setTotal(outputData.getTotal());
+        taskStatsViewModel.firePropertyChange("stats");
+    }
+}
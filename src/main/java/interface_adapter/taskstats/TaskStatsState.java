@@ -0,0 +1,41 @@
+package interface_adapter.taskstats;
+
+import use_case.taskstats.TaskStats;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The task counts shown on the dashboard and group home panels.
+ */
+public class TaskStatsState {
+
+    private Map<String, TaskStats> statsByGroup = new HashMap<>();
+    private TaskStats total = TaskStats.empty(null);
+
+    public Map<String, TaskStats> getStatsByGroup() {
+        return statsByGroup;
+    }
+
+    public void setStatsByGroup(Map<String, TaskStats> statsByGroup) {
+        this.statsByGroup = statsByGroup;
+    }
+
+    /**
+     * Returns the task counts of a group.
+     *
+     * @param groupId the group id
+     * @return the counts, or null if they have not been loaded
+     */
+    public TaskStats getStats(String groupId) {
+        return statsByGroup.get(groupId);
+    }
+
+    public TaskStats getTotal() {
+        return total;
+    }
+
+    public void setTotal(TaskStats total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,14 @@
+package interface_adapter.taskstats;
+
+import interface_adapter.ViewModel;
+
+/**
+ * ViewModel storing the task counts of the user's groups for the Swing UI.
+ */
+public class TaskStatsViewModel extends ViewModel<TaskStatsState> {
+
+    public TaskStatsViewModel() {
+        super("task_stats");
+        setState(new TaskStatsState());
+    }
+}
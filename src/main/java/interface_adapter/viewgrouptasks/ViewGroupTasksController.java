@@ -29,4 +29,27 @@ public class ViewGroupTasksController {
         final ViewGroupTasksInputData inputData = new ViewGroupTasksInputData(groupId);
         interactor.execute(inputData);
     }
+
+    /**
+     * Executes the ViewGroupTasks use case for the tasks that changed since the last load.
+     *
+     * @param groupId   the group id
+     * @param syncToken the sync token of the last load
+     */
+    public void sync(String groupId, String syncToken) {
+        final ViewGroupTasksInputData inputData = new ViewGroupTasksInputData(groupId, syncToken);
+        interactor.execute(inputData);
+    }
+
+    /**
+     * Executes the ViewGroupTasks use case for the next page of the shown tasks.
+     *
+     * @param groupId   the group id
+     * @param syncToken the sync token presented with the first page
+     * @param pageToken the token of the next page
+     */
+    public void loadMore(String groupId, String syncToken, String pageToken) {
+        final ViewGroupTasksInputData inputData = new ViewGroupTasksInputData(groupId, syncToken, pageToken);
+        interactor.execute(inputData);
+    }
 }
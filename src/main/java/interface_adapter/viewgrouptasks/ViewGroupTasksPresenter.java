@@ -1,9 +1,16 @@
 package interface_adapter.viewgrouptasks;
 
 import interface_adapter.viewtasks.ViewTasksViewModel;
+import use_case.viewgrouptasks.ViewGroupTasksChangesOutputData;
 import use_case.viewgrouptasks.ViewGroupTasksOutputBoundary;
 import use_case.viewgrouptasks.ViewGroupTasksOutputData;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Presenter for the ViewGroupTasks use case.
  * Converts output data into ViewModel state and notifies observers.
@@ -19,16 +26,74 @@ public class ViewGroupTasksPresenter implements ViewGroupTasksOutputBoundary {
         this.viewTasksViewModel = viewTasksViewModel;
     }
 
+    /**
+     * Shows a page of tasks. The first page of a load replaces the shown tasks and
+     * later pages are appended, unless a newer load has been shown since.
+     *
+     * @param response the page of tasks
+     */
     @Override
     public void present(ViewGroupTasksOutputData response) {
         ViewGroupTasksState state = viewModel.getState();
-        state.setTasks(response.getTasks());
+        if (response.isAppend() && !Objects.equals(response.getSyncToken(), state.getSyncToken())) {
+            // the page belongs to a load that a newer one replaced
+            return;
+        }
         state.setMemberNames(response.getNames());
         state.setError(null);
+        state.setSyncToken(response.getSyncToken());
+        state.setNextPageToken(response.getNextPageToken());
+
+        if (response.isAppend()) {
+            // later pages only add rows, the view does not rebuild the ones it already shows
+            state.getTasks().addAll(response.getTasks());
+            viewModel.setState(state);
+            viewModel.firePropertyChange("tasks_page");
+        } else {
+            state.setTasks(new ArrayList<>(response.getTasks()));
+            viewModel.setState(state);
+            viewModel.firePropertyChange("tasks");
+        }
+
+        if (response.isComplete()) {
+            viewTasksViewModel.firePropertyChange();
+        }
+    }
 
+    /**
+     * Applies changed tasks to the shown tasks in place: a task that is already
+     * shown is replaced at its position and a new task is appended.
+     *
+     * @param response the changed tasks
+     */
+    @Override
+    public void presentChanges(ViewGroupTasksChangesOutputData response) {
+        ViewGroupTasksState state = viewModel.getState();
+        List<ViewGroupTasksOutputData.TaskDTO> tasks = state.getTasks();
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            positions.put(tasks.get(i).getId(), i);
+        }
+
+        List<ViewGroupTasksOutputData.TaskDTO> updated = new ArrayList<>();
+        for (ViewGroupTasksOutputData.TaskDTO task : response.getChangedTasks()) {
+            Integer position = positions.get(task.getId());
+            if (position != null) {
+                tasks.set(position, task);
+                updated.add(task);
+            } else {
+                positions.put(task.getId(), tasks.size());
+                tasks.add(task);
+            }
+        }
+        state.setUpdatedTasks(updated);
+        state.setSyncToken(response.getSyncToken());
+        state.setError(null);
         viewModel.setState(state);
-        viewModel.firePropertyChange("tasks");
+        viewModel.firePropertyChange("tasks_changed");
 
-        viewTasksViewModel.firePropertyChange();
+        if (!response.getChangedTasks().isEmpty()) {
+            viewTasksViewModel.firePropertyChange();
+        }
     }
 }
@@ -13,8 +13,33 @@ public class ViewGroupTasksState {
 
     private List<String> memberNames = new ArrayList<>();
     private List<ViewGroupTasksOutputData.TaskDTO> tasks = new ArrayList<>();
+    private List<ViewGroupTasksOutputData.TaskDTO> updatedTasks = new ArrayList<>();
+    private String syncToken;
+    private String nextPageToken;
     private String error;
 
+    /**
+     * Constructs an empty state.
+     */
+    public ViewGroupTasksState() {
+        // the fields start empty
+    }
+
+    /**
+     * Constructs a copy of the given state whose lists can be changed without
+     * changing the lists of the copied state.
+     *
+     * @param copy the state to copy
+     */
+    public ViewGroupTasksState(ViewGroupTasksState copy) {
+        memberNames = new ArrayList<>(copy.memberNames);
+        tasks = new ArrayList<>(copy.tasks);
+        updatedTasks = new ArrayList<>(copy.updatedTasks);
+        syncToken = copy.syncToken;
+        nextPageToken = copy.nextPageToken;
+        error = copy.error;
+    }
+
     /**
      * Sets the list of membernames.
      *
@@ -51,6 +76,63 @@ public class ViewGroupTasksState {
         this.tasks = tasks;
     }
 
+    /**
+     * Returns the token of the next page of tasks.
+     *
+     * @return the page token, or null if every page is shown
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Sets the token of the next page of tasks.
+     *
+     * @param nextPageToken the page token, or null if every page is shown
+     */
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Returns the tasks that were replaced in place by the last sync.
+     * Tasks created since the previous sync are appended to the task list instead.
+     *
+     * @return list of task DTOs
+     */
+    public List<ViewGroupTasksOutputData.TaskDTO> getUpdatedTasks() {
+        return updatedTasks;
+    }
+
+    /**
+     * Sets the tasks that were replaced in place by the last sync.
+     *
+     * @param updatedTasks list of task DTOs
+     */
+    public void setUpdatedTasks(List<ViewGroupTasksOutputData.TaskDTO> updatedTasks) {
+        this.updatedTasks = updatedTasks;
+    }
+
+    /**
+     * Returns the token for loading only the tasks that changed since the shown tasks
+     * were loaded. It is taken with the first page, and is only used for syncing once
+     * every page is shown.
+     *
+     * @return the sync token, or null if no load has started
+     */
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    /**
+     * Sets the token for loading only the tasks that changed since the last load.
+     *
+     * @param syncToken the sync token
+     */
+    public void setSyncToken(String syncToken) {
+        this.syncToken = syncToken;
+    }
+
     /**
      * Sets an error message for the view.
      *
@@ -1,6 +1,10 @@
 package interface_adapter.viewgrouptasks;
 
 import interface_adapter.ViewModel;
+import use_case.viewgrouptasks.ViewGroupTasksOutputData;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * ViewModel for viewing all tasks inside a group.
@@ -15,4 +19,35 @@ public class ViewGroupTasksViewModel extends ViewModel<ViewGroupTasksState> {
         super("group_tasks");
         setState(new ViewGroupTasksState());
     }
+
+    /**
+     * Copies the state, because the presenter changes the shown tasks in place.
+     *
+     * @param current the current state
+     * @return a copy of the state
+     */
+    @Override
+    protected ViewGroupTasksState snapshot(ViewGroupTasksState current) {
+        return new ViewGroupTasksState(current);
+    }
+
+    /**
+     * Keeps the tasks updated by both syncs when two "tasks_changed" events are
+     * delivered together, so the view rebuilds the rows of either.
+     *
+     * @param propertyName the label for the property that was changed
+     * @param earlier      the state waiting to be delivered
+     * @param later        the state fired now
+     * @return the later state with the updated tasks of both
+     */
+    @Override
+    protected ViewGroupTasksState merge(String propertyName, ViewGroupTasksState earlier,
+                                        ViewGroupTasksState later) {
+        if ("tasks_changed".equals(propertyName)) {
+            final List<ViewGroupTasksOutputData.TaskDTO> updated = new ArrayList<>(earlier.getUpdatedTasks());
+            updated.addAll(later.getUpdatedTasks());
+            later.setUpdatedTasks(updated);
+        }
+        return later;
+    }
 }
@@ -0,0 +1,29 @@
+package send_grid_api;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A sender that can address several recipients with one request.
+ * The {@link EmailOutbox} batches and folds emails only for senders of this kind;
+ * every other sender is asked for one email at a time.
+ */
+public interface BatchEmailSender extends SendEmailInterface {
+
+    /**
+     * The most recipients one SendGrid request can address, one personalization each.
+     */
+    int MAX_BATCH_RECIPIENTS = 1000;
+
+    /**
+     * Send one email of the given type to every given user with a single request,
+     * reporting the given number of events to each of them. The email reaches
+     * either every recipient or none of them.
+     * @param type Type of email to be sent.
+     * @param eventCount The number of events the email reports to each user.
+     * @param recipients Emails of the users to receive the email, at most {@link #MAX_BATCH_RECIPIENTS}.
+     * @return The status code for the request.
+     * @throws IOException in case of JSON Marshall error.
+     */
+    int sendEmails(EmailType type, int eventCount, List<String> recipients) throws IOException;
+}
@@ -0,0 +1,406 @@
+package send_grid_api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends emails in the background so that use cases never wait for the mail API.
+ *
+ * <p>
+ * {@link #sendEmail} stores the email in an {@link OutboxStore} and returns
+ * {@link #ACCEPTED} straight away. Emails are collected by type for a short
+ * batch window, then sent by a fixed pool of worker threads through another
+ * {@link SendEmailInterface}. When that sender is a {@link BatchEmailSender},
+ * several emails of the same type to the same recipient are folded into one
+ * digest, and recipients whose digests report the same number of events share
+ * one request of up to {@link BatchEmailSender#MAX_BATCH_RECIPIENTS} recipients.
+ * Any other sender is asked for every email on its own, so that a failure only
+ * affects the email that failed.
+ * </p>
+ *
+ * <p>
+ * A failed send is retried with exponential backoff when the failure may be
+ * temporary: a network error, a rate limit or a server error. An email becomes
+ * a dead letter after {@code maxAttempts} attempts, or right away when the mail
+ * API rejected it. A sender that throws is treated like one that got no response.
+ * Emails still pending in the store when the outbox is created, for example
+ * because the application exited before sending them, are sent again.
+ * </p>
+ */
+public class EmailOutbox implements SendEmailInterface {
+
+    public static final int ACCEPTED = 202;
+    public static final int DEFAULT_WORKERS = 2;
+    public static final int DEFAULT_MAX_ATTEMPTS = 6;
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 2000;
+    public static final long DEFAULT_BATCH_WINDOW_MILLIS = 500;
+    public static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    public static final long SHUTDOWN_WAIT_MILLIS = 2000;
+
+    // the statuses of sends that got no response, and of sends the mail API could not be asked for
+    private static final int NO_RESPONSE = -1;
+    private static final int NOT_SENDABLE = 0;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
+    private final SendEmailInterface sender;
+    // the same sender when it can batch, otherwise null
+    private final BatchEmailSender batchSender;
+    private final OutboxStore store;
+    private final ScheduledExecutorService workers;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long batchWindowMillis;
+    private final long createdAt = System.nanoTime();
+
+    // guarded by this; a type has an entry only while its flush is scheduled
+    private final Map<EmailType, List<OutboxEntry>> ready = new EnumMap<>(EmailType.class);
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong apiCallCount = new AtomicLong();
+    private final AtomicLong apiCallsSaved = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong deadLetterCount = new AtomicLong();
+    private final AtomicLong totalDeliveryMillis = new AtomicLong();
+    private final AtomicLong maxDeliveryMillis = new AtomicLong();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * Constructs an outbox with the default number of workers, retry policy and batch window.
+     *
+     * @param sender sends each batch of emails
+     * @param store  keeps the emails until they are sent
+     */
+    public EmailOutbox(SendEmailInterface sender, OutboxStore store) {
+        this(sender, store, DEFAULT_WORKERS, DEFAULT_MAX_ATTEMPTS, DEFAULT_INITIAL_BACKOFF_MILLIS,
+                DEFAULT_BATCH_WINDOW_MILLIS);
+    }
+
+    /**
+     * Constructs an outbox with the default batch window.
+     *
+     * @param sender               sends each batch of emails
+     * @param store                keeps the emails until they are sent
+     * @param workers              the number of worker threads
+     * @param maxAttempts          the number of attempts before an email becomes a dead letter
+     * @param initialBackoffMillis the delay before the first retry, doubled for every later one
+     */
+    public EmailOutbox(SendEmailInterface sender, OutboxStore store, int workers,
+                       int maxAttempts, long initialBackoffMillis) {
+        this(sender, store, workers, maxAttempts, initialBackoffMillis, DEFAULT_BATCH_WINDOW_MILLIS);
+    }
+
+    /**
+     * Constructs an outbox.
+     *
+     * @param sender               sends each batch of emails
+     * @param store                keeps the emails until they are sent
+     * @param workers              the number of worker threads
+     * @param maxAttempts          the number of attempts before an email becomes a dead letter
+     * @param initialBackoffMillis the delay before the first retry, doubled for every later one
+     * @param batchWindowMillis    how long emails of one type are collected before they are sent
+     * @throws IllegalArgumentException if a count is below one or a delay is negative
+     */
+    public EmailOutbox(SendEmailInterface sender, OutboxStore store, int workers,
+                       int maxAttempts, long initialBackoffMillis, long batchWindowMillis) {
+        if (workers < 1 || maxAttempts < 1 || initialBackoffMillis < 0 || batchWindowMillis < 0) {
+            throw new IllegalArgumentException("Invalid email outbox configuration");
+        }
+        this.sender = sender;
+        if (sender instanceof BatchEmailSender) {
+            this.batchSender = (BatchEmailSender) sender;
+        } else {
+            this.batchSender = null;
+        }
+        this.store = store;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.batchWindowMillis = batchWindowMillis;
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ScheduledThreadPoolExecutor(workers, runnable -> {
+            final Thread thread = new Thread(runnable, "email-outbox-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (OutboxEntry entry : store.getPending()) {
+            pendingCount.incrementAndGet();
+            enqueue(entry);
+        }
+    }
+
+    /**
+     * Enqueues an email to be sent in the background.
+     *
+     * @param recipient Email of the user to receive the email.
+     * @param type      Type of email to be sent to user.
+     * @return {@link #ACCEPTED}, as the email has only been enqueued.
+     */
+    @Override
+    public int sendEmail(String recipient, EmailType type) {
+        final OutboxEntry entry = new OutboxEntry(UUID.randomUUID().toString(), recipient, type,
+                System.currentTimeMillis(), 0);
+        store.add(entry);
+        enqueuedCount.incrementAndGet();
+        pendingCount.incrementAndGet();
+        enqueue(entry);
+        return ACCEPTED;
+    }
+
+    private void enqueue(OutboxEntry entry) {
+        final boolean first;
+        synchronized (this) {
+            final List<OutboxEntry> entries = ready.get(entry.getType());
+            first = entries == null;
+            if (first) {
+                ready.put(entry.getType(), new ArrayList<>(List.of(entry)));
+            } else {
+                entries.add(entry);
+            }
+        }
+        if (first) {
+            workers.schedule(() -> flush(entry.getType()), batchWindowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(EmailType type) {
+        final List<OutboxEntry> entries;
+        synchronized (this) {
+            entries = ready.remove(type);
+        }
+
+        if (batchSender == null) {
+            for (OutboxEntry entry : entries) {
+                workers.execute(() -> deliver(type, 1, List.of(entry.getRecipient()), List.of(entry)));
+            }
+            return;
+        }
+
+        // fold the emails to each recipient into one digest
+        final Map<String, List<OutboxEntry>> byRecipient = new LinkedHashMap<>();
+        for (OutboxEntry entry : entries) {
+            byRecipient.computeIfAbsent(entry.getRecipient(), recipient -> new ArrayList<>()).add(entry);
+        }
+
+        // recipients of digests reporting the same number of events can share a request
+        final Map<Integer, List<String>> recipientsByCount = new LinkedHashMap<>();
+        for (Map.Entry<String, List<OutboxEntry>> digest : byRecipient.entrySet()) {
+            recipientsByCount.computeIfAbsent(digest.getValue().size(), count -> new ArrayList<>())
+                    .add(digest.getKey());
+        }
+
+        for (Map.Entry<Integer, List<String>> group : recipientsByCount.entrySet()) {
+            final List<String> recipients = group.getValue();
+            for (int from = 0; from < recipients.size(); from += BatchEmailSender.MAX_BATCH_RECIPIENTS) {
+                final int to = Math.min(recipients.size(), from + BatchEmailSender.MAX_BATCH_RECIPIENTS);
+                final List<String> batchRecipients = new ArrayList<>(recipients.subList(from, to));
+                final List<OutboxEntry> batch = new ArrayList<>();
+                for (String recipient : batchRecipients) {
+                    batch.addAll(byRecipient.get(recipient));
+                }
+                workers.execute(() -> deliver(type, group.getKey(), batchRecipients, batch));
+            }
+        }
+    }
+
+    private void deliver(EmailType type, int eventCount, List<String> recipients, List<OutboxEntry> batch) {
+        // run through a FutureTask so that a failure of any kind is seen here, not lost in the worker's future
+        final FutureTask<Void> delivery = new FutureTask<>(() -> attempt(type, eventCount, recipients, batch), null);
+        delivery.run();
+        try {
+            delivery.get();
+        } catch (ExecutionException ex) {
+            // the store could not be written; the entries stay pending and are retried on the next start
+            pendingCount.addAndGet(-batch.size());
+            System.err.println("Email outbox failed on a batch of " + batch.size() + ": " + ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void attempt(EmailType type, int eventCount, List<String> recipients, List<OutboxEntry> batch) {
+        final FutureTask<Integer> request = new FutureTask<>(() -> send(type, eventCount, recipients));
+        request.run();
+        int status;
+        String failure;
+        try {
+            status = request.get();
+            failure = "HTTP " + status;
+        } catch (ExecutionException ex) {
+            failure = ex.getCause().toString();
+            if (ex.getCause() instanceof IllegalArgumentException) {
+                // the request could not be built, so sending it again will not help
+                status = NOT_SENDABLE;
+            } else {
+                // a network error, or a sender that failed in any other way, may work next time
+                status = NO_RESPONSE;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            status = NO_RESPONSE;
+            failure = ex.toString();
+        }
+        apiCallCount.incrementAndGet();
+
+        if (status >= 200 && status < 300) {
+            sent(batch);
+            return;
+        }
+
+        for (OutboxEntry entry : batch) {
+            final int attempts = entry.recordAttempt();
+            if (!isRetryable(status) || attempts >= maxAttempts) {
+                store.markDead(entry, failure);
+                deadLetterCount.incrementAndGet();
+                pendingCount.decrementAndGet();
+                System.err.println("Email to " + entry.getRecipient() + " failed after "
+                        + attempts + " attempts: " + failure);
+            } else {
+                store.recordAttempt(entry);
+                retryCount.incrementAndGet();
+                workers.schedule(() -> enqueue(entry), backoffMillis(attempts), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sent(List<OutboxEntry> batch) {
+        final long now = System.currentTimeMillis();
+        for (OutboxEntry entry : batch) {
+            store.markSent(entry);
+            final long latency = now - entry.getEnqueuedAt();
+            totalDeliveryMillis.addAndGet(latency);
+            maxDeliveryMillis.accumulateAndGet(latency, Math::max);
+        }
+        sentCount.addAndGet(batch.size());
+        apiCallsSaved.addAndGet(batch.size() - 1);
+        pendingCount.addAndGet(-batch.size());
+    }
+
+    /**
+     * Sends one request for a batch. Batches are only formed for a {@link BatchEmailSender},
+     * so any other sender is only ever given one recipient and one event.
+     *
+     * @param type       the type of email
+     * @param eventCount the number of events the email reports to each recipient
+     * @param recipients the recipients
+     * @return the status code of the request
+     * @throws IOException if the request could not be sent
+     */
+    private int send(EmailType type, int eventCount, List<String> recipients) throws IOException {
+        if (batchSender != null) {
+            return batchSender.sendEmails(type, eventCount, recipients);
+        }
+        return sender.sendEmail(recipients.get(0), type);
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == NO_RESPONSE || status == TOO_MANY_REQUESTS || status >= SERVER_ERROR;
+    }
+
+    /**
+     * Returns the delay before the retry that follows the given number of attempts.
+     *
+     * @param attempts the number of attempts made so far
+     * @return the delay in milliseconds
+     */
+    long backoffMillis(int attempts) {
+        final int doublings = Math.min(attempts - 1, 30);
+        return Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << doublings);
+    }
+
+    /**
+     * Stops the workers and waits up to {@link #SHUTDOWN_WAIT_MILLIS} for them to
+     * finish, so the store can be closed afterwards. Emails that are still pending
+     * stay in the store.
+     */
+    public void shutdown() {
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.get();
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getApiCallCount() {
+        return apiCallCount.get();
+    }
+
+    /**
+     * Returns how many fewer API calls were made than emails were sent, thanks to batching and digests.
+     *
+     * @return the number of API calls saved
+     */
+    public long getApiCallsSaved() {
+        return apiCallsSaved.get();
+    }
+
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    public long getDeadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Returns the number of emails sent per second since the outbox was created.
+     *
+     * @return the throughput in emails per second
+     */
+    public double getThroughputPerSecond() {
+        final double seconds = (System.nanoTime() - createdAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        if (seconds <= 0) {
+            return 0;
+        }
+        return sentCount.get() / seconds;
+    }
+
+    /**
+     * Returns the average time from enqueuing an email to sending it.
+     *
+     * @return the average delivery time in milliseconds, or 0 if no email was sent
+     */
+    public long getAverageDeliveryMillis() {
+        final long sent = sentCount.get();
+        if (sent == 0) {
+            return 0;
+        }
+        return totalDeliveryMillis.get() / sent;
+    }
+
+    /**
+     * Returns the longest time from enqueuing an email to sending it.
+     *
+     * @return the longest delivery time in milliseconds
+     */
+    public long getMaxDeliveryMillis() {
+        return maxDeliveryMillis.get();
+    }
+}
@@ -0,0 +1,114 @@
+package send_grid_api;
+
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Serialized SendGrid request bodies, cached per email type and event count.
+ *
+ * <p>
+ * Each template is a {@link Mail} serialized once with a single placeholder
+ * recipient and cut around that recipient's personalization. A request body is
+ * then assembled by repeating the personalization for every recipient, so
+ * sending an email neither builds a {@code Mail} object graph nor runs the
+ * JSON serializer.
+ * </p>
+ */
+final class EmailTemplates {
+
+    private static final String PLACEHOLDER = "recipient.placeholder@groupflow.invalid";
+
+    private final BiFunction<SendEmailInterface.EmailType, Integer, Mail> mailFactory;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a template cache.
+     *
+     * @param mailFactory makes the mail, without recipients, for an email type and event count
+     */
+    EmailTemplates(BiFunction<SendEmailInterface.EmailType, Integer, Mail> mailFactory) {
+        this.mailFactory = mailFactory;
+    }
+
+    /**
+     * Returns the request body that sends the email to every recipient.
+     *
+     * @param type       the type of email
+     * @param eventCount the number of events the email reports
+     * @param recipients the recipients, each in their own personalization
+     * @return the JSON request body
+     * @throws IOException if the template could not be serialized
+     */
+    String render(SendEmailInterface.EmailType type, int eventCount, List<String> recipients) throws IOException {
+        final String key = type + ":" + eventCount;
+        Template template = templates.get(key);
+        if (template == null) {
+            template = compile(mailFactory.apply(type, eventCount));
+            templates.putIfAbsent(key, template);
+        }
+        return template.render(recipients);
+    }
+
+    private static Template compile(Mail mail) throws IOException {
+        final Personalization personalization = new Personalization();
+        personalization.addTo(new Email(PLACEHOLDER));
+        mail.addPersonalization(personalization);
+        final String json = mail.build();
+
+        final int marker = json.indexOf(PLACEHOLDER);
+        final int start = json.lastIndexOf("{\"to\"", marker);
+        final int end = json.indexOf("}]}", marker) + "}]}".length();
+        if (marker < 0 || start < 0 || end < marker) {
+            throw new IllegalStateException("Unexpected mail layout: " + json);
+        }
+
+        final Template template = new Template(json.substring(0, start),
+                json.substring(start, marker), json.substring(marker + PLACEHOLDER.length(), end),
+                json.substring(end));
+        if (!template.render(List.of(PLACEHOLDER)).equals(json)) {
+            throw new IllegalStateException("Unexpected mail layout: " + json);
+        }
+        return template;
+    }
+
+    /**
+     * A serialized mail cut around the recipient of its only personalization.
+     */
+    private static final class Template {
+        private final String head;
+        private final String beforeRecipient;
+        private final String afterRecipient;
+        private final String tail;
+
+        Template(String head, String beforeRecipient, String afterRecipient, String tail) {
+            this.head = head;
+            this.beforeRecipient = beforeRecipient;
+            this.afterRecipient = afterRecipient;
+            this.tail = tail;
+        }
+
+        String render(List<String> recipients) {
+            final StringBuilder json = new StringBuilder(head.length() + tail.length()
+                    + recipients.size() * (beforeRecipient.length() + afterRecipient.length() + 32));
+            json.append(head);
+            for (int i = 0; i < recipients.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                final String quoted = JSONObject.quote(recipients.get(i));
+                json.append(beforeRecipient)
+                        .append(quoted, 1, quoted.length() - 1)
+                        .append(afterRecipient);
+            }
+            return json.append(tail).toString();
+        }
+    }
+}
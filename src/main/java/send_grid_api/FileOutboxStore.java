@@ -0,0 +1,323 @@
+package send_grid_api;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import send_grid_api.SendEmailInterface.EmailType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An outbox store backed by an append-only log file.
+ *
+ * <p>
+ * Every change is appended to the log as one JSON line and flushed before the
+ * call returns, so enqueuing an email costs one small write rather than a round
+ * trip to a server. When the store is opened it replays the log and rewrites it
+ * with only the pending and dead entries, which keeps the log from growing
+ * without bound. A line cut short by a crash is skipped.
+ * </p>
+ *
+ * <p>
+ * Dead letters are kept with the reason they could not be sent, for
+ * {@code deadLetterTtlMillis} after they died and at most {@code maxDeadLetters}
+ * of them, the oldest being dropped first.
+ * </p>
+ */
+public class FileOutboxStore implements OutboxStore {
+
+    private static final String OP = "op";
+    private static final String ID = "id";
+    private static final String RECIPIENT = "recipient";
+    private static final String TYPE = "type";
+    private static final String ENQUEUED_AT = "enqueuedAt";
+    private static final String ATTEMPTS = "attempts";
+    private static final String REASON = "reason";
+    private static final String DEAD_AT = "deadAt";
+
+    private static final String ADD = "add";
+    private static final String ATTEMPT = "attempt";
+    private static final String SENT = "sent";
+    private static final String DEAD = "dead";
+
+    public static final int DEFAULT_MAX_DEAD_LETTERS = 1000;
+    public static final long DEFAULT_DEAD_LETTER_TTL_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private final Path logFile;
+    private final Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+    // in the order the entries died
+    private final Map<String, DeadLetter> dead = new LinkedHashMap<>();
+    private final int maxDeadLetters;
+    private final long deadLetterTtlMillis;
+    private BufferedWriter writer;
+
+    /**
+     * Opens the store with the default limits on dead letters, creating the log
+     * file if it does not exist.
+     *
+     * @param logFile the path of the log file
+     * @throws OutboxStoreException if the log file can not be read or written
+     */
+    public FileOutboxStore(Path logFile) {
+        this(logFile, DEFAULT_MAX_DEAD_LETTERS, DEFAULT_DEAD_LETTER_TTL_MILLIS);
+    }
+
+    /**
+     * Opens the store, creating the log file if it does not exist.
+     *
+     * @param logFile             the path of the log file
+     * @param maxDeadLetters      the most dead letters kept
+     * @param deadLetterTtlMillis how long a dead letter is kept after it died
+     * @throws OutboxStoreException if the log file can not be read or written
+     */
+    public FileOutboxStore(Path logFile, int maxDeadLetters, long deadLetterTtlMillis) {
+        this.logFile = logFile;
+        this.maxDeadLetters = maxDeadLetters;
+        this.deadLetterTtlMillis = deadLetterTtlMillis;
+        try {
+            if (Files.exists(logFile)) {
+                replay();
+            }
+            compact();
+        } catch (IOException ex) {
+            throw new OutboxStoreException("Failed to open email outbox " + logFile, ex);
+        }
+    }
+
+    @Override
+    public synchronized void add(OutboxEntry entry) {
+        pending.put(entry.getId(), entry);
+        append(addRecord(entry));
+    }
+
+    @Override
+    public synchronized void recordAttempt(OutboxEntry entry) {
+        append(new JSONObject()
+                .put(OP, ATTEMPT)
+                .put(ID, entry.getId())
+                .put(ATTEMPTS, entry.getAttempts()));
+    }
+
+    @Override
+    public synchronized void markSent(OutboxEntry entry) {
+        pending.remove(entry.getId());
+        append(new JSONObject().put(OP, SENT).put(ID, entry.getId()));
+    }
+
+    @Override
+    public synchronized void markDead(OutboxEntry entry, String reason) {
+        pending.remove(entry.getId());
+        final DeadLetter letter = new DeadLetter(entry, reason, System.currentTimeMillis());
+        dead.put(entry.getId(), letter);
+        append(deadRecord(letter));
+        pruneDeadLetters(letter.diedAt);
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> getDeadLetters() {
+        final List<OutboxEntry> entries = new ArrayList<>(dead.size());
+        for (DeadLetter letter : dead.values()) {
+            entries.add(letter.entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Returns why a dead letter could not be sent.
+     *
+     * @param id the ID of the entry
+     * @return the reason, or null if the entry is not a dead letter or no reason was given
+     */
+    public synchronized String getDeadLetterReason(String id) {
+        final DeadLetter letter = dead.get(id);
+        if (letter == null) {
+            return null;
+        }
+        return letter.reason;
+    }
+
+    /**
+     * Closes the log file.
+     *
+     * @throws OutboxStoreException if the log file can not be closed
+     */
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException ex) {
+            throw new OutboxStoreException("Failed to close email outbox " + logFile, ex);
+        }
+    }
+
+    private void replay() throws IOException {
+        for (String line : Files.readAllLines(logFile, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            boolean applied;
+            try {
+                applied = apply(new JSONObject(line));
+            } catch (JSONException ex) {
+                applied = false;
+            }
+            if (!applied) {
+                System.err.println("Skipping unreadable email outbox record: " + line);
+            }
+        }
+    }
+
+    /**
+     * Applies one change read from the log.
+     *
+     * @param change the change
+     * @return false if the change is of an unknown kind
+     * @throws JSONException if a field of the change is missing
+     */
+    private boolean apply(JSONObject change) {
+        final String id = change.getString(ID);
+        switch (change.getString(OP)) {
+            case ADD:
+                final EmailType type = typeOf(change.getString(TYPE));
+                if (type == null) {
+                    return false;
+                }
+                pending.put(id, new OutboxEntry(id,
+                        change.getString(RECIPIENT),
+                        type,
+                        change.getLong(ENQUEUED_AT),
+                        change.getInt(ATTEMPTS)));
+                break;
+            case ATTEMPT:
+                final OutboxEntry entry = pending.get(id);
+                if (entry != null) {
+                    pending.put(id, new OutboxEntry(id, entry.getRecipient(), entry.getType(),
+                            entry.getEnqueuedAt(), change.getInt(ATTEMPTS)));
+                }
+                break;
+            case SENT:
+                pending.remove(id);
+                break;
+            case DEAD:
+                final OutboxEntry deadEntry = pending.remove(id);
+                if (deadEntry != null) {
+                    // logs written before dead letters expired have no time of death
+                    dead.put(id, new DeadLetter(deadEntry, change.optString(REASON, null),
+                            change.optLong(DEAD_AT, System.currentTimeMillis())));
+                }
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    private static EmailType typeOf(String name) {
+        for (EmailType type : EmailType.values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the dead letters that are past their time to live, then the oldest
+     * ones while there are more than the store keeps.
+     *
+     * @param now the current time, in milliseconds since the epoch
+     */
+    private void pruneDeadLetters(long now) {
+        final Iterator<DeadLetter> letters = dead.values().iterator();
+        while (letters.hasNext()) {
+            final DeadLetter letter = letters.next();
+            if (now - letter.diedAt <= deadLetterTtlMillis && dead.size() <= maxDeadLetters) {
+                break;
+            }
+            letters.remove();
+        }
+    }
+
+    private void compact() throws IOException {
+        pruneDeadLetters(System.currentTimeMillis());
+        final Path directory = logFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path compacted = Files.createTempFile(directory, "outbox", ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (OutboxEntry entry : pending.values()) {
+                writeLine(out, addRecord(entry));
+            }
+            for (DeadLetter letter : dead.values()) {
+                writeLine(out, addRecord(letter.entry));
+                writeLine(out, deadRecord(letter));
+            }
+        }
+        Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING);
+        writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private void append(JSONObject change) {
+        try {
+            writeLine(writer, change);
+            writer.flush();
+        } catch (IOException ex) {
+            throw new OutboxStoreException("Failed to write email outbox " + logFile, ex);
+        }
+    }
+
+    private static void writeLine(BufferedWriter out, JSONObject change) throws IOException {
+        out.write(change.toString());
+        out.newLine();
+    }
+
+    private static JSONObject addRecord(OutboxEntry entry) {
+        return new JSONObject()
+                .put(OP, ADD)
+                .put(ID, entry.getId())
+                .put(RECIPIENT, entry.getRecipient())
+                .put(TYPE, entry.getType().name())
+                .put(ENQUEUED_AT, entry.getEnqueuedAt())
+                .put(ATTEMPTS, entry.getAttempts());
+    }
+
+    private static JSONObject deadRecord(DeadLetter letter) {
+        final JSONObject change = new JSONObject()
+                .put(OP, DEAD)
+                .put(ID, letter.entry.getId())
+                .put(DEAD_AT, letter.diedAt);
+        if (letter.reason != null) {
+            change.put(REASON, letter.reason);
+        }
+        return change;
+    }
+
+    /**
+     * An email that could not be sent, with why and when it died.
+     */
+    private static final class DeadLetter {
+        private final OutboxEntry entry;
+        private final String reason;
+        private final long diedAt;
+
+        DeadLetter(OutboxEntry entry, String reason, long diedAt) {
+            this.entry = entry;
+            this.reason = reason;
+            this.diedAt = diedAt;
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package send_grid_api;
 
 import java.io.IOException;
+import java.util.List;
 
-public class InMemoryEmailer implements SendEmailInterface {
+public class InMemoryEmailer implements BatchEmailSender {
 
     /**
      * An InMemoryEmailer used to unit test emails through messages in the console.
@@ -19,4 +20,13 @@ public class InMemoryEmailer implements SendEmailInterface {
 
         return 202;
     }
+
+    @Override
+    public int sendEmails(EmailType type, int eventCount, List<String> recipients) {
+        String message = String.format("To: %s \n%d notifications of type %s",
+                String.join(", ", recipients), eventCount, type);
+        System.out.println(message);
+
+        return 202;
+    }
 }
@@ -0,0 +1,46 @@
+package send_grid_api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An outbox store that keeps its entries in memory only.
+ */
+public class InMemoryOutboxStore implements OutboxStore {
+
+    private final Map<String, OutboxEntry> pending = new LinkedHashMap<>();
+    private final Map<String, OutboxEntry> dead = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void add(OutboxEntry entry) {
+        pending.put(entry.getId(), entry);
+    }
+
+    @Override
+    public void recordAttempt(OutboxEntry entry) {
+        // the entry itself holds the number of attempts
+    }
+
+    @Override
+    public synchronized void markSent(OutboxEntry entry) {
+        pending.remove(entry.getId());
+    }
+
+    @Override
+    public synchronized void markDead(OutboxEntry entry, String reason) {
+        pending.remove(entry.getId());
+        dead.put(entry.getId(), entry);
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> getPending() {
+        return new ArrayList<>(pending.values());
+    }
+
+    @Override
+    public synchronized List<OutboxEntry> getDeadLetters() {
+        return new ArrayList<>(dead.values());
+    }
+}
@@ -0,0 +1,131 @@
+package send_grid_api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of request latencies in buckets whose bounds double, from under
+ * one millisecond up to about a minute. Recording is lock free, so it can be
+ * called from every request thread.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 17;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one request.
+     *
+     * @param nanos how long the request took, in nanoseconds
+     */
+    public void recordLatency(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static int bucketOf(long nanos) {
+        final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        // bucket 0 holds requests under 1 ms, bucket i those under 2^i ms
+        if (millis == 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(millis), BUCKETS - 1);
+    }
+
+    /**
+     * Returns the upper bound of a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the bound in milliseconds, exclusive, or {@code Long.MAX_VALUE} for the last bucket
+     */
+    public static long upperBoundMillis(int bucket) {
+        if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return 1L << bucket;
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * Returns how many requests fell in a bucket.
+     *
+     * @param bucket the bucket index
+     * @return the number of requests
+     */
+    public long getCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Returns how many requests were recorded.
+     *
+     * @return the number of requests in every bucket
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the average latency.
+     *
+     * @return the average in milliseconds, or 0 if nothing was recorded
+     */
+    public double getMeanMillis() {
+        final long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        return totalNanos.get() / (double) total / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    /**
+     * Returns the upper bound of the bucket that holds the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the bound in milliseconds, or 0 if nothing was recorded
+     */
+    public long getPercentileMillis(double percentile) {
+        final long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank && seen > 0) {
+                return percentileBound(i);
+            }
+        }
+        return getMaxMillis();
+    }
+
+    // the last bucket has no upper bound, so the largest latency stands in for it
+    private long percentileBound(int bucket) {
+        if (bucket == BUCKETS - 1) {
+            return getMaxMillis();
+        }
+        return upperBoundMillis(bucket);
+    }
+}
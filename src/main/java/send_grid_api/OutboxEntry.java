@@ -0,0 +1,55 @@
+package send_grid_api;
+
+import send_grid_api.SendEmailInterface.EmailType;
+
+/**
+ * An email waiting in the {@link EmailOutbox} to be sent.
+ */
+public class OutboxEntry {
+    private final String id;
+    private final String recipient;
+    private final EmailType type;
+    private final long enqueuedAt;
+    private int attempts;
+
+    /**
+     * Constructs an outbox entry.
+     *
+     * @param id         the unique ID of the entry
+     * @param recipient  the email address of the recipient
+     * @param type       the type of email to send
+     * @param enqueuedAt when the email was enqueued, in milliseconds since the epoch
+     * @param attempts   the number of failed attempts to send it so far
+     */
+    public OutboxEntry(String id, String recipient, EmailType type, long enqueuedAt, int attempts) {
+        this.id = id;
+        this.recipient = recipient;
+        this.type = type;
+        this.enqueuedAt = enqueuedAt;
+        this.attempts = attempts;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public EmailType getType() {
+        return type;
+    }
+
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public synchronized int getAttempts() {
+        return attempts;
+    }
+
+    synchronized int recordAttempt() {
+        return ++attempts;
+    }
+}
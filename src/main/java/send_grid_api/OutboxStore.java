@@ -0,0 +1,53 @@
+package send_grid_api;
+
+import java.util.List;
+
+/**
+ * Keeps the emails of an {@link EmailOutbox} until they are sent, so that
+ * emails enqueued before the application exits are sent when it starts again.
+ */
+public interface OutboxStore {
+
+    /**
+     * Stores a newly enqueued email.
+     *
+     * @param entry the entry
+     */
+    void add(OutboxEntry entry);
+
+    /**
+     * Stores the number of failed attempts of an email that will be retried.
+     *
+     * @param entry the entry
+     */
+    void recordAttempt(OutboxEntry entry);
+
+    /**
+     * Removes an email that was sent.
+     *
+     * @param entry the entry
+     */
+    void markSent(OutboxEntry entry);
+
+    /**
+     * Moves an email that can not be sent to the dead letters.
+     *
+     * @param entry  the entry
+     * @param reason why the email could not be sent
+     */
+    void markDead(OutboxEntry entry, String reason);
+
+    /**
+     * Returns the emails that are neither sent nor dead, oldest first.
+     *
+     * @return the pending entries
+     */
+    List<OutboxEntry> getPending();
+
+    /**
+     * Returns the emails that could not be sent, oldest first.
+     *
+     * @return the dead entries
+     */
+    List<OutboxEntry> getDeadLetters();
+}
@@ -0,0 +1,19 @@
+package send_grid_api;
+
+/**
+ * Thrown when an {@link OutboxStore} can not read or write the emails it keeps.
+ */
+public class OutboxStoreException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param message what could not be done
+     * @param cause   the underlying error
+     */
+    public OutboxStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
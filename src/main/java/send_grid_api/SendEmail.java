@@ -4,31 +4,57 @@ import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 
-import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.RequestBody;
-import okhttp3.Response;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Class to send an email using SendGrid API.
  */
-public class SendEmail implements SendEmailInterface {
-    private static String api_key;
+public class SendEmail implements BatchEmailSender {
     private static final String SENDGRID_URL = "https://api.sendgrid.com/v3/mail/send";
-    private static final OkHttpClient CLIENT = new OkHttpClient();
     public static final String FROM_EMAIL = "groupflow.noreply@gmail.com";
     public static final String CONTENT_TYPE = "text/plain";
 
+    private final String url;
+    private final String apiKey;
+    private final SendGridTransport transport;
+    private final EmailTemplates templates = new EmailTemplates(this::makeEmail);
+
     /**
      * Initializes API key to key provided in api_key.txt.
      * @throws RuntimeException if key failed to load.
      */
     public SendEmail() {
+        this(SENDGRID_URL, loadApiKey());
+    }
+
+    /**
+     * Sends emails to the given SendGrid endpoint, for example a local stub in tests.
+     * @param url The URL of the mail send endpoint.
+     * @param apiKey The SendGrid API key.
+     */
+    public SendEmail(String url, String apiKey) {
+        this(url, apiKey, new SendGridTransport());
+    }
+
+    /**
+     * Sends emails to the given SendGrid endpoint over the given transport.
+     * @param url The URL of the mail send endpoint.
+     * @param apiKey The SendGrid API key.
+     * @param transport The transport that sends the requests.
+     */
+    public SendEmail(String url, String apiKey, SendGridTransport transport) {
+        this.url = url;
+        this.apiKey = apiKey;
+        this.transport = transport;
+    }
+
+    private static String loadApiKey() {
         try {
-            api_key = Files.readString(Path.of("config/api_key.txt")).trim();
+            return Files.readString(Path.of("config/api_key.txt")).trim();
         } catch (IOException ex) {
             throw new RuntimeException("Failed to load API key", ex);
         }
@@ -36,49 +62,98 @@ public class SendEmail implements SendEmailInterface {
 
     /**
      * Creates a Mail object for a task assigned notification.
-     * @param recipient The email of the user that was assigned a task.
+     * @param count The number of tasks the recipients were assigned.
      * @return Mail object for email to send.
      */
-    private Mail createTaskAssignedEmail(String recipient) {
-        Email from = new Email(FROM_EMAIL);
-        String subject = "New Task Available";
-        Email to = new Email(recipient);
-        Content content = new Content(CONTENT_TYPE, "You have been assigned a new task. Check your dashboard.");
+    private Mail createTaskAssignedEmail(int count) {
+        String body;
+        if (count == 1) {
+            body = "You have been assigned a new task. Check your dashboard.";
+        } else {
+            body = String.format("You have been assigned %d new tasks. Check your dashboard.", count);
+        }
 
-        return new Mail(from, subject, to, content);
+        return createEmail("New Task Available", body);
     }
 
     /**
      * Creates a Mail object for a group invite notification.
-     * @param recipient The email of the user that was invited to a group.
+     * @param count The number of users that requested to join the recipients' groups.
+     * @return Mail object for email to send.
+     */
+    private Mail createGroupInviteEmail(int count) {
+        String body;
+        if (count == 1) {
+            body = "A user has requested to join your group. Check your dashboard.";
+        } else {
+            body = String.format("%d users have requested to join your group. Check your dashboard.", count);
+        }
+
+        return createEmail("New Group Invite", body);
+    }
+
+    /**
+     * Creates a Mail object for a reminder that tasks are due soon.
+     * @param count The number of tasks that are due soon.
+     * @return Mail object for email to send.
+     */
+    private Mail createTaskDueSoonEmail(int count) {
+        String body;
+        if (count == 1) {
+            body = "One of your tasks is due within a day. Check your dashboard.";
+        } else {
+            body = String.format("%d of your tasks are due within a day. Check your dashboard.", count);
+        }
+
+        return createEmail("Task Due Soon", body);
+    }
+
+    /**
+     * Creates a Mail object for a reminder that tasks are overdue.
+     * @param count The number of tasks that became overdue.
      * @return Mail object for email to send.
      */
-    private Mail createGroupInviteEmail(String recipient) {
-        Email from = new Email(FROM_EMAIL);
-        String subject = "New Group Invite";
-        String body = "A user has requested to join your group. Check your dashboard.";
-        Email to = new Email(recipient);
-        Content content = new Content(CONTENT_TYPE, body);
+    private Mail createTaskOverdueEmail(int count) {
+        String body;
+        if (count == 1) {
+            body = "One of your tasks is now overdue. Check your dashboard.";
+        } else {
+            body = String.format("%d of your tasks are now overdue. Check your dashboard.", count);
+        }
+
+        return createEmail("Task Overdue", body);
+    }
 
-        return new Mail(from, subject, to, content);
+    private Mail createEmail(String subject, String body) {
+        Mail mail = new Mail();
+        mail.setFrom(new Email(FROM_EMAIL));
+        mail.setSubject(subject);
+        mail.addContent(new Content(CONTENT_TYPE, body));
+        return mail;
     }
 
     /**
      * Choose the type of email to make based on the given email type. 
-     * @param recipient The user to send email to.
      * @param type The type of email to make.
-     * @return the Mail instance for the email to be sent.
+     * @param count The number of events the email reports.
+     * @return the Mail instance for the email to be sent, without recipients.
      * @throws IllegalArgumentException if the given email type is undefined.
      */
-    private Mail makeEmail(String recipient, EmailType type) {
+    private Mail makeEmail(EmailType type, int count) {
         Mail mail;
 
         switch (type) {
             case NEW_TASK:
-                mail = createTaskAssignedEmail(recipient);
+                mail = createTaskAssignedEmail(count);
                 break;
             case GROUP_INVITE:
-                mail = createGroupInviteEmail(recipient);
+                mail = createGroupInviteEmail(count);
+                break;
+            case TASK_DUE_SOON:
+                mail = createTaskDueSoonEmail(count);
+                break;
+            case TASK_OVERDUE:
+                mail = createTaskOverdueEmail(count);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown email type " + type);
@@ -94,21 +169,25 @@ public class SendEmail implements SendEmailInterface {
      * @throws IOException in case of JSON marshall error.
      */
     public Request buildRequest(String recipient, EmailType type) throws IOException {
-        Mail mail = makeEmail(recipient, type);
-
-        RequestBody requestBodyJson = RequestBody.create(
-            mail.build(),
-            null
-        );
-
-        final Request request = new Request.Builder()
-            .url(SENDGRID_URL)
-            .addHeader("Authorization", "Bearer " + api_key)
-            .addHeader("Content-Type", "application/json")
-            .post(requestBodyJson)
-            .build();
-        
-        return request;
+        return buildRequest(type, 1, List.of(recipient));
+    }
+
+    /**
+     * Builds one request that sends the same email to every recipient, each in
+     * their own personalization so that no recipient sees the others.
+     * The body is spliced from a template serialized once per type and event count.
+     * @param type Type of email notification to send.
+     * @param eventCount The number of events the email reports.
+     * @param recipients Users to receive the email, at most {@link #MAX_BATCH_RECIPIENTS}.
+     * @return request to be processed.
+     * @throws IOException in case of JSON marshall error.
+     * @throws IllegalArgumentException if there are no recipients or more than {@link #MAX_BATCH_RECIPIENTS}.
+     */
+    public Request buildRequest(EmailType type, int eventCount, List<String> recipients) throws IOException {
+        if (recipients.isEmpty() || recipients.size() > MAX_BATCH_RECIPIENTS) {
+            throw new IllegalArgumentException("Cannot send one email to " + recipients.size() + " recipients");
+        }
+        return transport.buildRequest(url, apiKey, templates.render(type, eventCount, recipients));
     }
     
     /**
@@ -119,23 +198,34 @@ public class SendEmail implements SendEmailInterface {
      * @throws IOException in case of JSON marshall error.
      */
     public int sendEmail(String recipient, EmailType type) throws IOException {
+        return execute(buildRequest(recipient, type));
+    }
 
-        Request request = buildRequest(recipient, type);
-
-        try {
-            final Response response = CLIENT.newCall(request).execute();
-            int status = response.code();
+    /**
+     * Sends one email to every recipient with a single SendGrid API call.
+     * @param type The type of email notification to send.
+     * @param eventCount The number of events the email reports to each recipient.
+     * @param recipients The users to send email to, at most {@link #MAX_BATCH_RECIPIENTS}.
+     * @return Status code for client request.
+     * @throws IOException in case of JSON marshall error.
+     */
+    @Override
+    public int sendEmails(EmailType type, int eventCount, List<String> recipients) throws IOException {
+        return execute(buildRequest(type, eventCount, recipients));
+    }
 
-            if (status == 202) {
-                System.out.println("Email should have sent. Check spam if not visible in inbox.");
-            } else {
-                System.err.println("Email failed to send " + status);
-            }
-            return status;
+    private int execute(Request request) throws IOException {
+        int status = transport.execute(request);
 
-        } catch (IOException ex) {
-            throw ex;
+        if (status == 202) {
+            System.out.println("Email should have sent. Check spam if not visible in inbox.");
+        } else {
+            System.err.println("Email failed to send " + status);
         }
+        return status;
     }
 
+    public SendGridTransport getTransport() {
+        return transport;
+    }
 }
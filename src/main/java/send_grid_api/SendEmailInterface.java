@@ -3,10 +3,12 @@ package send_grid_api;
 import java.io.IOException;
 
 public interface SendEmailInterface {
-    
+
     enum EmailType {
         NEW_TASK,
-        GROUP_INVITE
+        GROUP_INVITE,
+        TASK_DUE_SOON,
+        TASK_OVERDUE
     }
 
     /**
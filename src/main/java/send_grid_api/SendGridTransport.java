@@ -0,0 +1,101 @@
+package send_grid_api;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts request bodies to the SendGrid API over a shared OkHttp client.
+ *
+ * <p>
+ * Every response is closed as soon as its status is read, so its connection
+ * goes back to the pool and is reused by the next request. The latency of every
+ * request, failed ones included, is recorded in a {@link LatencyHistogram}.
+ * </p>
+ */
+public class SendGridTransport {
+
+    public static final int DEFAULT_MAX_REQUESTS = 16;
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 4;
+    public static final long DEFAULT_KEEP_ALIVE_SECONDS = 60;
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final OkHttpClient client;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Constructs a transport with the default dispatcher and connection pool.
+     */
+    public SendGridTransport() {
+        this(DEFAULT_MAX_REQUESTS, DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_SECONDS);
+    }
+
+    /**
+     * Constructs a transport.
+     *
+     * @param maxRequests        the most requests to run at once, all to the same host
+     * @param maxIdleConnections the most idle connections to keep open
+     * @param keepAliveSeconds   how long an idle connection is kept open
+     */
+    public SendGridTransport(int maxRequests, int maxIdleConnections, long keepAliveSeconds) {
+        final Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequests);
+        this.client = new OkHttpClient.Builder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .build();
+    }
+
+    /**
+     * Builds a request that posts a JSON body.
+     *
+     * @param url    the endpoint
+     * @param apiKey the API key
+     * @param json   the body
+     * @return the request
+     */
+    public Request buildRequest(String url, String apiKey, String json) {
+        return new Request.Builder()
+                .url(url)
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .post(RequestBody.create(json, JSON))
+                .build();
+    }
+
+    /**
+     * Sends a request and releases its response.
+     *
+     * @param request the request
+     * @return the HTTP status code
+     * @throws IOException if the request could not be sent
+     */
+    public int execute(Request request) throws IOException {
+        final long start = System.nanoTime();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        } finally {
+            latencies.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public int getIdleConnectionCount() {
+        return client.connectionPool().idleConnectionCount();
+    }
+
+    public int getConnectionCount() {
+        return client.connectionPool().connectionCount();
+    }
+}
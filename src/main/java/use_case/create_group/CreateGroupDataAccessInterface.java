@@ -1,6 +1,7 @@
 package use_case.create_group;
 
 import entity.group.Group;
+import entity.group.GroupSummary;
 
 import java.util.List;
 
@@ -18,10 +19,10 @@ public interface CreateGroupDataAccessInterface {
     void save(Group group);
 
     /**
-     * Retrieves all groups that a given user belongs to.
+     * Retrieves a summary of every group that a given user belongs to.
      *
      * @param username the username whose group memberships are requested
-     * @return a list of Group entities the user is a member of
+     * @return a list of summaries of the groups the user is a member of
      **/
-    List<Group> getGroupsForUser(String username);
+    List<GroupSummary> getGroupSummariesForUser(String username);
 }
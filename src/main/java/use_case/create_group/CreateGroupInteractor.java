@@ -2,6 +2,7 @@ package use_case.create_group;
 
 import entity.group.Group;
 import entity.group.GroupFactory;
+import entity.group.GroupSummary;
 import entity.group.GroupType;
 import entity.membership.Membership;
 import entity.user.User;
@@ -59,9 +60,9 @@ public class CreateGroupInteractor implements CreateGroupInputBoundary {
             membershipDataAccessObject.save(membership);
             groupCreator.addMembership(membership);
             group.addMembership(membership);
-            List<Group> newGroups = groupDataAccessObject.getGroupsForUser(groupCreator.getName());
+            List<GroupSummary> newGroups = groupDataAccessObject.getGroupSummariesForUser(groupCreator.getName());
             Map<String, String> newGroupHashMap = new HashMap<>();
-            for (Group newGroup : newGroups) {
+            for (GroupSummary newGroup : newGroups) {
                 newGroupHashMap.put(newGroup.getGroupID(), newGroup.getName());
             }
 
@@ -25,7 +25,30 @@ public interface CreateScheduleGroupDataAccessInterface {
 
     /**
      * Save the new master schedule.
+     * This replaces the whole stored master schedule, so it is used after a full rebuild.
      * @param group the group with the updated schedule
      */
     void saveMasterSchedule(Group group);
+
+    /**
+     * Get the stored master schedule, if it is still up to date.
+     * A master schedule that has never been saved as a whole, or that was invalidated
+     * because the group's members changed, has to be rebuilt and null is returned.
+     * @param groupID id of the group
+     * @return the master schedule, or null if it has to be rebuilt
+     */
+    int[][] getMasterSchedule(String groupID);
+
+    /**
+     * Atomically add per-slot changes to the stored master schedule, so saves from
+     * different members never overwrite each other.
+     * A master schedule that has to be rebuilt (see {@link #getMasterSchedule(String)})
+     * cannot be patched, in which case nothing is changed and null is returned.
+     * @param groupID id of the group
+     * @param delta the change to add to each time slot
+     * @return the updated master schedule, or null if it has to be rebuilt
+     * @throws IllegalStateException if a time slot would drop below zero, which means
+     *     the stored master schedule no longer matches the members' availability
+     */
+    int[][] applyScheduleDelta(String groupID, int[][] delta);
 }
@@ -35,24 +35,69 @@ public class CreateScheduleInteractor implements CreateScheduleInputBoundary {
         // get id of current group
         final String groupID = createScheduleInputData.getGroupID();
 
-        // save user schedule in db
+        // save user schedule in db. The change is worked out against the schedule this save
+        // replaced, not the one on the (possibly cached) user, so no change is counted twice.
         final boolean[][] availabilityGrid = createScheduleInputData.getAvailabilityGrid();
-
         user.setSchedule(availabilityGrid);
-        userDataAccessObject.saveSchedule(user);
+        final boolean[][] previousGrid = userDataAccessObject.saveSchedule(user);
+        final int[][] delta = scheduleDelta(previousGrid, availabilityGrid);
+
+        // the user's availability counts towards every group they are in
+        if (hasChanges(delta)) {
+            for (String otherGroupID : membershipDataAccessObject.getGroupIDsForUser(user.getName())) {
+                if (!otherGroupID.equals(groupID)) {
+                    // a master schedule that has to be rebuilt is rebuilt when the group's schedule is loaded
+                    applyScheduleDelta(otherGroupID, delta);
+                }
+            }
+        }
 
+        // only the changed time slots are updated, unless the master schedule has to be rebuilt
+        int[][] masterSchedule = applyScheduleDelta(groupID, delta);
+        final Group group = groupDataAccessObject.getGroup(groupID);
+        if (masterSchedule == null) {
+            masterSchedule = rebuildMasterSchedule(group);
+        }
+
+        final CreateScheduleOutputData createScheduleOutputData = 
+            new CreateScheduleOutputData(masterSchedule, group.getSize());
+        createSchedulePresenter.prepareSuccessView(createScheduleOutputData);
+        groupSchedulePresenter.prepareSuccessView(createScheduleOutputData);
+
+    }
+
+    /**
+     * Adds the change of a member's availability to the master schedule of a group.
+     * A master schedule that has drifted from its members' availability rejects the
+     * change. The member's new availability is already saved by then, so that master
+     * schedule is rebuilt from the members instead, and the member's other groups are
+     * still updated.
+     * @param groupID the group ID
+     * @param delta the change to add to each time slot
+     * @return the updated master schedule, or null if it has to be rebuilt
+     */
+    private int[][] applyScheduleDelta(String groupID, int[][] delta) {
+        try {
+            return groupDataAccessObject.applyScheduleDelta(groupID, delta);
+        } catch (IllegalStateException drifted) {
+            return rebuildMasterSchedule(groupDataAccessObject.getGroup(groupID));
+        }
+    }
+
+    /**
+     * Recomputes the master schedule of a group from every member's availability and saves it.
+     * @param group the group to rebuild the schedule for
+     * @return the rebuilt master schedule
+     */
+    private int[][] rebuildMasterSchedule(Group group) {
         // look through all the users in this group to get all their availabilities
-        List<User> allUsers = new ArrayList<>();
-        List<Membership> memberships = membershipDataAccessObject.getMembersForGroup(groupID);
+        List<String> usernames = new ArrayList<>();
+        List<Membership> memberships = membershipDataAccessObject.getMembersForGroup(group.getGroupID());
         for (Membership m: memberships) {
-            User newUser = userDataAccessObject.get(m.getUsername());
-            allUsers.add(newUser);
+            usernames.add(m.getUsername());
         }
+        List<User> allUsers = userDataAccessObject.getUsers(usernames);
 
-        Group group = groupDataAccessObject.getGroup(groupID);
-        
-        // update master sched with user schedule
-        // add method to get user schedule in user entity
         int[][] masterSchedule = new int[12][7];
         for (User member: allUsers) {
             boolean[][] userSched = member.getSchedule();
@@ -69,11 +114,42 @@ public class CreateScheduleInteractor implements CreateScheduleInputBoundary {
 
         group.setMasterSchedule(masterSchedule);
         groupDataAccessObject.saveMasterSchedule(group);
-        final CreateScheduleOutputData createScheduleOutputData = 
-            new CreateScheduleOutputData(masterSchedule, group.getSize());
-        createSchedulePresenter.prepareSuccessView(createScheduleOutputData);
-        groupSchedulePresenter.prepareSuccessView(createScheduleOutputData);
+        return masterSchedule;
+    }
+
+    /**
+     * Works out how each time slot of the master schedule changes when a member's
+     * availability goes from oldSchedule to newSchedule.
+     * @param oldSchedule the availability before the change, may be null
+     * @param newSchedule the availability after the change
+     * @return +1 for newly available slots, -1 for slots no longer available, 0 otherwise
+     */
+    private static int[][] scheduleDelta(boolean[][] oldSchedule, boolean[][] newSchedule) {
+        final int[][] delta = new int[newSchedule.length][];
+        for (int i = 0; i < newSchedule.length; i++) {
+            delta[i] = new int[newSchedule[i].length];
+            for (int j = 0; j < newSchedule[i].length; j++) {
+                final boolean wasAvailable = oldSchedule != null && i < oldSchedule.length
+                        && j < oldSchedule[i].length && oldSchedule[i][j];
+                if (newSchedule[i][j] && !wasAvailable) {
+                    delta[i][j] = 1;
+                } else if (!newSchedule[i][j] && wasAvailable) {
+                    delta[i][j] = -1;
+                }
+            }
+        }
+        return delta;
+    }
 
+    private static boolean hasChanges(int[][] delta) {
+        for (int[] row : delta) {
+            for (int change : row) {
+                if (change != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     @Override
@@ -84,7 +160,11 @@ public class CreateScheduleInteractor implements CreateScheduleInputBoundary {
     @Override
     public void loadSchedule(String groupID) {
         final Group group = groupDataAccessObject.getGroup(groupID);
-        final int[][] masterSchedule = group.getMasterSchedule();
+        // the members may have changed since the master schedule was last saved
+        int[][] masterSchedule = groupDataAccessObject.getMasterSchedule(groupID);
+        if (masterSchedule == null) {
+            masterSchedule = rebuildMasterSchedule(group);
+        }
         final int groupSize = group.getSize();
         
         final CreateScheduleOutputData outputData = 
@@ -11,4 +11,11 @@ public interface CreateScheduleMembershipDataAccessInterface {
      * @return a list of all the memberships.
      */
     List<Membership> getMembersForGroup(String groupID);
+
+    /**
+     * Return the ids of all the groups the given user is an approved member of.
+     * @param username the user to search memberships for
+     * @return a list of group ids.
+     */
+    List<String> getGroupIDsForUser(String username);
 }
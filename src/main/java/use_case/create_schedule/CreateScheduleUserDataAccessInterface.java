@@ -2,6 +2,9 @@ package use_case.create_schedule;
 
 import entity.user.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CreateScheduleUserDataAccessInterface {
 
     /**
@@ -11,11 +14,23 @@ public interface CreateScheduleUserDataAccessInterface {
      */
     User get(String username);
 
+    /**
+     * Returns the users with the given usernames, loaded together in one lookup.
+     * Usernames that do not belong to any user are skipped.
+     *
+     * @param usernames the usernames
+     * @return the users that were found
+     */
+    List<User> getUsers(Collection<String> usernames);
+
     /**
      * Save the schedule to memory.
+     * The previous schedule is read in the same atomic write, so it is exactly the
+     * one this save replaced, even if another save of the same user ran just before.
      * @param user the user to save the new schedule for
+     * @return the schedule the user had before, or null if none was stored
      */
-    void saveSchedule(User user);
+    boolean[][] saveSchedule(User user);
 
     /**
      * Get the username of the current user.
@@ -1,21 +1,14 @@
 package use_case.creategrouptask;
 
-import entity.group.Group;
-
 public interface CreateGroupTaskGroupDataAccessInterface {
 
     /**
-     * Returns the group object with group id.
+     * Appends a task to the task list of an existing group, without loading or
+     * re-saving the rest of the group.
      *
      * @param groupId the group id
-     * @return the Group object
-     */
-    Group getGroup(String groupId);
-
-    /**
-     * Saves the group with updated info (not sure if needed).
-     *
-     * @param group group to be saved
+     * @param taskId  the id of the task to add
+     * @throws RuntimeException if the group does not exist
      */
-    void save(Group group);
+    void addTask(String groupId, String taskId);
 }
@@ -1,15 +1,15 @@
 package use_case.creategrouptask;
 
-import entity.group.Group;
 import entity.membership.Membership;
 import entity.task.Task;
 import entity.task.TaskFactory;
-import entity.user.User;
 import org.jetbrains.annotations.Nullable;
+import use_case.taskreminder.TaskDeadlineListener;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,6 +24,7 @@ public class CreateGroupTaskInteractor implements CreateGroupTaskInputBoundary {
     private final CreateGroupTaskOutputBoundary presenter;
     private final TaskFactory taskFactory;
     private final CreateGroupTasksMembershipDataAccessInterface membershipDataAccess;
+    private final TaskDeadlineListener deadlineListener;
 
     /**
      * Constructs a CreateGroupTaskInteractor.
@@ -40,12 +41,34 @@ public class CreateGroupTaskInteractor implements CreateGroupTaskInputBoundary {
                                      CreateGroupTaskUserDataAccessInterface userDataAccess,
                                      CreateGroupTaskGroupDataAccessInterface groupDataAccess,
                                      CreateGroupTasksMembershipDataAccessInterface membershipDataAccessInterface) {
+        this(dataAccess, presenter, taskFactory, userDataAccess, groupDataAccess, membershipDataAccessInterface,
+                TaskDeadlineListener.NONE);
+    }
+
+    /**
+     * Constructs a CreateGroupTaskInteractor that reports every created task.
+     *
+     * @param dataAccess                    Data access interface for task/group persistence
+     * @param presenter                     Output boundary for presenting results
+     * @param taskFactory                   Factory for creating Task entities
+     * @param userDataAccess                Data access interface for user data
+     * @param groupDataAccess               Data access interface for group data
+     * @param membershipDataAccessInterface Data access interface for member data
+     * @param deadlineListener              Told about every created task
+     */
+    public CreateGroupTaskInteractor(CreateGroupTaskDataAccessInterface dataAccess,
+                                     CreateGroupTaskOutputBoundary presenter, TaskFactory taskFactory,
+                                     CreateGroupTaskUserDataAccessInterface userDataAccess,
+                                     CreateGroupTaskGroupDataAccessInterface groupDataAccess,
+                                     CreateGroupTasksMembershipDataAccessInterface membershipDataAccessInterface,
+                                     TaskDeadlineListener deadlineListener) {
         this.dataAccess = dataAccess;
         this.userDataAccess = userDataAccess;
         this.groupDataAccess = groupDataAccess;
         this.membershipDataAccess = membershipDataAccessInterface;
         this.presenter = presenter;
         this.taskFactory = taskFactory;
+        this.deadlineListener = deadlineListener;
     }
 
     @Override
@@ -67,10 +90,9 @@ public class CreateGroupTaskInteractor implements CreateGroupTaskInputBoundary {
             return;
         }
         dataAccess.upsertTask(task);
+        deadlineListener.taskSaved(task);
         updateAssignees(assignees, task);
-        Group group = groupDataAccess.getGroup(inputData.getGroupId());
-        group.addTask(task.getID());
-        groupDataAccess.save(group);
+        groupDataAccess.addTask(inputData.getGroupId(), task.getID());
         presenter.present(new CreateGroupTaskOutputData(true,
                 "Task created successfully."));
     }
@@ -97,14 +119,8 @@ public class CreateGroupTaskInteractor implements CreateGroupTaskInputBoundary {
     }
 
     private void updateAssignees(List<String> assignees, Task task) {
-        if (assignees != null) {
-            for (String username : assignees) {
-                User u = userDataAccess.get(username);
-                if (u != null) {
-                    u.getTasks().add(task.getID());
-                    userDataAccess.save(u);
-                }
-            }
+        if (assignees != null && !assignees.isEmpty()) {
+            userDataAccess.updateTaskAssignments(task.getID(), assignees, Collections.emptyList());
         }
     }
 
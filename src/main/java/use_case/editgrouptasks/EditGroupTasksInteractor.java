@@ -1,14 +1,14 @@
 package use_case.editgrouptasks;
 
 import entity.membership.Membership;
+import entity.task.StaleTaskException;
 import entity.task.Task;
-import entity.user.User;
+import use_case.taskreminder.TaskDeadlineListener;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Interactor for editing a specific task that belong to a specific group.
@@ -18,6 +18,7 @@ public class EditGroupTasksInteractor implements EditGroupTasksInputBoundary {
     private final EditGroupTasksUserDataAccessInterface userDataAccess;
     private final EditGroupTasksOutputBoundary presenter;
     private final EditGroupTasksMembershipDataAccessInterface membershipDataAccess;
+    private final TaskDeadlineListener deadlineListener;
 
     /**
      * Constructs an interactor.
@@ -31,10 +32,28 @@ public class EditGroupTasksInteractor implements EditGroupTasksInputBoundary {
                                     EditGroupTasksOutputBoundary presenter,
                                     EditGroupTasksUserDataAccessInterface userDataAccess,
                                     EditGroupTasksMembershipDataAccessInterface membershipDataAccessInterface) {
+        this(dataAccess, presenter, userDataAccess, membershipDataAccessInterface, TaskDeadlineListener.NONE);
+    }
+
+    /**
+     * Constructs an interactor that reports every edited task.
+     *
+     * @param dataAccess                    the data access object
+     * @param presenter                     the output boundary
+     * @param userDataAccess                the user data access object
+     * @param membershipDataAccessInterface the mamber data access object
+     * @param deadlineListener              told about every edited task
+     */
+    public EditGroupTasksInteractor(EditGroupTasksDataAccessInterface dataAccess,
+                                    EditGroupTasksOutputBoundary presenter,
+                                    EditGroupTasksUserDataAccessInterface userDataAccess,
+                                    EditGroupTasksMembershipDataAccessInterface membershipDataAccessInterface,
+                                    TaskDeadlineListener deadlineListener) {
         this.dataAccess = dataAccess;
         this.userDataAccess = userDataAccess;
         this.presenter = presenter;
         this.membershipDataAccess = membershipDataAccessInterface;
+        this.deadlineListener = deadlineListener;
     }
 
     @Override
@@ -57,31 +76,24 @@ public class EditGroupTasksInteractor implements EditGroupTasksInputBoundary {
                 task.markIncomplete();
             }
         }
-        List<String> newUsernames = inputData.getNewAssigneeUsernames();
-        List<String> oldAssignees = new ArrayList<>(task.getAssignees());
-        task.setAssignees(newUsernames);
-        updateAssignees(newUsernames, oldAssignees, task);
-        presenter.present(new EditGroupTasksOutputData(true, "Task updated successfully."));
-    }
+        task.setAssignees(inputData.getNewAssigneeUsernames());
 
-    private void updateAssignees(List<String> newUsernames, List<String> oldAssignees, Task task) {
-        if (newUsernames != null) {
-            for (String oldId : oldAssignees) {
-                User u = userDataAccess.get(oldId);
-                if (u != null) {
-                    u.getTasks().remove(task.getID());
-                    userDataAccess.save(u);
-                }
-            }
-            for (String username : newUsernames) {
-                User u = userDataAccess.get(username);
-                if (u != null) {
-                    u.getTasks().add(task.getID());
-                    userDataAccess.save(u);
-                }
-            }
+        // only the users whose assignment actually changed are touched
+        Set<String> added = task.getAddedAssignees();
+        Set<String> removed = task.getRemovedAssignees();
+        try {
+            // writes only the changed fields, and fails if someone else saved the task meanwhile
             dataAccess.upsertTask(task);
+        } catch (StaleTaskException exception) {
+            presenter.present(new EditGroupTasksOutputData(false,
+                    "This task was changed by someone else. Reopen it and try again."));
+            return;
         }
+        deadlineListener.taskSaved(task);
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            userDataAccess.updateTaskAssignments(task.getID(), added, removed);
+        }
+        presenter.present(new EditGroupTasksOutputData(true, "Task updated successfully."));
     }
 
     private boolean validateMembership(EditGroupTasksInputData inputData) {
@@ -2,6 +2,8 @@ package use_case.editgrouptasks;
 
 import entity.user.User;
 
+import java.util.Collection;
+
 public interface EditGroupTasksUserDataAccessInterface {
 
     /**
@@ -25,4 +27,14 @@ public interface EditGroupTasksUserDataAccessInterface {
      * @param user user to be saved
      */
     void save(User user);
+
+    /**
+     * Adds a task to the task lists of some users and removes it from others, all
+     * in one write. Usernames that do not belong to any user are ignored.
+     *
+     * @param taskID  the id of the task
+     * @param added   the usernames the task is now assigned to
+     * @param removed the usernames the task is no longer assigned to
+     */
+    void updateTaskAssignments(String taskID, Collection<String> added, Collection<String> removed);
 }
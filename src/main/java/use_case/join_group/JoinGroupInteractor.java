@@ -63,12 +63,13 @@ public class JoinGroupInteractor implements JoinGroupInputBoundary {
                 false
         );
 
+        membershipDataAccess.save(pending);
+
+        // the request is saved first, so a failing mail API can not lose it
         Group requestedGroup = groupDataAccess.getGroup(code);
         User moderator = userDataAccess.get(requestedGroup.getModerator());
         emailer.sendEmail(moderator.getEmail(), SendEmailInterface.EmailType.GROUP_INVITE);
 
-        membershipDataAccess.save(pending);
-
         presenter.prepareSuccessView(new JoinGroupOutputData(code));
     }
 }
@@ -1,6 +1,6 @@
 package use_case.login;
 
-import entity.group.Group;
+import entity.group.GroupSummary;
 import java.util.List;
 
 /**
@@ -9,10 +9,11 @@ import java.util.List;
 public interface LoginGroupsDataAccessInterface {
 
     /**
-     * Returns all groups that the given user is a member of.
+     * Returns a summary of every group that the given user is a member of.
+     * Only the group id, name, type and member count are loaded.
      *
      * @param username the username whose groups are being retrieved
-     * @return a list of groups the user belongs to
+     * @return a list of summaries of the groups the user belongs to
      */
-    List<Group> getGroupsForUser(String username);
+    List<GroupSummary> getGroupSummariesForUser(String username);
 }
@@ -1,6 +1,6 @@
 package use_case.login;
 
-import entity.group.Group;
+import entity.group.GroupSummary;
 import entity.user.User;
 
 import java.util.HashMap;
@@ -15,13 +15,30 @@ public class LoginInteractor implements LoginInputBoundary {
     private final LoginGroupsDataAccessInterface groupDataAccess;
     //    private final LoginMembershipsDataAccessInterface groupDataAccess;
     private final LoginOutputBoundary loginPresenter;
+    private final LoginListener loginListener;
 
     public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
                            LoginGroupsDataAccessInterface groupDataAccess,
                            LoginOutputBoundary loginOutputBoundary) {
+        this(userDataAccessInterface, groupDataAccess, loginOutputBoundary, LoginListener.NONE);
+    }
+
+    /**
+     * Constructs a LoginInteractor that tells a listener about every user who logged in.
+     *
+     * @param userDataAccessInterface the user data access object
+     * @param groupDataAccess         the group data access object
+     * @param loginOutputBoundary     the presenter
+     * @param loginListener           told about every user who logged in
+     */
+    public LoginInteractor(LoginUserDataAccessInterface userDataAccessInterface,
+                           LoginGroupsDataAccessInterface groupDataAccess,
+                           LoginOutputBoundary loginOutputBoundary,
+                           LoginListener loginListener) {
         this.userDataAccessObject = userDataAccessInterface;
         this.groupDataAccess = groupDataAccess;
         this.loginPresenter = loginOutputBoundary;
+        this.loginListener = loginListener;
     }
 
     @Override
@@ -45,16 +62,17 @@ public class LoginInteractor implements LoginInputBoundary {
         // login success
         userDataAccessObject.setCurrentUsername(username);
 
-        // load groups for this user
-        // adjust method name to whatever your GroupDataAccessInterface actually uses
-        final List<Group> groups = groupDataAccess.getGroupsForUser(username);
+        // load groups for this user, only the id and name are needed here
+        final List<GroupSummary> groups = groupDataAccess.getGroupSummariesForUser(username);
 
         final Map<String, String> groupMap = new HashMap<>();
-        for (Group g : groups) {
+        for (GroupSummary g : groups) {
             // id -> name
             groupMap.put(g.getGroupID(), g.getName());
         }
 
+        loginListener.loggedIn(username, groupMap.keySet());
+
         final LoginOutputData loginOutputData = new LoginOutputData(user.getName(), groupMap);
         loginPresenter.prepareSuccessView(loginOutputData);
     }
@@ -0,0 +1,24 @@
+package use_case.login;
+
+import java.util.Set;
+
+/**
+ * Told about every user who logged in, so that work done for a user starts
+ * only once it is known who the user is and which groups they are in.
+ */
+public interface LoginListener {
+
+    /**
+     * A listener that ignores every login.
+     */
+    LoginListener NONE = (username, groupIds) -> {
+    };
+
+    /**
+     * Called after a user logged in.
+     *
+     * @param username the name of the user
+     * @param groupIds the IDs of the groups the user is in
+     */
+    void loggedIn(String username, Set<String> groupIds);
+}
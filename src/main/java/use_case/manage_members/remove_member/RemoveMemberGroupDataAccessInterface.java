@@ -0,0 +1,12 @@
+package use_case.manage_members.remove_member;
+
+public interface RemoveMemberGroupDataAccessInterface {
+    /**
+     * Marks the master schedule of a group as out of date, so it is rebuilt from
+     * the members' availability the next time it is loaded or saved.
+     * A member leaving changes who counts towards the master schedule.
+     *
+     * @param groupID the ID of the group whose members changed
+     */
+    void invalidateMasterSchedule(String groupID);
+}
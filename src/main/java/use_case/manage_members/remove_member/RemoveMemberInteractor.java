@@ -8,11 +8,14 @@ import java.util.Map;
 
 public class RemoveMemberInteractor implements RemoveMemberInputBoundary {
     private RemoveMemberDataAccessInterface membershipDataAccessObject;
+    private final RemoveMemberGroupDataAccessInterface groupDataAccessObject;
     private final RemoveMemberOutputBoundary removeMemberPresenter;
 
     public RemoveMemberInteractor(RemoveMemberDataAccessInterface membershipDataAccessObject,
+                                  RemoveMemberGroupDataAccessInterface groupDataAccessObject,
                                   RemoveMemberOutputBoundary removeMemberPresenter) {
         this.membershipDataAccessObject = membershipDataAccessObject;
+        this.groupDataAccessObject = groupDataAccessObject;
         this.removeMemberPresenter = removeMemberPresenter;
     } // ViewMembersInteractor
 
@@ -23,6 +26,8 @@ public class RemoveMemberInteractor implements RemoveMemberInputBoundary {
 
         // remove
         membershipDataAccessObject.removeMembership(groupId, username);
+        // the removed member's availability no longer counts towards the master schedule
+        groupDataAccessObject.invalidateMasterSchedule(groupId);
         // update
         List<Membership> members = membershipDataAccessObject.getMembersForGroup(groupId);
         Map<String, String> newMembersHashMap = new HashMap<>();
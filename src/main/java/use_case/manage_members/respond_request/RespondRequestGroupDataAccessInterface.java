@@ -0,0 +1,12 @@
+package use_case.manage_members.respond_request;
+
+public interface RespondRequestGroupDataAccessInterface {
+    /**
+     * Marks the master schedule of a group as out of date, so it is rebuilt from
+     * the members' availability the next time it is loaded or saved.
+     * An accepted request changes who counts towards the master schedule.
+     *
+     * @param groupID the ID of the group whose members changed
+     */
+    void invalidateMasterSchedule(String groupID);
+}
@@ -9,11 +9,14 @@ import java.util.Map;
 
 public class RespondRequestInteractor implements RespondRequestInputBoundary {
     private RespondRequestDataAccessInterface membershipDataAccessObject;
+    private final RespondRequestGroupDataAccessInterface groupDataAccessObject;
     private final RespondRequestOutputBoundary respondRequestPresenter;
 
     public RespondRequestInteractor(RespondRequestDataAccessInterface membershipDataAccessObject,
+                                    RespondRequestGroupDataAccessInterface groupDataAccessObject,
                                     RespondRequestOutputBoundary respondRequestPresenter) {
         this.membershipDataAccessObject = membershipDataAccessObject;
+        this.groupDataAccessObject = groupDataAccessObject;
         this.respondRequestPresenter = respondRequestPresenter;
     }
 
@@ -25,6 +28,10 @@ public class RespondRequestInteractor implements RespondRequestInputBoundary {
 
         // process
         membershipDataAccessObject.updateMembership(groupId, username, isAccepted);
+        if (isAccepted) {
+            // the new member's availability now counts towards the master schedule
+            groupDataAccessObject.invalidateMasterSchedule(groupId);
+        }
         // update members
         List<Membership> members = membershipDataAccessObject.getMembersForGroup(groupId);
         Map<String, String> newMembersHashMap = new HashMap<>();
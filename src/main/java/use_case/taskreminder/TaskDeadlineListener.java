@@ -0,0 +1,23 @@
+package use_case.taskreminder;
+
+import entity.task.Task;
+
+/**
+ * Told about every task a use case has saved, so that the reminders of the
+ * task follow its deadline and completion without reading the task again.
+ */
+public interface TaskDeadlineListener {
+
+    /**
+     * A listener that ignores every task.
+     */
+    TaskDeadlineListener NONE = task -> {
+    };
+
+    /**
+     * Called after a task was created or changed.
+     *
+     * @param task the task as it was saved
+     */
+    void taskSaved(Task task);
+}
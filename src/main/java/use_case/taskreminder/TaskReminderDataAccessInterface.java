@@ -0,0 +1,47 @@
+package use_case.taskreminder;
+
+import entity.task.Task;
+import send_grid_api.SendEmailInterface.EmailType;
+import use_case.viewgrouptasks.TaskPage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskReminderDataAccessInterface {
+
+    /**
+     * Returns one page of the tasks of the given groups that are not completed
+     * and are due in the given range, in order of due date.
+     *
+     * @param groupIds  the IDs of the groups
+     * @param from      the earliest due date, inclusive
+     * @param until     the latest due date, exclusive
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param pageSize  the maximum number of tasks on the page
+     * @return the page of tasks
+     */
+    TaskPage getOpenTasksDueBetween(Collection<String> groupIds, LocalDateTime from, LocalDateTime until,
+                                    String pageToken, int pageSize);
+
+    /**
+     * Returns the tasks with the given IDs.
+     *
+     * @param taskIDs the task IDs
+     * @return the tasks that exist, in no particular order
+     */
+    List<Task> getTasks(Collection<String> taskIDs);
+
+    /**
+     * Marks a reminder of a task as sent, unless it was already sent for the same
+     * deadline. Every client that runs reminders asks for the same reminder, so
+     * only the one that claims it sends it.
+     *
+     * @param taskID  the ID of the task
+     * @param type    {@link EmailType#TASK_DUE_SOON} or {@link EmailType#TASK_OVERDUE}
+     * @param dueDate the deadline the reminder is for
+     * @return true if this call claimed the reminder, false if the task is completed,
+     *         its deadline moved or the reminder was already claimed
+     */
+    boolean claimReminder(String taskID, EmailType type, LocalDateTime dueDate);
+}
@@ -0,0 +1,434 @@
+package use_case.taskreminder;
+
+import entity.task.Task;
+import entity.user.User;
+import send_grid_api.SendEmailInterface;
+import send_grid_api.SendEmailInterface.EmailType;
+import use_case.login.LoginListener;
+import use_case.taskstats.TaskStatsInteractor;
+import use_case.viewgrouptasks.TaskPage;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emails the assignees of a task when its deadline is near, and again once it has passed.
+ *
+ * <p>
+ * Reminders are sent for the groups of the user logged in to this client, so
+ * nothing is loaded before {@link #loggedIn}. Open tasks of those groups due
+ * within the next {@link #DEFAULT_HORIZON} are kept in a
+ * {@link TimingWheel} with one timer for the "due soon" reminder,
+ * {@link TaskStatsInteractor#DUE_SOON_HOURS} hours before the deadline, and one
+ * for the "overdue" reminder, at the deadline. The tasks are loaded page by page
+ * as the horizon moves forward, an hour of deadlines at a time, so the whole
+ * collection is never read. Use cases report every task they save through
+ * {@link TaskDeadlineListener}, which moves or cancels its timers in constant time.
+ * </p>
+ *
+ * <p>
+ * Every minute the wheel is advanced. Only the tasks whose timers came due are
+ * read again, to skip those completed or moved by another client since they were
+ * indexed. Every client of a group times the same reminders, so each reminder is
+ * claimed in the database first and only the client that claims it emails the
+ * assignees. The email outbox folds the reminders of one tick into one request
+ * per email type. A reminder whose time passed while no client was running is
+ * not sent.
+ * </p>
+ */
+public class TaskReminderScheduler implements TaskDeadlineListener, LoginListener {
+
+    public static final long TICK_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    public static final Duration DUE_SOON = Duration.ofHours(TaskStatsInteractor.DUE_SOON_HOURS);
+    public static final Duration DEFAULT_HORIZON = Duration.ofDays(7);
+    public static final Duration LOAD_STEP = Duration.ofHours(1);
+    public static final int PAGE_SIZE = 500;
+
+    private final TaskReminderDataAccessInterface taskDataAccess;
+    private final TaskReminderUserDataAccessInterface userDataAccess;
+    private final SendEmailInterface emailer;
+    private final Clock clock;
+    private final Duration horizon;
+
+    // guarded by this
+    private final TimingWheel<Reminder> wheel;
+    private final Map<String, List<TimingWheel.Timer<Reminder>>> timersByTask = new HashMap<>();
+    private Set<String> groupIds = Set.of();
+    private LocalDateTime loadedUntil;
+    private LocalDateTime indexUntil;
+    private ScheduledExecutorService ticker;
+
+    private final AtomicLong loadedCount = new AtomicLong();
+    private final AtomicLong dueSoonSentCount = new AtomicLong();
+    private final AtomicLong overdueSentCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong claimedElsewhereCount = new AtomicLong();
+
+    /**
+     * Constructs a scheduler with the system clock and the default horizon.
+     *
+     * @param taskDataAccess the task data access object
+     * @param userDataAccess the user data access object
+     * @param emailer        sends the reminders
+     */
+    public TaskReminderScheduler(TaskReminderDataAccessInterface taskDataAccess,
+                                 TaskReminderUserDataAccessInterface userDataAccess,
+                                 SendEmailInterface emailer) {
+        this(taskDataAccess, userDataAccess, emailer, Clock.systemDefaultZone(), DEFAULT_HORIZON);
+    }
+
+    /**
+     * Constructs a scheduler.
+     *
+     * @param taskDataAccess the task data access object
+     * @param userDataAccess the user data access object
+     * @param emailer        sends the reminders
+     * @param clock          the clock the reminders are timed by
+     * @param horizon        how far ahead of now tasks are indexed
+     */
+    public TaskReminderScheduler(TaskReminderDataAccessInterface taskDataAccess,
+                                 TaskReminderUserDataAccessInterface userDataAccess,
+                                 SendEmailInterface emailer, Clock clock, Duration horizon) {
+        this.taskDataAccess = taskDataAccess;
+        this.userDataAccess = userDataAccess;
+        this.emailer = emailer;
+        this.clock = clock;
+        this.horizon = horizon;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, clock.millis());
+        this.loadedUntil = now();
+        this.indexUntil = loadedUntil;
+    }
+
+    /**
+     * Sends the reminders of the groups of the user who logged in, starting the
+     * background thread if it is not running yet.
+     *
+     * @param username     the name of the user
+     * @param userGroupIds the IDs of the groups the user is in
+     */
+    @Override
+    public void loggedIn(String username, Set<String> userGroupIds) {
+        watchGroups(userGroupIds);
+        start();
+    }
+
+    /**
+     * Replaces the groups whose tasks are reminded of, and drops the reminders
+     * indexed for the previous groups.
+     *
+     * @param groups the IDs of the groups
+     */
+    synchronized void watchGroups(Set<String> groups) {
+        this.groupIds = Set.copyOf(groups);
+        for (List<TimingWheel.Timer<Reminder>> timers : timersByTask.values()) {
+            for (TimingWheel.Timer<Reminder> timer : timers) {
+                wheel.cancel(timer);
+            }
+        }
+        timersByTask.clear();
+        loadedUntil = now();
+        indexUntil = loadedUntil;
+    }
+
+    /**
+     * Starts loading tasks and sending reminders on a background thread. Nothing
+     * is loaded until the groups to watch are known.
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "task-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::runTick, 0, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs one tick, so that a failed tick does not stop the ones after it.
+     */
+    private void runTick() {
+        final FutureTask<Void> task = new FutureTask<>(this::tick, null);
+        task.run();
+        try {
+            task.get();
+        } catch (ExecutionException ex) {
+            // the next tick loads and sends whatever this one could not
+            System.err.println("Failed to send task reminders: " + ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the background thread.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public synchronized void taskSaved(Task task) {
+        index(task, clock.millis());
+    }
+
+    /**
+     * Loads the tasks that have come within the horizon, then sends the reminders that are due.
+     */
+    void tick() {
+        loadAhead();
+
+        final List<Reminder> due;
+        synchronized (this) {
+            due = wheel.advance(clock.millis());
+            for (Reminder reminder : due) {
+                final List<TimingWheel.Timer<Reminder>> timers = timersByTask.get(reminder.taskID);
+                if (timers != null && timers.stream().noneMatch(TimingWheel.Timer::isPending)) {
+                    timersByTask.remove(reminder.taskID);
+                }
+            }
+        }
+        if (!due.isEmpty()) {
+            send(due);
+        }
+    }
+
+    private void loadAhead() {
+        final Set<String> groups;
+        final LocalDateTime from;
+        final LocalDateTime until = now().plus(horizon);
+        synchronized (this) {
+            if (groupIds.isEmpty() || Duration.between(loadedUntil, until).compareTo(LOAD_STEP) < 0) {
+                return;
+            }
+            groups = groupIds;
+            from = loadedUntil;
+            // tasks saved while the range is loading are indexed by taskSaved
+            indexUntil = until;
+        }
+
+        boolean loaded = false;
+        try {
+            String pageToken = null;
+            do {
+                final TaskPage page = taskDataAccess.getOpenTasksDueBetween(groups, from, until, pageToken,
+                        PAGE_SIZE);
+                indexPage(groups, page);
+                pageToken = page.getNextPageToken();
+            } while (pageToken != null);
+            loaded = true;
+        } finally {
+            synchronized (this) {
+                // the range was loaded for groups that are no longer watched, which watchGroups reset
+                if (groups == groupIds) {
+                    finishLoad(loaded, until);
+                }
+            }
+        }
+    }
+
+    private synchronized void indexPage(Set<String> groups, TaskPage page) {
+        if (groups != groupIds) {
+            return;
+        }
+        final long nowMillis = clock.millis();
+        for (Task task : page.getTasks()) {
+            index(task, nowMillis);
+        }
+        loadedCount.addAndGet(page.getTasks().size());
+    }
+
+    private void finishLoad(boolean loaded, LocalDateTime until) {
+        if (loaded) {
+            loadedUntil = until;
+        } else {
+            indexUntil = loadedUntil;
+        }
+    }
+
+    private void index(Task task, long nowMillis) {
+        final List<TimingWheel.Timer<Reminder>> previous = timersByTask.remove(task.getID());
+        if (previous != null) {
+            for (TimingWheel.Timer<Reminder> timer : previous) {
+                wheel.cancel(timer);
+            }
+        }
+        if (task.isCompleted() || !task.hasDueDate()) {
+            return;
+        }
+        final LocalDateTime dueDate = task.getDueDate().get();
+        if (!dueDate.isBefore(indexUntil)) {
+            // loaded when the horizon reaches it
+            return;
+        }
+
+        final long dueMillis = toMillis(dueDate);
+        final long dueSoonMillis = dueMillis - DUE_SOON.toMillis();
+        final List<TimingWheel.Timer<Reminder>> timers = new ArrayList<>(2);
+        if (dueSoonMillis > nowMillis) {
+            timers.add(wheel.schedule(new Reminder(task.getID(), EmailType.TASK_DUE_SOON, dueDate), dueSoonMillis));
+        }
+        if (dueMillis > nowMillis) {
+            timers.add(wheel.schedule(new Reminder(task.getID(), EmailType.TASK_OVERDUE, dueDate), dueMillis));
+        }
+        if (!timers.isEmpty()) {
+            timersByTask.put(task.getID(), timers);
+        }
+    }
+
+    private void send(List<Reminder> due) {
+        final Set<String> taskIDs = new LinkedHashSet<>();
+        for (Reminder reminder : due) {
+            taskIDs.add(reminder.taskID);
+        }
+        final Map<String, Task> tasks = new HashMap<>();
+        for (Task task : taskDataAccess.getTasks(taskIDs)) {
+            tasks.put(task.getID(), task);
+        }
+
+        final List<Reminder> valid = claim(due, tasks);
+        if (valid.isEmpty()) {
+            return;
+        }
+        final Set<String> usernames = new LinkedHashSet<>();
+        for (Reminder reminder : valid) {
+            usernames.addAll(tasks.get(reminder.taskID).getAssignees());
+        }
+
+        final Map<String, String> emails = new HashMap<>();
+        for (User user : userDataAccess.getUsers(usernames)) {
+            emails.put(user.getName(), user.getEmail());
+        }
+        for (Reminder reminder : valid) {
+            for (String assignee : tasks.get(reminder.taskID).getAssignees()) {
+                final String email = emails.get(assignee);
+                if (email == null) {
+                    continue;
+                }
+                try {
+                    emailer.sendEmail(email, reminder.type);
+                } catch (IOException ex) {
+                    System.err.println("Failed to send task reminder to " + email + ": " + ex);
+                    continue;
+                }
+                if (reminder.type == EmailType.TASK_DUE_SOON) {
+                    dueSoonSentCount.incrementAndGet();
+                } else {
+                    overdueSentCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims the reminders whose task is still open and due when they were timed.
+     * A reminder whose task changed is dropped and the task is indexed again.
+     *
+     * @param due   the reminders that came due
+     * @param tasks the tasks of the reminders, as they are now, by ID
+     * @return the reminders this client claimed and is to send
+     */
+    private List<Reminder> claim(List<Reminder> due, Map<String, Task> tasks) {
+        final List<Reminder> valid = new ArrayList<>();
+        for (Reminder reminder : due) {
+            final Task task = tasks.get(reminder.taskID);
+            if (task == null || task.isCompleted() || !reminder.dueDate.equals(task.getDueDate().orElse(null))) {
+                staleCount.incrementAndGet();
+                if (task != null) {
+                    // the deadline was moved by another client
+                    taskSaved(task);
+                }
+                continue;
+            }
+            if (!taskDataAccess.claimReminder(reminder.taskID, reminder.type, reminder.dueDate)) {
+                // sent by another client, or the task changed since it was read
+                claimedElsewhereCount.incrementAndGet();
+                continue;
+            }
+            valid.add(reminder);
+        }
+        return valid;
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(clock.instant(), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public synchronized int getIndexedTaskCount() {
+        return timersByTask.size();
+    }
+
+    public synchronized int getPendingReminderCount() {
+        return wheel.size();
+    }
+
+    public long getLoadedTaskCount() {
+        return loadedCount.get();
+    }
+
+    public long getDueSoonSentCount() {
+        return dueSoonSentCount.get();
+    }
+
+    public long getOverdueSentCount() {
+        return overdueSentCount.get();
+    }
+
+    /**
+     * Returns the number of reminders not sent because the task was completed,
+     * deleted or moved since it was indexed.
+     *
+     * @return the number of stale reminders
+     */
+    public long getStaleReminderCount() {
+        return staleCount.get();
+    }
+
+    /**
+     * Returns the number of reminders not sent because another client claimed them first.
+     *
+     * @return the number of reminders claimed elsewhere
+     */
+    public long getClaimedElsewhereCount() {
+        return claimedElsewhereCount.get();
+    }
+
+    /**
+     * One reminder of one task.
+     */
+    private static final class Reminder {
+        private final String taskID;
+        private final EmailType type;
+        private final LocalDateTime dueDate;
+
+        Reminder(String taskID, EmailType type, LocalDateTime dueDate) {
+            this.taskID = taskID;
+            this.type = type;
+            this.dueDate = dueDate;
+        }
+    }
+}
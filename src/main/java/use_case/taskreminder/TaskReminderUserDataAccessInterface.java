@@ -0,0 +1,17 @@
+package use_case.taskreminder;
+
+import entity.user.User;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskReminderUserDataAccessInterface {
+
+    /**
+     * Returns the users with the given usernames.
+     *
+     * @param usernames the usernames
+     * @return the users that exist
+     */
+    List<User> getUsers(Collection<String> usernames);
+}
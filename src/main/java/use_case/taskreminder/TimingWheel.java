@@ -0,0 +1,203 @@
+package use_case.taskreminder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A hierarchical timing wheel: a set of timers, each due at some time, from
+ * which the timers that have come due can be taken in time proportional to
+ * their number rather than to the number of timers held.
+ *
+ * <p>
+ * Time advances in ticks of a fixed length. The wheel has {@value #LEVELS}
+ * levels of {@value #SLOTS} slots each; a slot of level {@code n} covers
+ * {@code 64^n} ticks. A timer is kept in the lowest level whose span reaches its
+ * due tick, and is moved down a level each time the lower level wraps around,
+ * until it reaches the first level and is taken out on its tick. Adding and
+ * cancelling a timer are constant time. The four levels span {@code 64^4}
+ * ticks, about 32 years with one-minute ticks; a timer due later is parked in
+ * the top level and placed again when it is reached.
+ * </p>
+ *
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ *
+ * @param <T> the type of value held by each timer
+ */
+public class TimingWheel<T> {
+
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final List<Set<Timer<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+    private long currentTick;
+    private int size;
+
+    /**
+     * Constructs an empty wheel.
+     *
+     * @param tickMillis  the length of a tick in milliseconds
+     * @param startMillis the current time in milliseconds since the epoch
+     * @throws IllegalArgumentException if the tick is not positive
+     */
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int i = 0; i < LEVELS * SLOTS; i++) {
+            slots.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Adds a timer. A timer due in the past is taken out on the next {@link #advance}.
+     *
+     * @param value     the value of the timer
+     * @param dueMillis when the timer is due, in milliseconds since the epoch
+     * @return the timer, which can be passed to {@link #cancel}
+     */
+    public Timer<T> schedule(T value, long dueMillis) {
+        // round up, so that a timer is never taken out before it is due
+        final Timer<T> timer = new Timer<>(value, dueMillis, -Math.floorDiv(-dueMillis, tickMillis));
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Removes a timer that has not been taken out yet.
+     *
+     * @param timer the timer
+     * @return true if the timer was removed, false if it was already taken out or cancelled
+     */
+    public boolean cancel(Timer<T> timer) {
+        if (timer.slot == null) {
+            return false;
+        }
+        timer.slot.remove(timer);
+        timer.slot = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and takes out every timer due by then.
+     *
+     * @param nowMillis the current time in milliseconds since the epoch
+     * @return the values of the timers that came due, in order of their due tick
+     */
+    public List<T> advance(long nowMillis) {
+        final List<T> expired = new ArrayList<>();
+        final long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick <= nowTick) {
+            final int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascade();
+            }
+
+            final Set<Timer<T>> slot = slots.get(index);
+            if (!slot.isEmpty()) {
+                for (Timer<T> timer : slot) {
+                    timer.slot = null;
+                    expired.add(timer.value);
+                }
+                size -= slot.size();
+                slot.clear();
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Moves the timers of the slots reached by the current tick one level down,
+     * starting at the second level and going up as long as each level wraps around.
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            final int index = (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+            final Set<Timer<T>> slot = slots.get(level * SLOTS + index);
+            if (!slot.isEmpty()) {
+                final List<Timer<T>> timers = new ArrayList<>(slot);
+                slot.clear();
+                for (Timer<T> timer : timers) {
+                    place(timer);
+                }
+            }
+            if (index != 0) {
+                return;
+            }
+        }
+    }
+
+    private void place(Timer<T> timer) {
+        long due = Math.max(timer.dueTick, currentTick);
+        long delta = due - currentTick;
+        if (delta > MAX_DELTA) {
+            delta = MAX_DELTA;
+            due = currentTick + MAX_DELTA;
+        }
+
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        final int index = (int) ((due >> (SLOT_BITS * level)) & SLOT_MASK);
+        final Set<Timer<T>> slot = slots.get(level * SLOTS + index);
+        slot.add(timer);
+        timer.slot = slot;
+    }
+
+    /**
+     * Returns the number of timers still pending.
+     *
+     * @return the number of pending timers
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * A value held by the wheel until it comes due.
+     *
+     * @param <T> the type of the value
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private final long dueMillis;
+        private final long dueTick;
+        private Set<Timer<T>> slot;
+
+        private Timer(T value, long dueMillis, long dueTick) {
+            this.value = value;
+            this.dueMillis = dueMillis;
+            this.dueTick = dueTick;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public long getDueMillis() {
+            return dueMillis;
+        }
+
+        public boolean isPending() {
+            return slot != null;
+        }
+    }
+}
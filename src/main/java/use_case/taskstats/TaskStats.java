@@ -0,0 +1,212 @@
+package use_case.taskstats;
+
+/**
+ * Task counts of one group: for all of its tasks, and for the tasks assigned to
+ * the current user.
+ *
+ * <p>
+ * Overdue and due soon tasks are open tasks. A task is due soon if its due date is
+ * within the next {@link TaskStatsInteractor#DUE_SOON_HOURS} hours.
+ * </p>
+ */
+public final class TaskStats {
+
+    private final String groupId;
+    private final int openCount;
+    private final int completedCount;
+    private final int overdueCount;
+    private final int dueSoonCount;
+    private final int assignedOpenCount;
+    private final int assignedOverdueCount;
+    private final int assignedDueSoonCount;
+
+    private TaskStats(Builder builder) {
+        this.groupId = builder.groupId;
+        this.openCount = builder.openCount;
+        this.completedCount = builder.completedCount;
+        this.overdueCount = builder.overdueCount;
+        this.dueSoonCount = builder.dueSoonCount;
+        this.assignedOpenCount = builder.assignedOpenCount;
+        this.assignedOverdueCount = builder.assignedOverdueCount;
+        this.assignedDueSoonCount = builder.assignedDueSoonCount;
+    }
+
+    /**
+     * Returns the counts of a group without tasks.
+     *
+     * @param groupId the group id
+     * @return the counts, all zero
+     */
+    public static TaskStats empty(String groupId) {
+        return new Builder(groupId).build();
+    }
+
+    /**
+     * Adds the counts of another group to these counts.
+     *
+     * @param sumGroupId the group id of the sum
+     * @param other      the counts to add
+     * @return the sum of both counts
+     */
+    public TaskStats plus(String sumGroupId, TaskStats other) {
+        return new Builder(sumGroupId).add(this).add(other).build();
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public int getOpenCount() {
+        return openCount;
+    }
+
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    public int getOverdueCount() {
+        return overdueCount;
+    }
+
+    public int getDueSoonCount() {
+        return dueSoonCount;
+    }
+
+    public int getAssignedOpenCount() {
+        return assignedOpenCount;
+    }
+
+    public int getAssignedOverdueCount() {
+        return assignedOverdueCount;
+    }
+
+    public int getAssignedDueSoonCount() {
+        return assignedDueSoonCount;
+    }
+
+    /**
+     * Collects the counts of a group. Every count starts at zero and each call
+     * adds to it, so a builder can sum the counts of single tasks or of groups.
+     */
+    public static final class Builder {
+        private final String groupId;
+        private int openCount;
+        private int completedCount;
+        private int overdueCount;
+        private int dueSoonCount;
+        private int assignedOpenCount;
+        private int assignedOverdueCount;
+        private int assignedDueSoonCount;
+
+        /**
+         * Constructs a builder with every count at zero.
+         *
+         * @param groupId the group id
+         */
+        public Builder(String groupId) {
+            this.groupId = groupId;
+        }
+
+        /**
+         * Adds open tasks.
+         *
+         * @param count the number of open tasks
+         * @return this builder
+         */
+        public Builder addOpen(int count) {
+            openCount += count;
+            return this;
+        }
+
+        /**
+         * Adds completed tasks.
+         *
+         * @param count the number of completed tasks
+         * @return this builder
+         */
+        public Builder addCompleted(int count) {
+            completedCount += count;
+            return this;
+        }
+
+        /**
+         * Adds open tasks past their due date.
+         *
+         * @param count the number of overdue tasks
+         * @return this builder
+         */
+        public Builder addOverdue(int count) {
+            overdueCount += count;
+            return this;
+        }
+
+        /**
+         * Adds open tasks due soon.
+         *
+         * @param count the number of tasks due soon
+         * @return this builder
+         */
+        public Builder addDueSoon(int count) {
+            dueSoonCount += count;
+            return this;
+        }
+
+        /**
+         * Adds open tasks assigned to the user.
+         *
+         * @param count the number of open assigned tasks
+         * @return this builder
+         */
+        public Builder addAssignedOpen(int count) {
+            assignedOpenCount += count;
+            return this;
+        }
+
+        /**
+         * Adds overdue tasks assigned to the user.
+         *
+         * @param count the number of overdue assigned tasks
+         * @return this builder
+         */
+        public Builder addAssignedOverdue(int count) {
+            assignedOverdueCount += count;
+            return this;
+        }
+
+        /**
+         * Adds tasks due soon assigned to the user.
+         *
+         * @param count the number of assigned tasks due soon
+         * @return this builder
+         */
+        public Builder addAssignedDueSoon(int count) {
+            assignedDueSoonCount += count;
+            return this;
+        }
+
+        /**
+         * Adds every count of other task counts.
+         *
+         * @param stats the counts to add
+         * @return this builder
+         */
+        public Builder add(TaskStats stats) {
+            return addOpen(stats.openCount)
+                    .addCompleted(stats.completedCount)
+                    .addOverdue(stats.overdueCount)
+                    .addDueSoon(stats.dueSoonCount)
+                    .addAssignedOpen(stats.assignedOpenCount)
+                    .addAssignedOverdue(stats.assignedOverdueCount)
+                    .addAssignedDueSoon(stats.assignedDueSoonCount);
+        }
+
+        /**
+         * Builds the counts.
+         *
+         * @return the task counts of the group
+         */
+        public TaskStats build() {
+            return new TaskStats(this);
+        }
+    }
+}
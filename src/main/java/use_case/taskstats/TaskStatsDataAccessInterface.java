@@ -0,0 +1,23 @@
+package use_case.taskstats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Data access interface for counting the tasks of groups.
+ */
+public interface TaskStatsDataAccessInterface {
+
+    /**
+     * Counts the tasks of several groups without loading the tasks themselves.
+     *
+     * @param groupIds the ids of the groups
+     * @param username the user whose assigned tasks are also counted
+     * @param now      the time overdue and due soon tasks are counted from
+     * @param dueSoon  the end of the due soon window, exclusive
+     * @return the counts by group id; groups without tasks may be missing
+     */
+    Map<String, TaskStats> getTaskStats(Collection<String> groupIds, String username,
+                                        LocalDateTime now, LocalDateTime dueSoon);
+}
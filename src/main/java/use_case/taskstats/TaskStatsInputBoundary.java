@@ -0,0 +1,14 @@
+package use_case.taskstats;
+
+/**
+ * Input boundary (controller → use case) for the task counts of a user's groups.
+ */
+public interface TaskStatsInputBoundary {
+
+    /**
+     * Executes the use case to count the tasks of the given groups.
+     *
+     * @param inputData the groups to count the tasks of
+     */
+    void execute(TaskStatsInputData inputData);
+}
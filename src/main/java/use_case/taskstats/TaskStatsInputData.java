@@ -0,0 +1,19 @@
+package use_case.taskstats;
+
+import java.util.List;
+
+/**
+ * Input Data for the TaskStats Use Case.
+ */
+public class TaskStatsInputData {
+
+    private final List<String> groupIds;
+
+    public TaskStatsInputData(List<String> groupIds) {
+        this.groupIds = List.copyOf(groupIds);
+    }
+
+    public List<String> getGroupIds() {
+        return groupIds;
+    }
+}
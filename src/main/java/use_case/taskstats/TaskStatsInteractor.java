@@ -0,0 +1,50 @@
+package use_case.taskstats;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Interactor that counts the open, completed, overdue and due soon tasks of a
+ * user's groups with a single query, for the dashboard and group home panels.
+ */
+public class TaskStatsInteractor implements TaskStatsInputBoundary {
+
+    public static final int DUE_SOON_HOURS = 24;
+
+    private final TaskStatsDataAccessInterface taskDataAccess;
+    private final TaskStatsUserDataAccessInterface userDataAccess;
+    private final TaskStatsOutputBoundary presenter;
+
+    /**
+     * Constructs an interactor.
+     *
+     * @param taskDataAccess the task data access object
+     * @param presenter      the output boundary
+     * @param userDataAccess the user data access object
+     */
+    public TaskStatsInteractor(TaskStatsDataAccessInterface taskDataAccess,
+                               TaskStatsOutputBoundary presenter,
+                               TaskStatsUserDataAccessInterface userDataAccess) {
+        this.taskDataAccess = taskDataAccess;
+        this.presenter = presenter;
+        this.userDataAccess = userDataAccess;
+    }
+
+    @Override
+    public void execute(TaskStatsInputData inputData) {
+        final LocalDateTime now = LocalDateTime.now();
+        final Map<String, TaskStats> found = taskDataAccess.getTaskStats(inputData.getGroupIds(),
+                userDataAccess.getCurrentUsername(), now, now.plusHours(DUE_SOON_HOURS));
+
+        final Map<String, TaskStats> statsByGroup = new LinkedHashMap<>();
+        for (String groupId : inputData.getGroupIds()) {
+            statsByGroup.put(groupId, found.getOrDefault(groupId, TaskStats.empty(groupId)));
+        }
+        TaskStats total = TaskStats.empty(null);
+        for (TaskStats stats : statsByGroup.values()) {
+            total = total.plus(null, stats);
+        }
+        presenter.presentStats(new TaskStatsOutputData(statsByGroup, total));
+    }
+}
@@ -0,0 +1,11 @@
+package use_case.taskstats;
+
+public interface TaskStatsOutputBoundary {
+
+    /**
+     * Presents the task counts of the user's groups.
+     *
+     * @param outputData the counts by group and in total
+     */
+    void presentStats(TaskStatsOutputData outputData);
+}
@@ -0,0 +1,36 @@
+package use_case.taskstats;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Output Data for the TaskStats Use Case.
+ */
+public class TaskStatsOutputData {
+
+    private final Map<String, TaskStats> statsByGroup;
+    private final TaskStats total;
+
+    public TaskStatsOutputData(Map<String, TaskStats> statsByGroup, TaskStats total) {
+        this.statsByGroup = Collections.unmodifiableMap(statsByGroup);
+        this.total = total;
+    }
+
+    /**
+     * Returns the counts of every requested group, in the order they were requested.
+     *
+     * @return the counts by group id
+     */
+    public Map<String, TaskStats> getStatsByGroup() {
+        return statsByGroup;
+    }
+
+    /**
+     * Returns the counts of all requested groups together.
+     *
+     * @return the total counts, with a null group id
+     */
+    public TaskStats getTotal() {
+        return total;
+    }
+}
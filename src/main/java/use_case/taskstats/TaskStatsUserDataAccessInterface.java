@@ -0,0 +1,11 @@
+package use_case.taskstats;
+
+public interface TaskStatsUserDataAccessInterface {
+
+    /**
+     * Return the current user.
+     *
+     * @return the username of the current user
+     */
+    String getCurrentUsername();
+}
@@ -0,0 +1,33 @@
+package use_case.viewgrouptasks;
+
+import entity.task.Task;
+
+import java.util.List;
+
+/**
+ * The tasks of a group that were created or changed since a sync token was issued.
+ */
+public class TaskChanges {
+
+    private final List<Task> changedTasks;
+    private final String syncToken;
+
+    /**
+     * Creates the changes.
+     *
+     * @param changedTasks the created or changed tasks
+     * @param syncToken    the token to pass to the next sync
+     */
+    public TaskChanges(List<Task> changedTasks, String syncToken) {
+        this.changedTasks = changedTasks;
+        this.syncToken = syncToken;
+    }
+
+    public List<Task> getChangedTasks() {
+        return changedTasks;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+}
@@ -0,0 +1,37 @@
+package use_case.viewgrouptasks;
+
+import entity.task.Task;
+
+import java.util.List;
+
+/**
+ * One page of a group's tasks, in order of due date.
+ */
+public class TaskPage {
+
+    private final List<Task> tasks;
+    private final String nextPageToken;
+
+    /**
+     * Creates a page.
+     *
+     * @param tasks         the tasks on this page
+     * @param nextPageToken the token of the next page, or null if this is the last page
+     */
+    public TaskPage(List<Task> tasks, String nextPageToken) {
+        this.tasks = tasks;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public boolean isLastPage() {
+        return nextPageToken == null;
+    }
+}
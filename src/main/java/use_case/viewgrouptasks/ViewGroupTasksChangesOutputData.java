@@ -0,0 +1,31 @@
+package use_case.viewgrouptasks;
+
+import java.util.List;
+
+/**
+ * The tasks of a group that were created or changed since they were last presented.
+ */
+public class ViewGroupTasksChangesOutputData {
+
+    private final List<ViewGroupTasksOutputData.TaskDTO> changedTasks;
+    private final String syncToken;
+
+    /**
+     * Creates new output data holding changed tasks.
+     *
+     * @param changedTasks the created or changed tasks
+     * @param syncToken    the token for syncing the next changes
+     */
+    public ViewGroupTasksChangesOutputData(List<ViewGroupTasksOutputData.TaskDTO> changedTasks, String syncToken) {
+        this.changedTasks = changedTasks;
+        this.syncToken = syncToken;
+    }
+
+    public List<ViewGroupTasksOutputData.TaskDTO> getChangedTasks() {
+        return changedTasks;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+}
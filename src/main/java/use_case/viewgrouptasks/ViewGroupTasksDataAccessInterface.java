@@ -1,9 +1,5 @@
 package use_case.viewgrouptasks;
 
-import entity.task.Task;
-
-import java.util.List;
-
 /**
  * Data access interface for retrieving and modifying tasks that are associated
  * with a particular group, as well as related user and group information.
@@ -11,10 +7,34 @@ import java.util.List;
 public interface ViewGroupTasksDataAccessInterface {
 
     /**
-     * Returns all tasks that belong to the current group.
+     * Returns one page of the tasks that belong to a group, ordered by due date
+     * (tasks without a due date first) and then by task id.
+     *
+     * @param groupId   the group id
+     * @param pageToken the token returned with the previous page, or null for the first page
+     * @param pageSize  the maximum number of tasks on the page
+     * @return the page (never {@code null})
+     */
+    TaskPage getTasksForGroup(String groupId, String pageToken, int pageSize);
+
+    /**
+     * Returns a token for the current position in the change sequence of a group's
+     * tasks. Every write to a task advances the sequence of its group.
      *
      * @param groupId the group id
-     * @return the list of tasks for that group (never {@code null})
+     * @return the sync token
+     */
+    String getSyncToken(String groupId);
+
+    /**
+     * Returns the tasks of a group that were created or changed since a sync token
+     * was issued, together with a new token.
+     * A task may be returned again by a later sync even if it did not change again.
+     *
+     * @param groupId   the group id
+     * @param syncToken a token returned by {@link #getSyncToken} or by a previous sync of this group
+     * @return the changes (never {@code null})
+     * @throws IllegalArgumentException if the token is malformed or belongs to another group
      */
-    List<Task> getTasksForGroup(String groupId);
+    TaskChanges getTaskChangesForGroup(String groupId, String syncToken);
 }
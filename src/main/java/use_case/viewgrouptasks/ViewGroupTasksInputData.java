@@ -5,17 +5,51 @@ package use_case.viewgrouptasks;
  */
 public class ViewGroupTasksInputData {
     private final String groupId;
+    private final String syncToken;
+    private final String pageToken;
 
     /**
-     * Creates a new input data object.
+     * Creates a new input data object for loading every task of a group.
      *
      * @param groupId the identifier of the group whose tasks are viewed
      */
     public ViewGroupTasksInputData(String groupId) {
+        this(groupId, null);
+    }
+
+    /**
+     * Creates a new input data object for loading the tasks of a group that
+     * changed since the tasks were last loaded.
+     *
+     * @param groupId   the identifier of the group whose tasks are viewed
+     * @param syncToken the sync token presented with the last load, or null to load every task
+     */
+    public ViewGroupTasksInputData(String groupId, String syncToken) {
+        this(groupId, syncToken, null);
+    }
+
+    /**
+     * Creates a new input data object for loading the next page of a group's tasks.
+     *
+     * @param groupId   the identifier of the group whose tasks are viewed
+     * @param syncToken the sync token presented with the first page of the load
+     * @param pageToken the token of the page to load, or null to start a new load
+     */
+    public ViewGroupTasksInputData(String groupId, String syncToken, String pageToken) {
         this.groupId = groupId;
+        this.syncToken = syncToken;
+        this.pageToken = pageToken;
     }
 
     public String getGroupId() {
         return groupId;
     }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
+    public String getPageToken() {
+        return pageToken;
+    }
 }
@@ -10,6 +10,10 @@ import java.util.List;
  * Interactor for viewing tasks that belong to a specific group.
  */
 public class ViewGroupTasksInteractor implements ViewGroupTasksInputBoundary {
+    public static final int PAGE_SIZE = 50;
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final ViewGroupTasksDataAccessInterface dataAccess;
     private final ViewGroupTasksGroupDataAccessInterface groupDataAccess;
     private final ViewGroupTasksOutputBoundary presenter;
@@ -29,24 +33,74 @@ public class ViewGroupTasksInteractor implements ViewGroupTasksInputBoundary {
         this.groupDataAccess = groupDataAccess;
     }
 
+    /**
+     * Loads the tasks of the group. With a page token, the next page of an earlier
+     * load is loaded and appended. With only a sync token, the tasks that changed
+     * since the token was issued are loaded and presented as changes; a token that
+     * cannot be used for this group falls back to loading the first page.
+     *
+     * @param inputData the input data containing the group id
+     */
     @Override
     public void execute(ViewGroupTasksInputData inputData) {
-        List<Task> tasks = dataAccess.getTasksForGroup(inputData.getGroupId());
+        if (inputData.getPageToken() != null) {
+            loadPage(inputData.getGroupId(), inputData.getPageToken(), inputData.getSyncToken());
+            return;
+        }
+        if (inputData.getSyncToken() != null) {
+            final TaskChanges changes;
+            try {
+                changes = dataAccess.getTaskChangesForGroup(inputData.getGroupId(), inputData.getSyncToken());
+            } catch (IllegalArgumentException exception) {
+                loadFirstPage(inputData.getGroupId());
+                return;
+            }
+            List<ViewGroupTasksOutputData.TaskDTO> dtos = new ArrayList<>();
+            for (Task task : changes.getChangedTasks()) {
+                dtos.add(toDto(task));
+            }
+            presenter.presentChanges(new ViewGroupTasksChangesOutputData(dtos, changes.getSyncToken()));
+            return;
+        }
+        loadFirstPage(inputData.getGroupId());
+    }
 
-        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        List<ViewGroupTasksOutputData.TaskDTO> dtos = new ArrayList<>();
+    /**
+     * Starts a new load of the group's tasks by presenting the first page, which
+     * replaces the shown tasks. Later pages are only loaded when the view asks for
+     * them. The sync token is taken before the first page is read, so a task
+     * changed while the pages are loaded is picked up by the next sync.
+     *
+     * @param groupId the group id
+     */
+    private void loadFirstPage(String groupId) {
+        loadPage(groupId, null, dataAccess.getSyncToken(groupId));
+    }
 
-        for (Task task : tasks) {
-            String dueDateString = task.getDueDate()
-                    .map(dateTime -> dateTime.format(fmt))
-                    .orElse("No due date");
-            dtos.add(new ViewGroupTasksOutputData.TaskDTO(task.getID(), task.getDescription(), dueDateString,
-                    task.isCompleted(), task.getAssignees()));
-        }
+    /**
+     * Loads one page of the group's tasks and presents it.
+     *
+     * @param groupId   the group id
+     * @param pageToken the token of the page, or null for the first page
+     * @param syncToken the sync token taken before the first page was read
+     */
+    private void loadPage(String groupId, String pageToken, String syncToken) {
+        List<String> names = groupDataAccess.getGroup(groupId).getMembers();
+        TaskPage page = dataAccess.getTasksForGroup(groupId, pageToken, PAGE_SIZE);
 
-        List<String> names = groupDataAccess.getGroup(inputData.getGroupId()).getMembers();
+        List<ViewGroupTasksOutputData.TaskDTO> dtos = new ArrayList<>();
+        for (Task task : page.getTasks()) {
+            dtos.add(toDto(task));
+        }
+        presenter.present(new ViewGroupTasksOutputData(dtos, names, pageToken != null,
+                page.getNextPageToken(), syncToken));
+    }
 
-        presenter.present(
-                new ViewGroupTasksOutputData(dtos, names));
+    private static ViewGroupTasksOutputData.TaskDTO toDto(Task task) {
+        String dueDateString = task.getDueDate()
+                .map(dateTime -> dateTime.format(DATE_FORMATTER))
+                .orElse("No due date");
+        return new ViewGroupTasksOutputData.TaskDTO(task.getID(), task.getDescription(), dueDateString,
+                task.isCompleted(), task.getAssignees());
     }
 }
@@ -11,4 +11,11 @@ public interface ViewGroupTasksOutputBoundary {
      * @param outputData the task list data
      */
     void present(ViewGroupTasksOutputData outputData);
+
+    /**
+     * Presents the tasks of a group that changed since they were last presented.
+     *
+     * @param outputData the changed tasks
+     */
+    void presentChanges(ViewGroupTasksChangesOutputData outputData);
 }
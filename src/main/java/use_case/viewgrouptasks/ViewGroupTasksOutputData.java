@@ -6,16 +6,36 @@ public class ViewGroupTasksOutputData {
 
     private final List<TaskDTO> tasks;
     private final List<String> names;
+    private final boolean append;
+    private final String nextPageToken;
+    private final String syncToken;
 
     /**
-     * Creates new output data for group tasks.
+     * Creates new output data holding every task of a group.
      *
      * @param tasks       the tasks belonging to the group
      * @param memberNames the members belonging to the group
      */
     public ViewGroupTasksOutputData(List<TaskDTO> tasks, List<String> memberNames) {
+        this(tasks, memberNames, false, null, null);
+    }
+
+    /**
+     * Creates new output data holding one page of a group's tasks.
+     *
+     * @param tasks         the tasks on this page
+     * @param memberNames   the members belonging to the group
+     * @param append        whether the tasks follow the previously presented page
+     * @param nextPageToken the token of the next page, or null if this is the last page
+     * @param syncToken     the token for syncing the changes made after the first page was loaded
+     */
+    public ViewGroupTasksOutputData(List<TaskDTO> tasks, List<String> memberNames,
+                                    boolean append, String nextPageToken, String syncToken) {
         this.tasks = tasks;
         this.names = memberNames;
+        this.append = append;
+        this.nextPageToken = nextPageToken;
+        this.syncToken = syncToken;
     }
 
     public List<TaskDTO> getTasks() {
@@ -26,6 +46,22 @@ public class ViewGroupTasksOutputData {
         return names;
     }
 
+    public boolean isAppend() {
+        return append;
+    }
+
+    public boolean isComplete() {
+        return nextPageToken == null;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    public String getSyncToken() {
+        return syncToken;
+    }
+
     /**
      * DTO representing a single task row in the UI.
      */
@@ -0,0 +1,183 @@
+package use_case.viewtasks;
+
+import entity.task.Task;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A description of which of a user's tasks to load, so that the data access
+ * object can filter, sort and limit them in the database instead of returning
+ * every task ever assigned to the user.
+ *
+ * <p>
+ * Criteria that are not set do not filter anything. Tasks without a due date
+ * never fall outside a due date range unless {@link #excludingTasksWithoutDueDate()}
+ * is set, and they sort before every task with a due date, matching the order
+ * MongoDB uses for a missing field.
+ * </p>
+ */
+public class TaskQuery {
+
+    private final String assignee;
+    private Boolean completed;
+    private LocalDateTime dueFrom;
+    private LocalDateTime dueBefore;
+    private boolean includeWithoutDueDate = true;
+    private final Set<String> groupIDs = new LinkedHashSet<>();
+    private boolean sortByDueDate;
+    private int limit;
+
+    /**
+     * Constructs a query for every task assigned to a user.
+     * @param assignee the username of the assignee
+     */
+    public TaskQuery(String assignee) {
+        this.assignee = assignee;
+    }
+
+    /**
+     * Only match tasks with the given completion status.
+     * @param isCompleted whether the tasks should be completed
+     * @return this query
+     */
+    public TaskQuery completed(boolean isCompleted) {
+        this.completed = isCompleted;
+        return this;
+    }
+
+    /**
+     * Only match tasks due at or after the given time.
+     * @param from the earliest due date, inclusive
+     * @return this query
+     */
+    public TaskQuery dueFrom(LocalDateTime from) {
+        this.dueFrom = from;
+        return this;
+    }
+
+    /**
+     * Only match tasks due before the given time.
+     * @param before the latest due date, exclusive
+     * @return this query
+     */
+    public TaskQuery dueBefore(LocalDateTime before) {
+        this.dueBefore = before;
+        return this;
+    }
+
+    /**
+     * Do not match tasks that have no due date.
+     * @return this query
+     */
+    public TaskQuery excludingTasksWithoutDueDate() {
+        this.includeWithoutDueDate = false;
+        return this;
+    }
+
+    /**
+     * Only match tasks of the given groups.
+     * @param groups the group IDs
+     * @return this query
+     */
+    public TaskQuery inGroups(Collection<String> groups) {
+        this.groupIDs.addAll(groups);
+        return this;
+    }
+
+    /**
+     * Return the tasks in order of their due date, earliest first.
+     * @return this query
+     */
+    public TaskQuery sortedByDueDate() {
+        this.sortByDueDate = true;
+        return this;
+    }
+
+    /**
+     * Return at most the given number of tasks.
+     * @param maxTasks the maximum number of tasks, or 0 for no limit
+     * @return this query
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public TaskQuery limit(int maxTasks) {
+        if (maxTasks < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + maxTasks);
+        }
+        this.limit = maxTasks;
+        return this;
+    }
+
+    public String getAssignee() {
+        return assignee;
+    }
+
+    public Optional<Boolean> getCompleted() {
+        return Optional.ofNullable(completed);
+    }
+
+    public Optional<LocalDateTime> getDueFrom() {
+        return Optional.ofNullable(dueFrom);
+    }
+
+    public Optional<LocalDateTime> getDueBefore() {
+        return Optional.ofNullable(dueBefore);
+    }
+
+    /**
+     * Returns whether tasks without a due date match the query.
+     * @return true if tasks without a due date are included
+     */
+    public boolean includesTasksWithoutDueDate() {
+        return includeWithoutDueDate;
+    }
+
+    public Set<String> getGroupIDs() {
+        return groupIDs;
+    }
+
+    public boolean isSortedByDueDate() {
+        return sortByDueDate;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks whether a task matches every criterion of this query.
+     * @param task the task
+     * @return true if the task matches
+     */
+    public boolean matches(Task task) {
+        if (!task.getAssignees().contains(assignee)) {
+            return false;
+        }
+        if (completed != null && task.isCompleted() != completed) {
+            return false;
+        }
+        if (!groupIDs.isEmpty() && !groupIDs.contains(task.getGroup())) {
+            return false;
+        }
+        if (!task.hasDueDate()) {
+            return includeWithoutDueDate;
+        }
+
+        final LocalDateTime dueDate = task.getDueDate().get();
+        return (dueFrom == null || !dueDate.isBefore(dueFrom))
+                && (dueBefore == null || dueDate.isBefore(dueBefore));
+    }
+
+    /**
+     * Returns the order of tasks sorted by due date, tasks without a due date first.
+     * @return the comparator
+     */
+    public static Comparator<Task> dueDateOrder() {
+        return Comparator.comparing(task -> task.getDueDate().orElse(null),
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+}
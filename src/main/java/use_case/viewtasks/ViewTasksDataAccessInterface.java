@@ -9,10 +9,10 @@ import java.util.List;
 public interface ViewTasksDataAccessInterface {
 
     /**
-     * Returns a list of task IDs that are assigned to the specified user.
+     * Returns the tasks that match the given query.
      *
-     * @param username the username
-     * @return a list of task IDs associated with the given user name
+     * @param query which of a user's tasks to return, and in what order
+     * @return the matching tasks
      */
-    List<Task> getTasksForUser(String username);
+    List<Task> findTasks(TaskQuery query);
 }
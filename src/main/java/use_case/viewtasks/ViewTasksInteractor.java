@@ -2,6 +2,7 @@ package use_case.viewtasks;
 
 import entity.task.Task;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,7 +25,12 @@ public class ViewTasksInteractor implements ViewTasksInputBoundary {
 
     @Override
     public void execute() {
-        List<Task> taskIds = taskAccessObject.getTasksForUser(userDataAccess.getCurrentUsername());
+        // only open tasks that are not overdue are shown
+        final TaskQuery query = new TaskQuery(userDataAccess.getCurrentUsername())
+                .completed(false)
+                .dueFrom(LocalDateTime.now())
+                .sortedByDueDate();
+        List<Task> taskIds = taskAccessObject.findTasks(query);
         List<ViewTasksOutputData.TaskDTO> dtoList = new ArrayList<>();
 
         for (Task task : taskIds) {
@@ -33,14 +39,6 @@ public class ViewTasksInteractor implements ViewTasksInputBoundary {
                 continue;
             }
 
-            if (task.isCompleted()) {
-                continue;
-            }
-
-            if (task.isOverdue()) {
-                continue;
-            }
-
             String dueDateString = task.getDueDate()
                             .map(dateTime -> dateTime.format(DATE_FORMATTER))
                                     .orElse("No due date");
@@ -278,12 +278,11 @@ public class CreateGroupView extends JPanel implements ActionListener, PropertyC
         dialog = new JDialog(application, "Create Group", true);
         createGroupViewModel.addPropertyChangeListener(evt -> {
             if ("openModal".equals(evt.getPropertyName())) {
-                if (createGroupViewModel.getState().getOpenModal()) {
+                // the presenter clears the state right after firing, so read the one fired
+                final CreateGroupState currentState = (CreateGroupState) evt.getNewValue();
+                if (currentState.getOpenModal()) {
                     openCreateGroupModal(application);
                 } else {
-
-                    CreateGroupState currentState = createGroupViewModel.getState();
-
                     if (currentState.isSuccess()) {
                         JOptionPane.showMessageDialog(this,
                                 currentState.getMessage(),
@@ -199,7 +199,9 @@ public class CreateScheduleView extends JPanel implements PropertyChangeListener
         JDialog dialog = new JDialog(application, "Create Schedule", true);
         createScheduleViewModel.addPropertyChangeListener(evt -> {
             if ("openModal".equals(evt.getPropertyName())) {
-                if (createScheduleViewModel.getState().getOpenModal()) {
+                // the presenter clears the state right after firing, so read the one fired
+                final CreateScheduleState firedState = (CreateScheduleState) evt.getNewValue();
+                if (firedState.getOpenModal()) {
                     openCreateScheduleModal(dialog, application);
                 } else {
                     dialog.dispose();
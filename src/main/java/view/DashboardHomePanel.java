@@ -1,5 +1,7 @@
 package view;
 
+import use_case.taskstats.TaskStats;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
@@ -20,6 +22,9 @@ public class DashboardHomePanel extends JPanel {
     private static final Color BUTTON_BG = new Color(64, 120, 255);
     //    private static final Color BUTTON_TEXT = Color.WHITE;
 
+    private final JLabel assignedStatsLabel = new JLabel(" ");
+    private final JLabel groupStatsLabel = new JLabel(" ");
+
     public DashboardHomePanel(ViewTasksView viewTasksView,
                               ActionListener createGroupListener,
                               ActionListener joinGroupListener) {
@@ -48,6 +53,7 @@ public class DashboardHomePanel extends JPanel {
         column.add(Box.createVerticalStrut(16));
         column.add(buildActionsRow(createGroupListener, joinGroupListener));
         column.add(Box.createVerticalStrut(12));
+        column.add(buildStatsBlock());
 
         return column;
     }
@@ -155,6 +161,36 @@ public class DashboardHomePanel extends JPanel {
         return row;
     }
 
+    /* ---------------- task stats ---------------- */
+
+    private JComponent buildStatsBlock() {
+        JPanel stats = new JPanel();
+        stats.setOpaque(false);
+        stats.setLayout(new BoxLayout(stats, BoxLayout.Y_AXIS));
+        stats.setBorder(new EmptyBorder(0, 4, 0, 4));
+
+        assignedStatsLabel.setFont(assignedStatsLabel.getFont().deriveFont(Font.BOLD, 13f));
+        stats.add(assignedStatsLabel);
+        stats.add(groupStatsLabel);
+
+        return stats;
+    }
+
+    /**
+     * Shows the task counts of all of the user's groups.
+     *
+     * @param total the counts of all groups together
+     */
+    public void showTaskStats(TaskStats total) {
+        assignedStatsLabel.setText("Your tasks: " + total.getAssignedOpenCount() + " open, "
+                + total.getAssignedOverdueCount() + " overdue, "
+                + total.getAssignedDueSoonCount() + " due in 24h");
+        groupStatsLabel.setText("All groups: " + total.getOpenCount() + " open, "
+                + total.getOverdueCount() + " overdue, "
+                + total.getDueSoonCount() + " due in 24h, "
+                + total.getCompletedCount() + " completed");
+    }
+
     /* ---------------- cards ---------------- */
 
     private JComponent createActionCard(String titleText,
@@ -0,0 +1,67 @@
+package view;
+
+import interface_adapter.taskstats.TaskStatsController;
+import interface_adapter.taskstats.TaskStatsState;
+import interface_adapter.taskstats.TaskStatsViewModel;
+import use_case.taskstats.TaskStats;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shows the task counts of the user's groups on the dashboard: the totals on the
+ * dashboard home panel and the counts of each group on its group home panel.
+ * The counts of every group are asked for with one request and shown once they arrive.
+ */
+public class DashboardTaskStats implements PropertyChangeListener {
+
+    private TaskStatsController controller;
+    private DashboardHomePanel homePanel;
+    private Map<String, GroupHomePanel> groupHomePanels = new HashMap<>();
+
+    /**
+     * Constructs the task counts of the dashboard. No counts are asked for until
+     * the controller is set.
+     *
+     * @param viewModel the view model the task counts are presented to
+     */
+    public DashboardTaskStats(TaskStatsViewModel viewModel) {
+        viewModel.addPropertyChangeListener(this);
+    }
+
+    public void setTaskStatsController(TaskStatsController statsController) {
+        this.controller = statsController;
+    }
+
+    /**
+     * Asks for the task counts of the given groups, which are shown on the given
+     * panels once they arrive.
+     *
+     * @param home       the dashboard home panel, which shows the totals
+     * @param groupHomes the group home panels by group id
+     */
+    public void refresh(DashboardHomePanel home, Map<String, GroupHomePanel> groupHomes) {
+        this.homePanel = home;
+        this.groupHomePanels = new HashMap<>(groupHomes);
+        if (controller != null && !groupHomePanels.isEmpty()) {
+            controller.execute(groupHomePanels.keySet());
+        }
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if (!"stats".equals(evt.getPropertyName()) || homePanel == null) {
+            return;
+        }
+        TaskStatsState state = (TaskStatsState) evt.getNewValue();
+        homePanel.showTaskStats(state.getTotal());
+        for (Map.Entry<String, GroupHomePanel> entry : groupHomePanels.entrySet()) {
+            TaskStats stats = state.getStats(entry.getKey());
+            if (stats != null) {
+                entry.getValue().showTaskStats(stats);
+            }
+        }
+    }
+}
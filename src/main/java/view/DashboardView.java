@@ -60,6 +60,7 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
     private ViewGroupTasksController viewGroupTasksController;
     private EditGroupTaskController editGroupTaskController;
     private CreateGroupTasksController createGroupTasksController;
+    private final DashboardTaskStats taskStats;
 
     // Header widgets
     private final JLabel usernameLabel = new JLabel();
@@ -71,6 +72,8 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
     private final JList<String> groupsList = new JList<>(groupsModel);
     private final CardLayout cards = new CardLayout();
     private final JPanel workArea = new JPanel(cards);
+    private DashboardHomePanel homePanel;
+    private final java.util.Map<String, GroupHomePanel> groupHomePanels = new java.util.HashMap<>();
 
     private ViewMembersControllerFactory viewMembersControllerFactory;
     private ViewPendingControllerFactory viewPendingControllerFactory;
@@ -84,10 +87,13 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
     private final java.util.Map<String, String> groupIdToName = new java.util.HashMap<>();
     private String currentUsername;
 
-    public DashboardView(DashboardViewModel dashboardViewModel, ViewTasksView viewTasksView) {
+    public DashboardView(DashboardViewModel dashboardViewModel, ViewTasksView viewTasksView,
+                         DashboardTaskStats taskStats) {
         this.dashboardViewModel = Objects.requireNonNull(dashboardViewModel);
         this.dashboardViewModel.addPropertyChangeListener(this);
         this.viewTasksView = Objects.requireNonNull(viewTasksView);
+        // refreshed whenever the dashboard home is selected
+        this.taskStats = Objects.requireNonNull(taskStats);
 
         setLayout(new BorderLayout(12, 12));
         setBorder(new EmptyBorder(12, 12, 12, 12));
@@ -107,6 +113,9 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
                 String sel = groupsList.getSelectedValue();
                 if (sel != null) {
                     cards.show(workArea, sel);
+                    if (HOME.equals(sel)) {
+                        taskStats.refresh(homePanel, groupHomePanels);
+                    }
                     Component panel = null;
                     for (Component c : workArea.getComponents()) {
                         if (sel.equals(c.getName())) {
@@ -235,7 +244,8 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
             }
         };
 
-        return new DashboardHomePanel(viewTasksView, createGroupListener, joinGroupListener);
+        homePanel = new DashboardHomePanel(viewTasksView, createGroupListener, joinGroupListener);
+        return homePanel;
     }
 
     private JPanel createGroupPanel(String groupId) {
@@ -264,7 +274,9 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
             }
         });
 
-        tabs.addTab(HOME, new GroupHomePanel(tabs, groupName));
+        GroupHomePanel groupHome = new GroupHomePanel(tabs, groupName);
+        groupHomePanels.put(groupId, groupHome);
+        tabs.addTab(HOME, groupHome);
         tabs.addTab("People", createPeopleTab(groupId));
         tabs.addTab("Meets", placeholderPanel("Meetings tab for " + groupName));
         tabs.addTab("Tasks", placeholderPanel("Tasks tab for " + groupName));
@@ -352,6 +364,7 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
         addHomeEntry();
         loadGroups(groups);
         syncWorkAreaWithModel();
+        // selecting Home also refreshes the task counts
         selectInitialGroup();
     }
 
@@ -434,6 +447,7 @@ public class DashboardView extends JPanel implements ActionListener, PropertyCha
         }
         for (Component c : toRemove) {
             workArea.remove(c);
+            groupHomePanels.remove(c.getName());
         }
 
         for (int i = 0; i < groupsModel.size(); i++) {
@@ -1,5 +1,7 @@
 package view;
 
+import use_case.taskstats.TaskStats;
+
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import java.awt.*;
@@ -19,6 +21,8 @@ public class GroupHomePanel extends JPanel {
     private static final Color TEXT_PRIMARY = Color.WHITE;
     private static final Color TEXT_SECONDARY = new Color(185, 189, 199);
 
+    private final JLabel statsLabel = new JLabel(" ");
+
     public GroupHomePanel(JTabbedPane tabs, String groupName) {
         setLayout(new BorderLayout());
         setBorder(new EmptyBorder(16, 32, 16, 32));
@@ -44,6 +48,10 @@ public class GroupHomePanel extends JPanel {
         header.add(Box.createVerticalStrut(4));
         header.add(subtitle);
 
+        statsLabel.setForeground(TEXT_SECONDARY);
+        header.add(Box.createVerticalStrut(4));
+        header.add(statsLabel);
+
         return header;
     }
 
@@ -84,6 +92,18 @@ public class GroupHomePanel extends JPanel {
         return grid;
     }
 
+    /**
+     * Shows the task counts of this group.
+     *
+     * @param stats the counts of this group
+     */
+    public void showTaskStats(TaskStats stats) {
+        statsLabel.setText(stats.getOpenCount() + " open tasks (" + stats.getAssignedOpenCount() + " yours), "
+                + stats.getOverdueCount() + " overdue, "
+                + stats.getDueSoonCount() + " due in 24h, "
+                + stats.getCompletedCount() + " completed");
+    }
+
     // create card + helpers
 
     private JPanel createHomeCard(JTabbedPane tabs,
@@ -6,6 +6,7 @@ import interface_adapter.editgrouptask.EditGroupTaskController;
 import interface_adapter.editgrouptask.EditGroupTaskViewModel;
 import interface_adapter.viewgrouptasks.ViewGroupTasksController;
 import interface_adapter.viewgrouptasks.ViewGroupTasksViewModel;
+import interface_adapter.viewgrouptasks.ViewGroupTasksState;
 import use_case.viewgrouptasks.ViewGroupTasksOutputData;
 
 import javax.swing.*;
@@ -13,15 +14,20 @@ import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * UI panel inside the "Tasks" tab of a group's workspace.
- * Displays all tasks belonging to the group and allows moderators
- * to create and edit tasks.
+ * Displays the tasks belonging to the group, a page at a time as the list
+ * is scrolled, and allows moderators to create and edit tasks.
  */
 public class GroupTasksView extends JPanel implements PropertyChangeListener {
 
+    // in pixels from the bottom of the list
+    private static final int LOAD_MORE_MARGIN = 40;
+
     private final List<String> usernames;
     private final ViewGroupTasksViewModel viewModel;
     private final EditGroupTaskViewModel editModel;
@@ -34,7 +40,16 @@ public class GroupTasksView extends JPanel implements PropertyChangeListener {
     private final String groupId;
 
     private final JPanel tasksListPanel = new JPanel();
+    private int shownTaskCount;
+    private final Map<String, JPanel> rowsById = new HashMap<>();
     private final JPanel topBarPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+    private final JButton loadMoreBtn = new JButton("Load more");
+    // the page asked for and not shown yet, so scrolling does not ask for it twice
+    private String requestedPageToken;
+    private boolean reloading;
+    // the edit and create view models are shared by every group tab, so only the tab
+    // that opened the dialog reloads on the result
+    private boolean awaitingResult;
 
     /**
      * Constructs a GroupTasksView.
@@ -74,47 +89,160 @@ public class GroupTasksView extends JPanel implements PropertyChangeListener {
         JButton createBtn = new JButton("Create Task");
         createBtn.addActionListener(event -> openCreateDialog(groupId));
         JButton refreshBtn = new JButton("Refresh");
-        refreshBtn.addActionListener(event -> viewController.execute(groupId));
+        refreshBtn.addActionListener(event -> reload());
         topBarPanel.add(createBtn);
         topBarPanel.add(Box.createHorizontalStrut(543));
         topBarPanel.add(refreshBtn);
         add(topBarPanel, BorderLayout.NORTH);
 
+        add(buildTaskList(), BorderLayout.CENTER);
+
+        loadMoreBtn.addActionListener(event -> loadMore());
+        loadMoreBtn.setVisible(false);
+        JPanel bottomBarPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        bottomBarPanel.add(loadMoreBtn);
+        add(bottomBarPanel, BorderLayout.SOUTH);
+
+        refresh(viewModel.getState());
+
+        // load the first page immediately
+        loadFirstPage();
+    }
+
+    /**
+     * Builds the scrollable task list, which asks for the next page when it is
+     * scrolled to the bottom.
+     *
+     * @return the scroll pane holding the task list
+     */
+    private JScrollPane buildTaskList() {
         tasksListPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         tasksListPanel.setLayout(new BoxLayout(tasksListPanel, BoxLayout.Y_AXIS));
         tasksListPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
 
         JScrollPane scroll = new JScrollPane(tasksListPanel);
         scroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-        add(scroll, BorderLayout.CENTER);
-
-        refresh();
-
-        // load tasks immediately
-        viewController.execute(groupId);
+        // ask for the next page once the list is scrolled to its last rows
+        scroll.getVerticalScrollBar().addAdjustmentListener(event -> {
+            BoundedRangeModel bar = scroll.getVerticalScrollBar().getModel();
+            if (!event.getValueIsAdjusting()
+                    && bar.getValue() + bar.getExtent() >= bar.getMaximum() - LOAD_MORE_MARGIN) {
+                loadMore();
+            }
+        });
+        return scroll;
     }
 
-    /** Refreshes the UI according to the ViewModel state. */
-    private void refresh() {
+    /**
+     * Refreshes the UI according to the state delivered with an event.
+     *
+     * @param state the delivered state
+     */
+    private void refresh(ViewGroupTasksState state) {
         tasksListPanel.removeAll();
+        rowsById.clear();
+        shownTaskCount = 0;
 
-        List<ViewGroupTasksOutputData.TaskDTO> tasks = viewModel.getState().getTasks();
+        List<ViewGroupTasksOutputData.TaskDTO> tasks = state.getTasks();
 
         if (tasks == null || tasks.isEmpty()) {
             JLabel empty = new JLabel("No tasks yet.");
             empty.setAlignmentX(Component.LEFT_ALIGNMENT);
             tasksListPanel.add(empty);
+            tasksListPanel.revalidate();
+            tasksListPanel.repaint();
         } else {
-            for (ViewGroupTasksOutputData.TaskDTO task : tasks) {
-                tasksListPanel.add(makeTaskRow(task));
-                tasksListPanel.add(Box.createVerticalStrut(6));
+            appendNewTasks(state);
+        }
+    }
+
+    /**
+     * Adds rows for the tasks that arrived since the last refresh, keeping the rows already shown.
+     *
+     * @param state the delivered state
+     */
+    private void appendNewTasks(ViewGroupTasksState state) {
+        List<ViewGroupTasksOutputData.TaskDTO> tasks = state.getTasks();
+        if (tasks.size() <= shownTaskCount) {
+            return;
+        }
+        if (shownTaskCount == 0) {
+            // drop the "No tasks yet." placeholder
+            tasksListPanel.removeAll();
+        }
+
+        for (int i = shownTaskCount; i < tasks.size(); i++) {
+            JPanel row = makeTaskRow(tasks.get(i));
+            rowsById.put(tasks.get(i).getId(), row);
+            tasksListPanel.add(row);
+            tasksListPanel.add(Box.createVerticalStrut(6));
+        }
+        shownTaskCount = tasks.size();
+
+        tasksListPanel.revalidate();
+        tasksListPanel.repaint();
+    }
+
+    /**
+     * Rebuilds the rows of the tasks changed by the delivered syncs, then adds the rows of new tasks.
+     *
+     * @param state the delivered state
+     */
+    private void applyChanges(ViewGroupTasksState state) {
+        for (ViewGroupTasksOutputData.TaskDTO dto : state.getUpdatedTasks()) {
+            JPanel old = rowsById.get(dto.getId());
+            if (old == null) {
+                continue;
             }
+            int index = tasksListPanel.getComponentZOrder(old);
+            JPanel row = makeTaskRow(dto);
+            tasksListPanel.remove(index);
+            tasksListPanel.add(row, index);
+            rowsById.put(dto.getId(), row);
         }
+        appendNewTasks(state);
 
         tasksListPanel.revalidate();
         tasksListPanel.repaint();
     }
 
+    /**
+     * Loads the tasks that changed since the last load once every page is shown,
+     * and otherwise starts again from the first page.
+     */
+    private void reload() {
+        String syncToken = viewModel.getState().getSyncToken();
+        if (syncToken == null || viewModel.getState().getNextPageToken() != null) {
+            loadFirstPage();
+        } else {
+            viewController.sync(groupId, syncToken);
+        }
+    }
+
+    private void loadFirstPage() {
+        reloading = true;
+        requestedPageToken = null;
+        viewController.execute(groupId);
+    }
+
+    /**
+     * Asks for the next page of tasks, unless every page is shown, the page was
+     * already asked for, or a new load is on its way.
+     */
+    private void loadMore() {
+        String pageToken = viewModel.getState().getNextPageToken();
+        if (!isShowing() || reloading || pageToken == null || pageToken.equals(requestedPageToken)) {
+            return;
+        }
+        requestedPageToken = pageToken;
+        viewController.loadMore(groupId, viewModel.getState().getSyncToken(), pageToken);
+    }
+
+    private void updateLoadMore() {
+        loadMoreBtn.setVisible(viewModel.getState().getNextPageToken() != null);
+        revalidate();
+    }
+
     /**
      * Builds a single row in the task list for the given task.
      *
@@ -168,6 +296,7 @@ public class GroupTasksView extends JPanel implements PropertyChangeListener {
      * @param groupid the group id
      */
     private void openCreateDialog(String groupid) {
+        awaitingResult = true;
         new CreateTaskView(usernames, createController, createModel, groupid);
     }
 
@@ -178,6 +307,7 @@ public class GroupTasksView extends JPanel implements PropertyChangeListener {
      * @param groupid the group id
      */
     private void openEditDialog(ViewGroupTasksOutputData.TaskDTO dto, String groupid) {
+        awaitingResult = true;
         new EditTaskView(dto.getId(), usernames, editController, editModel, groupid, dto);
     }
 
@@ -186,14 +316,25 @@ public class GroupTasksView extends JPanel implements PropertyChangeListener {
         String prop = evt.getPropertyName();
 
         if ("tasks".equals(prop)) {
+            ViewGroupTasksState state = (ViewGroupTasksState) evt.getNewValue();
             // Update member names
             usernames.clear();
-            usernames.addAll(viewModel.getState().getMemberNames());
+            usernames.addAll(state.getMemberNames());
             // ViewGroupTasks presenter updated the tasks list.
-            refresh();
-        } else if ("edit_result".equals(prop) || "create_result".equals(prop)) {
-            // After a successful or failed edit/create, reload tasks from the use case.
-            viewController.execute(groupId);
+            reloading = false;
+            refresh(state);
+            updateLoadMore();
+        } else if ("tasks_page".equals(prop)) {
+            // ViewGroupTasks presenter appended another page of tasks.
+            appendNewTasks((ViewGroupTasksState) evt.getNewValue());
+            updateLoadMore();
+        } else if ("tasks_changed".equals(prop)) {
+            // ViewGroupTasks presenter applied the tasks changed since the last load.
+            applyChanges((ViewGroupTasksState) evt.getNewValue());
+        } else if (("edit_result".equals(prop) || "create_result".equals(prop)) && awaitingResult) {
+            // After a successful or failed edit/create from this tab, load the tasks that changed.
+            awaitingResult = false;
+            reload();
         }
     }
 }
@@ -0,0 +1,199 @@
+package data_access;
+
+import entity.user.User;
+import entity.user.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingUserDataAccessObjectTest {
+
+    private final UserFactory userFactory = new UserFactory();
+    private final AtomicLong now = new AtomicLong();
+
+    private MongoClientRegistry registry;
+    private CountingUserDataAccessObject database;
+    private CachingUserDataAccessObject userDataAccess;
+
+    @BeforeEach
+    void setUp() {
+        // the client connects lazily, and the counting DAO never reaches the database
+        registry = new MongoClientRegistry();
+        database = new CountingUserDataAccessObject(userFactory, registry);
+        userDataAccess = new CachingUserDataAccessObject(database, userFactory,
+                new LruTtlCache<>(2, 30, TimeUnit.SECONDS, now::get));
+
+        database.save(userFactory.create("Paul", "paul@gmail.com", "password"));
+        database.save(userFactory.create("Alice", "alice@gmail.com", "password"));
+        database.save(userFactory.create("Bob", "bob@gmail.com", "password"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    @Test
+    void repeatedGetIsServedFromCacheTest() {
+        userDataAccess.get("Paul");
+        userDataAccess.get("Paul");
+        userDataAccess.get("Paul");
+
+        assertEquals(1, database.reads);
+        assertEquals(2, userDataAccess.getHitCount());
+        assertEquals(1, userDataAccess.getMissCount());
+    }
+
+    @Test
+    void cachedUserIsACopyTest() {
+        User first = userDataAccess.get("Paul");
+        first.addTask("task1");
+        first.getSchedule()[0][0] = true;
+
+        User second = userDataAccess.get("Paul");
+
+        assertNotSame(first, second);
+        assertTrue(second.getTasks().isEmpty());
+        assertFalse(second.getSchedule()[0][0]);
+    }
+
+    @Test
+    void writesInvalidateTest() {
+        User user = userDataAccess.get("Paul");
+        user.addTask("task1");
+        userDataAccess.save(user);
+
+        assertEquals(List.of("task1"), userDataAccess.get("Paul").getTasks());
+
+        userDataAccess.updateTaskAssignments("task2", List.of("Paul"), List.of());
+        assertEquals(List.of("task1", "task2"), userDataAccess.get("Paul").getTasks());
+
+        user = userDataAccess.get("Paul");
+        user.getSchedule()[1][1] = true;
+        userDataAccess.saveSchedule(user);
+        assertTrue(userDataAccess.get("Paul").getSchedule()[1][1]);
+
+        assertEquals(4, database.reads);
+    }
+
+    @Test
+    void expiredEntryIsReloadedTest() {
+        userDataAccess.get("Paul");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        userDataAccess.get("Paul");
+
+        assertEquals(2, database.reads);
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvictedTest() {
+        userDataAccess.get("Paul");
+        userDataAccess.get("Alice");
+        userDataAccess.get("Paul");
+        userDataAccess.get("Bob");
+
+        assertEquals(1, userDataAccess.getEvictionCount());
+
+        userDataAccess.get("Paul");
+        assertEquals(3, database.reads);
+        userDataAccess.get("Alice");
+        assertEquals(4, database.reads);
+    }
+
+    @Test
+    void getUsersOnlyLoadsMissingUsersTest() {
+        userDataAccess.get("Paul");
+
+        List<User> users = userDataAccess.getUsers(List.of("Paul", "Alice"));
+
+        assertEquals(2, users.size());
+        assertEquals(List.of("Alice"), database.lastBatch);
+        assertEquals(2, database.reads);
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCachedTest() {
+        LruTtlCache<String, String> cache = new LruTtlCache<>(2, 30, TimeUnit.SECONDS, now::get);
+
+        long stamp = cache.stamp();
+        cache.invalidate("Paul");
+        cache.put("Paul", "stale", stamp);
+
+        assertNull(cache.get("Paul"));
+    }
+
+    /**
+     * A DBUserDataAccessObject backed by a map that counts reads.
+     */
+    private static class CountingUserDataAccessObject extends DBUserDataAccessObject {
+        private final UserFactory userFactory;
+        private final Map<String, User> users = new HashMap<>();
+        private int reads;
+        private List<String> lastBatch;
+
+        CountingUserDataAccessObject(UserFactory userFactory, MongoClientRegistry registry) {
+            super(userFactory, registry, "mongodb://localhost:1", "unused");
+            this.userFactory = userFactory;
+        }
+
+        @Override
+        public User get(String username) {
+            reads++;
+            return copy(users.get(username));
+        }
+
+        @Override
+        public List<User> getUsers(Collection<String> usernames) {
+            reads++;
+            lastBatch = new ArrayList<>(usernames);
+            List<User> result = new ArrayList<>();
+            for (String username : usernames) {
+                result.add(copy(users.get(username)));
+            }
+            return result;
+        }
+
+        @Override
+        public void save(User user) {
+            users.put(user.getName(), copy(user));
+        }
+
+        @Override
+        public boolean[][] saveSchedule(User user) {
+            final boolean[][] previous = users.get(user.getName()).getSchedule();
+            users.get(user.getName()).setSchedule(copy(user).getSchedule());
+            return previous;
+        }
+
+        @Override
+        public void updateTaskAssignments(String taskID, Collection<String> added, Collection<String> removed) {
+            for (String username : added) {
+                users.get(username).addTask(taskID);
+            }
+            for (String username : removed) {
+                users.get(username).removeTask(taskID);
+            }
+        }
+
+        private User copy(User user) {
+            User result = userFactory.create(user.getName(), user.getEmail(), user.getPassword());
+            boolean[][] schedule = new boolean[user.getSchedule().length][];
+            for (int i = 0; i < schedule.length; i++) {
+                schedule[i] = user.getSchedule()[i].clone();
+            }
+            result.setSchedule(schedule);
+            result.getTasks().addAll(user.getTasks());
+            return result;
+        }
+    }
+}
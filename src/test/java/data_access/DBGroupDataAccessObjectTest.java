@@ -0,0 +1,286 @@
+package data_access;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import entity.group.Group;
+import entity.group.GroupFactory;
+import entity.group.GroupSummary;
+import entity.group.GroupType;
+import entity.membership.MembershipFactory;
+import entity.user.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DBGroupDataAccessObjectTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger inserts = new AtomicInteger();
+    private final BlockingQueue<Runnable> revalidations = new LinkedBlockingQueue<>();
+
+    private MongoClientRegistry registry;
+    private String dbName;
+    private DBGroupDataAccessObject groupDataAccess;
+    private DBMembershipDataAccessObject membershipDataAccess;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(LocalMongoSupport.isAvailable(), "No local mongod available.");
+
+        registry = new MongoClientRegistry();
+        registry.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                String command = event.getCommandName();
+                if ("find".equals(command) || "aggregate".equals(command) || "getMore".equals(command)) {
+                    queries.incrementAndGet();
+                } else if ("insert".equals(command)) {
+                    inserts.incrementAndGet();
+                }
+            }
+        });
+        dbName = LocalMongoSupport.uniqueDatabaseName("group_flow_test");
+
+        MembershipFactory membershipFactory = new MembershipFactory();
+        GroupSnapshotCache snapshots = new GroupSnapshotCache(GroupSnapshotCache.DEFAULT_MAX_SIZE, revalidations::add);
+        groupDataAccess = new DBGroupDataAccessObject(new GroupFactory(), membershipFactory, registry,
+                LocalMongoSupport.CONNECTION_STRING, dbName, snapshots);
+        membershipDataAccess = new DBMembershipDataAccessObject(membershipFactory, registry,
+                LocalMongoSupport.CONNECTION_STRING, dbName, snapshots);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName).drop();
+            registry.close();
+        }
+    }
+
+    @Test
+    void getGroupsForUserUsesConstantQueriesTest() {
+        MembershipFactory membershipFactory = new MembershipFactory();
+        GroupFactory groupFactory = new GroupFactory();
+        Set<String> expectedIds = new HashSet<>();
+
+        for (int i = 0; i < 40; i++) {
+            Group group = groupFactory.create("Group " + i, "", GroupType.STUDY);
+            groupDataAccess.save(group);
+            expectedIds.add(group.getGroupID());
+
+            membershipDataAccess.save(membershipFactory.create("paul", group.getGroupID(),
+                    UserRole.MODERATOR, true));
+            membershipDataAccess.save(membershipFactory.create("alisa", group.getGroupID(),
+                    UserRole.MEMBER, true));
+        }
+        // a pending request must not show up as one of paul's groups
+        Group pendingGroup = groupFactory.create("Pending", "", GroupType.PROJECT);
+        groupDataAccess.save(pendingGroup);
+        membershipDataAccess.save(membershipFactory.create("paul", pendingGroup.getGroupID(),
+                UserRole.MEMBER, false));
+
+        queries.set(0);
+        List<Group> groups = groupDataAccess.getGroupsForUser("paul");
+
+        assertEquals(3, queries.get());
+        assertEquals(40, groups.size());
+
+        Set<String> actualIds = new HashSet<>();
+        for (Group group : groups) {
+            actualIds.add(group.getGroupID());
+            assertEquals(2, group.getSize());
+            assertTrue(group.isMember("alisa"));
+            assertEquals("paul", group.getModerator());
+        }
+        assertEquals(expectedIds, actualIds);
+    }
+
+    @Test
+    void getGroupSummariesForUserTest() {
+        MembershipFactory membershipFactory = new MembershipFactory();
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        membershipDataAccess.save(membershipFactory.create("paul", group.getGroupID(), UserRole.MODERATOR, true));
+        membershipDataAccess.save(membershipFactory.create("alisa", group.getGroupID(), UserRole.MEMBER, true));
+        membershipDataAccess.save(membershipFactory.create("ingrid", group.getGroupID(), UserRole.MEMBER, false));
+
+        queries.set(0);
+        List<GroupSummary> summaries = groupDataAccess.getGroupSummariesForUser("alisa");
+
+        assertEquals(3, queries.get());
+        assertEquals(1, summaries.size());
+        GroupSummary summary = summaries.get(0);
+        assertEquals(group.getGroupID(), summary.getGroupID());
+        assertEquals("Study Group", summary.getName());
+        assertEquals(GroupType.STUDY, summary.getGroupType());
+        assertEquals(2, summary.getMemberCount());
+    }
+
+    @Test
+    void saveRetriesOnJoinCodeCollisionTest() {
+        new MongoIndexBootstrapper(registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName))
+                .ensureIndexes();
+        Iterator<String> codes = List.of("AAAAAA", "AAAAAA", "BBBBBB").iterator();
+        assertCollidingCodesAreSkipped(codes);
+    }
+
+    @Test
+    void saveCreatesJoinCodeIndexWhenMissingTest() {
+        Iterator<String> codes = List.of("AAAAAA", "AAAAAA", "BBBBBB").iterator();
+        assertCollidingCodesAreSkipped(codes);
+    }
+
+    @Test
+    void saveTakesOneWriteAndNoQueryTest() {
+        GroupFactory groupFactory = new GroupFactory();
+        groupDataAccess.save(groupFactory.create("First", "", GroupType.STUDY));
+
+        queries.set(0);
+        inserts.set(0);
+        groupDataAccess.save(groupFactory.create("Second", "", GroupType.STUDY));
+
+        assertEquals(0, queries.get());
+        assertEquals(1, inserts.get());
+    }
+
+    private void assertCollidingCodesAreSkipped(Iterator<String> codes) {
+        DBGroupDataAccessObject collidingDataAccess = new DBGroupDataAccessObject(new GroupFactory(),
+                new MembershipFactory(), registry, LocalMongoSupport.CONNECTION_STRING, dbName,
+                new GroupSnapshotCache(), codes::next);
+        GroupFactory groupFactory = new GroupFactory();
+        Group first = groupFactory.create("First", "", GroupType.STUDY);
+        Group second = groupFactory.create("Second", "", GroupType.STUDY);
+
+        collidingDataAccess.save(first);
+        collidingDataAccess.save(second);
+
+        assertEquals("AAAAAA", first.getGroupID());
+        assertEquals("BBBBBB", second.getGroupID());
+        assertEquals("Second", groupDataAccess.getGroup("BBBBBB").getName());
+    }
+
+    @Test
+    void getGroupServesSnapshotWithoutBlockingQueriesTest() {
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        membershipDataAccess.save(new MembershipFactory().create("paul", group.getGroupID(),
+                UserRole.MODERATOR, true));
+
+        groupDataAccess.getGroup(group.getGroupID());
+        queries.set(0);
+        Group cached = groupDataAccess.getGroup(group.getGroupID());
+
+        assertEquals(0, queries.get());
+        assertEquals(List.of("paul"), cached.getMembers());
+
+        // the version has not changed, so revalidating only reads the version
+        revalidations.remove().run();
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void membershipWriteInvalidatesSnapshotTest() {
+        MembershipFactory membershipFactory = new MembershipFactory();
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        membershipDataAccess.save(membershipFactory.create("paul", group.getGroupID(), UserRole.MODERATOR, true));
+        groupDataAccess.getGroup(group.getGroupID());
+
+        membershipDataAccess.save(membershipFactory.create("alisa", group.getGroupID(), UserRole.MEMBER, true));
+
+        assertTrue(groupDataAccess.getGroup(group.getGroupID()).isMember("alisa"));
+    }
+
+    @Test
+    void revalidationPicksUpChangesFromOtherClientsTest() {
+        MembershipFactory membershipFactory = new MembershipFactory();
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        membershipDataAccess.save(membershipFactory.create("paul", group.getGroupID(), UserRole.MODERATOR, true));
+        groupDataAccess.getGroup(group.getGroupID());
+
+        // another client has its own snapshots
+        new DBMembershipDataAccessObject(membershipFactory, registry, LocalMongoSupport.CONNECTION_STRING, dbName)
+                .save(membershipFactory.create("alisa", group.getGroupID(), UserRole.MEMBER, true));
+
+        assertFalse(groupDataAccess.getGroup(group.getGroupID()).isMember("alisa"));
+        revalidations.remove().run();
+        assertTrue(groupDataAccess.getGroup(group.getGroupID()).isMember("alisa"));
+    }
+
+    @Test
+    void addTaskPushesOntoExistingGroupTest() {
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        groupDataAccess.getGroup(group.getGroupID());
+
+        groupDataAccess.addTask(group.getGroupID(), "task1");
+        groupDataAccess.addTask(group.getGroupID(), "task2");
+
+        assertEquals(List.of("task1", "task2"), groupDataAccess.getGroup(group.getGroupID()).getTasks());
+        assertEquals(1, registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName)
+                .getCollection("groups").countDocuments());
+        assertThrows(RuntimeException.class, () -> groupDataAccess.addTask("NOPE00", "task3"));
+    }
+
+    @Test
+    void getGroupSummariesForUserWithoutGroupsTest() {
+        queries.set(0);
+
+        assertTrue(groupDataAccess.getGroupSummariesForUser("nobody").isEmpty());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void invalidatedMasterScheduleIsRebuiltBeforePatchingTest() {
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        int[][] delta = new int[12][7];
+        delta[1][1] = 1;
+
+        // never saved as a whole
+        assertNull(groupDataAccess.applyScheduleDelta(group.getGroupID(), delta));
+
+        groupDataAccess.saveMasterSchedule(group);
+        assertEquals(1, groupDataAccess.applyScheduleDelta(group.getGroupID(), delta)[1][1]);
+
+        groupDataAccess.invalidateMasterSchedule(group.getGroupID());
+        assertNull(groupDataAccess.getMasterSchedule(group.getGroupID()));
+        assertNull(groupDataAccess.applyScheduleDelta(group.getGroupID(), delta));
+
+        groupDataAccess.saveMasterSchedule(group);
+        assertEquals(0, groupDataAccess.getMasterSchedule(group.getGroupID())[1][1]);
+    }
+
+    @Test
+    void driftedMasterScheduleIsRejectedTest() {
+        Group group = new GroupFactory().create("Study Group", "", GroupType.STUDY);
+        groupDataAccess.save(group);
+        groupDataAccess.saveMasterSchedule(group);
+        int[][] delta = new int[12][7];
+        delta[2][2] = -1;
+
+        assertThrows(IllegalStateException.class,
+                () -> groupDataAccess.applyScheduleDelta(group.getGroupID(), delta));
+        assertEquals(0, groupDataAccess.getMasterSchedule(group.getGroupID())[2][2]);
+    }
+
+    @Test
+    void getGroupsForUserWithoutGroupsTest() {
+        queries.set(0);
+
+        assertTrue(groupDataAccess.getGroupsForUser("nobody").isEmpty());
+        assertEquals(1, queries.get());
+    }
+}
@@ -0,0 +1,329 @@
+package data_access;
+
+import com.mongodb.client.MongoCollection;
+import entity.task.StaleTaskException;
+import entity.task.Task;
+import entity.task.TaskFactory;
+import use_case.taskstats.TaskStats;
+import use_case.viewgrouptasks.TaskChanges;
+import use_case.viewgrouptasks.TaskPage;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import send_grid_api.SendEmailInterface.EmailType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Updates.addToSet;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DBTaskDataAccessObjectTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2030, 5, 10, 12, 0);
+
+    private MongoClientRegistry registry;
+    private String dbName;
+    private DBTaskDataAccessObject taskDataAccess;
+    private MongoCollection<Document> taskCollection;
+    private MongoCollection<Document> counterCollection;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(LocalMongoSupport.isAvailable(), "No local mongod available.");
+
+        registry = new MongoClientRegistry();
+        dbName = LocalMongoSupport.uniqueDatabaseName("group_flow_task_test");
+        taskDataAccess = new DBTaskDataAccessObject(new TaskFactory(), registry,
+                LocalMongoSupport.CONNECTION_STRING, dbName);
+        taskCollection = registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName).getCollection("tasks");
+        counterCollection = registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName).getCollection("counters");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName).drop();
+            registry.close();
+        }
+    }
+
+    @Test
+    void addedAssigneesAreMergedWithConcurrentChangesTest() {
+        Task task = saveTask(DUE, "alisa", "paul");
+        Task loaded = taskDataAccess.getTask(task.getID());
+        // another client assigns someone and renames the task without the DAO
+        taskCollection.updateOne(idOf(task), addToSet("assignees", "ingrid"));
+        taskCollection.updateOne(idOf(task), set("description", "Renamed"));
+
+        loaded.addAssignee("omar");
+        taskDataAccess.upsertTask(loaded);
+
+        Document stored = storedDoc(task);
+        assertEquals(List.of("alisa", "paul", "ingrid", "omar"), stored.getList("assignees", String.class));
+        assertEquals("Renamed", stored.getString("description"));
+        assertEquals(2L, (long) stored.getLong("version"));
+    }
+
+    @Test
+    void removedAssigneesArePulledWithoutTouchingOthersTest() {
+        Task task = saveTask(DUE, "alisa", "paul");
+        Task loaded = taskDataAccess.getTask(task.getID());
+        taskCollection.updateOne(idOf(task), addToSet("assignees", "ingrid"));
+
+        loaded.removeAssignee("alisa");
+        taskDataAccess.upsertTask(loaded);
+
+        assertEquals(List.of("paul", "ingrid"), storedDoc(task).getList("assignees", String.class));
+    }
+
+    @Test
+    void addedAndRemovedAssigneesUseOnePipelineUpdateTest() {
+        Task task = saveTask(DUE, "alisa", "paul");
+        Task loaded = taskDataAccess.getTask(task.getID());
+        taskCollection.updateOne(idOf(task), addToSet("assignees", "ingrid"));
+
+        loaded.removeAssignee("alisa");
+        loaded.addAssignee("omar");
+        // a value starting with "$" is written as it is and not read as a field path
+        loaded.setDescription("$assignees");
+        loaded.markCompleted();
+        taskDataAccess.upsertTask(loaded);
+
+        Document stored = storedDoc(task);
+        assertEquals(List.of("paul", "ingrid", "omar"), stored.getList("assignees", String.class));
+        assertEquals("$assignees", stored.getString("description"));
+        assertTrue(stored.getBoolean("completed"));
+        assertEquals(2L, (long) stored.getLong("version"));
+        assertEquals(loaded.getVersion(), (long) stored.getLong("version"));
+    }
+
+    @Test
+    void clearedDeadlineIsRemovedTest() {
+        Task task = saveTask(DUE, "alisa");
+        Task loaded = taskDataAccess.getTask(task.getID());
+
+        loaded.setDueDate(null);
+        taskDataAccess.upsertTask(loaded);
+
+        assertFalse(storedDoc(task).containsKey("deadline"));
+        assertFalse(taskDataAccess.getTask(task.getID()).hasDueDate());
+    }
+
+    @Test
+    void clearedDeadlineIsRemovedByPipelineUpdateTest() {
+        Task task = saveTask(DUE, "alisa", "paul");
+        Task loaded = taskDataAccess.getTask(task.getID());
+
+        // adding and removing assignees at once takes the $$REMOVE path
+        loaded.setDueDate(null);
+        loaded.removeAssignee("alisa");
+        loaded.addAssignee("omar");
+        taskDataAccess.upsertTask(loaded);
+
+        Document stored = storedDoc(task);
+        assertFalse(stored.containsKey("deadline"));
+        assertEquals(List.of("paul", "omar"), stored.getList("assignees", String.class));
+    }
+
+    @Test
+    void saveOfStaleVersionIsRejectedTest() {
+        Task task = saveTask(DUE, "alisa");
+        Task first = taskDataAccess.getTask(task.getID());
+        Task second = taskDataAccess.getTask(task.getID());
+
+        first.setDescription("First");
+        taskDataAccess.upsertTask(first);
+        second.setDescription("Second");
+
+        assertThrows(StaleTaskException.class, () -> taskDataAccess.upsertTask(second));
+        assertEquals("First", storedDoc(task).getString("description"));
+        assertEquals(2L, first.getVersion());
+    }
+
+    @Test
+    void saveOfDeletedTaskIsRejectedTest() {
+        Task task = saveTask(DUE, "alisa");
+        Task loaded = taskDataAccess.getTask(task.getID());
+        taskCollection.deleteOne(idOf(task));
+
+        loaded.markCompleted();
+
+        assertThrows(StaleTaskException.class, () -> taskDataAccess.upsertTask(loaded));
+    }
+
+    @Test
+    void taskStatsCountEveryKindOfTaskTest() {
+        final LocalDateTime now = LocalDateTime.of(2030, 5, 1, 12, 0);
+        final LocalDateTime dueSoon = now.plusDays(3);
+        // overdue and assigned
+        insertRaw("g1", false, now.minusDays(1), "alisa");
+        // due soon and not assigned
+        insertRaw("g1", false, now.plusDays(1), "paul");
+        // no completed field, so open; due later
+        taskCollection.insertOne(new Document("name", "Legacy").append("group", "g1")
+                .append("assignees", List.of("alisa")).append("deadline", toDate(now.plusDays(10))));
+        // no deadline, so never overdue or due soon
+        taskCollection.insertOne(new Document("name", "Someday").append("group", "g1")
+                .append("completed", false).append("assignees", List.of("alisa")));
+        // completed tasks are neither open nor overdue
+        insertRaw("g1", true, now.minusDays(2), "alisa");
+        insertRaw("g2", false, now.plusDays(2), "alisa");
+
+        Map<String, TaskStats> stats = taskDataAccess.getTaskStats(List.of("g1", "g2", "g3"), "alisa",
+                now, dueSoon);
+
+        TaskStats first = stats.get("g1");
+        assertEquals(4, first.getOpenCount());
+        assertEquals(1, first.getCompletedCount());
+        assertEquals(1, first.getOverdueCount());
+        assertEquals(1, first.getDueSoonCount());
+        assertEquals(3, first.getAssignedOpenCount());
+        assertEquals(1, first.getAssignedOverdueCount());
+        assertEquals(0, first.getAssignedDueSoonCount());
+
+        TaskStats second = stats.get("g2");
+        assertEquals(1, second.getOpenCount());
+        assertEquals(1, second.getAssignedDueSoonCount());
+        assertFalse(stats.containsKey("g3"));
+    }
+
+    @Test
+    void syncReturnsOnlyTasksChangedAfterTokenTest() {
+        Task first = saveTask(DUE, "alisa");
+        saveTask(DUE, "paul");
+        String token = taskDataAccess.getSyncToken("g1");
+
+        Task loaded = taskDataAccess.getTask(first.getID());
+        loaded.markCompleted();
+        taskDataAccess.upsertTask(loaded);
+
+        TaskChanges changes = taskDataAccess.getTaskChangesForGroup("g1", token);
+        assertEquals(1, changes.getChangedTasks().size());
+        assertEquals(first.getID(), changes.getChangedTasks().get(0).getID());
+        assertTrue(taskDataAccess.getTaskChangesForGroup("g1", changes.getSyncToken()).getChangedTasks().isEmpty());
+    }
+
+    @Test
+    void writesReleaseTheirChangeSeqTest() {
+        Task task = saveTask(DUE, "alisa");
+        Task loaded = taskDataAccess.getTask(task.getID());
+        loaded.setDescription("Renamed");
+        taskDataAccess.upsertTask(loaded);
+
+        Document counter = storedCounter();
+        assertEquals(2L, counter.get("seq", Number.class).longValue());
+        assertTrue(counter.getList("pending", Document.class).isEmpty());
+        assertEquals(2L, (long) storedDoc(task).getLong("changeSeq"));
+        assertEquals(2L, syncSeq());
+    }
+
+    @Test
+    void changeSeqInFlightHoldsSyncTokenBackTest() {
+        saveTask(DUE, "alisa");
+        // another client took 2 and 3 and has not committed 2 yet
+        counterCollection.updateOne(eq("_id", "tasks:g1"), combine(set("seq", 3L),
+                set("pending", List.of(new Document("seq", 2L).append("taken", new Date())))));
+
+        assertEquals(1L, syncSeq());
+    }
+
+    @Test
+    void abandonedChangeSeqIsIgnoredTest() {
+        saveTask(DUE, "alisa");
+        Date longAgo = new Date(System.currentTimeMillis() - 2 * DBTaskDataAccessObject.PENDING_TIMEOUT_MILLIS);
+        counterCollection.updateOne(eq("_id", "tasks:g1"), combine(set("seq", 3L),
+                set("pending", List.of(new Document("seq", 2L).append("taken", longAgo)))));
+
+        assertEquals(3L, syncSeq());
+    }
+
+    @Test
+    void nextWriteDropsAbandonedChangeSeqTest() {
+        Task task = saveTask(DUE, "alisa");
+        Date longAgo = new Date(System.currentTimeMillis() - 2 * DBTaskDataAccessObject.PENDING_TIMEOUT_MILLIS);
+        counterCollection.updateOne(eq("_id", "tasks:g1"), combine(set("seq", 3L),
+                set("pending", List.of(new Document("seq", 2L).append("taken", longAgo)))));
+
+        Task loaded = taskDataAccess.getTask(task.getID());
+        loaded.setDescription("Renamed");
+        taskDataAccess.upsertTask(loaded);
+
+        assertTrue(storedCounter().getList("pending", Document.class).isEmpty());
+        assertEquals(4L, syncSeq());
+    }
+
+    @Test
+    void reminderIsClaimedOncePerDeadlineTest() {
+        Task task = saveTask(DUE, "alisa");
+
+        assertTrue(taskDataAccess.claimReminder(task.getID(), EmailType.TASK_DUE_SOON, DUE));
+        assertFalse(taskDataAccess.claimReminder(task.getID(), EmailType.TASK_DUE_SOON, DUE));
+        assertTrue(taskDataAccess.claimReminder(task.getID(), EmailType.TASK_OVERDUE, DUE));
+        // a reminder for a deadline the task no longer has is not claimed
+        assertFalse(taskDataAccess.claimReminder(task.getID(), EmailType.TASK_DUE_SOON, DUE.plusDays(1)));
+
+        Task loaded = taskDataAccess.getTask(task.getID());
+        loaded.setDueDate(DUE.plusDays(1));
+        taskDataAccess.upsertTask(loaded);
+
+        assertFalse(storedDoc(task).containsKey("dueSoonSentAt"));
+        assertTrue(taskDataAccess.claimReminder(task.getID(), EmailType.TASK_DUE_SOON, DUE.plusDays(1)));
+    }
+
+    @Test
+    void openTasksDueBetweenAreScopedToTheGroupsTest() {
+        saveTask(DUE, "alisa");
+        taskCollection.insertOne(new Document("description", "Elsewhere").append("group", "g2")
+                .append("completed", false).append("assignees", List.of("paul")).append("deadline", toDate(DUE)));
+
+        TaskPage page = taskDataAccess.getOpenTasksDueBetween(List.of("g1"), DUE.minusDays(1), DUE.plusDays(1),
+                null, 10);
+
+        assertEquals(1, page.getTasks().size());
+        assertEquals("g1", page.getTasks().get(0).getGroup());
+    }
+
+    private Task saveTask(LocalDateTime dueDate, String... assignees) {
+        Task task = new Task("", "Write report", "g1", false, new ArrayList<>(List.of(assignees)), dueDate);
+        taskDataAccess.upsertTask(task);
+        return task;
+    }
+
+    private void insertRaw(String groupId, boolean completed, LocalDateTime deadline, String assignee) {
+        taskCollection.insertOne(new Document("name", "Task").append("group", groupId)
+                .append("completed", completed).append("assignees", List.of(assignee))
+                .append("deadline", toDate(deadline)));
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Bson idOf(Task task) {
+        return eq("_id", new ObjectId(task.getID()));
+    }
+
+    private long syncSeq() {
+        return TaskSyncToken.decode(taskDataAccess.getSyncToken("g1"), "g1").getChangeSeq();
+    }
+
+    private Document storedCounter() {
+        return counterCollection.find(eq("_id", "tasks:g1")).first();
+    }
+
+    private Document storedDoc(Task task) {
+        return taskCollection.find(idOf(task)).first();
+    }
+}
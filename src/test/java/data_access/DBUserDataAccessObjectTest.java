@@ -0,0 +1,134 @@
+package data_access;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import entity.user.User;
+import entity.user.UserFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DBUserDataAccessObjectTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final AtomicInteger updates = new AtomicInteger();
+
+    private MongoClientRegistry registry;
+    private String dbName;
+    private DBUserDataAccessObject userDataAccess;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(LocalMongoSupport.isAvailable(), "No local mongod available.");
+
+        registry = new MongoClientRegistry();
+        registry.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                if ("find".equals(event.getCommandName()) || "getMore".equals(event.getCommandName())) {
+                    queries.incrementAndGet();
+                } else if ("update".equals(event.getCommandName())) {
+                    updates.incrementAndGet();
+                }
+            }
+        });
+        dbName = LocalMongoSupport.uniqueDatabaseName("group_flow_test");
+        userDataAccess = new DBUserDataAccessObject(new UserFactory(), registry,
+                LocalMongoSupport.CONNECTION_STRING, dbName);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName).drop();
+            registry.close();
+        }
+    }
+
+    @Test
+    void getUsersUsesOneQueryTest() {
+        UserFactory userFactory = new UserFactory();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = userFactory.create("user" + i, "user" + i + "@gmail.com", "password");
+            user.getSchedule()[i % 12][i % 7] = true;
+            userDataAccess.save(user);
+            usernames.add(user.getName());
+        }
+        usernames.add("nobody");
+
+        queries.set(0);
+        List<User> users = userDataAccess.getUsers(usernames);
+
+        assertEquals(1, queries.get());
+        assertEquals(50, users.size());
+        for (User user : users) {
+            int i = Integer.parseInt(user.getName().substring("user".length()));
+            assertTrue(user.getSchedule()[i % 12][i % 7]);
+        }
+    }
+
+    @Test
+    void updateTaskAssignmentsUsesOneWriteTest() {
+        UserFactory userFactory = new UserFactory();
+        List<String> oldAssignees = new ArrayList<>();
+        List<String> newAssignees = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            User user = userFactory.create("user" + i, "user" + i + "@gmail.com", "password");
+            if (i < 15) {
+                user.addTask("task");
+                oldAssignees.add(user.getName());
+            } else {
+                newAssignees.add(user.getName());
+            }
+            userDataAccess.save(user);
+        }
+
+        updates.set(0);
+        queries.set(0);
+        userDataAccess.updateTaskAssignments("task", newAssignees, oldAssignees);
+
+        assertEquals(1, updates.get());
+        assertEquals(0, queries.get());
+        for (User user : userDataAccess.getUsers(oldAssignees)) {
+            assertFalse(user.getTasks().contains("task"));
+        }
+        for (User user : userDataAccess.getUsers(newAssignees)) {
+            assertEquals(List.of("task"), user.getTasks());
+        }
+    }
+
+    @Test
+    void signupWithTakenUsernameFailsTest() {
+        new MongoIndexBootstrapper(registry.getDatabase(LocalMongoSupport.CONNECTION_STRING, dbName))
+                .ensureIndexes();
+        UserFactory userFactory = new UserFactory();
+        userDataAccess.save(userFactory.create("paul", "paul@gmail.com", "password"));
+
+        assertThrows(RuntimeException.class,
+                () -> userDataAccess.save(userFactory.create("paul", "other@gmail.com", "other")));
+        assertEquals("password", userDataAccess.get("paul").getPassword());
+        assertEquals(1, userDataAccess.getUsers(List.of("paul")).size());
+    }
+
+    @Test
+    void saveScheduleReturnsReplacedScheduleTest() {
+        User user = new UserFactory().create("paul", "paul@gmail.com", "password");
+        userDataAccess.save(user);
+
+        user.getSchedule()[3][3] = true;
+        assertFalse(userDataAccess.saveSchedule(user)[3][3]);
+
+        user.getSchedule()[4][4] = true;
+        boolean[][] previous = userDataAccess.saveSchedule(user);
+        assertTrue(previous[3][3]);
+        assertFalse(previous[4][4]);
+    }
+}
@@ -0,0 +1,130 @@
+package data_access;
+
+import entity.group.Group;
+import entity.group.GroupType;
+import entity.membership.Membership;
+import entity.task.Task;
+import entity.user.User;
+import entity.user.UserRole;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCodecProviderTest {
+
+    private final CodecRegistry registry = new EntityCodecProvider().registry();
+
+    @Test
+    void taskRoundTripTest() {
+        String id = new ObjectId().toHexString();
+        LocalDateTime due = LocalDateTime.of(2030, 5, 10, 12, 30);
+        Task task = new Task(id, "Write report", "g1", true, new ArrayList<>(List.of("paul", "alisa")), due);
+
+        Task decoded = roundTrip(Task.class, task);
+
+        assertEquals(id, decoded.getID());
+        assertEquals("Write report", decoded.getDescription());
+        assertEquals("g1", decoded.getGroup());
+        assertTrue(decoded.isCompleted());
+        assertEquals(List.of("paul", "alisa"), decoded.getAssignees());
+        assertEquals(due, decoded.getDueDate().get());
+
+        // the decoded assignees can still be edited
+        decoded.addAssignee("ingrid");
+        assertEquals(3, decoded.getAssignees().size());
+    }
+
+    @Test
+    void taskWithoutDeadlineTest() {
+        Task task = new Task(new ObjectId().toHexString(), "Open-ended", "g1", false, new ArrayList<>());
+
+        assertFalse(roundTrip(Task.class, task).hasDueDate());
+    }
+
+    @Test
+    void membershipRoundTripTest() {
+        Membership decoded = roundTrip(Membership.class, new Membership("paul", "g1", UserRole.MODERATOR, true));
+
+        assertEquals("paul", decoded.getUsername());
+        assertEquals("g1", decoded.getGroup());
+        assertEquals(UserRole.MODERATOR, decoded.getRole());
+        assertTrue(decoded.isApproved());
+    }
+
+    @Test
+    void userRoundTripTest() {
+        User user = new User("paul", "paul@gmail.com", "password");
+        user.getSchedule()[3][4] = true;
+        user.addTask("task1");
+
+        User decoded = roundTrip(User.class, user);
+
+        assertEquals("paul", decoded.getName());
+        assertEquals("paul@gmail.com", decoded.getEmail());
+        assertEquals("password", decoded.getPassword());
+        assertArrayEquals(user.getSchedule(), decoded.getSchedule());
+        assertEquals(List.of("task1"), decoded.getTasks());
+    }
+
+    @Test
+    void groupRoundTripTest() {
+        Group group = new Group("Study Group", "ABC123", GroupType.STUDY);
+        group.getMasterSchedule()[1][2] = 3;
+        group.addTask("task1");
+
+        Group decoded = roundTrip(Group.class, group);
+
+        assertEquals("Study Group", decoded.getName());
+        assertEquals("ABC123", decoded.getGroupID());
+        assertEquals(GroupType.STUDY, decoded.getGroupType());
+        assertArrayEquals(group.getMasterSchedule(), decoded.getMasterSchedule());
+        assertEquals(List.of("task1"), decoded.getTasks());
+    }
+
+    @Test
+    void decodesLegacyScheduleAndSkipsUnknownFieldsTest() {
+        List<List<Boolean>> legacy = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            List<Boolean> row = new ArrayList<>();
+            for (int j = 0; j < 7; j++) {
+                row.add(i == 2 && j == 5);
+            }
+            legacy.add(row);
+        }
+        BsonDocument doc = new Document()
+                .append("_id", new ObjectId())
+                .append("username", "paul")
+                .append("email", "paul@gmail.com")
+                .append("password", "password")
+                .append("userSchedule", legacy)
+                .append("lastSeen", new Document("device", "laptop"))
+                .toBsonDocument(Document.class, registry);
+
+        User decoded = registry.get(User.class).decode(new BsonDocumentReader(doc),
+                DecoderContext.builder().build());
+
+        assertTrue(decoded.getSchedule()[2][5]);
+        assertFalse(decoded.getSchedule()[0][0]);
+        assertTrue(decoded.getTasks().isEmpty());
+    }
+
+    private <T> T roundTrip(Class<T> type, T value) {
+        Codec<T> codec = registry.get(type);
+        BsonDocument doc = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(doc), value, EncoderContext.builder().build());
+        return codec.decode(new BsonDocumentReader(doc), DecoderContext.builder().build());
+    }
+}
@@ -0,0 +1,43 @@
+package data_access;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+
+/**
+ * Helpers for DAO tests that run against a local mongod.
+ * Tests using this class skip themselves when no server is reachable.
+ */
+final class LocalMongoSupport {
+
+    static final String CONNECTION_STRING = System.getProperty(
+            "groupflow.test.mongo", "mongodb://localhost:27017/?serverSelectionTimeoutMS=1000");
+
+    private LocalMongoSupport() {
+    }
+
+    /**
+     * Checks whether a local mongod answers a ping.
+     *
+     * @return true if the server is reachable
+     */
+    static boolean isAvailable() {
+        try (MongoClient client = MongoClients.create(CONNECTION_STRING)) {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+            return true;
+        } catch (MongoException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a database name that no other test run uses.
+     *
+     * @param prefix a prefix identifying the test
+     * @return a fresh database name
+     */
+    static String uniqueDatabaseName(String prefix) {
+        return prefix + "_" + System.nanoTime();
+    }
+}
@@ -0,0 +1,86 @@
+package data_access;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MongoIndexBootstrapperTest {
+
+    private MongoClientRegistry registry;
+    private MongoDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(LocalMongoSupport.isAvailable(), "No local mongod available.");
+
+        registry = new MongoClientRegistry();
+        database = registry.getDatabase(LocalMongoSupport.CONNECTION_STRING,
+                LocalMongoSupport.uniqueDatabaseName("group_flow_index_test"));
+
+        // explain() on a missing collection never reports a collection scan
+        database.getCollection("groups").insertOne(new Document("name", "Group").append("joinCode", "ABC123"));
+        database.getCollection("users").insertOne(new Document("username", "paul"));
+        database.getCollection("memberships").insertOne(new Document("user", "paul")
+                .append("group", "ABC123").append("approved", true));
+        database.getCollection("tasks").insertOne(new Document("group", "ABC123")
+                .append("assignees", List.of("paul")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            database.drop();
+            registry.close();
+        }
+    }
+
+    @Test
+    void unindexedQueriesAreReportedTest() {
+        MongoIndexBootstrapper bootstrapper = new MongoIndexBootstrapper(database);
+
+        assertFalse(bootstrapper.findCollectionScans().isEmpty());
+    }
+
+    @Test
+    void everyQueryIsCoveredAfterBootstrapTest() {
+        MongoIndexBootstrapper bootstrapper = new MongoIndexBootstrapper(database);
+
+        assertEquals(7, bootstrapper.ensureIndexes().size());
+        assertEquals(List.of(), bootstrapper.findCollectionScans());
+    }
+
+    @Test
+    void ensureIndexesIsIdempotentTest() {
+        MongoIndexBootstrapper bootstrapper = new MongoIndexBootstrapper(database);
+        bootstrapper.ensureIndexes();
+
+        assertTrue(bootstrapper.ensureIndexes().isEmpty());
+    }
+
+    @Test
+    void usernamesAreUniqueAfterBootstrapTest() {
+        new MongoIndexBootstrapper(database).ensureIndexes();
+
+        assertThrows(MongoWriteException.class,
+                () -> database.getCollection("users").insertOne(new Document("username", "paul")));
+    }
+
+    @Test
+    void backfillCompletedTest() {
+        database.getCollection("tasks").insertOne(new Document("group", "ABC123").append("completed", true));
+        MongoIndexBootstrapper bootstrapper = new MongoIndexBootstrapper(database);
+
+        assertEquals(1L, bootstrapper.backfillCompleted());
+        assertEquals(0L, bootstrapper.backfillCompleted());
+        assertEquals(1L, database.getCollection("tasks").countDocuments(new Document("completed", false)));
+        assertEquals(1L, database.getCollection("tasks").countDocuments(new Document("completed", true)));
+    }
+}
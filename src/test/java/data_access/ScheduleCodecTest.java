@@ -0,0 +1,76 @@
+package data_access;
+
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleCodecTest {
+
+    @Test
+    void availabilityRoundTripTest() {
+        boolean[][] schedule = new boolean[12][7];
+        schedule[0][0] = true;
+        schedule[5][3] = true;
+        schedule[11][6] = true;
+
+        Binary encoded = ScheduleCodec.encodeAvailability(schedule);
+
+        // 3 byte header + 84 bits
+        assertEquals(14, encoded.getData().length);
+        assertArrayEquals(schedule, ScheduleCodec.decodeAvailability(encoded));
+    }
+
+    @Test
+    void countsRoundTripTest() {
+        int[][] schedule = new int[12][7];
+        schedule[0][0] = 1;
+        schedule[4][2] = 127;
+        schedule[7][5] = 128;
+        schedule[11][6] = 100_000;
+
+        Binary encoded = ScheduleCodec.encodeCounts(schedule);
+
+        assertArrayEquals(schedule, ScheduleCodec.decodeCounts(encoded));
+    }
+
+    @Test
+    void legacyListsAreReadTest() {
+        List<List<Boolean>> legacyAvailability = new ArrayList<>();
+        List<List<Integer>> legacyCounts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            List<Boolean> availabilityRow = new ArrayList<>();
+            List<Integer> countRow = new ArrayList<>();
+            for (int j = 0; j < 7; j++) {
+                availabilityRow.add(i == j);
+                countRow.add(i + j);
+            }
+            legacyAvailability.add(availabilityRow);
+            legacyCounts.add(countRow);
+        }
+
+        boolean[][] availability = ScheduleCodec.decodeAvailability(legacyAvailability);
+        int[][] counts = ScheduleCodec.decodeCounts(legacyCounts);
+
+        assertTrue(availability[3][3]);
+        assertFalse(availability[3][4]);
+        assertEquals(17, counts[11][6]);
+    }
+
+    @Test
+    void missingScheduleTest() {
+        assertNull(ScheduleCodec.decodeAvailability(null));
+        assertNull(ScheduleCodec.decodeCounts(null));
+    }
+
+    @Test
+    void wrongFormatIsRejectedTest() {
+        Binary counts = ScheduleCodec.encodeCounts(new int[12][7]);
+
+        assertThrows(IllegalArgumentException.class, () -> ScheduleCodec.decodeAvailability(counts));
+        assertThrows(IllegalArgumentException.class, () -> ScheduleCodec.encodeCounts(new int[][] {{-1}}));
+    }
+}
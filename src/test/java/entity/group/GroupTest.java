@@ -0,0 +1,105 @@
+package entity.group;
+
+import entity.membership.Membership;
+import entity.user.UserRole;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupTest {
+
+    private static Group groupOf(int members) {
+        Group group = new Group("group", "ABCDEF", GroupType.STUDY);
+        group.addMembership(new Membership("mod", "ABCDEF", UserRole.MODERATOR, true));
+        for (int i = 0; i < members; i++) {
+            group.addMembership(new Membership("user" + i, "ABCDEF", UserRole.MEMBER, i % 2 == 0));
+        }
+        return group;
+    }
+
+    @Test
+    void indexesMembershipsOnLoadTest() {
+        Group group = groupOf(4);
+
+        assertEquals(5, group.getSize());
+        assertEquals(List.of("mod", "user0", "user2"), group.getMembers());
+        assertEquals("mod", group.getModerator());
+        assertEquals(1, group.moderatorCount());
+        assertTrue(group.isMember("user1"));
+        assertFalse(group.isMember("stranger"));
+    }
+
+    @Test
+    void changesMadeToMembershipsAreIndexedTest() {
+        Group group = groupOf(0);
+        Membership pending = new Membership("new", "ABCDEF", UserRole.MEMBER, false);
+        group.addMembership(pending);
+
+        pending.approve();
+        pending.reassignRole(UserRole.MODERATOR);
+        assertEquals(List.of("mod", "new"), group.getMembers());
+        assertEquals(2, group.moderatorCount());
+
+        group.changeUserRole("mod", UserRole.MEMBER);
+        assertEquals("new", group.getModerator());
+        assertThrows(IllegalStateException.class, () -> group.changeUserRole("new", UserRole.MEMBER));
+        assertThrows(NoSuchElementException.class, () -> group.changeUserRole("stranger", UserRole.MEMBER));
+
+        group.removeMembership(pending);
+        pending.reassignRole(UserRole.MEMBER);
+        assertFalse(group.hasModerator());
+        assertEquals(List.of("mod"), group.getMembers());
+    }
+
+    @Test
+    void addingTheSameMembershipTwiceKeepsOneTest() {
+        Group group = groupOf(0);
+        Membership membership = new Membership("user", "ABCDEF", UserRole.MEMBER, true);
+        group.addMembership(membership);
+        group.addMembership(membership);
+
+        assertEquals(2, group.getSize());
+        group.removeMembership(new Membership("user", "ABCDEF", UserRole.MEMBER, true));
+        assertTrue(group.isMember("user"));
+    }
+
+    @Test
+    void membersKeepTheOrderTheyWereApprovedInTest() {
+        Group group = new Group("group", "ABCDEF", GroupType.STUDY);
+        Membership first = new Membership("first", "ABCDEF", UserRole.MEMBER, false);
+        group.addMembership(first);
+        group.addMembership(new Membership("second", "ABCDEF", UserRole.MODERATOR, true));
+        group.addMembership(new Membership("third", "ABCDEF", UserRole.MEMBER, true));
+        assertEquals(List.of("second", "third"), group.getMembers());
+
+        first.approve();
+        first.reassignRole(UserRole.MODERATOR);
+
+        assertEquals(List.of("second", "third", "first"), group.getMembers());
+        assertEquals("second", group.getModerator());
+        group.changeUserRole("second", UserRole.MEMBER);
+        assertEquals("first", group.getModerator());
+        assertThrows(UnsupportedOperationException.class, () -> group.getMembers().add("stranger"));
+    }
+
+    @Test
+    void membershipHeldByTwoGroupsIsIndexedByBothTest() {
+        Group group = groupOf(0);
+        Group other = new Group("other", "GHIJKL", GroupType.STUDY);
+        Membership membership = new Membership("user", "ABCDEF", UserRole.MEMBER, false);
+        group.addMembership(membership);
+        other.addMembership(membership);
+
+        membership.approve();
+        assertEquals(List.of("mod", "user"), group.getMembers());
+        assertEquals(List.of("user"), other.getMembers());
+
+        group.removeMembership(membership);
+        membership.reassignRole(UserRole.MODERATOR);
+        assertEquals("user", other.getModerator());
+        assertEquals(1, group.moderatorCount());
+    }
+}
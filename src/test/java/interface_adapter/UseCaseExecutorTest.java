@@ -0,0 +1,243 @@
+package interface_adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UseCaseExecutorTest {
+
+    interface Output {
+        void present(String value);
+    }
+
+    interface Input {
+        void execute(String value);
+    }
+
+    @Test
+    void supersededOutputIsDroppedTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(2, 8, eventQueue::add);
+        List<String> presented = new ArrayList<>();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Output presenter = executor.onEventThread(Output.class, presented::add);
+        Input interactor = executor.async(Input.class, value -> {
+            if ("first".equals(value)) {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            presenter.present(value);
+        }, "view");
+
+        interactor.execute("first");
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        interactor.execute("second");
+        releaseFirst.countDown();
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("second"), presented);
+    }
+
+    @Test
+    void unkeyedCallsAreAllDeliveredTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(2, 8, eventQueue::add);
+        List<String> presented = new ArrayList<>();
+
+        Output presenter = executor.onEventThread(Output.class, presented::add);
+        Input interactor = executor.async(Input.class, presenter::present);
+
+        interactor.execute("a");
+        interactor.execute("b");
+        interactor.execute("c");
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        Collections.sort(presented);
+        assertEquals(List.of("a", "b", "c"), presented);
+    }
+
+    @Test
+    void loadingEventsTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(1, 8, eventQueue::add);
+        List<Object> loading = new ArrayList<>();
+        executor.addPropertyChangeListener(evt -> loading.add(evt.getNewValue()));
+
+        executor.submit(null, () -> { });
+        assertTrue(executor.isLoading());
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertFalse(executor.isLoading());
+        assertEquals(List.of(true, false), loading);
+    }
+
+    @Test
+    void failureIsReportedToHandlerTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(2, 8, eventQueue::add);
+        List<String> presented = new ArrayList<>();
+
+        Output presenter = executor.onEventThread(Output.class, presented::add);
+        Input interactor = executor.async(Input.class, value -> {
+            throw new IllegalStateException("database is down");
+        }, null, message -> presenter.present("failed: " + message));
+
+        interactor.execute("a");
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("failed: database is down"), presented);
+        assertFalse(executor.isLoading());
+    }
+
+    @Test
+    void orderedCallsRunOneAtATimeTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(4, 8, eventQueue::add);
+        List<String> presented = new ArrayList<>();
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+
+        Output presenter = executor.onEventThread(Output.class, presented::add);
+        Input interactor = executor.inOrder(Input.class, value -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            ran.add(value);
+            active.decrementAndGet();
+            if ("b".equals(value)) {
+                throw new IllegalStateException("rejected");
+            }
+        }, args -> "task", presenter::present);
+
+        interactor.execute("a");
+        interactor.execute("b");
+        interactor.execute("c");
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("a", "b", "c"), ran);
+        assertEquals(1, maxActive.get());
+        assertEquals(List.of("rejected"), presented);
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfRunningOnCallerTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(1, 1, eventQueue::add);
+        List<String> presented = new ArrayList<>();
+        List<Thread> ranOn = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Output presenter = executor.onEventThread(Output.class, presented::add);
+        Input interactor = executor.async(Input.class, value -> {
+            ranOn.add(Thread.currentThread());
+            if ("first".equals(value)) {
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, null, message -> presenter.present("failed: " + message));
+
+        interactor.execute("first");
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        interactor.execute("queued");
+        interactor.execute("rejected");
+        releaseFirst.countDown();
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("failed: " + UseCaseExecutor.BUSY_MESSAGE), presented);
+        assertEquals(2, ranOn.size());
+        assertFalse(ranOn.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void supersededQueuedRequestFreesItsPlaceTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(1, 1, eventQueue::add);
+        List<String> ran = Collections.synchronizedList(new ArrayList<>());
+        List<String> failures = new ArrayList<>();
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch releaseBlocker = new CountDownLatch(1);
+        executor.setFailureHandler(failures::add);
+
+        executor.submit(null, () -> {
+            blockerStarted.countDown();
+            try {
+                releaseBlocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        executor.submit("view", () -> ran.add("old"));
+        executor.submit("view", () -> ran.add("new"));
+        releaseBlocker.countDown();
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("new"), ran);
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    void failureWithoutHandlerGoesToApplicationHandlerTest() throws InterruptedException {
+        BlockingQueue<Runnable> eventQueue = new LinkedBlockingQueue<>();
+        UseCaseExecutor executor = new UseCaseExecutor(2, 8, eventQueue::add);
+        List<String> failures = new ArrayList<>();
+        executor.setFailureHandler(failures::add);
+
+        Input interactor = executor.async(Input.class, value -> {
+            throw new IllegalStateException("database is down");
+        });
+        interactor.execute("a");
+
+        drainUntilIdle(executor, eventQueue);
+        executor.shutdown();
+
+        assertEquals(List.of("database is down"), failures);
+    }
+
+    private static void drainUntilIdle(UseCaseExecutor executor, BlockingQueue<Runnable> eventQueue)
+            throws InterruptedException {
+        while (executor.isLoading() || !eventQueue.isEmpty()) {
+            Runnable event = eventQueue.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "timed out waiting for the use case to finish");
+            event.run();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package interface_adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ViewModelTest {
+
+    private static void drain(Queue<Runnable> eventQueue) {
+        while (!eventQueue.isEmpty()) {
+            eventQueue.poll().run();
+        }
+    }
+
+    @Test
+    void burstIsDeliveredOncePerPropertyTest() {
+        Queue<Runnable> eventQueue = new ArrayDeque<>();
+        ViewModel<List<String>> viewModel = new ViewModel<>("test", eventQueue::add);
+        List<String> delivered = new ArrayList<>();
+        viewModel.addPropertyChangeListener(evt -> delivered.add(evt.getPropertyName()));
+
+        viewModel.setState(new ArrayList<>());
+        viewModel.firePropertyChange("tasks");
+        viewModel.firePropertyChange("error");
+        viewModel.firePropertyChange("tasks");
+        assertTrue(delivered.isEmpty());
+        assertEquals(1, eventQueue.size());
+
+        drain(eventQueue);
+
+        assertEquals(List.of("tasks", "error"), delivered);
+        assertEquals(3, viewModel.getFiredCount());
+        assertEquals(1, viewModel.getCoalescedCount());
+        assertEquals(2, viewModel.getDeliveredCount());
+        assertEquals(2, viewModel.getNotificationsPerSecond());
+    }
+
+    @Test
+    void equalValueStateIsSuppressedTest() {
+        Queue<Runnable> eventQueue = new ArrayDeque<>();
+        ViewModel<String> viewModel = new ViewModel<>("test", eventQueue::add);
+        List<Object> delivered = new ArrayList<>();
+        viewModel.addPropertyChangeListener(evt -> delivered.add(evt.getNewValue()));
+
+        viewModel.setState("login");
+        viewModel.firePropertyChange();
+        drain(eventQueue);
+        viewModel.setState(new String("login"));
+        viewModel.firePropertyChange();
+        drain(eventQueue);
+        viewModel.setState("signup");
+        viewModel.firePropertyChange();
+        drain(eventQueue);
+
+        assertEquals(List.of("login", "signup"), delivered);
+        assertEquals(1, viewModel.getSuppressedCount());
+    }
+
+    @Test
+    void sameMutableStateIsDeliveredAgainTest() {
+        Queue<Runnable> eventQueue = new ArrayDeque<>();
+        ViewModel<List<String>> viewModel = new ViewModel<>("test", eventQueue::add);
+        List<Object> delivered = new ArrayList<>();
+        viewModel.addPropertyChangeListener(evt -> delivered.add(new ArrayList<>((List<?>) evt.getNewValue())));
+
+        List<String> state = new ArrayList<>();
+        viewModel.setState(state);
+        viewModel.firePropertyChange();
+        drain(eventQueue);
+        state.add("task");
+        viewModel.firePropertyChange();
+        drain(eventQueue);
+
+        assertEquals(List.of(List.of(), List.of("task")), delivered);
+        assertEquals(0, viewModel.getSuppressedCount());
+    }
+
+    @Test
+    void stateResetAfterFiringIsNotSeenByListenerTest() {
+        Queue<Runnable> eventQueue = new ArrayDeque<>();
+        ViewModel<List<String>> viewModel = new ViewModel<>("test", eventQueue::add);
+        List<Object> delivered = new ArrayList<>();
+        viewModel.addPropertyChangeListener(evt -> delivered.add(evt.getNewValue()));
+
+        viewModel.setState(new ArrayList<>(List.of("success")));
+        viewModel.firePropertyChange("openModal");
+        viewModel.setState(new ArrayList<>());
+        drain(eventQueue);
+
+        assertEquals(List.of(List.of("success")), delivered);
+        assertTrue(viewModel.getState().isEmpty());
+    }
+
+    @Test
+    void changesFiredTogetherAreMergedTest() {
+        Queue<Runnable> eventQueue = new ArrayDeque<>();
+        ViewModel<List<String>> viewModel = new ViewModel<>("test", eventQueue::add) {
+            @Override
+            protected List<String> snapshot(List<String> current) {
+                return new ArrayList<>(current);
+            }
+
+            @Override
+            protected List<String> merge(String propertyName, List<String> earlier, List<String> later) {
+                List<String> merged = new ArrayList<>(earlier);
+                merged.addAll(later);
+                return merged;
+            }
+        };
+        List<Object> delivered = new ArrayList<>();
+        viewModel.addPropertyChangeListener(evt -> delivered.add(evt.getNewValue()));
+
+        List<String> state = new ArrayList<>(List.of("first"));
+        viewModel.setState(state);
+        viewModel.firePropertyChange("tasks_changed");
+        state.set(0, "second");
+        viewModel.firePropertyChange("tasks_changed");
+        state.clear();
+        drain(eventQueue);
+
+        assertEquals(List.of(List.of("first", "second")), delivered);
+        assertEquals(1, viewModel.getCoalescedCount());
+    }
+}
@@ -0,0 +1,237 @@
+package send_grid_api;
+
+import org.junit.jupiter.api.Test;
+import send_grid_api.SendEmailInterface.EmailType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailOutboxTest {
+
+    /**
+     * A sender that answers with the given status codes in order, -1 meaning an IOException
+     * and -2 meaning an IllegalStateException.
+     */
+    private static class ScriptedSender implements SendEmailInterface {
+        private final Deque<Integer> statuses;
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+
+        ScriptedSender(Integer... statuses) {
+            this.statuses = new ArrayDeque<>(Arrays.asList(statuses));
+        }
+
+        @Override
+        public synchronized int sendEmail(String recipient, EmailType type) throws IOException {
+            recipients.add(recipient);
+            final int status = statuses.isEmpty() ? 202 : statuses.poll();
+            if (status == -2) {
+                throw new IllegalStateException("sender is broken");
+            }
+            if (status < 0) {
+                throw new IOException("connection reset");
+            }
+            return status;
+        }
+    }
+
+    private static void awaitIdle(EmailOutbox outbox) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (outbox.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, outbox.getPendingCount());
+    }
+
+    @Test
+    void temporaryFailuresAreRetriedTest() throws InterruptedException {
+        ScriptedSender sender = new ScriptedSender(-1, 503, 202);
+        InMemoryOutboxStore store = new InMemoryOutboxStore();
+        EmailOutbox outbox = new EmailOutbox(sender, store, 2, 5, 1);
+
+        assertEquals(EmailOutbox.ACCEPTED, outbox.sendEmail("mod@gmail.com", EmailType.GROUP_INVITE));
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        assertEquals(3, sender.recipients.size());
+        assertEquals(1, outbox.getSentCount());
+        assertEquals(2, outbox.getRetryCount());
+        assertEquals(0, outbox.getDeadLetterCount());
+        assertTrue(store.getPending().isEmpty());
+    }
+
+    @Test
+    void rejectedEmailIsDeadLetteredTest() throws InterruptedException {
+        ScriptedSender sender = new ScriptedSender(400);
+        InMemoryOutboxStore store = new InMemoryOutboxStore();
+        EmailOutbox outbox = new EmailOutbox(sender, store, 1, 5, 1);
+
+        outbox.sendEmail("bad-address", EmailType.NEW_TASK);
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        assertEquals(1, sender.recipients.size());
+        assertEquals(1, outbox.getDeadLetterCount());
+        assertEquals(1, store.getDeadLetters().size());
+    }
+
+    @Test
+    void senderThatThrowsIsRetriedThenDeadLetteredTest() throws InterruptedException {
+        ScriptedSender sender = new ScriptedSender(-2, 202, -2, -2);
+        InMemoryOutboxStore store = new InMemoryOutboxStore();
+        EmailOutbox outbox = new EmailOutbox(sender, store, 1, 2, 1, 50);
+
+        outbox.sendEmail("user@gmail.com", EmailType.NEW_TASK);
+        awaitIdle(outbox);
+        outbox.sendEmail("other@gmail.com", EmailType.NEW_TASK);
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        assertEquals(4, sender.recipients.size());
+        assertEquals(1, outbox.getSentCount());
+        assertEquals(2, outbox.getRetryCount());
+        assertEquals(1, outbox.getDeadLetterCount());
+        assertTrue(store.getPending().isEmpty());
+    }
+
+    @Test
+    void senderWithoutBatchingIsAskedForEachEmailTest() throws InterruptedException {
+        ScriptedSender sender = new ScriptedSender(400, 202, 202);
+        InMemoryOutboxStore store = new InMemoryOutboxStore();
+        EmailOutbox outbox = new EmailOutbox(sender, store, 1, 5, 1, 50);
+
+        outbox.sendEmail("bad-address", EmailType.NEW_TASK);
+        outbox.sendEmail("user@gmail.com", EmailType.NEW_TASK);
+        outbox.sendEmail("user@gmail.com", EmailType.NEW_TASK);
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        // the failure of the first email does not send the others again
+        assertEquals(List.of("bad-address", "user@gmail.com", "user@gmail.com"), sender.recipients);
+        assertEquals(3, outbox.getApiCallCount());
+        assertEquals(2, outbox.getSentCount());
+        assertEquals(1, outbox.getDeadLetterCount());
+    }
+
+    /**
+     * A sender that records every batch it is asked to send.
+     */
+    private static class BatchRecorder implements BatchEmailSender {
+        private final List<String> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int sendEmail(String recipient, EmailType type) {
+            return sendEmails(type, 1, List.of(recipient));
+        }
+
+        @Override
+        public int sendEmails(EmailType type, int eventCount, List<String> recipients) {
+            batches.add(type + " x" + eventCount + " to " + recipients.size());
+            return 202;
+        }
+    }
+
+    @Test
+    void burstIsBatchedByTypeAndFoldedPerRecipientTest() throws InterruptedException {
+        BatchRecorder sender = new BatchRecorder();
+        EmailOutbox outbox = new EmailOutbox(sender, new InMemoryOutboxStore(), 2, 5, 1, 50);
+
+        for (int i = 0; i < 25; i++) {
+            outbox.sendEmail("user" + i + "@gmail.com", EmailType.NEW_TASK);
+        }
+        for (int i = 0; i < 3; i++) {
+            outbox.sendEmail("mod@gmail.com", EmailType.GROUP_INVITE);
+        }
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        assertEquals(2, sender.batches.size());
+        assertTrue(sender.batches.contains("NEW_TASK x1 to 25"));
+        assertTrue(sender.batches.contains("GROUP_INVITE x3 to 1"));
+        assertEquals(28, outbox.getSentCount());
+        assertEquals(2, outbox.getApiCallCount());
+        assertEquals(26, outbox.getApiCallsSaved());
+    }
+
+    @Test
+    void batchesAreSplitAtThePersonalizationLimitTest() throws InterruptedException {
+        BatchRecorder sender = new BatchRecorder();
+        EmailOutbox outbox = new EmailOutbox(sender, new InMemoryOutboxStore(), 2, 5, 1, 50);
+
+        for (int i = 0; i < BatchEmailSender.MAX_BATCH_RECIPIENTS + 5; i++) {
+            outbox.sendEmail("user" + i + "@gmail.com", EmailType.NEW_TASK);
+        }
+        awaitIdle(outbox);
+        outbox.shutdown();
+
+        assertEquals(2, sender.batches.size());
+        assertTrue(sender.batches.contains("NEW_TASK x1 to " + BatchEmailSender.MAX_BATCH_RECIPIENTS));
+        assertTrue(sender.batches.contains("NEW_TASK x1 to 5"));
+    }
+
+    @Test
+    void backoffDoublesUpToTheLimitTest() {
+        EmailOutbox outbox = new EmailOutbox(new ScriptedSender(), new InMemoryOutboxStore(), 1, 5, 1000);
+        outbox.shutdown();
+
+        assertEquals(1000, outbox.backoffMillis(1));
+        assertEquals(4000, outbox.backoffMillis(3));
+        assertEquals(EmailOutbox.MAX_BACKOFF_MILLIS, outbox.backoffMillis(40));
+    }
+
+    @Test
+    void pendingEmailsAreSentAfterRestartTest() throws IOException, InterruptedException {
+        Path logFile = Files.createTempDirectory("outbox").resolve("outbox.log");
+        FileOutboxStore store = new FileOutboxStore(logFile);
+        store.add(new OutboxEntry("sent", "a@gmail.com", EmailType.NEW_TASK, 1L, 0));
+        store.add(new OutboxEntry("pending", "b@gmail.com", EmailType.GROUP_INVITE, 2L, 1));
+        store.add(new OutboxEntry("dead", "c@gmail.com", EmailType.NEW_TASK, 3L, 5));
+        store.markSent(store.getPending().get(0));
+        store.markDead(store.getPending().get(1), "HTTP 400");
+        store.close();
+
+        FileOutboxStore reopened = new FileOutboxStore(logFile);
+        assertEquals(1, reopened.getPending().size());
+        assertEquals(1, reopened.getPending().get(0).getAttempts());
+        assertEquals("dead", reopened.getDeadLetters().get(0).getId());
+
+        ScriptedSender sender = new ScriptedSender();
+        EmailOutbox outbox = new EmailOutbox(sender, reopened, 1, 5, 1);
+        awaitIdle(outbox);
+        outbox.shutdown();
+        reopened.close();
+
+        assertEquals(List.of("b@gmail.com"), sender.recipients);
+        FileOutboxStore afterSend = new FileOutboxStore(logFile);
+        assertTrue(afterSend.getPending().isEmpty());
+        afterSend.close();
+    }
+
+    @Test
+    void deadLettersKeepTheirReasonAndAreCappedTest() throws IOException {
+        Path logFile = Files.createTempDirectory("outbox").resolve("outbox.log");
+        FileOutboxStore store = new FileOutboxStore(logFile, 2, 60_000);
+        for (int i = 0; i < 3; i++) {
+            store.add(new OutboxEntry("dead" + i, "a@gmail.com", EmailType.NEW_TASK, i, 5));
+            store.markDead(store.getPending().get(0), "HTTP 40" + i);
+        }
+        store.close();
+
+        FileOutboxStore reopened = new FileOutboxStore(logFile, 2, 60_000);
+        assertEquals(2, reopened.getDeadLetters().size());
+        assertEquals("dead1", reopened.getDeadLetters().get(0).getId());
+        assertEquals("HTTP 402", reopened.getDeadLetterReason("dead2"));
+        reopened.close();
+
+        FileOutboxStore expired = new FileOutboxStore(logFile, 2, -1);
+        assertTrue(expired.getDeadLetters().isEmpty());
+        expired.close();
+    }
+}
@@ -0,0 +1,89 @@
+package send_grid_api;
+
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.Request;
+import okio.Buffer;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendEmailTest {
+
+    @Test
+    void postsMailToSendGridEndpointTest() throws IOException {
+        AtomicReference<String> authorization = new AtomicReference<>();
+        AtomicReference<String> body = new AtomicReference<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v3/mail/send", exchange -> {
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            try (InputStream in = exchange.getRequestBody()) {
+                body.set(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/v3/mail/send";
+            SendEmail sender = new SendEmail(url, "test-key");
+
+            int status = sender.sendEmail("mod@gmail.com", SendEmailInterface.EmailType.GROUP_INVITE);
+
+            assertEquals(202, status);
+            assertEquals("Bearer test-key", authorization.get());
+            assertTrue(body.get().contains("mod@gmail.com"));
+            assertTrue(body.get().contains("New Group Invite"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void batchHasOnePersonalizationPerRecipientTest() throws IOException {
+        SendEmail sender = new SendEmail("http://127.0.0.1:1/v3/mail/send", "test-key");
+        Request request = sender.buildRequest(SendEmailInterface.EmailType.GROUP_INVITE, 3,
+                List.of("a@gmail.com", "b@gmail.com"));
+
+        Buffer buffer = new Buffer();
+        request.body().writeTo(buffer);
+        JSONObject mail = new JSONObject(buffer.readUtf8());
+
+        assertEquals(2, mail.getJSONArray("personalizations").length());
+        assertTrue(mail.getJSONArray("content").getJSONObject(0).getString("value").startsWith("3 users"));
+    }
+
+    @Test
+    void templateMatchesSerializedMailTest() throws IOException {
+        SendEmail sender = new SendEmail("http://127.0.0.1:1/v3/mail/send", "test-key");
+        List<String> recipients = List.of("a@gmail.com", "b\"quoted\"@gmail.com", "c@gmail.com");
+
+        Buffer buffer = new Buffer();
+        sender.buildRequest(SendEmailInterface.EmailType.NEW_TASK, 2, recipients).body().writeTo(buffer);
+        JSONObject spliced = new JSONObject(buffer.readUtf8());
+
+        Mail mail = new Mail();
+        mail.setFrom(new Email(SendEmail.FROM_EMAIL));
+        mail.setSubject("New Task Available");
+        mail.addContent(new Content(SendEmail.CONTENT_TYPE, "You have been assigned 2 new tasks. Check your dashboard."));
+        for (String recipient : recipients) {
+            Personalization personalization = new Personalization();
+            personalization.addTo(new Email(recipient));
+            mail.addPersonalization(personalization);
+        }
+
+        assertTrue(new JSONObject(mail.build()).similar(spliced));
+    }
+}
@@ -0,0 +1,88 @@
+package send_grid_api;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SendGridTransportTest {
+
+    @Test
+    void loadReusesPooledConnectionsTest() throws Exception {
+        int requests = 400;
+        int threads = 8;
+        AtomicInteger received = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(threads));
+        server.createContext("/v3/mail/send", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                in.readAllBytes();
+            }
+            received.incrementAndGet();
+            exchange.sendResponseHeaders(202, -1);
+            exchange.close();
+        });
+        server.start();
+
+        SendGridTransport transport = new SendGridTransport(threads, threads, 60);
+        SendEmail sender = new SendEmail(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v3/mail/send", "test-key", transport);
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> statuses = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                String recipient = "user" + i + "@gmail.com";
+                statuses.add(clients.submit(() ->
+                        sender.sendEmail(recipient, SendEmailInterface.EmailType.GROUP_INVITE)));
+            }
+            for (Future<Integer> status : statuses) {
+                assertEquals(202, status.get().intValue());
+            }
+        } finally {
+            clients.shutdown();
+            server.stop(0);
+            ((ExecutorService) server.getExecutor()).shutdown();
+        }
+
+        assertEquals(requests, received.get());
+        assertEquals(requests, transport.getLatencies().getTotalCount());
+        // every response was released, so the pool never grew past one connection per client thread
+        assertTrue(transport.getConnectionCount() <= threads);
+    }
+
+    @Test
+    void histogramReportsPercentilesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.recordLatency(500_000L);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.recordLatency(50_000_000L);
+        }
+
+        assertEquals(100, histogram.getTotalCount());
+        assertEquals(1, histogram.getPercentileMillis(50));
+        assertEquals(64, histogram.getPercentileMillis(99));
+        assertEquals(50, histogram.getMaxMillis());
+        assertEquals(5.45, histogram.getMeanMillis(), 0.001);
+    }
+
+    @Test
+    void failedRequestIsStillTimedTest() throws IOException {
+        SendGridTransport transport = new SendGridTransport();
+
+        assertThrows(IOException.class, () ->
+                transport.execute(transport.buildRequest("http://127.0.0.1:1/v3/mail/send", "key", "{}")));
+        assertEquals(1, transport.getLatencies().getTotalCount());
+    }
+}
@@ -1,10 +1,14 @@
 package use_case.create_schedule;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Collection;
+import java.util.List;
+
 import data_access.InMemoryGroupDataAccessObject;
 import data_access.InMemoryMembershipDataAccessObject;
 import data_access.InMemoryUserDataAccessObject;
@@ -241,6 +245,236 @@ public class CreateScheduleInteractorTest {
         interactor.execute(inputData);
     }
 
+    @Test
+    void successTestIncrementalUpdate() {
+        final int[] batchLoads = {0};
+        InMemoryUserDataAccessObject userDataAccess = new InMemoryUserDataAccessObject() {
+            @Override
+            public List<User> getUsers(Collection<String> usernames) {
+                batchLoads[0]++;
+                return super.getUsers(usernames);
+            }
+        };
+        InMemoryGroupDataAccessObject groupDataAccess = new InMemoryGroupDataAccessObject();
+        InMemoryMembershipDataAccessObject membershipDataAccess = new InMemoryMembershipDataAccessObject();
+
+        UserFactory userFactory = new UserFactory();
+        userDataAccess.save(userFactory.create("ingrid", "ingrid@gmail.com", "password123"));
+        userDataAccess.save(userFactory.create("alisa", "alisa@gmail.com", "password456"));
+
+        MembershipFactory membershipFactory = new MembershipFactory();
+        Group group = new GroupFactory().create("Ingrid's Group", "1234", GroupType.STUDY);
+        Group otherGroup = new GroupFactory().create("Alisa's Group", "5678", GroupType.STUDY);
+        for (Membership membership : List.of(
+                membershipFactory.create("ingrid", "1234", UserRole.MODERATOR, true),
+                membershipFactory.create("alisa", "1234", UserRole.MEMBER, true),
+                membershipFactory.create("alisa", "5678", UserRole.MODERATOR, true))) {
+            membershipDataAccess.save(membership);
+            (membership.getGroup().equals("1234") ? group : otherGroup).addMembership(membership);
+        }
+        groupDataAccess.save(group);
+        groupDataAccess.save(otherGroup);
+        groupDataAccess.saveMasterSchedule(otherGroup);
+
+        final int[][][] presented = new int[1][][];
+        CreateScheduleOutputBoundary presenter = new CreateScheduleOutputBoundary() {
+            @Override
+            public void prepareSuccessView(CreateScheduleOutputData outputData) {
+                presented[0] = outputData.getMasterSchedule();
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail("Failure is unexpected");
+            }
+
+            @Override
+            public void openCreateScheduleModal() {
+                // For UI purposes only
+            }
+        };
+        CreateScheduleInteractor interactor = new CreateScheduleInteractor(userDataAccess, groupDataAccess,
+                presenter, membershipDataAccess, new ScheduleTabPresenter(new ScheduleTabViewModel()));
+
+        // the first save builds the master schedule from scratch
+        boolean[][] ingridAvailability = new boolean[12][7];
+        ingridAvailability[0][0] = true;
+        userDataAccess.setCurrentUsername("ingrid");
+        interactor.execute(new CreateScheduleInputData("1234", ingridAvailability));
+        assertEquals(1, batchLoads[0]);
+
+        // later saves only apply what changed
+        boolean[][] alisaAvailability = new boolean[12][7];
+        alisaAvailability[0][0] = true;
+        alisaAvailability[3][3] = true;
+        userDataAccess.setCurrentUsername("alisa");
+        interactor.execute(new CreateScheduleInputData("1234", alisaAvailability));
+
+        boolean[][] newAlisaAvailability = new boolean[12][7];
+        newAlisaAvailability[3][3] = true;
+        interactor.execute(new CreateScheduleInputData("1234", newAlisaAvailability));
+
+        assertEquals(1, batchLoads[0]);
+        assertEquals(1, presented[0][0][0]);
+        assertEquals(1, presented[0][3][3]);
+        // Alisa's other group sees her availability too
+        assertEquals(1, groupDataAccess.getGroup("5678").getMasterSchedule()[3][3]);
+        assertEquals(0, groupDataAccess.getGroup("5678").getMasterSchedule()[0][0]);
+    }
+
+    @Test
+    void successTestDeltaTakenFromStoredSchedule() {
+        InMemoryUserDataAccessObject userDataAccess = new InMemoryUserDataAccessObject();
+        InMemoryGroupDataAccessObject groupDataAccess = new InMemoryGroupDataAccessObject();
+        InMemoryMembershipDataAccessObject membershipDataAccess = new InMemoryMembershipDataAccessObject();
+        User ingrid = new UserFactory().create("ingrid", "ingrid@gmail.com", "password123");
+        userDataAccess.save(ingrid);
+        userDataAccess.setCurrentUsername("ingrid");
+        Membership membership = new MembershipFactory().create("ingrid", "1234", UserRole.MODERATOR, true);
+        membershipDataAccess.save(membership);
+        Group group = new GroupFactory().create("Ingrid's Group", "1234", GroupType.STUDY);
+        group.addMembership(membership);
+        groupDataAccess.save(group);
+        groupDataAccess.saveMasterSchedule(group);
+
+        // the loaded user already carries an availability that was never saved
+        ingrid.getSchedule()[0][0] = true;
+        CreateScheduleOutputBoundary presenter = new CreateScheduleOutputBoundary() {
+            @Override
+            public void prepareSuccessView(CreateScheduleOutputData outputData) {
+                // presented on every save
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail("Failure is unexpected");
+            }
+
+            @Override
+            public void openCreateScheduleModal() {
+                // For UI purposes only
+            }
+        };
+        CreateScheduleInteractor interactor = new CreateScheduleInteractor(userDataAccess, groupDataAccess,
+                presenter, membershipDataAccess, new ScheduleTabPresenter(new ScheduleTabViewModel()));
+
+        boolean[][] availability = new boolean[12][7];
+        availability[0][0] = true;
+        interactor.execute(new CreateScheduleInputData("1234", availability));
+        interactor.execute(new CreateScheduleInputData("1234", availability));
+
+        assertEquals(1, groupDataAccess.getMasterSchedule("1234")[0][0]);
+    }
+
+    @Test
+    void testLoadScheduleAfterMembersChanged() {
+        InMemoryUserDataAccessObject userDataAccess = new InMemoryUserDataAccessObject();
+        InMemoryGroupDataAccessObject groupDataAccess = new InMemoryGroupDataAccessObject();
+        InMemoryMembershipDataAccessObject membershipDataAccess = new InMemoryMembershipDataAccessObject();
+
+        User alisa = new UserFactory().create("alisa", "alisa@gmail.com", "password456");
+        alisa.getSchedule()[4][4] = true;
+        userDataAccess.save(alisa);
+        Membership membership = new MembershipFactory().create("alisa", "1234", UserRole.MEMBER, true);
+        membershipDataAccess.save(membership);
+        Group group = new GroupFactory().create("Ingrid's Group", "1234", GroupType.STUDY);
+        group.addMembership(membership);
+        groupDataAccess.save(group);
+        // Alisa's request was just accepted
+        groupDataAccess.invalidateMasterSchedule("1234");
+
+        final int[][][] presented = new int[1][][];
+        ScheduleTabPresenter groupSchedulePresenter = new ScheduleTabPresenter(new ScheduleTabViewModel()) {
+            @Override
+            public void prepareSuccessView(CreateScheduleOutputData outputData) {
+                presented[0] = outputData.getMasterSchedule();
+            }
+        };
+        CreateScheduleInteractor interactor = new CreateScheduleInteractor(userDataAccess, groupDataAccess,
+                null, membershipDataAccess, groupSchedulePresenter);
+
+        interactor.loadSchedule("1234");
+
+        assertEquals(1, presented[0][4][4]);
+        assertEquals(1, groupDataAccess.getMasterSchedule("1234")[4][4]);
+    }
+
+    @Test
+    void testDriftedScheduleFailsLoudly() {
+        InMemoryGroupDataAccessObject groupDataAccess = new InMemoryGroupDataAccessObject();
+        Group group = new GroupFactory().create("Ingrid's Group", "1234", GroupType.STUDY);
+        groupDataAccess.save(group);
+        groupDataAccess.saveMasterSchedule(group);
+        int[][] delta = new int[12][7];
+        delta[0][0] = -1;
+
+        assertThrows(IllegalStateException.class, () -> groupDataAccess.applyScheduleDelta("1234", delta));
+        assertEquals(0, groupDataAccess.getMasterSchedule("1234")[0][0]);
+    }
+
+    @Test
+    void testDriftedGroupIsRebuiltAndOtherGroupsUpdated() {
+        InMemoryUserDataAccessObject userDataAccess = new InMemoryUserDataAccessObject();
+        InMemoryGroupDataAccessObject groupDataAccess = new InMemoryGroupDataAccessObject();
+        // the drifted group is in the middle of the user's groups
+        List<String> groupIDs = List.of("AAAA", "BBBB", "CCCC", "1234");
+        InMemoryMembershipDataAccessObject membershipDataAccess = new InMemoryMembershipDataAccessObject() {
+            @Override
+            public List<String> getGroupIDsForUser(String username) {
+                return groupIDs;
+            }
+        };
+
+        User user = new UserFactory().create("ingrid", "ingrid@gmail.com", "password123");
+        user.getSchedule()[0][0] = true;
+        userDataAccess.save(user);
+        userDataAccess.saveSchedule(user);
+        userDataAccess.setCurrentUsername("ingrid");
+
+        for (String groupID : groupIDs) {
+            Membership membership = new MembershipFactory().create("ingrid", groupID, UserRole.MODERATOR, true);
+            membershipDataAccess.save(membership);
+            Group group = new GroupFactory().create("Group " + groupID, groupID, GroupType.STUDY);
+            group.addMembership(membership);
+            group.getMasterSchedule()[0][0] = 1;
+            groupDataAccess.save(group);
+            groupDataAccess.saveMasterSchedule(group);
+        }
+        // a master schedule that no longer counts the user's availability
+        groupDataAccess.getGroup("BBBB").getMasterSchedule()[0][0] = 0;
+        groupDataAccess.getGroup("BBBB").getMasterSchedule()[5][5] = 4;
+
+        CreateScheduleOutputBoundary presenter = new CreateScheduleOutputBoundary() {
+            @Override
+            public void prepareSuccessView(CreateScheduleOutputData outputData) {
+                assertEquals(1, outputData.getMasterSchedule()[3][3]);
+            }
+
+            @Override
+            public void prepareFailView(String errorMessage) {
+                fail("Failure is unexpected");
+            }
+
+            @Override
+            public void openCreateScheduleModal() {
+                // For UI purposes only
+            }
+        };
+        CreateScheduleInteractor interactor = new CreateScheduleInteractor(userDataAccess, groupDataAccess,
+                presenter, membershipDataAccess, new ScheduleTabPresenter(new ScheduleTabViewModel()));
+
+        boolean[][] availability = new boolean[12][7];
+        availability[3][3] = true;
+        interactor.execute(new CreateScheduleInputData("1234", availability));
+
+        for (String groupID : groupIDs) {
+            int[][] masterSchedule = groupDataAccess.getMasterSchedule(groupID);
+            assertEquals(0, masterSchedule[0][0], groupID);
+            assertEquals(1, masterSchedule[3][3], groupID);
+            assertEquals(0, masterSchedule[5][5], groupID);
+        }
+    }
+
     @Test
     void testLoadSchedule() {
         // Set up a group that already has a master schedule saved
@@ -4,6 +4,7 @@ import data_access.InMemoryMembershipDataAccessObject;
 import data_access.InMemoryTaskDataAccessObject;
 import data_access.InMemoryUserDataAccessObject;
 import entity.membership.Membership;
+import entity.task.StaleTaskException;
 import entity.task.Task;
 import entity.user.User;
 import entity.user.UserRole;
@@ -13,7 +14,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;          // <-- NEW
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -463,4 +466,74 @@ public class EditGroupTasksInteractorTest {
         // but user not updated since u == null
     }
 
+    @Test
+    void testOnlyChangedFieldsAreReportedForSaving() {
+        InMemoryUserDataAccessObject userDAO = new InMemoryUserDataAccessObject();
+        InMemoryMembershipDataAccessObject memDAO = new InMemoryMembershipDataAccessObject();
+        userDAO.save(new User("mod", "test@test.com", "pw"));
+        userDAO.setCurrentUsername("mod");
+        memDAO.save(new Membership("mod", "g1", UserRole.MODERATOR, true));
+
+        Task stored = new Task("t-diff", "Task", "g1", false, new ArrayList<>(List.of("a", "b")));
+        List<Set<Task.Field>> saved = new ArrayList<>();
+        EditGroupTasksDataAccessInterface taskDAO = new EditGroupTasksDataAccessInterface() {
+            @Override
+            public Task getTask(String taskId) {
+                return stored;
+            }
+
+            @Override
+            public void upsertTask(Task task) {
+                saved.add(task.getChangedFields());
+                assertEquals(Set.of("c"), task.getAddedAssignees());
+                assertEquals(Set.of("a"), task.getRemovedAssignees());
+                task.markSaved(task.getVersion() + 1);
+            }
+        };
+
+        TestPresenter presenter = new TestPresenter();
+        new EditGroupTasksInteractor(taskDAO, presenter, userDAO, memDAO).execute(
+                new EditGroupTasksInputData("t-diff", "Task", null, true, List.of("b", "c"), "g1"));
+
+        assertTrue(presenter.received.isSuccess());
+        assertEquals(List.of(EnumSet.of(Task.Field.COMPLETED, Task.Field.ASSIGNEES)), saved);
+        assertFalse(stored.hasChanges());
+        assertEquals(1, stored.getVersion());
+    }
+
+    @Test
+    void testStaleTaskIsNotSaved() {
+        InMemoryUserDataAccessObject userDAO = new InMemoryUserDataAccessObject();
+        InMemoryMembershipDataAccessObject memDAO = new InMemoryMembershipDataAccessObject();
+        User mod = new User("mod", "test@test.com", "pw");
+        User bob = new User("bob", "bob@test.com", "pw");
+        userDAO.save(mod);
+        userDAO.save(bob);
+        userDAO.setCurrentUsername("mod");
+        memDAO.save(new Membership("mod", "g1", UserRole.MODERATOR, true));
+
+        Task stored = new Task("t-stale", "Task", "g1", false, new ArrayList<>());
+        stored.setVersion(3);
+        EditGroupTasksDataAccessInterface taskDAO = new EditGroupTasksDataAccessInterface() {
+            @Override
+            public Task getTask(String taskId) {
+                return stored;
+            }
+
+            @Override
+            public void upsertTask(Task task) {
+                throw new StaleTaskException(task.getID(), task.getVersion());
+            }
+        };
+
+        TestPresenter presenter = new TestPresenter();
+        new EditGroupTasksInteractor(taskDAO, presenter, userDAO, memDAO).execute(
+                new EditGroupTasksInputData("t-stale", null, null, null, List.of("bob"), "g1"));
+
+        assertFalse(presenter.received.isSuccess());
+        assertEquals("This task was changed by someone else. Reopen it and try again.",
+                presenter.received.getMessage());
+        // the assignment is not recorded on the user when the task was not saved
+        assertTrue(userDAO.get("bob").getTasks().isEmpty());
+    }
 }
@@ -1,7 +1,8 @@
 package use_case.login;
 
 import data_access.InMemoryUserDataAccessObject;
-import entity.group.Group;
+import entity.group.GroupSummary;
+import entity.group.GroupType;
 import entity.user.User;
 import entity.user.UserFactory;
 import org.junit.jupiter.api.Test;
@@ -27,7 +28,7 @@ class LoginInteractorTest {
         // Dummy groups DAO: Paul has no groups for this test.
         LoginGroupsDataAccessInterface groupsRepository = new LoginGroupsDataAccessInterface() {
             @Override
-            public List<Group> getGroupsForUser(String username) {
+            public List<GroupSummary> getGroupSummariesForUser(String username) {
                 return new ArrayList<>();
             }
         };
@@ -52,6 +53,66 @@ class LoginInteractorTest {
         interactor.execute(inputData);
     }
 
+    @Test
+    void successWithGroupsTest() {
+        LoginInputData inputData = new LoginInputData("Paul", "password");
+        LoginUserDataAccessInterface userRepository = new InMemoryUserDataAccessObject();
+        userRepository.save(new UserFactory().create("Paul", "paul@gmail.com", "password"));
+
+        // Dummy groups DAO: Paul is in two groups.
+        LoginGroupsDataAccessInterface groupsRepository = new LoginGroupsDataAccessInterface() {
+            @Override
+            public List<GroupSummary> getGroupSummariesForUser(String username) {
+                return List.of(new GroupSummary("ABC123", "Study Group", GroupType.STUDY, 3),
+                        new GroupSummary("XYZ789", "Project Group", GroupType.PROJECT, 5));
+            }
+        };
+
+        LoginOutputBoundary successPresenter = new LoginOutputBoundary() {
+            @Override
+            public void prepareSuccessView(LoginOutputData output) {
+                assertEquals(2, output.getGroups().size());
+                assertEquals("Study Group", output.getGroups().get("ABC123"));
+                assertEquals("Project Group", output.getGroups().get("XYZ789"));
+            }
+
+            @Override
+            public void prepareFailView(String error) {
+                fail("Use case failure is unexpected.");
+            }
+        };
+
+        LoginInputBoundary interactor = new LoginInteractor(userRepository, groupsRepository, successPresenter);
+        interactor.execute(inputData);
+    }
+
+    @Test
+    void listenerIsToldAboutTheUserAndGroupsTest() {
+        LoginUserDataAccessInterface userRepository = new InMemoryUserDataAccessObject();
+        userRepository.save(new UserFactory().create("Paul", "paul@gmail.com", "password"));
+        LoginGroupsDataAccessInterface groupsRepository = username ->
+                List.of(new GroupSummary("ABC123", "Study Group", GroupType.STUDY, 3));
+        List<String> logins = new ArrayList<>();
+        LoginOutputBoundary successPresenter = new LoginOutputBoundary() {
+            @Override
+            public void prepareSuccessView(LoginOutputData output) {
+                // the listener is told before the dashboard is shown
+                assertEquals(1, logins.size());
+            }
+
+            @Override
+            public void prepareFailView(String error) {
+                fail("Use case failure is unexpected.");
+            }
+        };
+
+        LoginInputBoundary interactor = new LoginInteractor(userRepository, groupsRepository, successPresenter,
+                (username, groupIds) -> logins.add(username + " " + groupIds));
+        interactor.execute(new LoginInputData("Paul", "password"));
+
+        assertEquals(List.of("Paul [ABC123]"), logins);
+    }
+
     @Test
     void failurePasswordMismatchTest() {
         LoginInputData inputData = new LoginInputData("Paul", "wrong");
@@ -66,7 +127,7 @@ class LoginInteractorTest {
         // Dummy groups DAO (will not be used in this test because login fails).
         LoginGroupsDataAccessInterface groupsRepository = new LoginGroupsDataAccessInterface() {
             @Override
-            public List<Group> getGroupsForUser(String username) {
+            public List<GroupSummary> getGroupSummariesForUser(String username) {
                 return new ArrayList<>();
             }
         };
@@ -99,7 +160,7 @@ class LoginInteractorTest {
         // Dummy groups DAO (will not be used in this test because login fails).
         LoginGroupsDataAccessInterface groupsRepository = new LoginGroupsDataAccessInterface() {
             @Override
-            public List<Group> getGroupsForUser(String username) {
+            public List<GroupSummary> getGroupSummariesForUser(String username) {
                 return new ArrayList<>();
             }
         };
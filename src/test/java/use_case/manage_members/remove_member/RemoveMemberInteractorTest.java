@@ -61,6 +61,19 @@ class RemoveMemberInteractorTest {
         }
     }
 
+    // ------------------------------------------------------------
+    // Group DAO recording invalidated master schedules
+    // ------------------------------------------------------------
+
+    private static class RecordingGroupDAO implements RemoveMemberGroupDataAccessInterface {
+        final List<String> invalidated = new ArrayList<>();
+
+        @Override
+        public void invalidateMasterSchedule(String groupID) {
+            invalidated.add(groupID);
+        }
+    }
+
     // ------------------------------------------------------------
     // TESTS
     // ------------------------------------------------------------
@@ -76,8 +89,9 @@ class RemoveMemberInteractorTest {
                 new Membership("charlie", "g1", UserRole.MEMBER, true)
         ));
 
+        RecordingGroupDAO groupDao = new RecordingGroupDAO();
         RemoveMemberInteractor interactor =
-                new RemoveMemberInteractor(dao, presenter);
+                new RemoveMemberInteractor(dao, groupDao, presenter);
 
         RemoveMemberInputData input =
                 new RemoveMemberInputData("g1", "bob");
@@ -87,6 +101,7 @@ class RemoveMemberInteractorTest {
         // DAO call
         assertEquals("g1", dao.lastRemovedGroupId);
         assertEquals("bob", dao.lastRemovedUsername);
+        assertEquals(List.of("g1"), groupDao.invalidated);
 
         // Output
         RemoveMemberOutputData out = presenter.getReceived();
@@ -111,8 +126,9 @@ class RemoveMemberInteractorTest {
                 new Membership("bob", "g2", UserRole.MEMBER, true)
         ));
 
+        RecordingGroupDAO groupDao = new RecordingGroupDAO();
         RemoveMemberInteractor interactor =
-                new RemoveMemberInteractor(dao, presenter);
+                new RemoveMemberInteractor(dao, groupDao, presenter);
 
         // Try to remove someone who is not in the group
         RemoveMemberInputData input =
@@ -94,6 +94,19 @@ class RespondRequestInteractorTest {
         }
     }
 
+    // ------------------------------------------------------------
+    // Group DAO recording invalidated master schedules
+    // ------------------------------------------------------------
+
+    private static class RecordingGroupDAO implements RespondRequestGroupDataAccessInterface {
+        final List<String> invalidated = new ArrayList<>();
+
+        @Override
+        public void invalidateMasterSchedule(String groupID) {
+            invalidated.add(groupID);
+        }
+    }
+
     // ------------------------------------------------------------
     // TESTS
     // ------------------------------------------------------------
@@ -113,8 +126,9 @@ class RespondRequestInteractorTest {
                 new Membership("bob", "g1", UserRole.MEMBER, true)
         )));
 
+        RecordingGroupDAO groupDao = new RecordingGroupDAO();
         RespondRequestInteractor interactor =
-                new RespondRequestInteractor(dao, presenter);
+                new RespondRequestInteractor(dao, groupDao, presenter);
 
         interactor.execute(new RespondRequestInputData("g1", "alice", true));
 
@@ -122,6 +136,7 @@ class RespondRequestInteractorTest {
         assertEquals("g1", dao.lastGroupUpdated);
         assertEquals("alice", dao.lastUserUpdated);
         assertTrue(dao.lastAccepted);
+        assertEquals(List.of("g1"), groupDao.invalidated);
 
         // Output
         RespondRequestOutputData out = presenter.getReceived();
@@ -153,8 +168,9 @@ class RespondRequestInteractorTest {
                 new Membership("bob", "g2", UserRole.MEMBER, true)
         )));
 
+        RecordingGroupDAO groupDao = new RecordingGroupDAO();
         RespondRequestInteractor interactor =
-                new RespondRequestInteractor(dao, presenter);
+                new RespondRequestInteractor(dao, groupDao, presenter);
 
         interactor.execute(new RespondRequestInputData("g2", "alice", false));
 
@@ -162,6 +178,7 @@ class RespondRequestInteractorTest {
         assertEquals("g2", dao.lastGroupUpdated);
         assertEquals("alice", dao.lastUserUpdated);
         assertFalse(dao.lastAccepted);
+        assertTrue(groupDao.invalidated.isEmpty());
 
         RespondRequestOutputData out = presenter.getReceived();
         assertNotNull(out);
@@ -0,0 +1,200 @@
+package use_case.taskreminder;
+
+import data_access.InMemoryTaskDataAccessObject;
+import data_access.InMemoryUserDataAccessObject;
+import entity.task.Task;
+import entity.user.User;
+import org.junit.jupiter.api.Test;
+import send_grid_api.SendEmailInterface;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskReminderSchedulerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static class ManualClock extends Clock {
+        private Instant instant = START.atZone(ZoneId.systemDefault()).toInstant();
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock();
+    private final InMemoryTaskDataAccessObject taskDataAccess = new InMemoryTaskDataAccessObject();
+    private final InMemoryUserDataAccessObject userDataAccess = new InMemoryUserDataAccessObject();
+    private final List<String> sent = new ArrayList<>();
+    private final SendEmailInterface emailer = (recipient, type) -> {
+        sent.add(type + " " + recipient);
+        return 202;
+    };
+
+    private TaskReminderScheduler newScheduler() {
+        TaskReminderScheduler scheduler = newSchedulerBeforeLogin();
+        scheduler.watchGroups(Set.of("group"));
+        return scheduler;
+    }
+
+    private TaskReminderScheduler newSchedulerBeforeLogin() {
+        userDataAccess.save(new User("alice", "alice@gmail.com", "pass"));
+        userDataAccess.save(new User("bob", "bob@gmail.com", "pass"));
+        return new TaskReminderScheduler(taskDataAccess, userDataAccess, emailer, clock, Duration.ofDays(7));
+    }
+
+    private Task task(String id, LocalDateTime dueDate, String... assignees) {
+        return task(id, "group", dueDate, assignees);
+    }
+
+    private Task task(String id, String group, LocalDateTime dueDate, String... assignees) {
+        Task task = new Task(id, "task " + id, group, false, new ArrayList<>(List.of(assignees)), dueDate);
+        taskDataAccess.upsertTask(task);
+        return task;
+    }
+
+    @Test
+    void loadedTaskIsRemindedBeforeAndAfterItsDeadlineTest() {
+        task("t1", START.plusHours(30), "alice", "bob");
+        task("t2", START.plusDays(30), "alice");
+        TaskReminderScheduler scheduler = newScheduler();
+
+        scheduler.tick();
+        assertEquals(1, scheduler.getIndexedTaskCount());
+        assertEquals(2, scheduler.getPendingReminderCount());
+
+        clock.advance(Duration.ofHours(6));
+        scheduler.tick();
+        assertEquals(List.of("TASK_DUE_SOON alice@gmail.com", "TASK_DUE_SOON bob@gmail.com"), sent);
+
+        clock.advance(Duration.ofHours(24).plusMinutes(1));
+        scheduler.tick();
+        assertEquals(4, sent.size());
+        assertEquals(2, scheduler.getOverdueSentCount());
+        assertEquals(0, scheduler.getIndexedTaskCount());
+    }
+
+    @Test
+    void completedTaskIsNotRemindedTest() {
+        Task task = task("t1", START.plusHours(30), "alice");
+        TaskReminderScheduler scheduler = newScheduler();
+        scheduler.tick();
+
+        task.markCompleted();
+        taskDataAccess.upsertTask(task);
+        scheduler.taskSaved(task);
+        clock.advance(Duration.ofDays(2));
+        scheduler.tick();
+
+        assertTrue(sent.isEmpty());
+        assertEquals(0, scheduler.getPendingReminderCount());
+    }
+
+    @Test
+    void movedDeadlineIsRescheduledTest() {
+        Task task = task("t1", START.plusHours(30), "alice");
+        TaskReminderScheduler scheduler = newScheduler();
+        scheduler.tick();
+
+        task.setDueDate(START.plusHours(60));
+        taskDataAccess.upsertTask(task);
+        scheduler.taskSaved(task);
+        clock.advance(Duration.ofHours(7));
+        scheduler.tick();
+        assertTrue(sent.isEmpty());
+
+        clock.advance(Duration.ofHours(30));
+        scheduler.tick();
+        assertEquals(List.of("TASK_DUE_SOON alice@gmail.com"), sent);
+    }
+
+    @Test
+    void taskChangedElsewhereIsSkippedTest() {
+        Task task = task("t1", START.plusHours(30), "alice");
+        TaskReminderScheduler scheduler = newScheduler();
+        scheduler.tick();
+
+        // completed by another client, so the scheduler is not told
+        task.markCompleted();
+        taskDataAccess.upsertTask(task);
+        clock.advance(Duration.ofHours(7));
+        scheduler.tick();
+
+        assertTrue(sent.isEmpty());
+        assertEquals(1, scheduler.getStaleReminderCount());
+        assertEquals(0, scheduler.getPendingReminderCount());
+    }
+
+    @Test
+    void horizonMovesForwardIncrementallyTest() {
+        task("t1", START.plusDays(8), "bob");
+        TaskReminderScheduler scheduler = newScheduler();
+        scheduler.tick();
+        assertEquals(0, scheduler.getIndexedTaskCount());
+
+        clock.advance(Duration.ofDays(1).plusHours(1));
+        scheduler.tick();
+        assertEquals(1, scheduler.getIndexedTaskCount());
+        assertEquals(1, scheduler.getLoadedTaskCount());
+    }
+
+    @Test
+    void onlyTheWatchedGroupsAreLoadedTest() {
+        task("t1", START.plusHours(30), "alice");
+        task("t2", "other", START.plusHours(30), "bob");
+        TaskReminderScheduler scheduler = newSchedulerBeforeLogin();
+
+        // nothing is loaded before a user logged in
+        scheduler.tick();
+        assertEquals(0, scheduler.getLoadedTaskCount());
+
+        scheduler.watchGroups(Set.of("group"));
+        scheduler.tick();
+        assertEquals(1, scheduler.getLoadedTaskCount());
+        clock.advance(Duration.ofHours(7));
+        scheduler.tick();
+        assertEquals(List.of("TASK_DUE_SOON alice@gmail.com"), sent);
+    }
+
+    @Test
+    void reminderIsSentByOneClientOnlyTest() {
+        task("t1", START.plusHours(30), "alice");
+        TaskReminderScheduler first = newScheduler();
+        TaskReminderScheduler second = newScheduler();
+        first.tick();
+        second.tick();
+
+        clock.advance(Duration.ofHours(7));
+        first.tick();
+        second.tick();
+
+        assertEquals(List.of("TASK_DUE_SOON alice@gmail.com"), sent);
+        assertEquals(1, second.getClaimedElsewhereCount());
+    }
+}
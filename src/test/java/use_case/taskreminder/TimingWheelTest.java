@@ -0,0 +1,76 @@
+package use_case.taskreminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+
+    @Test
+    void timersComeDueOnTheirTickTest() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        wheel.schedule("late", 5 * TICK + 1);
+        wheel.schedule("early", 2 * TICK);
+        wheel.schedule("past", -TICK);
+
+        assertEquals(List.of("past"), wheel.advance(TICK));
+        assertEquals(List.of("early"), wheel.advance(5 * TICK));
+        assertEquals(List.of("late"), wheel.advance(6 * TICK));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerNeverComesDueTest() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 0);
+        TimingWheel.Timer<String> timer = wheel.schedule("task", 100 * TICK);
+
+        assertTrue(wheel.cancel(timer));
+        assertFalse(wheel.cancel(timer));
+        assertTrue(wheel.advance(200 * TICK).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void matchesSortedOrderAcrossEveryLevelTest() {
+        Random random = new Random(42);
+        long start = 123_456 * TICK;
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, start);
+        Map<Integer, Long> dueTicks = new HashMap<>();
+        List<TimingWheel.Timer<Integer>> timers = new ArrayList<>();
+
+        for (int i = 0; i < 5000; i++) {
+            // spread over all four levels, and past the end of the top one
+            long delta = (long) Math.pow(2, random.nextDouble() * 25);
+            long due = start + delta * TICK;
+            dueTicks.put(i, due / TICK);
+            timers.add(wheel.schedule(i, due));
+        }
+        for (int i = 0; i < 5000; i += 7) {
+            wheel.cancel(timers.get(i));
+            dueTicks.remove(i);
+        }
+
+        long now = start;
+        int seen = 0;
+        while (wheel.size() > 0) {
+            long previous = now;
+            now += TICK * (1 + random.nextInt(50_000));
+            for (int value : wheel.advance(now)) {
+                long due = dueTicks.remove(value);
+                assertTrue(due <= now / TICK, "timer " + value + " came due early");
+                assertTrue(due > previous / TICK, "timer " + value + " came due late");
+                seen++;
+            }
+        }
+        assertTrue(dueTicks.isEmpty());
+        assertEquals(5000 - 715, seen);
+    }
+}
@@ -0,0 +1,71 @@
+package use_case.taskstats;
+
+import data_access.InMemoryTaskDataAccessObject;
+import entity.task.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskStatsInteractorTest {
+
+    private static class TestPresenter implements TaskStatsOutputBoundary {
+        private TaskStatsOutputData received;
+
+        @Override
+        public void presentStats(TaskStatsOutputData outputData) {
+            this.received = outputData;
+        }
+    }
+
+    private static Task task(String id, String group, boolean completed, LocalDateTime due, String... assignees) {
+        return new Task(id, "Task " + id, group, completed, new ArrayList<>(List.of(assignees)), due);
+    }
+
+    @Test
+    void testCountsPerGroupAndInTotal() {
+        LocalDateTime now = LocalDateTime.now();
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        taskDAO.upsertTask(task("t1", "g1", false, now.minusDays(1), "alice"));
+        taskDAO.upsertTask(task("t2", "g1", false, now.plusHours(2), "alice", "bob"));
+        taskDAO.upsertTask(task("t3", "g1", false, now.plusDays(3), "bob"));
+        taskDAO.upsertTask(task("t4", "g1", true, now.minusDays(2), "alice"));
+        taskDAO.upsertTask(task("t5", "g2", false, null, "alice"));
+        taskDAO.upsertTask(task("t6", "other", false, now.minusDays(1), "alice"));
+
+        TestPresenter presenter = new TestPresenter();
+        new TaskStatsInteractor(taskDAO, presenter, () -> "alice")
+                .execute(new TaskStatsInputData(List.of("g1", "g2", "g3")));
+
+        TaskStats g1 = presenter.received.getStatsByGroup().get("g1");
+        assertEquals(3, g1.getOpenCount());
+        assertEquals(1, g1.getCompletedCount());
+        assertEquals(1, g1.getOverdueCount());
+        assertEquals(1, g1.getDueSoonCount());
+        assertEquals(2, g1.getAssignedOpenCount());
+        assertEquals(1, g1.getAssignedOverdueCount());
+        assertEquals(1, g1.getAssignedDueSoonCount());
+
+        // a group without tasks is reported with zero counts
+        assertEquals(List.of("g1", "g2", "g3"), new ArrayList<>(presenter.received.getStatsByGroup().keySet()));
+        assertEquals(0, presenter.received.getStatsByGroup().get("g3").getOpenCount());
+
+        TaskStats total = presenter.received.getTotal();
+        assertEquals(4, total.getOpenCount());
+        assertEquals(3, total.getAssignedOpenCount());
+        assertEquals(1, total.getOverdueCount());
+    }
+
+    @Test
+    void testNoGroups() {
+        TestPresenter presenter = new TestPresenter();
+        new TaskStatsInteractor(new InMemoryTaskDataAccessObject(), presenter, () -> "alice")
+                .execute(new TaskStatsInputData(List.of()));
+
+        assertTrue(presenter.received.getStatsByGroup().isEmpty());
+        assertEquals(0, presenter.received.getTotal().getOpenCount());
+    }
+}
@@ -19,10 +19,18 @@ public class ViewGroupTasksInteractorTest {
 
     private static class TestPresenter implements ViewGroupTasksOutputBoundary {
         private ViewGroupTasksOutputData received;
+        private final List<ViewGroupTasksOutputData> pages = new ArrayList<>();
+        private ViewGroupTasksChangesOutputData changes;
 
         @Override
         public void present(ViewGroupTasksOutputData outputData) {
             this.received = outputData;
+            this.pages.add(outputData);
+        }
+
+        @Override
+        public void presentChanges(ViewGroupTasksChangesOutputData outputData) {
+            this.changes = outputData;
         }
 
         public ViewGroupTasksOutputData getReceived() {
@@ -185,4 +193,109 @@ public class ViewGroupTasksInteractorTest {
 
         assertEquals(Arrays.asList("user1", "user2", "user3"), out.getNames());
     }
+
+    @Test
+    void testTasksArePresentedInPages() {
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        InMemoryGroupDataAccessObject groupDAO = new InMemoryGroupDataAccessObject();
+
+        Group g = new Group("Big Group", "g5", GroupType.PROJECT);
+        groupDAO.save(g);
+
+        int total = ViewGroupTasksInteractor.PAGE_SIZE * 2 + 7;
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < total; i++) {
+            // every third task shares its due date with the previous one
+            taskDAO.upsertTask(new Task(String.format("id%03d", i), "Task " + i, "g5", false,
+                    new ArrayList<>(), start.plusHours(i - i / 3)));
+        }
+        taskDAO.upsertTask(new Task("idX", "No date", "g5", false, new ArrayList<>()));
+
+        TestPresenter presenter = new TestPresenter();
+        ViewGroupTasksInteractor interactor = new ViewGroupTasksInteractor(taskDAO, presenter, groupDAO);
+        interactor.execute(new ViewGroupTasksInputData("g5"));
+
+        // later pages are only loaded when asked for
+        assertEquals(1, presenter.pages.size());
+        assertFalse(presenter.pages.get(0).isAppend());
+        assertFalse(presenter.pages.get(0).isComplete());
+        assertEquals(ViewGroupTasksInteractor.PAGE_SIZE, presenter.pages.get(0).getTasks().size());
+
+        String syncToken = presenter.getReceived().getSyncToken();
+        while (!presenter.getReceived().isComplete()) {
+            interactor.execute(new ViewGroupTasksInputData("g5", syncToken,
+                    presenter.getReceived().getNextPageToken()));
+        }
+
+        assertEquals(3, presenter.pages.size());
+        assertTrue(presenter.pages.get(1).isAppend());
+        assertTrue(presenter.pages.get(2).isComplete());
+        assertNull(presenter.pages.get(2).getNextPageToken());
+        // every page carries the token taken before the first page was read
+        assertEquals(syncToken, presenter.pages.get(2).getSyncToken());
+
+        List<String> ids = new ArrayList<>();
+        for (ViewGroupTasksOutputData page : presenter.pages) {
+            for (ViewGroupTasksOutputData.TaskDTO dto : page.getTasks()) {
+                ids.add(dto.getId());
+            }
+        }
+        assertEquals(total + 1, ids.size());
+        assertEquals(total + 1, new HashSet<>(ids).size());
+        assertEquals("idX", ids.get(0));
+        assertEquals("id000", ids.get(1));
+    }
+
+    @Test
+    void testSyncReturnsOnlyChangedTasks() {
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        InMemoryGroupDataAccessObject groupDAO = new InMemoryGroupDataAccessObject();
+        groupDAO.save(new Group("Sync Group", "g6", GroupType.PROJECT));
+
+        Task first = new Task("a", "First", "g6", false, new ArrayList<>());
+        taskDAO.upsertTask(first);
+        taskDAO.upsertTask(new Task("b", "Second", "g6", false, new ArrayList<>()));
+        taskDAO.upsertTask(new Task("other", "Other group", "g7", false, new ArrayList<>()));
+
+        TestPresenter presenter = new TestPresenter();
+        ViewGroupTasksInteractor interactor = new ViewGroupTasksInteractor(taskDAO, presenter, groupDAO);
+        interactor.execute(new ViewGroupTasksInputData("g6"));
+        String token = presenter.getReceived().getSyncToken();
+        assertNotNull(token);
+
+        first.markCompleted();
+        taskDAO.upsertTask(first);
+        taskDAO.upsertTask(new Task("c", "Third", "g6", false, new ArrayList<>()));
+        taskDAO.upsertTask(new Task("other2", "Other group", "g7", false, new ArrayList<>()));
+
+        interactor.execute(new ViewGroupTasksInputData("g6", token));
+
+        List<String> changed = new ArrayList<>();
+        for (ViewGroupTasksOutputData.TaskDTO dto : presenter.changes.getChangedTasks()) {
+            changed.add(dto.getId());
+        }
+        assertEquals(List.of("a", "c"), changed);
+        assertTrue(presenter.changes.getChangedTasks().get(0).isCompleted());
+
+        // nothing changed since the new token
+        interactor.execute(new ViewGroupTasksInputData("g6", presenter.changes.getSyncToken()));
+        assertTrue(presenter.changes.getChangedTasks().isEmpty());
+        assertEquals(1, presenter.pages.size());
+    }
+
+    @Test
+    void testTokenOfAnotherGroupLoadsEveryTask() {
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        InMemoryGroupDataAccessObject groupDAO = new InMemoryGroupDataAccessObject();
+        groupDAO.save(new Group("One", "g8", GroupType.PROJECT));
+        taskDAO.upsertTask(new Task("a", "First", "g8", false, new ArrayList<>()));
+
+        TestPresenter presenter = new TestPresenter();
+        new ViewGroupTasksInteractor(taskDAO, presenter, groupDAO)
+                .execute(new ViewGroupTasksInputData("g8", taskDAO.getSyncToken("g9")));
+
+        assertNull(presenter.changes);
+        assertEquals(1, presenter.getReceived().getTasks().size());
+        assertFalse(presenter.getReceived().isAppend());
+    }
 }
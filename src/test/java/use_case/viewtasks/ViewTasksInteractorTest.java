@@ -39,7 +39,7 @@ public class ViewTasksInteractorTest {
     void testNullTaskIsSkipped() {
         ViewTasksDataAccessInterface taskDAO = new ViewTasksDataAccessInterface() {
             @Override
-            public List<Task> getTasksForUser(String username) {
+            public List<Task> findTasks(TaskQuery query) {
                 List<Task> list = new ArrayList<>();
                 list.add(null);
                 return list;
@@ -237,4 +237,58 @@ public class ViewTasksInteractorTest {
         assertEquals("Valid 1", result.get(0).getDescription());
         assertEquals("Valid 2", result.get(1).getDescription());
     }
+
+    @Test
+    void testTasksSortedByDueDate() {
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        InMemoryUserDataAccessObject userDAO = new InMemoryUserDataAccessObject();
+        userDAO.setCurrentUsername("eva");
+
+        Task later = new Task("id1", "Later", "g1", false, new ArrayList<>(List.of("eva")),
+                LocalDateTime.now().plusDays(5));
+        Task sooner = new Task("id2", "Sooner", "g1", false, new ArrayList<>(List.of("eva")),
+                LocalDateTime.now().plusDays(1));
+        Task noDate = new Task("id3", "No Date", "g1", false, new ArrayList<>(List.of("eva")));
+        taskDAO.upsertTask(later);
+        taskDAO.upsertTask(sooner);
+        taskDAO.upsertTask(noDate);
+
+        TestPresenter presenter = new TestPresenter();
+        new ViewTasksInteractor(taskDAO, presenter, userDAO).execute();
+
+        List<ViewTasksOutputData.TaskDTO> result = presenter.getReceived().getTasks();
+        assertEquals(3, result.size());
+        assertEquals("No Date", result.get(0).getDescription());
+        assertEquals("Sooner", result.get(1).getDescription());
+        assertEquals("Later", result.get(2).getDescription());
+    }
+
+    @Test
+    void testQueryFiltersByGroupRangeAndLimit() {
+        InMemoryTaskDataAccessObject taskDAO = new InMemoryTaskDataAccessObject();
+        LocalDateTime now = LocalDateTime.now();
+
+        taskDAO.upsertTask(new Task("id1", "In Range", "g1", false, new ArrayList<>(List.of("eva")),
+                now.plusDays(1)));
+        taskDAO.upsertTask(new Task("id2", "Also In Range", "g1", false, new ArrayList<>(List.of("eva")),
+                now.plusDays(2)));
+        taskDAO.upsertTask(new Task("id3", "Too Late", "g1", false, new ArrayList<>(List.of("eva")),
+                now.plusDays(10)));
+        taskDAO.upsertTask(new Task("id4", "Other Group", "g2", false, new ArrayList<>(List.of("eva")),
+                now.plusDays(1)));
+        taskDAO.upsertTask(new Task("id5", "No Date", "g1", false, new ArrayList<>(List.of("eva"))));
+        taskDAO.upsertTask(new Task("id6", "Not Assigned", "g1", false, new ArrayList<>(List.of("bob")),
+                now.plusDays(1)));
+
+        List<Task> result = taskDAO.findTasks(new TaskQuery("eva")
+                .inGroups(List.of("g1"))
+                .dueFrom(now)
+                .dueBefore(now.plusDays(7))
+                .excludingTasksWithoutDueDate()
+                .sortedByDueDate()
+                .limit(1));
+
+        assertEquals(1, result.size());
+        assertEquals("In Range", result.get(0).getDescription());
+    }
 }